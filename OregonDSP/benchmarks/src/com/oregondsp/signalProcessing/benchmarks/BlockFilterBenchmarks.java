@@ -0,0 +1,114 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+import com.oregondsp.signalProcessing.filter.fir.DirectFormFIR;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd_dp;
+import com.oregondsp.signalProcessing.filter.fir.OverlapSave;
+
+/**
+ * The FIR block filters swept over block length and kernel length.  Times are per block.  OverlapAdd_dp filters a
+ * block that has already been transformed, so its time includes the forward transform of the block by a DFT just
+ * long enough for the kernel, as a caller would do.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BlockFilterBenchmarks {
+
+	@Param( { "256", "1024", "4096" } )
+	int blockSize;
+
+	@Param( { "31", "127", "511", "2047" } )
+	int kernelLength;
+
+	OverlapAdd    oa;
+	DirectFormFIR df;
+	OverlapSave   os;
+	OverlapAdd_dp oadp;
+	RDFTdp        fft;
+
+	float[]  x, y;
+	double[] dx, dX, dy;
+
+
+	@Setup
+	public void setUp() {
+
+		oa = new OverlapAdd( Signals.gaussian( kernelLength ), blockSize );
+		df = new DirectFormFIR( Signals.gaussian( kernelLength ), blockSize );
+		os = new OverlapSave( Signals.gaussian( kernelLength ), blockSize );
+
+		int log2N = 32 - Integer.numberOfLeadingZeros( blockSize + kernelLength - 2 );
+		fft  = new RDFTdp( log2N );
+		oadp = new OverlapAdd_dp( Signals.gaussiandp( kernelLength ), blockSize, fft );
+
+		x  = Signals.gaussian( blockSize );
+		y  = new float[ blockSize ];
+		dx = Signals.gaussiandp( blockSize );
+		dX = new double[ 1 << log2N ];
+		dy = new double[ blockSize ];
+	}
+
+
+	@Benchmark
+	public float OverlapAdd_filter() {
+		oa.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float DirectFormFIR_filter() {
+		df.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float OverlapSave_filter() {
+		os.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public double OverlapAdd_dp_filter() {
+		fft.evaluate( dx, 0, blockSize, dX );
+		oadp.filter( dX, dy, 0 );
+		return dy[0];
+	}
+
+}
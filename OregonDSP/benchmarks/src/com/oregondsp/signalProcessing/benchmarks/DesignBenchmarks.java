@@ -0,0 +1,90 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.filter.fir.equiripple.EquirippleBandpass;
+import com.oregondsp.signalProcessing.filter.fir.equiripple.EquirippleHighpass;
+import com.oregondsp.signalProcessing.filter.fir.equiripple.EquirippleLowpass;
+
+/**
+ * The Remez exchange designers for lowpass, highpass and bandpass filters, swept over the design order.  Times are per
+ * design.  The designers report their progress on System.out, which is discarded while the benchmarks run.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class DesignBenchmarks {
+
+	@Param( { "16", "32", "64", "128" } )
+	int order;
+
+	private PrintStream console;
+
+
+	@Setup
+	public void setUp() {
+		console = System.out;
+		System.setOut( new PrintStream( new OutputStream() {
+			public void write( int b ) { }
+			public void write( byte[] b, int off, int len ) { }
+		} ) );
+	}
+
+
+	@TearDown
+	public void tearDown() {
+		System.setOut( console );
+	}
+
+
+	@Benchmark
+	public float EquirippleLowpass_design() {
+		return new EquirippleLowpass( order, 0.2, 1.0, 0.3, 1.0 ).getCoefficients()[0];
+	}
+
+
+	@Benchmark
+	public float EquirippleHighpass_design() {
+		return new EquirippleHighpass( order, 0.2, 1.0, 0.3, 1.0 ).getCoefficients()[0];
+	}
+
+
+	@Benchmark
+	public float EquirippleBandpass_design() {
+		return new EquirippleBandpass( order, 0.1, 1.0, 0.2, 0.4, 1.0, 0.5, 1.0 ).getCoefficients()[0];
+	}
+
+}
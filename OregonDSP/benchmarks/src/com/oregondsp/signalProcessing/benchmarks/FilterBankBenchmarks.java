@@ -0,0 +1,93 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAddBank;
+
+/**
+ * A bank of kernels applied to one stream:  a master OverlapAdd with slaves, each transforming the block itself,
+ * against OverlapAddBank, which transforms it once for all kernels.  Times are per block through the whole bank.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FilterBankBenchmarks {
+
+	@Param( { "8", "32" } )
+	int nKernels;
+
+	@Param( { "1024" } )
+	int blockSize;
+
+	@Param( { "511" } )
+	int kernelLength;
+
+	OverlapAdd[]   oa;
+	OverlapAddBank bank;
+
+	float[]   x;
+	float[][] y;
+
+
+	@Setup
+	public void setUp() {
+
+		float[][] H = new float[ nKernels ][];
+		for ( int k = 0;  k < nKernels;  k++ ) H[k] = Signals.gaussian( kernelLength );
+
+		oa    = new OverlapAdd[ nKernels ];
+		oa[0] = new OverlapAdd( H[0], blockSize );
+		for ( int k = 1;  k < nKernels;  k++ ) oa[k] = new OverlapAdd( H[k], oa[0] );
+
+		bank = new OverlapAddBank( H, blockSize );
+
+		x = Signals.gaussian( blockSize );
+		y = new float[ nKernels ][ blockSize ];
+	}
+
+
+	@Benchmark
+	public float OverlapAdd_filter() {
+		for ( int k = 0;  k < nKernels;  k++ ) oa[k].filter( x, 0, y[k], 0 );
+		return y[0][0];
+	}
+
+
+	@Benchmark
+	public float OverlapAddBank_filter() {
+		bank.filter( x, 0, y, 0 );
+		return y[0][0];
+	}
+
+}
@@ -0,0 +1,90 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
+import com.oregondsp.signalProcessing.filter.fir.PartitionedConvolver;
+
+/**
+ * Long kernels at low latency:  one-shot OverlapAdd, whose DFT spans the whole kernel, against PartitionedConvolver
+ * with uniform partitions of the block length and with partitions growing to 16 blocks.  Times are per block.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class LongKernelBenchmarks {
+
+	@Param( { "256" } )
+	int blockSize;
+
+	@Param( { "16384", "65536" } )
+	int kernelLength;
+
+	OverlapAdd           oa;
+	PartitionedConvolver uniform;
+	PartitionedConvolver growing;
+
+	float[] x, y;
+
+
+	@Setup
+	public void setUp() {
+		oa      = new OverlapAdd( Signals.gaussian( kernelLength ), blockSize );
+		uniform = new PartitionedConvolver( Signals.gaussian( kernelLength ), blockSize, blockSize );
+		growing = new PartitionedConvolver( Signals.gaussian( kernelLength ), blockSize, 16*blockSize );
+		x       = Signals.gaussian( blockSize );
+		y       = new float[ blockSize ];
+	}
+
+
+	@Benchmark
+	public float OverlapAdd_filter() {
+		oa.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float PartitionedConvolver_uniform() {
+		uniform.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float PartitionedConvolver_nonUniform() {
+		growing.filter( x, 0, y, 0 );
+		return y[0];
+	}
+
+}
@@ -0,0 +1,84 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.filter.iir.Butterworth;
+import com.oregondsp.signalProcessing.filter.iir.IIRFilter;
+import com.oregondsp.signalProcessing.filter.iir.PassbandType;
+import com.oregondsp.signalProcessing.filter.iir.ThiranAllpass;
+
+/**
+ * IIRFilter (a Butterworth bandpass) and Allpass (a Thiran fractional delay) swept over block length and order.
+ * Times are per block.  The allpass filters in place, so each block is first copied from the input.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class RecursiveFilterBenchmarks {
+
+	@Param( { "256", "1024", "4096" } )
+	int blockSize;
+
+	@Param( { "2", "4", "8" } )
+	int order;
+
+	IIRFilter     iir;
+	ThiranAllpass allpass;
+
+	float[] x, y;
+
+
+	@Setup
+	public void setUp() {
+		iir     = new Butterworth( order, PassbandType.BANDPASS, 1.0, 10.0, 0.01 );
+		allpass = new ThiranAllpass( order, order - 0.5 );
+		x       = Signals.gaussian( blockSize );
+		y       = new float[ blockSize ];
+	}
+
+
+	@Benchmark
+	public float IIRFilter_filter() {
+		iir.filter( x, y );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float Allpass_filter() {
+		System.arraycopy( x, 0, y, 0, blockSize );
+		allpass.filter( y );
+		return y[0];
+	}
+
+}
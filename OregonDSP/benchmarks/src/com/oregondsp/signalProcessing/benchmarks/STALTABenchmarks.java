@@ -0,0 +1,68 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.SimpleSTALTA;
+
+/**
+ * SimpleSTALTA, which filters one sample per call, over a block of samples.  Times are per block, for comparison with
+ * the block filters.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class STALTABenchmarks {
+
+	@Param( { "256", "1024", "4096" } )
+	int blockSize;
+
+	SimpleSTALTA stalta;
+
+	float[] x;
+
+
+	@Setup
+	public void setUp() {
+		stalta = new SimpleSTALTA( 1.0, 10.0, 0.5, 0.01, 1.0 );
+		x      = Signals.gaussian( blockSize );
+	}
+
+
+	@Benchmark
+	public float SimpleSTALTA_filter() {
+		float s = 0.0f;
+		for ( int i = 0;  i < blockSize;  i++ ) s += stalta.filter( x[i] );
+		return s;
+	}
+
+}
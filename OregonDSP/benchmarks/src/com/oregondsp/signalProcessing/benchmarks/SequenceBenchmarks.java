@@ -0,0 +1,118 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.Sequence;
+
+/**
+ * The Sequence operations on float sequences, swept over the sequence length.  Times are per operation.  The
+ * in-place operations work on the same array every time;  zeroShift, which destroys its input, is given a fresh copy.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SequenceBenchmarks {
+
+	@Param( { "1024", "16384", "262144" } )
+	int N;
+
+	float[] x, y, yd, ys, yp;
+
+
+	@Setup
+	public void setUp() {
+		x  = Signals.gaussian( N );
+		y  = x.clone();
+		yd = new float[ N/4 ];
+		ys = new float[ 4*N ];
+		yp = new float[ 2*N ];
+	}
+
+
+	@Benchmark
+	public float reverse() {
+		Sequence.reverse( y );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float rmean() {
+		Sequence.rmean( y );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float circularShift() {
+		Sequence.circularShift( y, N/3 );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float zeroShift() {
+		System.arraycopy( x, 0, y, 0, N );
+		Sequence.zeroShift( y, N/3 );
+		return y[N-1];
+	}
+
+
+	@Benchmark
+	public float decimate() {
+		Sequence.decimate( x, 4, yd );
+		return yd[1];
+	}
+
+
+	@Benchmark
+	public float stretch() {
+		Sequence.stretch( x, 4, ys );
+		return ys[4];
+	}
+
+
+	@Benchmark
+	public float timesEquals() {
+		Sequence.timesEquals( y, -1.0f );
+		return y[0];
+	}
+
+
+	@Benchmark
+	public float pad() {
+		Sequence.pad( x, yp );
+		return yp[N-1];
+	}
+
+}
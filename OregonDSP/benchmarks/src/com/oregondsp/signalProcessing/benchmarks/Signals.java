@@ -0,0 +1,42 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Test sequences for the benchmarks:  white Gaussian noise from a fixed seed, so that every run and every fork sees
+ * the same data.
+ */
+class Signals {
+
+	private static final Random R = new Random( 4711 );
+
+
+	static float[] gaussian( int n ) {
+		float[] x = new float[ n ];
+		for ( int i = 0;  i < n;  i++ ) x[i] = (float) R.nextGaussian();
+		return x;
+	}
+
+
+	static double[] gaussiandp( int n ) {
+		double[] x = new double[ n ];
+		for ( int i = 0;  i < n;  i++ ) x[i] = R.nextGaussian();
+		return x;
+	}
+
+}
@@ -0,0 +1,132 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oregondsp.signalProcessing.fft.CDFT;
+import com.oregondsp.signalProcessing.fft.CDFTdp;
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+
+/**
+ * Forward transforms of CDFT, CDFTdp, RDFT and RDFTdp, and inverse transforms of the real DFTs, for N = 2^6 to 2^16.
+ * Times are per transform.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TransformBenchmarks {
+
+	@Param( { "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16" } )
+	int log2N;
+
+	CDFT   cdft;
+	CDFTdp cdftdp;
+	RDFT   rdft;
+	RDFTdp rdftdp;
+
+	float[]  xr, xi, Xr, Xi, x, X, y;
+	double[] dxr, dxi, dXr, dXi, dx, dX, dy;
+
+
+	@Setup
+	public void setUp() {
+
+		int N = 1 << log2N;
+
+		cdft   = new CDFT( log2N );
+		cdftdp = new CDFTdp( log2N );
+		rdft   = new RDFT( log2N );
+		rdftdp = new RDFTdp( log2N );
+
+		xr  = Signals.gaussian( N );
+		xi  = Signals.gaussian( N );
+		x   = Signals.gaussian( N );
+		Xr  = new float[ N ];
+		Xi  = new float[ N ];
+		X   = new float[ N ];
+		y   = new float[ N ];
+		rdft.evaluate( x, X );
+
+		dxr = Signals.gaussiandp( N );
+		dxi = Signals.gaussiandp( N );
+		dx  = Signals.gaussiandp( N );
+		dXr = new double[ N ];
+		dXi = new double[ N ];
+		dX  = new double[ N ];
+		dy  = new double[ N ];
+		rdftdp.evaluate( dx, dX );
+	}
+
+
+	@Benchmark
+	public float CDFT_evaluate() {
+		cdft.evaluate( xr, xi, Xr, Xi );
+		return Xr[1];
+	}
+
+
+	@Benchmark
+	public double CDFTdp_evaluate() {
+		cdftdp.evaluate( dxr, dxi, dXr, dXi );
+		return dXr[1];
+	}
+
+
+	@Benchmark
+	public float RDFT_evaluate() {
+		rdft.evaluate( x, X );
+		return X[1];
+	}
+
+
+	@Benchmark
+	public float RDFT_evaluateInverse() {
+		rdft.evaluateInverse( X, y );
+		return y[1];
+	}
+
+
+	@Benchmark
+	public double RDFTdp_evaluate() {
+		rdftdp.evaluate( dx, dX );
+		return dX[1];
+	}
+
+
+	@Benchmark
+	public double RDFTdp_evaluateInverse() {
+		rdftdp.evaluateInverse( dX, dy );
+		return dy[1];
+	}
+
+}
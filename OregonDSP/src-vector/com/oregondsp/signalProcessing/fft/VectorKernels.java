@@ -0,0 +1,623 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Package-private class implementing the FFTKernels loops with the incubating Vector API.
+ *
+ * This class is compiled separately from the main (Java 8) source folder, against the main classes:
+ *
+ * <p>
+ * <font face="courier">
+ *   javac --release 17 --add-modules jdk.incubator.vector -cp bin -d bin src-vector/com/oregondsp/signalProcessing/fft/VectorKernels.java
+ * </font>
+ * </p>
+ *
+ * and is selected automatically by FFTKernels when the JVM is started with --add-modules jdk.incubator.vector.  Each
+ * loop processes one preferred-species vector of k values per iteration and completes any remainder with the scalar
+ * code inherited from FFTKernels.  Loops that pair index k with a mirrored index (N/2-k, N-k) load and store the
+ * mirrored elements with a lane-reversing shuffle.  Loops over interleaved complex data keep the real and imaginary
+ * parts of each element in adjacent lanes and exchange them with a pair-swapping shuffle.
+ */
+class VectorKernels extends FFTKernels {
+
+  private static final VectorSpecies< Float >  FS   = FloatVector.SPECIES_PREFERRED;
+  private static final VectorSpecies< Double > DS   = DoubleVector.SPECIES_PREFERRED;
+
+  private static final int                     FL   = FS.length();
+  private static final int                     DL   = DS.length();
+
+  /** Shuffles reversing the order of the lanes. */
+  private static final VectorShuffle< Float >  FREV = VectorShuffle.fromOp( FS, i -> FL - 1 - i );
+  private static final VectorShuffle< Double > DREV = VectorShuffle.fromOp( DS, i -> DL - 1 - i );
+
+  /** Shuffles exchanging the lanes of each pair, and copying the even lane, the odd lane or lane i/2 into each pair. */
+  private static final VectorShuffle< Float >  FSWP = VectorShuffle.fromOp( FS, i -> i ^ 1 );
+  private static final VectorShuffle< Double > DSWP = VectorShuffle.fromOp( DS, i -> i ^ 1 );
+  private static final VectorShuffle< Float >  FEVN = VectorShuffle.fromOp( FS, i -> i & ~1 );
+  private static final VectorShuffle< Double > DEVN = VectorShuffle.fromOp( DS, i -> i & ~1 );
+  private static final VectorShuffle< Float >  FODD = VectorShuffle.fromOp( FS, i -> i | 1 );
+  private static final VectorShuffle< Double > DODD = VectorShuffle.fromOp( DS, i -> i | 1 );
+  private static final VectorShuffle< Float >  FDUP = VectorShuffle.fromOp( FS, i -> i >> 1 );
+  private static final VectorShuffle< Double > DDUP = VectorShuffle.fromOp( DS, i -> i >> 1 );
+
+  /** Signs -1, +1, -1, +1, ... which, applied to a vector of exchanged pairs, multiply its elements by i. */
+  private static final FloatVector             FALT = FloatVector.fromArray( FS, alternating( FL ), 0 );
+  private static final DoubleVector            DALT = DoubleVector.fromArray( DS, alternatingdp( DL ), 0 );
+
+
+
+  VectorKernels() {
+  }
+
+
+  private static float[] alternating( int n ) {
+    float[] a = new float[ n ];
+    for ( int i = 0;  i < n;  i++ ) a[i] = ( i % 2 == 0 )  ?  -1.0f  :  1.0f;
+    return a;
+  }
+
+
+
+  private static double[] alternatingdp( int n ) {
+    double[] a = new double[ n ];
+    for ( int i = 0;  i < n;  i++ ) a[i] = ( i % 2 == 0 )  ?  -1.0  :  1.0;
+    return a;
+  }
+
+
+
+
+  @Override
+  boolean isVectorized() {
+    return true;
+  }
+
+
+
+  @Override
+  void butterflies( float[] Xr, float[] Xi, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3 ) {
+
+    int k     = 0;
+    int bound = FS.loopBound( N4 );
+    for ( ;  k < bound;  k += FL ) {
+
+      int kp    = o    + k;
+      int kpN4  = kp   + N4;
+      int kpN2  = kpN4 + N4;
+      int kp3N4 = kpN2 + N4;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      FloatVector Wr  = FloatVector.fromArray( FS, c1, k );
+      FloatVector Wi  = FloatVector.fromArray( FS, s1, k );
+      FloatVector Or  = FloatVector.fromArray( FS, Xr, kpN2 );
+      FloatVector Oi  = FloatVector.fromArray( FS, Xi, kpN2 );
+      FloatVector T1r = Wr.mul( Or ).sub( Wi.mul( Oi ) );
+      FloatVector T1i = Wr.mul( Oi ).add( Wi.mul( Or ) );
+      Wr = FloatVector.fromArray( FS, c3, k );
+      Wi = FloatVector.fromArray( FS, s3, k );
+      Or = FloatVector.fromArray( FS, Xr, kp3N4 );
+      Oi = FloatVector.fromArray( FS, Xi, kp3N4 );
+      FloatVector T3r = Wr.mul( Or ).sub( Wi.mul( Oi ) );
+      FloatVector T3i = Wr.mul( Oi ).add( Wi.mul( Or ) );
+
+      // R = T1 + T3
+      // S = i*(T1 - T3)
+
+      FloatVector Rr = T1r.add( T3r );
+      FloatVector Ri = T1i.add( T3i );
+      FloatVector Sr = T3i.sub( T1i );
+      FloatVector Si = T1r.sub( T3r );
+
+      FloatVector Ar = FloatVector.fromArray( FS, Xr, kp );
+      FloatVector Ai = FloatVector.fromArray( FS, Xi, kp );
+      FloatVector Br = FloatVector.fromArray( FS, Xr, kpN4 );
+      FloatVector Bi = FloatVector.fromArray( FS, Xi, kpN4 );
+
+      Ar.sub( Rr ).intoArray( Xr, kpN2 );
+      Ai.sub( Ri ).intoArray( Xi, kpN2 );
+      Br.add( Sr ).intoArray( Xr, kp3N4 );
+      Bi.add( Si ).intoArray( Xi, kp3N4 );
+
+      Ar.add( Rr ).intoArray( Xr, kp );
+      Ai.add( Ri ).intoArray( Xi, kp );
+      Br.sub( Sr ).intoArray( Xr, kpN4 );
+      Bi.sub( Si ).intoArray( Xi, kpN4 );
+    }
+
+    butterflies( Xr, Xi, o, N4, c1, s1, c3, s3, k );
+  }
+
+
+  @Override
+  void interleavedButterflies( float[] z, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3, float sign ) {
+
+    // Each iteration takes L/2 complex elements from each quarter of the block, with the real and imaginary parts
+    // of an element in adjacent lanes.  Twiddle factor k is copied into both lanes of pair k, and the product W*O
+    // is formed as Wr*( Or, Oi ) + Wi*( -Oi, Or ).
+
+    int         d     = 2*N4;
+    int         h     = FL/2;
+    FloatVector isign = FALT.mul( sign );
+    int         k     = 0;
+    for ( ;  k + FL <= N4;  k += h ) {
+
+      int kp    = 2*( o + k );
+      int kpN4  = kp   + d;
+      int kpN2  = kpN4 + d;
+      int kp3N4 = kpN2 + d;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      FloatVector Wr = FloatVector.fromArray( FS, c1, k ).rearrange( FDUP );
+      FloatVector Wi = FloatVector.fromArray( FS, s1, k ).rearrange( FDUP ).mul( isign );
+      FloatVector O  = FloatVector.fromArray( FS, z, kpN2 );
+      FloatVector T1 = Wr.mul( O ).add( Wi.mul( O.rearrange( FSWP ) ) );
+      Wr = FloatVector.fromArray( FS, c3, k ).rearrange( FDUP );
+      Wi = FloatVector.fromArray( FS, s3, k ).rearrange( FDUP ).mul( isign );
+      O  = FloatVector.fromArray( FS, z, kp3N4 );
+      FloatVector T3 = Wr.mul( O ).add( Wi.mul( O.rearrange( FSWP ) ) );
+
+      // R = T1 + T3
+      // S = i*(T1 - T3), or -i*(T1 - T3) for the inverse
+
+      FloatVector R = T1.add( T3 );
+      FloatVector S = T1.sub( T3 ).rearrange( FSWP ).mul( isign );
+
+      FloatVector A = FloatVector.fromArray( FS, z, kp );
+      FloatVector B = FloatVector.fromArray( FS, z, kpN4 );
+
+      A.sub( R ).intoArray( z, kpN2 );
+      B.add( S ).intoArray( z, kp3N4 );
+      A.add( R ).intoArray( z, kp );
+      B.sub( S ).intoArray( z, kpN4 );
+    }
+
+    interleavedButterflies( z, o, N4, c1, s1, c3, s3, sign, k );
+  }
+
+
+
+
+  @Override
+  void realForward( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // lanes k ... k+L-1 pair with N/2-k ... N/2-k-L+1, which are loaded and stored in reversed lane order
+
+    int k = 1;
+    for ( ;  k + FL <= N4;  k += FL ) {
+
+      int N2mk = N2 - k - FL + 1;
+      int Nmk  = N  - k - FL + 1;
+
+      FloatVector Xrk    = FloatVector.fromArray( FS, Xr, k );
+      FloatVector Xik    = FloatVector.fromArray( FS, Xi, k );
+      FloatVector XrN2mk = FloatVector.fromArray( FS, Xr, N2mk ).rearrange( FREV );
+      FloatVector XiN2mk = FloatVector.fromArray( FS, Xi, N2mk ).rearrange( FREV );
+
+      FloatVector Sr = Xrk.add( XrN2mk ).mul( 0.5f );
+      FloatVector Si = Xik.sub( XiN2mk ).mul( 0.5f );
+      FloatVector Dr = Xik.add( XiN2mk ).mul( 0.5f );
+      FloatVector Di = XrN2mk.sub( Xrk ).mul( 0.5f );
+
+      FloatVector C  = FloatVector.fromArray( FS, c, k );
+      FloatVector S  = FloatVector.fromArray( FS, s, k );
+      FloatVector tmp = C.mul( Dr ).add( S.mul( Di ) );
+      Di = C.mul( Di ).sub( S.mul( Dr ) );
+      Dr = tmp;
+
+      Sr.add( Dr ).intoArray( X, k );
+      Si.add( Di ).rearrange( FREV ).intoArray( X, Nmk );
+      Sr.sub( Dr ).rearrange( FREV ).intoArray( X, N2mk );
+      Di.sub( Si ).intoArray( X, N2 + k );
+    }
+
+    realForward( X, Xr, Xi, c, s, N, k );
+  }
+
+
+
+  @Override
+  void realInverse( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // 1 <= k < N/4
+
+    int k0 = 1;
+    for ( ;  k0 + FL <= N4;  k0 += FL ) {
+
+      int k = k0;
+      FloatVector Xrk    = FloatVector.fromArray( FS, X, k );
+      FloatVector Xik    = FloatVector.fromArray( FS, X, N  - k - FL + 1 ).rearrange( FREV );
+      FloatVector XrkpN2 = FloatVector.fromArray( FS, X, N2 - k - FL + 1 ).rearrange( FREV );
+      FloatVector XikpN2 = FloatVector.fromArray( FS, X, N2 + k ).neg();
+
+      FloatVector Dr = Xrk.sub( XrkpN2 );
+      FloatVector Di = Xik.sub( XikpN2 );
+      FloatVector C  = FloatVector.fromArray( FS, c, k );
+      FloatVector S  = FloatVector.fromArray( FS, s, k );
+
+      Xrk.add( XrkpN2 ).sub( S.mul( Dr ) ).sub( C.mul( Di ) ).intoArray( Xr, k );
+      Xik.add( XikpN2 ).add( C.mul( Dr ) ).sub( S.mul( Di ) ).intoArray( Xi, k );
+    }
+
+    // N/4 < k < N/2, with the tables read backwards from N/2-k
+
+    int k1 = N4 + 1;
+    for ( ;  k1 + FL <= N2;  k1 += FL ) {
+
+      int k = k1;
+      int reflect = N2 - k - FL + 1;
+      FloatVector Xrk    = FloatVector.fromArray( FS, X, k );
+      FloatVector Xik    = FloatVector.fromArray( FS, X, N  - k - FL + 1 ).rearrange( FREV );
+      FloatVector XrkpN2 = FloatVector.fromArray( FS, X, N2 - k - FL + 1 ).rearrange( FREV );
+      FloatVector XikpN2 = FloatVector.fromArray( FS, X, N2 + k ).neg();
+
+      FloatVector Dr = Xrk.sub( XrkpN2 );
+      FloatVector Di = Xik.sub( XikpN2 );
+      FloatVector C  = FloatVector.fromArray( FS, c, reflect ).rearrange( FREV );
+      FloatVector S  = FloatVector.fromArray( FS, s, reflect ).rearrange( FREV );
+
+      Xrk.add( XrkpN2 ).sub( S.mul( Dr ) ).add( C.mul( Di ) ).intoArray( Xr, k );
+      Xik.add( XikpN2 ).sub( C.mul( Dr ) ).sub( S.mul( Di ) ).intoArray( Xi, k );
+    }
+
+    realInverse( X, Xr, Xi, c, s, N, k0, k1 );
+  }
+
+
+
+  @Override
+  void complexProduct( float[] Xr, float[] Xi, float[] Yr, float[] Yi, float sign ) {
+
+    int i     = 0;
+    int bound = FS.loopBound( Xr.length );
+    for ( ;  i < bound;  i += FL ) {
+      FloatVector xr = FloatVector.fromArray( FS, Xr, i );
+      FloatVector xi = FloatVector.fromArray( FS, Xi, i ).mul( sign );
+      FloatVector yr = FloatVector.fromArray( FS, Yr, i );
+      FloatVector yi = FloatVector.fromArray( FS, Yi, i );
+      xr.mul( yr ).sub( xi.mul( yi ) ).intoArray( Yr, i );
+      xr.mul( yi ).add( xi.mul( yr ) ).intoArray( Yi, i );
+    }
+
+    complexProduct( Xr, Xi, Yr, Yi, sign, i );
+  }
+
+
+  @Override
+  void interleavedProduct( float[] X, float[] Y, float sign ) {
+
+    // with x = ( xr, xi ) and y = ( yr, yi ) in adjacent lanes, x*y = ( xr, xr )*( yr, yi ) + ( xi, xi )*( -yi, yr )
+
+    FloatVector isign = FALT.mul( sign );
+    int         i     = 0;
+    int         bound = FS.loopBound( X.length );
+    for ( ;  i < bound;  i += FL ) {
+      FloatVector x = FloatVector.fromArray( FS, X, i );
+      FloatVector y = FloatVector.fromArray( FS, Y, i );
+      x.rearrange( FEVN ).mul( y ).add( x.rearrange( FODD ).mul( y.rearrange( FSWP ) ).mul( isign ) ).intoArray( Y, i );
+    }
+
+    interleavedProduct( X, Y, sign, i );
+  }
+
+
+
+
+  @Override
+  void packedProduct( float[] kernel, float[] transform, float sign ) {
+
+    int n    = kernel.length;
+    int half = n/2;
+    transform[0]    *= kernel[0];
+    transform[half] *= kernel[half];
+
+    // lanes i ... i+L-1 pair with n-i ... n-i-L+1, which are loaded and stored in reversed lane order
+
+    int i = 1;
+    for ( ;  i + FL <= half;  i += FL ) {
+      int im = n - i - FL + 1;
+      FloatVector kr = FloatVector.fromArray( FS, kernel, i );
+      FloatVector ki = FloatVector.fromArray( FS, kernel, im ).rearrange( FREV ).mul( sign );
+      FloatVector tr = FloatVector.fromArray( FS, transform, i );
+      FloatVector ti = FloatVector.fromArray( FS, transform, im ).rearrange( FREV );
+      kr.mul( tr ).sub( ki.mul( ti ) ).intoArray( transform, i );
+      kr.mul( ti ).add( ki.mul( tr ) ).rearrange( FREV ).intoArray( transform, im );
+    }
+
+    packedProduct( kernel, transform, sign, i );
+  }
+
+
+
+  @Override
+  void butterflies( double[] Xr, double[] Xi, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3 ) {
+
+    int k     = 0;
+    int bound = DS.loopBound( N4 );
+    for ( ;  k < bound;  k += DL ) {
+
+      int kp    = o    + k;
+      int kpN4  = kp   + N4;
+      int kpN2  = kpN4 + N4;
+      int kp3N4 = kpN2 + N4;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      DoubleVector Wr  = DoubleVector.fromArray( DS, c1, k );
+      DoubleVector Wi  = DoubleVector.fromArray( DS, s1, k );
+      DoubleVector Or  = DoubleVector.fromArray( DS, Xr, kpN2 );
+      DoubleVector Oi  = DoubleVector.fromArray( DS, Xi, kpN2 );
+      DoubleVector T1r = Wr.mul( Or ).sub( Wi.mul( Oi ) );
+      DoubleVector T1i = Wr.mul( Oi ).add( Wi.mul( Or ) );
+      Wr = DoubleVector.fromArray( DS, c3, k );
+      Wi = DoubleVector.fromArray( DS, s3, k );
+      Or = DoubleVector.fromArray( DS, Xr, kp3N4 );
+      Oi = DoubleVector.fromArray( DS, Xi, kp3N4 );
+      DoubleVector T3r = Wr.mul( Or ).sub( Wi.mul( Oi ) );
+      DoubleVector T3i = Wr.mul( Oi ).add( Wi.mul( Or ) );
+
+      // R = T1 + T3
+      // S = i*(T1 - T3)
+
+      DoubleVector Rr = T1r.add( T3r );
+      DoubleVector Ri = T1i.add( T3i );
+      DoubleVector Sr = T3i.sub( T1i );
+      DoubleVector Si = T1r.sub( T3r );
+
+      DoubleVector Ar = DoubleVector.fromArray( DS, Xr, kp );
+      DoubleVector Ai = DoubleVector.fromArray( DS, Xi, kp );
+      DoubleVector Br = DoubleVector.fromArray( DS, Xr, kpN4 );
+      DoubleVector Bi = DoubleVector.fromArray( DS, Xi, kpN4 );
+
+      Ar.sub( Rr ).intoArray( Xr, kpN2 );
+      Ai.sub( Ri ).intoArray( Xi, kpN2 );
+      Br.add( Sr ).intoArray( Xr, kp3N4 );
+      Bi.add( Si ).intoArray( Xi, kp3N4 );
+
+      Ar.add( Rr ).intoArray( Xr, kp );
+      Ai.add( Ri ).intoArray( Xi, kp );
+      Br.sub( Sr ).intoArray( Xr, kpN4 );
+      Bi.sub( Si ).intoArray( Xi, kpN4 );
+    }
+
+    butterflies( Xr, Xi, o, N4, c1, s1, c3, s3, k );
+  }
+
+
+  @Override
+  void interleavedButterflies( double[] z, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3, double sign ) {
+
+    // Each iteration takes L/2 complex elements from each quarter of the block, with the real and imaginary parts
+    // of an element in adjacent lanes.  Twiddle factor k is copied into both lanes of pair k, and the product W*O
+    // is formed as Wr*( Or, Oi ) + Wi*( -Oi, Or ).
+
+    int         d     = 2*N4;
+    int         h     = DL/2;
+    DoubleVector isign = DALT.mul( sign );
+    int         k     = 0;
+    for ( ;  k + DL <= N4;  k += h ) {
+
+      int kp    = 2*( o + k );
+      int kpN4  = kp   + d;
+      int kpN2  = kpN4 + d;
+      int kp3N4 = kpN2 + d;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      DoubleVector Wr = DoubleVector.fromArray( DS, c1, k ).rearrange( DDUP );
+      DoubleVector Wi = DoubleVector.fromArray( DS, s1, k ).rearrange( DDUP ).mul( isign );
+      DoubleVector O  = DoubleVector.fromArray( DS, z, kpN2 );
+      DoubleVector T1 = Wr.mul( O ).add( Wi.mul( O.rearrange( DSWP ) ) );
+      Wr = DoubleVector.fromArray( DS, c3, k ).rearrange( DDUP );
+      Wi = DoubleVector.fromArray( DS, s3, k ).rearrange( DDUP ).mul( isign );
+      O  = DoubleVector.fromArray( DS, z, kp3N4 );
+      DoubleVector T3 = Wr.mul( O ).add( Wi.mul( O.rearrange( DSWP ) ) );
+
+      // R = T1 + T3
+      // S = i*(T1 - T3), or -i*(T1 - T3) for the inverse
+
+      DoubleVector R = T1.add( T3 );
+      DoubleVector S = T1.sub( T3 ).rearrange( DSWP ).mul( isign );
+
+      DoubleVector A = DoubleVector.fromArray( DS, z, kp );
+      DoubleVector B = DoubleVector.fromArray( DS, z, kpN4 );
+
+      A.sub( R ).intoArray( z, kpN2 );
+      B.add( S ).intoArray( z, kp3N4 );
+      A.add( R ).intoArray( z, kp );
+      B.sub( S ).intoArray( z, kpN4 );
+    }
+
+    interleavedButterflies( z, o, N4, c1, s1, c3, s3, sign, k );
+  }
+
+
+
+
+  @Override
+  void realForward( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // lanes k ... k+L-1 pair with N/2-k ... N/2-k-L+1, which are loaded and stored in reversed lane order
+
+    int k = 1;
+    for ( ;  k + DL <= N4;  k += DL ) {
+
+      int N2mk = N2 - k - DL + 1;
+      int Nmk  = N  - k - DL + 1;
+
+      DoubleVector Xrk    = DoubleVector.fromArray( DS, Xr, k );
+      DoubleVector Xik    = DoubleVector.fromArray( DS, Xi, k );
+      DoubleVector XrN2mk = DoubleVector.fromArray( DS, Xr, N2mk ).rearrange( DREV );
+      DoubleVector XiN2mk = DoubleVector.fromArray( DS, Xi, N2mk ).rearrange( DREV );
+
+      DoubleVector Sr = Xrk.add( XrN2mk ).mul( 0.5 );
+      DoubleVector Si = Xik.sub( XiN2mk ).mul( 0.5 );
+      DoubleVector Dr = Xik.add( XiN2mk ).mul( 0.5 );
+      DoubleVector Di = XrN2mk.sub( Xrk ).mul( 0.5 );
+
+      DoubleVector C  = DoubleVector.fromArray( DS, c, k );
+      DoubleVector S  = DoubleVector.fromArray( DS, s, k );
+      DoubleVector tmp = C.mul( Dr ).add( S.mul( Di ) );
+      Di = C.mul( Di ).sub( S.mul( Dr ) );
+      Dr = tmp;
+
+      Sr.add( Dr ).intoArray( X, k );
+      Si.add( Di ).rearrange( DREV ).intoArray( X, Nmk );
+      Sr.sub( Dr ).rearrange( DREV ).intoArray( X, N2mk );
+      Di.sub( Si ).intoArray( X, N2 + k );
+    }
+
+    realForward( X, Xr, Xi, c, s, N, k );
+  }
+
+
+
+  @Override
+  void realInverse( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // 1 <= k < N/4
+
+    int k0 = 1;
+    for ( ;  k0 + DL <= N4;  k0 += DL ) {
+
+      int k = k0;
+      DoubleVector Xrk    = DoubleVector.fromArray( DS, X, k );
+      DoubleVector Xik    = DoubleVector.fromArray( DS, X, N  - k - DL + 1 ).rearrange( DREV );
+      DoubleVector XrkpN2 = DoubleVector.fromArray( DS, X, N2 - k - DL + 1 ).rearrange( DREV );
+      DoubleVector XikpN2 = DoubleVector.fromArray( DS, X, N2 + k ).neg();
+
+      DoubleVector Dr = Xrk.sub( XrkpN2 );
+      DoubleVector Di = Xik.sub( XikpN2 );
+      DoubleVector C  = DoubleVector.fromArray( DS, c, k );
+      DoubleVector S  = DoubleVector.fromArray( DS, s, k );
+
+      Xrk.add( XrkpN2 ).sub( S.mul( Dr ) ).sub( C.mul( Di ) ).intoArray( Xr, k );
+      Xik.add( XikpN2 ).add( C.mul( Dr ) ).sub( S.mul( Di ) ).intoArray( Xi, k );
+    }
+
+    // N/4 < k < N/2, with the tables read backwards from N/2-k
+
+    int k1 = N4 + 1;
+    for ( ;  k1 + DL <= N2;  k1 += DL ) {
+
+      int k = k1;
+      int reflect = N2 - k - DL + 1;
+      DoubleVector Xrk    = DoubleVector.fromArray( DS, X, k );
+      DoubleVector Xik    = DoubleVector.fromArray( DS, X, N  - k - DL + 1 ).rearrange( DREV );
+      DoubleVector XrkpN2 = DoubleVector.fromArray( DS, X, N2 - k - DL + 1 ).rearrange( DREV );
+      DoubleVector XikpN2 = DoubleVector.fromArray( DS, X, N2 + k ).neg();
+
+      DoubleVector Dr = Xrk.sub( XrkpN2 );
+      DoubleVector Di = Xik.sub( XikpN2 );
+      DoubleVector C  = DoubleVector.fromArray( DS, c, reflect ).rearrange( DREV );
+      DoubleVector S  = DoubleVector.fromArray( DS, s, reflect ).rearrange( DREV );
+
+      Xrk.add( XrkpN2 ).sub( S.mul( Dr ) ).add( C.mul( Di ) ).intoArray( Xr, k );
+      Xik.add( XikpN2 ).sub( C.mul( Dr ) ).sub( S.mul( Di ) ).intoArray( Xi, k );
+    }
+
+    realInverse( X, Xr, Xi, c, s, N, k0, k1 );
+  }
+
+
+
+  @Override
+  void complexProduct( double[] Xr, double[] Xi, double[] Yr, double[] Yi, double sign ) {
+
+    int i     = 0;
+    int bound = DS.loopBound( Xr.length );
+    for ( ;  i < bound;  i += DL ) {
+      DoubleVector xr = DoubleVector.fromArray( DS, Xr, i );
+      DoubleVector xi = DoubleVector.fromArray( DS, Xi, i ).mul( sign );
+      DoubleVector yr = DoubleVector.fromArray( DS, Yr, i );
+      DoubleVector yi = DoubleVector.fromArray( DS, Yi, i );
+      xr.mul( yr ).sub( xi.mul( yi ) ).intoArray( Yr, i );
+      xr.mul( yi ).add( xi.mul( yr ) ).intoArray( Yi, i );
+    }
+
+    complexProduct( Xr, Xi, Yr, Yi, sign, i );
+  }
+
+
+  @Override
+  void interleavedProduct( double[] X, double[] Y, double sign ) {
+
+    // with x = ( xr, xi ) and y = ( yr, yi ) in adjacent lanes, x*y = ( xr, xr )*( yr, yi ) + ( xi, xi )*( -yi, yr )
+
+    DoubleVector isign = DALT.mul( sign );
+    int         i     = 0;
+    int         bound = DS.loopBound( X.length );
+    for ( ;  i < bound;  i += DL ) {
+      DoubleVector x = DoubleVector.fromArray( DS, X, i );
+      DoubleVector y = DoubleVector.fromArray( DS, Y, i );
+      x.rearrange( DEVN ).mul( y ).add( x.rearrange( DODD ).mul( y.rearrange( DSWP ) ).mul( isign ) ).intoArray( Y, i );
+    }
+
+    interleavedProduct( X, Y, sign, i );
+  }
+
+
+
+
+  @Override
+  void packedProduct( double[] kernel, double[] transform, double sign ) {
+
+    int n    = kernel.length;
+    int half = n/2;
+    transform[0]    *= kernel[0];
+    transform[half] *= kernel[half];
+
+    // lanes i ... i+L-1 pair with n-i ... n-i-L+1, which are loaded and stored in reversed lane order
+
+    int i = 1;
+    for ( ;  i + DL <= half;  i += DL ) {
+      int im = n - i - DL + 1;
+      DoubleVector kr = DoubleVector.fromArray( DS, kernel, i );
+      DoubleVector ki = DoubleVector.fromArray( DS, kernel, im ).rearrange( DREV ).mul( sign );
+      DoubleVector tr = DoubleVector.fromArray( DS, transform, i );
+      DoubleVector ti = DoubleVector.fromArray( DS, transform, im ).rearrange( DREV );
+      kr.mul( tr ).sub( ki.mul( ti ) ).intoArray( transform, i );
+      kr.mul( ti ).add( ki.mul( tr ) ).rearrange( DREV ).intoArray( transform, im );
+    }
+
+    packedProduct( kernel, transform, sign, i );
+  }
+
+}
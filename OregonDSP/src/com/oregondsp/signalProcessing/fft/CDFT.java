@@ -32,6 +32,25 @@ package com.oregondsp.signalProcessing.fft;
  *  in-place calculations in order to eliminate the bit reversal step.  Consequently, this implementation 
  *  trades memory for speed.</p>
  *  
+ *  <p>The sine and cosine tables and the linked smaller DFTs depend only upon the transform size.  They are
+ *  computed once and shared among all CDFT instances of the same size through the FFTPlanCache, so instantiating
+ *  a CDFT of a size that is already in use is inexpensive.</p>
+ *  
+ *  <p>The same split-radix decomposition can alternatively be executed as a flat schedule of butterfly passes over
+ *  precomputed index tables, rather than by the linked DFT objects.  The engine is selected with the constructor
+ *  CDFT( log2N, FFTEngine ) or, for the other constructors, with the system property oregondsp.fft.engine.</p>
+ *  
+ *  <p>For very large transforms the methods evaluateInPlace() and evaluateInverseInPlace() overwrite the input
+ *  arrays with the result, permuting into bit-reversed order by exchanges, which halves the working set.  The
+ *  evaluate methods compute in place as well when passed the same arrays for sequence and transform.</p>
+ *  
+ *  <p>Data held in interleaved form, with the real and imaginary parts of element k in z[2k] and z[2k+1], are
+ *  transformed without a deinterleaving copy by evaluateInterleaved() and evaluateInverseInterleaved(), which also
+ *  work in place when passed the same array twice, and multiplied by the three-argument dftProduct().</p>
+ *  
+ *  <p>Transforms much larger than the processor caches (2^22 points and more) are usually faster with
+ *  CDFTfourStep, which runs the four-step algorithm over cache-sized rows in parallel.</p>
+ *  
  *  <p> Example of use:</p>
  *  <p>
  *  <font face="courier">
@@ -99,19 +118,18 @@ package com.oregondsp.signalProcessing.fft;
  */
 public class CDFT {
   
+  private float[] xr;
+  private float[] xi;
   private float[] yr;
   private float[] yi;
   private boolean arraysUnlinked;
 
-  private float[] c;
-  private float[] c3;
-  private float[] s;
-  private float[] s3;
-
   int N;
   int log2N;
 
-  private CDFTsr dft;
+  private CDFTPlan plan;
+
+  private FFTWorkspace workspace;
 
 
 
@@ -135,15 +153,26 @@ public class CDFT {
     this.log2N = log2N;
     N = 1 << log2N;
 
-    createTable();
+    plan = FFTPlanCache.cdft( log2N );
+    
+  }
+  
+  
+  
+  /** 
+   * Constructs a CDFT instance without references to sequence and transform arrays, executed by a specified engine
+   * @param log2N       base-2 logarithm of the length of the transform
+   * @param engine      FFTEngine executing the split-radix decomposition
+   */
+  public CDFT( int log2N, FFTEngine engine ) {
+    
+    if ( log2N < 3 ) throw new IllegalArgumentException( "DFT size must be >= 8" );
+    arraysUnlinked = true;
+    
+    this.log2N = log2N;
+    N = 1 << log2N;
 
-    if (      log2N == 3 )
-      dft = new CDFTsr8(  0, 1, 0 );
-    else if ( log2N == 4 )
-      dft = new CDFTsr16( 0, 1, 0 );
-    else if ( log2N >= 5 ) {
-      dft = new CDFTsr( log2N, c, c3, s, s3 );
-    } 
+    plan = FFTPlanCache.cdft( log2N, engine );
     
   }
   
@@ -159,6 +188,17 @@ public class CDFT {
   
   
   
+  /**
+   * Accessor for the immutable plan that implements this transform.  The plan may be used concurrently by 
+   * several threads.
+   * @return   CDFTPlan shared by all CDFT instances of this size
+   */
+  public CDFTPlan getPlan() {
+    return plan;
+  }
+  
+  
+  
   /** 
    * evaluates the DFT with specified sequence and transform arrays
    * @param xr          float array containing sequence real part
@@ -167,11 +207,12 @@ public class CDFT {
    * @param Xi          float array containing transform imaginary part
    */
   public void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    this.xr = xr;
+    this.xi = xi;
     this.yr = Xr;
     this.yi = Xi;
-    dft.link( xr, xi, Xr, Xi );
     arraysUnlinked = false;
-    dft.evaluate();
+    plan.evaluate( xr, xi, Xr, Xi );
   }
   
   
@@ -184,13 +225,126 @@ public class CDFT {
    * @param xi          float array containing sequence imaginary part
    */
   public void evaluateInverse( float[] Xr, float[] Xi, float[] xr, float[] xi ) {
+    this.xr = Xr;
+    this.xi = Xi;
     this.yr = xr;
     this.yi = xi; 
-    dft.link( Xr, Xi, xr, xi );
     arraysUnlinked = false;
     evaluateInverse(); 
   }
   
+  
+  
+  /**
+   * evaluates the inverse DFT without the 1/N normalization, i.e. N times the inverse DFT
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   * @param xr          float array containing sequence real part, scaled by N
+   * @param xi          float array containing sequence imaginary part, scaled by N
+   */
+  public void evaluateInverseUnnormalized( float[] Xr, float[] Xi, float[] xr, float[] xi ) {
+    this.xr = Xr;
+    this.xi = Xi;
+    this.yr = xr;
+    this.yi = xi; 
+    arraysUnlinked = false;
+    plan.evaluateInverseUnnormalized( Xr, Xi, xr, xi ); 
+  }
+  
+
+  
+  
+  /**
+   * evaluates the DFT in place, overwriting the sequence arrays with the transform
+   * @param xr          float array containing sequence real part on entry, transform real part on return
+   * @param xi          float array containing sequence imaginary part on entry, transform imaginary part on return
+   */
+  public void evaluateInPlace( float[] xr, float[] xi ) {
+    plan.evaluateInPlace( xr, xi );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT in place, overwriting the transform arrays with the sequence
+   * @param Xr          float array containing transform real part on entry, sequence real part on return
+   * @param Xi          float array containing transform imaginary part on entry, sequence imaginary part on return
+   */
+  public void evaluateInverseInPlace( float[] Xr, float[] Xi ) {
+    plan.evaluateInverseInPlace( Xr, Xi );
+  }
+  
+  
+  /**
+   * evaluates the DFT of an interleaved complex sequence (real part of element k in z[2k], imaginary part in z[2k+1]),
+   * storing the transform in the same layout;  z and Z may be the same array
+   * @param z           float array of length 2N containing the interleaved sequence
+   * @param Z           float array of length 2N containing the interleaved transform
+   */
+  public void evaluateInterleaved( float[] z, float[] Z ) {
+    plan.evaluateInterleaved( z, Z );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT of an interleaved complex transform;  Z and z may be the same array
+   * @param Z           float array of length 2N containing the interleaved transform
+   * @param z           float array of length 2N containing the interleaved sequence
+   */
+  public void evaluateInverseInterleaved( float[] Z, float[] z ) {
+    plan.evaluateInverseInterleaved( Z, z );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT of an interleaved complex transform without the 1/N normalization
+   * @param Z           float array of length 2N containing the interleaved transform
+   * @param z           float array of length 2N containing the interleaved sequence, scaled by N
+   */
+  public void evaluateInverseInterleavedUnnormalized( float[] Z, float[] z ) {
+    plan.evaluateInverseInterleavedUnnormalized( Z, z );
+  }
+
+
+  
+  
+  /**
+   * evaluates the DFT of a sequence that is zero beyond its first length samples, skipping the butterflies whose
+   * inputs are known to be zero
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param offset      index of the first sequence element in xr and xi
+   * @param length      number of sequence elements that may be nonzero; later elements are not read
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   */
+  public void evaluate( float[] xr, float[] xi, int offset, int length, float[] Xr, float[] Xi ) {
+    plan.evaluate( xr, xi, offset, length, Xr, Xi, workspace() );
+  }
+  
+  
+  
+  /**
+   * evaluates only the DFT bins k0 ... k0+nBins-1 (modulo N), skipping the butterflies that contribute to no other bin
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param k0          first bin
+   * @param nBins       number of bins
+   * @param Xr          float array containing the real parts of the bins in elements 0 ... nBins-1
+   * @param Xi          float array containing the imaginary parts of the bins in elements 0 ... nBins-1
+   */
+  public void evaluateBins( float[] xr, float[] xi, int k0, int nBins, float[] Xr, float[] Xi ) {
+    plan.evaluateBins( xr, xi, k0, nBins, Xr, Xi, workspace() );
+  }
+  
+  
+  
+  private FFTWorkspace workspace() {
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    return workspace;
+  }
 
   
   /** 
@@ -209,22 +363,16 @@ public class CDFT {
     
     if ( log2N < 3 ) throw new IllegalArgumentException( "DFT size must be >= 8" );
     
+    this.xr = xr;
+    this.xi = xi;
     this.yr = yr;
     this.yi = yi;
 
     this.log2N = log2N;
     N = 1 << log2N;
 
-    createTable();
-
-    if (      log2N == 3 )
-      dft = new CDFTsr8(  0, 1, 0 );
-    else if ( log2N == 4 )
-      dft = new CDFTsr16( 0, 1, 0 );
-    else if ( log2N >= 5 ) 
-      dft = new CDFTsr( log2N, c, c3, s, s3 );
+    plan = FFTPlanCache.cdft( log2N );
     
-    dft.link(  xr, xi, yr, yi );
     arraysUnlinked = false;
 
   }
@@ -238,7 +386,7 @@ public class CDFT {
   public void evaluate() {
     if ( arraysUnlinked ) 
       throw new IllegalStateException( "Sequence and transform arrays are not linked" );
-    dft.evaluate();
+    plan.evaluate( xr, xi, yr, yi );
   }
 
   
@@ -252,57 +400,12 @@ public class CDFT {
     if ( arraysUnlinked ) 
       throw new IllegalStateException( "Sequence and transform arrays are not linked" );
     
-    dft.evaluate();
-    
-    float scale = 1.0f / (float) N;
-    int N2 = N/2;
-    
-    yr[0]  *= scale;
-    yi[0]  *= scale;
-    yr[N2] *= scale;
-    yi[N2] *= scale;
-    
-    int i = 1;  
-    int j = N-1;
-    
-    float tmp;
-    
-    while ( i < j ) {
-      tmp   = yr[i];
-      yr[i] = yr[j]*scale;
-      yr[j] = tmp*scale;
-      tmp   = yi[i];
-      yi[i] = yi[j]*scale;
-      yi[j] = tmp*scale;
-
-      i++;
-      j--;
-    }
+    plan.evaluateInverse( xr, xi, yr, yi );
     
   }
 
   
   
-  private void createTable() {
-    
-    int N8 = N/8;
-    
-    c  = new float[N8];
-    c3 = new float[N8];
-    s  = new float[N8];
-    s3 = new float[N8];
-    
-    for ( int i = 0; i < N8; i++ ) {
-      c[  i ] =  (float) Math.cos( 2 * Math.PI * i / N );
-      c3[ i ] =  (float) Math.cos( 2 * Math.PI * 3 * i / N );
-      s[  i ] = -(float) Math.sin( 2 * Math.PI * i / N );
-      s3[ i ] = -(float) Math.sin( 2 * Math.PI * 3 * i / N );
-    }
-
-  }
-
-
-
   /**
    * Convenience method to multiply two complex transforms of the same size.
    * @param Xr     float array containing the real part of the first transform 
@@ -316,13 +419,26 @@ public class CDFT {
     if ( Xr.length != Yr.length  ||  Xi.length != Yi.length  ||  Xr.length != Xi.length )
       throw new IllegalArgumentException( "Transform array lengths are not equal" );
     
-    float tmp;
-    for ( int i = 0;  i < Xr.length;  i++ ) {
-      tmp   = Xr[i]*Yr[i]  -  sign*Xi[i]*Yi[i];
-      Yi[i] = Xr[i]*Yi[i]  +  sign*Xi[i]*Yr[i];
-      Yr[i] = tmp;
-    }
+    FFTKernels.INSTANCE.complexProduct( Xr, Xi, Yr, Yi, sign );
+    
+  }
+  
+  
+  
+  /**
+   * Convenience method to multiply two interleaved complex transforms of the same size.
+   * @param X      float array containing the first transform, real parts in X[2k] and imaginary parts in X[2k+1]
+   * @param Y      float array containing the second transform before call, the product after call
+   * @param sign   +1 for convolution type product, -1 for correlation type product
+   */
+  public static void dftProduct( float[] X, float[] Y, float sign ) {
+    
+    if ( X.length != Y.length  ||  X.length % 2 != 0 )
+      throw new IllegalArgumentException( "Interleaved transform array lengths are not equal or not even" );
+    
+    FFTKernels.INSTANCE.interleavedProduct( X, Y, sign );
     
   }
 
+
 }
@@ -0,0 +1,521 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, thread-safe implementation of a power-of-two complex DFT:  the sine and cosine tables and the
+ * tree of linked split-radix DFTs.
+ *
+ * Double precision version.
+ *
+ * <p>Instances are shared among all CDFTdp and RDFTdp objects of the same size through the FFTPlanCache.
+ * Nothing in a plan is modified after construction, and the split-radix tree receives its input and
+ * output arrays as arguments on each evaluation, so a plan may be used concurrently by several threads.</p>
+ *
+ * <p>The evaluation methods accept the same arrays for sequence and transform, in which case the transform is
+ * computed in place.</p>
+ */
+public final class CDFTPlandp {
+
+  /** Log base 2 of the length of the transform. */
+  final int      log2N;
+
+  /** int specifying the length of the transform. */
+  final int      N;
+
+  /** double[] containing the cos(x) table. */
+  final double[] c;
+
+  /** double[] containing the cos(3*x) table. */
+  final double[] c3;
+
+  /** double[] containing the sin(x) table. */
+  final double[] s;
+
+  /** double[] containing the sin(3*x) table. */
+  final double[] s3;
+
+  /** Root of the recursively linked split-radix DFTs (RECURSIVE engine). */
+  final CDFTsrdp dft;
+
+  /** Flat schedule of split-radix butterfly passes (FLAT engine). */
+  final CDFTflatdp flat;
+
+  /** Engine executing the split-radix decomposition. */
+  final FFTEngine engine;
+
+  /** Flat engine of the shared FLAT plan of the same size, used in place by a RECURSIVE plan;  set on first use. */
+  private volatile CDFTflatdp delegate;
+
+  private static final double SQRT_HALF = Math.sqrt( 0.5 );
+
+
+
+  /**
+   * Instantiates a new CDFTPlandp.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   */
+  CDFTPlandp( int log2N, FFTEngine engine ) {
+
+    if ( log2N < 3 ) throw new IllegalArgumentException( "DFT size must be >= 8" );
+
+    this.log2N  = log2N;
+    this.engine = engine;
+    N = 1 << log2N;
+
+    int N8 = N/8;
+
+    c  = new double[N8];
+    c3 = new double[N8];
+    s  = new double[N8];
+    s3 = new double[N8];
+
+    Twiddles w = Twiddles.of( N );
+    for ( int i = 0; i < N8; i++ ) {
+      c[  i ] =  w.cos( i );
+      c3[ i ] =  w.cos( 3*i );
+      s[  i ] = -w.sin( i );
+      s3[ i ] = -w.sin( 3*i );
+    }
+
+    if ( engine == FFTEngine.FLAT ) {
+      dft  = null;
+      flat = new CDFTflatdp( log2N );
+    }
+    else {
+      flat = null;
+      if (      log2N == 3 )
+        dft = new CDFTsr8dp(  0, 1, 0 );
+      else if ( log2N == 4 )
+        dft = new CDFTsr16dp( 0, 1, 0 );
+      else if ( log2N == 5 )
+        dft = new CDFTsr32dp( 0, 1, 0 );
+      else if ( log2N == 6 )
+        dft = new CDFTsr64dp( 0, 1, 0 );
+      else
+        dft = new CDFTsrdp( log2N, c, c3, s, s3 );
+    }
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a complex DFT of the specified size.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         CDFTPlandp instance shared through the FFTPlanCache.
+   */
+  public static CDFTPlandp getInstance( int log2N ) {
+    return FFTPlanCache.cdftdp( log2N );
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a complex DFT of the specified size, executed by the specified engine.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         CDFTPlandp instance shared through the FFTPlanCache.
+   */
+  public static CDFTPlandp getInstance( int log2N, FFTEngine engine ) {
+    return FFTPlanCache.cdftdp( log2N, engine );
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Accessor for the engine executing this plan
+   * @return   FFTEngine of this plan
+   */
+  public FFTEngine getEngine() {
+    return engine;
+  }
+
+
+
+  /**
+   * Evaluates the DFT with specified sequence and transform arrays.
+   *
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   */
+  public void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
+    if ( xr == Xr  &&  xi == Xi )
+      evaluateInPlace( xr, xi );
+    else if ( flat != null )
+      flat.evaluate( xr, xi, Xr, Xi );
+    else
+      dft.evaluate( xr, xi, Xr, Xi );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT with specified transform and sequence arrays.
+   *
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   */
+  public void evaluateInverse( double[] Xr, double[] Xi, double[] xr, double[] xi ) {
+
+    // The inverse DFT is the forward DFT with the real and imaginary parts exchanged on input and output,
+    // which conjugates the twiddle factors without a separate reversal pass.  The flat engine folds the 1/N
+    // into its bit-reversed gather.
+
+    double scale = 1.0 / N;
+
+    if ( Xr == xr  &&  Xi == xi ) {
+      inPlace().evaluateInPlace( Xi, Xr, scale );
+    }
+    else if ( flat != null ) {
+      flat.evaluate( Xi, Xr, xi, xr, scale );
+    }
+    else {
+      dft.evaluate( Xi, Xr, xi, xr );
+      for ( int i = 0;  i < N;  i++ ) {
+        xr[i] *= scale;
+        xi[i] *= scale;
+      }
+    }
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT without the 1/N normalization.  The result is N times the inverse DFT;  callers
+   * that scale the data elsewhere (a convolution kernel spectrum, for example) save one pass over the output.
+   *
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param xr          double array containing sequence real part, scaled by N
+   * @param xi          double array containing sequence imaginary part, scaled by N
+   */
+  public void evaluateInverseUnnormalized( double[] Xr, double[] Xi, double[] xr, double[] xi ) {
+    evaluate( Xi, Xr, xi, xr );
+  }
+
+
+  /**
+   * Evaluates the DFT of a sequence that is zero beyond its first length samples (input pruning).  Only
+   * xr[offset] ... xr[offset+length-1] and the corresponding elements of xi are read.
+   *
+   * <p>With L the smallest power of two (at least 8) not less than length, and P = N/L, the transform splits into
+   * P DFTs of length L of modulated copies of the sequence:</p>
+   *
+   * <p>X(P*q + r) = sum over n < L of  x(n) W^(n*r) exp( -2*pi*i*n*q/L ),      W = exp( -2*pi*i/N ),</p>
+   *
+   * <p>which omits the first log2(P) butterfly passes of the full transform, whose inputs are known to be zero.</p>
+   *
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param offset      int specifying the index of the first sequence element in xr and xi
+   * @param length      int specifying the number of sequence elements that may be nonzero (0 <= length <= N)
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( double[] xr, double[] xi, int offset, int length, double[] Xr, double[] Xi, FFTWorkspace workspace ) {
+
+    if ( length < 0  ||  length > N ) throw new IllegalArgumentException( "Pruned sequence length must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    double[] zr = workspace.doubles( FFTWorkspace.CDFT_INPUT, N );
+    double[] zi = workspace.doubles( FFTWorkspace.CDFT_INPUT+1, N );
+    System.arraycopy( xr, offset, zr, 0, length );
+    System.arraycopy( xi, offset, zi, 0, length );
+
+    evaluatePruned( zr, zi, length, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Input-pruned DFT of the first length elements of the scratch arrays zr and zi (of length at least N), which
+   * may be overwritten.  Uses workspace slots FFTWorkspace.PRUNE ... FFTWorkspace.PRUNE+3.
+   */
+  void evaluatePruned( double[] zr, double[] zi, int length, double[] Xr, double[] Xi, FFTWorkspace workspace ) {
+
+    int log2L = Math.max( 3, 32 - Integer.numberOfLeadingZeros( Math.max( length, 1 ) - 1 ) );
+
+    if ( log2L >= log2N ) {
+      Arrays.fill( zr, length, N, 0.0f );
+      Arrays.fill( zi, length, N, 0.0f );
+      evaluate( zr, zi, Xr, Xi );
+      return;
+    }
+
+    int      L   = 1 << log2L;
+    int      P   = N >>> log2L;
+    CDFTPlandp sub = FFTPlanCache.cdftdp( log2L, engine );
+
+    double[] ur = workspace.doubles( FFTWorkspace.PRUNE,   L );
+    double[] ui = workspace.doubles( FFTWorkspace.PRUNE+1, L );
+    double[] Ur = workspace.doubles( FFTWorkspace.PRUNE+2, L );
+    double[] Ui = workspace.doubles( FFTWorkspace.PRUNE+3, L );
+
+    Arrays.fill( ur, length, L, 0.0f );
+    Arrays.fill( ui, length, L, 0.0f );
+
+    for ( int r = 0;  r < P;  r++ ) {
+
+      // u(n) = z(n) W^(n*r)
+
+      for ( int n = 0;  n < length;  n++ ) {
+        int   j  = n*r;
+        double wr = twiddleReal( j );
+        double wi = twiddleImag( j );
+        ur[n] = zr[n]*wr - zi[n]*wi;
+        ui[n] = zr[n]*wi + zi[n]*wr;
+      }
+
+      sub.evaluate( ur, ui, Ur, Ui );
+
+      for ( int q = 0, k = r;  q < L;  q++, k += P ) {
+        Xr[k] = Ur[q];
+        Xi[k] = Ui[q];
+      }
+    }
+  }
+
+
+
+  /**
+   * Evaluates a band of nBins consecutive DFT bins, k0 ... k0+nBins-1 (modulo N), without computing the rest of the
+   * transform (output pruning).
+   *
+   * <p>With M the smallest power of two not less than 8*nBins (and at most N), and P = N/M, the sequence is split
+   * into P decimated sequences x(P*q + r), each transformed with a DFT of length M, and the requested bins are
+   * assembled as</p>
+   *
+   * <p>X(k) = sum over r < P of  W^(r*k) Y_r( k mod M ),      W = exp( -2*pi*i/N ).</p>
+   *
+   * <p>The combination costs P complex multiplies per bin, at most N/8 in all.  The factors W^(r*k) are read from
+   * the tables of this plan and the sums are accumulated in double precision.  The savings are largest for narrow
+   * bands of a few tens of bins.</p>
+   *
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param k0          int specifying the first bin
+   * @param nBins       int specifying the number of bins (0 <= nBins <= N)
+   * @param Xr          double array containing the real parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1
+   * @param Xi          double array containing the imaginary parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluateBins( double[] xr, double[] xi, int k0, int nBins, double[] Xr, double[] Xi, FFTWorkspace workspace ) {
+
+    if ( nBins < 0  ||  nBins > N ) throw new IllegalArgumentException( "Number of bins must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int      log2M = Math.min( log2N, Math.max( 3, 35 - Integer.numberOfLeadingZeros( Math.max( nBins, 1 ) - 1 ) ) );
+    int      M     = 1 << log2M;
+    int      P     = N >>> log2M;
+    CDFTPlandp sub   = ( M == N )  ?  this  :  FFTPlanCache.cdftdp( log2M, engine );
+
+    double[] ur = workspace.doubles( FFTWorkspace.PRUNE,   M );
+    double[] ui = workspace.doubles( FFTWorkspace.PRUNE+1, M );
+    double[] Ur = workspace.doubles( FFTWorkspace.PRUNE+2, M );
+    double[] Ui = workspace.doubles( FFTWorkspace.PRUNE+3, M );
+
+    double[] Ar = workspace.doubles( FFTWorkspace.BINS,   nBins );
+    double[] Ai = workspace.doubles( FFTWorkspace.BINS+1, nBins );
+    Arrays.fill( Ar, 0, nBins, 0.0 );
+    Arrays.fill( Ai, 0, nBins, 0.0 );
+
+    for ( int r = 0;  r < P;  r++ ) {
+
+      for ( int q = 0, n = r;  q < M;  q++, n += P ) {
+        ur[q] = xr[n];
+        ui[q] = xi[n];
+      }
+
+      sub.evaluate( ur, ui, Ur, Ui );
+
+      for ( int t = 0;  t < nBins;  t++ ) {
+        int    k  = k0 + t;
+        int    m  = k & ( M-1 );
+        int    j  = ( r*k ) & ( N-1 );
+        double wr = twiddleReal( j );
+        double wi = twiddleImag( j );
+        Ar[t] += wr*Ur[m] - wi*Ui[m];
+        Ai[t] += wr*Ui[m] + wi*Ur[m];
+      }
+    }
+
+    for ( int t = 0;  t < nBins;  t++ ) {
+      Xr[t] = Ar[t];
+      Xi[t] = Ai[t];
+    }
+  }
+
+
+
+  // Real and imaginary parts of W^j = exp( -2*pi*i*j/N ),  0 <= j < N,  from the first-octant tables:  the angle
+  // within the quadrant is reflected about pi/4 when it exceeds it, and the quadrant is applied as a power of -i.
+
+  private double twiddleReal( int j ) {
+    int a = j & ( N/4 - 1 );
+    switch ( j >>> ( log2N - 2 ) ) {
+      case 0:  return  octantCos( a );
+      case 1:  return  octantSin( a );
+      case 2:  return -octantCos( a );
+      default: return -octantSin( a );
+    }
+  }
+
+
+  private double twiddleImag( int j ) {
+    int a = j & ( N/4 - 1 );
+    switch ( j >>> ( log2N - 2 ) ) {
+      case 0:  return  octantSin( a );
+      case 1:  return -octantCos( a );
+      case 2:  return -octantSin( a );
+      default: return  octantCos( a );
+    }
+  }
+
+
+  // cos( 2*pi*a/N ) and -sin( 2*pi*a/N ),  0 <= a < N/4
+
+  private double octantCos( int a ) {
+    int N8 = N/8;
+    if ( a < N8 ) return  c[a];
+    if ( a > N8 ) return -s[ N/4 - a ];
+    return SQRT_HALF;
+  }
+
+
+  private double octantSin( int a ) {
+    int N8 = N/8;
+    if ( a < N8 ) return  s[a];
+    if ( a > N8 ) return -c[ N/4 - a ];
+    return -SQRT_HALF;
+  }
+
+
+  /**
+   * Evaluates the DFT in place:  the sequence arrays are overwritten by the transform.  The bit-reversal permutation
+   * is done by pairwise exchanges and no scratch storage is used, so the working set is half that of the out-of-place
+   * evaluation.  Plans of the RECURSIVE engine, whose linked DFTs read and write distinct arrays, delegate to the
+   * shared FLAT plan of the same size.
+   *
+   * @param xr          double array containing sequence real part on entry, transform real part on return
+   * @param xi          double array containing sequence imaginary part on entry, transform imaginary part on return
+   */
+  public void evaluateInPlace( double[] xr, double[] xi ) {
+    inPlace().evaluateInPlace( xr, xi, 1.0 );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT in place:  the transform arrays are overwritten by the sequence.
+   *
+   * @param Xr          double array containing transform real part on entry, sequence real part on return
+   * @param Xi          double array containing transform imaginary part on entry, sequence imaginary part on return
+   */
+  public void evaluateInverseInPlace( double[] Xr, double[] Xi ) {
+    inPlace().evaluateInPlace( Xi, Xr, 1.0 / N );
+  }
+
+
+  /**
+   * Evaluates the DFT of an interleaved complex sequence, in which element k has its real part in z[2k] and its
+   * imaginary part in z[2k+1].  The transform is stored in the same layout.  The sequence and transform arrays may
+   * be the same array, in which case the transform is computed in place.  Interleaved data are transformed by the
+   * flat engine;  plans of the RECURSIVE engine delegate to the shared FLAT plan of the same size.
+   *
+   * @param z           double array of length 2N containing the interleaved sequence
+   * @param Z           double array of length 2N containing the interleaved transform
+   */
+  public void evaluateInterleaved( double[] z, double[] Z ) {
+    inPlace().evaluateInterleaved( z, Z, false, 1.0 );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of an interleaved complex transform.  The transform and sequence arrays may be the
+   * same array.
+   *
+   * @param Z           double array of length 2N containing the interleaved transform
+   * @param z           double array of length 2N containing the interleaved sequence
+   */
+  public void evaluateInverseInterleaved( double[] Z, double[] z ) {
+    inPlace().evaluateInterleaved( Z, z, true, 1.0 / N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of an interleaved complex transform without the 1/N normalization.
+   *
+   * @param Z           double array of length 2N containing the interleaved transform
+   * @param z           double array of length 2N containing the interleaved sequence, scaled by N
+   */
+  public void evaluateInverseInterleavedUnnormalized( double[] Z, double[] z ) {
+    inPlace().evaluateInterleaved( Z, z, true, 1.0 );
+  }
+
+
+
+
+  /**
+   * Flat engine used for in-place evaluation.  A RECURSIVE plan looks up the shared FLAT plan once and keeps its
+   * engine, so that in-place evaluations neither allocate a cache key nor take the cache lock;  the engine remains
+   * usable if the FLAT plan is later evicted.
+   *
+   * @return    CDFTflatdp of this plan, or of the shared FLAT plan of the same size.
+   */
+  CDFTflatdp inPlace() {
+    if ( flat != null ) return flat;
+    CDFTflatdp d = delegate;
+    if ( d == null ) {
+      d = FFTPlanCache.cdftdp( log2N, FFTEngine.FLAT ).flat;
+      delegate = d;
+    }
+    return d;
+  }
+
+
+  /**
+   * Approximate size of this plan, used by the cache to bound the memory it retains.
+   *
+   * @return    int containing the number of table entries and linked DFT nodes in this plan.
+   */
+  int weight() {
+    return ( flat != null )  ?  N + flat.weight()  :  N;
+  }
+
+}
@@ -33,6 +33,25 @@ package com.oregondsp.signalProcessing.fft;
  *  in-place calculations in order to eliminate the bit reversal step.  Consequently, this implementation 
  *  trades memory for speed.</p>
  *  
+ *  <p>The sine and cosine tables and the linked smaller DFTs depend only upon the transform size.  They are
+ *  computed once and shared among all CDFTdp instances of the same size through the FFTPlanCache, so instantiating
+ *  a CDFTdp of a size that is already in use is inexpensive.</p>
+ *  
+ *  <p>The same split-radix decomposition can alternatively be executed as a flat schedule of butterfly passes over
+ *  precomputed index tables, rather than by the linked DFT objects.  The engine is selected with the constructor
+ *  CDFTdp( log2N, FFTEngine ) or, for the other constructors, with the system property oregondsp.fft.engine.</p>
+ *  
+ *  <p>For very large transforms the methods evaluateInPlace() and evaluateInverseInPlace() overwrite the input
+ *  arrays with the result, permuting into bit-reversed order by exchanges, which halves the working set.  The
+ *  evaluate methods compute in place as well when passed the same arrays for sequence and transform.</p>
+ *  
+ *  <p>Data held in interleaved form, with the real and imaginary parts of element k in z[2k] and z[2k+1], are
+ *  transformed without a deinterleaving copy by evaluateInterleaved() and evaluateInverseInterleaved(), which also
+ *  work in place when passed the same array twice, and multiplied by the three-argument dftProduct().</p>
+ *  
+ *  <p>Transforms much larger than the processor caches (2^22 points and more) are usually faster with
+ *  CDFTfourStepdp, which runs the four-step algorithm over cache-sized rows in parallel.</p>
+ *  
  *  <p> Example of use:</p>
  *  <p>
  *  <font face="courier">
@@ -100,19 +119,18 @@ package com.oregondsp.signalProcessing.fft;
  */
 public class CDFTdp {
   
+  private double[] xr;
+  private double[] xi;
   private double[] yr;
   private double[] yi;
   private boolean  arraysUnlinked;
 
-  private double[] c;
-  private double[] c3;
-  private double[] s;
-  private double[] s3;
-
   int N;
   int log2N;
 
-  private CDFTsrdp dft;
+  private CDFTPlandp plan;
+
+  private FFTWorkspace workspace;
 
 
 
@@ -136,15 +154,26 @@ public class CDFTdp {
     this.log2N = log2N;
     N = 1 << log2N;
 
-    createTable();
+    plan = FFTPlanCache.cdftdp( log2N );
+    
+  }
+  
+  
+  
+  /** 
+   * Constructs a CDFTdp instance without references to sequence and transform arrays, executed by a specified engine
+   * @param log2N       base-2 logarithm of the length of the transform
+   * @param engine      FFTEngine executing the split-radix decomposition
+   */
+  public CDFTdp( int log2N, FFTEngine engine ) {
+    
+    if ( log2N < 3 ) throw new IllegalArgumentException( "DFT size must be >= 8" );
+    arraysUnlinked = true;
+    
+    this.log2N = log2N;
+    N = 1 << log2N;
 
-    if (      log2N == 3 )
-      dft = new CDFTsr8dp(  0, 1, 0 );
-    else if ( log2N == 4 )
-      dft = new CDFTsr16dp( 0, 1, 0 );
-    else if ( log2N >= 5 ) {
-      dft = new CDFTsrdp( log2N, c, c3, s, s3 );
-    } 
+    plan = FFTPlanCache.cdftdp( log2N, engine );
     
   }
   
@@ -160,6 +189,17 @@ public class CDFTdp {
   
   
   
+  /**
+   * Accessor for the immutable plan that implements this transform.  The plan may be used concurrently by 
+   * several threads.
+   * @return   CDFTPlandp shared by all CDFTdp instances of this size
+   */
+  public CDFTPlandp getPlan() {
+    return plan;
+  }
+  
+  
+  
   /** 
    * evaluates the DFT with specified sequence and transform arrays
    * @param xr          double array containing sequence real part
@@ -168,11 +208,12 @@ public class CDFTdp {
    * @param Xi          double array containing transform imaginary part
    */
   public void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
+    this.xr = xr;
+    this.xi = xi;
     this.yr = Xr;
     this.yi = Xi;
-    dft.link( xr, xi, Xr, Xi );
     arraysUnlinked = false;
-    dft.evaluate();
+    plan.evaluate( xr, xi, Xr, Xi );
   }
   
   
@@ -185,13 +226,126 @@ public class CDFTdp {
    * @param xi          double array containing sequence imaginary part
    */
   public void evaluateInverse( double[] Xr, double[] Xi, double[] xr, double[] xi ) {
+    this.xr = Xr;
+    this.xi = Xi;
     this.yr = xr;
     this.yi = xi; 
-    dft.link( Xr, Xi, xr, xi );
     arraysUnlinked = false;
     evaluateInverse(); 
   }
   
+  
+  
+  /**
+   * evaluates the inverse DFT without the 1/N normalization, i.e. N times the inverse DFT
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param xr          double array containing sequence real part, scaled by N
+   * @param xi          double array containing sequence imaginary part, scaled by N
+   */
+  public void evaluateInverseUnnormalized( double[] Xr, double[] Xi, double[] xr, double[] xi ) {
+    this.xr = Xr;
+    this.xi = Xi;
+    this.yr = xr;
+    this.yi = xi; 
+    arraysUnlinked = false;
+    plan.evaluateInverseUnnormalized( Xr, Xi, xr, xi ); 
+  }
+  
+
+  
+  
+  /**
+   * evaluates the DFT in place, overwriting the sequence arrays with the transform
+   * @param xr          double array containing sequence real part on entry, transform real part on return
+   * @param xi          double array containing sequence imaginary part on entry, transform imaginary part on return
+   */
+  public void evaluateInPlace( double[] xr, double[] xi ) {
+    plan.evaluateInPlace( xr, xi );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT in place, overwriting the transform arrays with the sequence
+   * @param Xr          double array containing transform real part on entry, sequence real part on return
+   * @param Xi          double array containing transform imaginary part on entry, sequence imaginary part on return
+   */
+  public void evaluateInverseInPlace( double[] Xr, double[] Xi ) {
+    plan.evaluateInverseInPlace( Xr, Xi );
+  }
+  
+  
+  /**
+   * evaluates the DFT of an interleaved complex sequence (real part of element k in z[2k], imaginary part in z[2k+1]),
+   * storing the transform in the same layout;  z and Z may be the same array
+   * @param z           double array of length 2N containing the interleaved sequence
+   * @param Z           double array of length 2N containing the interleaved transform
+   */
+  public void evaluateInterleaved( double[] z, double[] Z ) {
+    plan.evaluateInterleaved( z, Z );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT of an interleaved complex transform;  Z and z may be the same array
+   * @param Z           double array of length 2N containing the interleaved transform
+   * @param z           double array of length 2N containing the interleaved sequence
+   */
+  public void evaluateInverseInterleaved( double[] Z, double[] z ) {
+    plan.evaluateInverseInterleaved( Z, z );
+  }
+  
+  
+  
+  /**
+   * evaluates the inverse DFT of an interleaved complex transform without the 1/N normalization
+   * @param Z           double array of length 2N containing the interleaved transform
+   * @param z           double array of length 2N containing the interleaved sequence, scaled by N
+   */
+  public void evaluateInverseInterleavedUnnormalized( double[] Z, double[] z ) {
+    plan.evaluateInverseInterleavedUnnormalized( Z, z );
+  }
+
+
+  
+  
+  /**
+   * evaluates the DFT of a sequence that is zero beyond its first length samples, skipping the butterflies whose
+   * inputs are known to be zero
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param offset      index of the first sequence element in xr and xi
+   * @param length      number of sequence elements that may be nonzero; later elements are not read
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   */
+  public void evaluate( double[] xr, double[] xi, int offset, int length, double[] Xr, double[] Xi ) {
+    plan.evaluate( xr, xi, offset, length, Xr, Xi, workspace() );
+  }
+  
+  
+  
+  /**
+   * evaluates only the DFT bins k0 ... k0+nBins-1 (modulo N), skipping the butterflies that contribute to no other bin
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param k0          first bin
+   * @param nBins       number of bins
+   * @param Xr          double array containing the real parts of the bins in elements 0 ... nBins-1
+   * @param Xi          double array containing the imaginary parts of the bins in elements 0 ... nBins-1
+   */
+  public void evaluateBins( double[] xr, double[] xi, int k0, int nBins, double[] Xr, double[] Xi ) {
+    plan.evaluateBins( xr, xi, k0, nBins, Xr, Xi, workspace() );
+  }
+  
+  
+  
+  private FFTWorkspace workspace() {
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    return workspace;
+  }
 
   
   /** 
@@ -210,22 +364,16 @@ public class CDFTdp {
     
     if ( log2N < 3 ) throw new IllegalArgumentException( "DFT size must be >= 8" );
     
+    this.xr = xr;
+    this.xi = xi;
     this.yr = yr;
     this.yi = yi;
 
     this.log2N = log2N;
     N = 1 << log2N;
 
-    createTable();
-
-    if (      log2N == 3 )
-      dft = new CDFTsr8dp(  0, 1, 0 );
-    else if ( log2N == 4 )
-      dft = new CDFTsr16dp( 0, 1, 0 );
-    else if ( log2N >= 5 ) 
-      dft = new CDFTsrdp( log2N, c, c3, s, s3 );
+    plan = FFTPlanCache.cdftdp( log2N );
     
-    dft.link(  xr, xi, yr, yi );
     arraysUnlinked = false;
 
   }
@@ -239,7 +387,7 @@ public class CDFTdp {
   public void evaluate() {
     if ( arraysUnlinked ) 
       throw new IllegalStateException( "Sequence and transform arrays are not linked" );
-    dft.evaluate();
+    plan.evaluate( xr, xi, yr, yi );
   }
 
   
@@ -253,57 +401,12 @@ public class CDFTdp {
     if ( arraysUnlinked ) 
       throw new IllegalStateException( "Sequence and transform arrays are not linked" );
     
-    dft.evaluate();
-    
-    double scale = 1.0f /  N;
-    int N2 = N/2;
-    
-    yr[0]  *= scale;
-    yi[0]  *= scale;
-    yr[N2] *= scale;
-    yi[N2] *= scale;
-    
-    int i = 1;  
-    int j = N-1;
-    
-    double tmp;
-    
-    while ( i < j ) {
-      tmp   = yr[i];
-      yr[i] = yr[j]*scale;
-      yr[j] = tmp*scale;
-      tmp   = yi[i];
-      yi[i] = yi[j]*scale;
-      yi[j] = tmp*scale;
-
-      i++;
-      j--;
-    }
+    plan.evaluateInverse( xr, xi, yr, yi );
     
   }
 
   
   
-  private void createTable() {
-    
-    int N8 = N/8;
-    
-    c  = new double[N8];
-    c3 = new double[N8];
-    s  = new double[N8];
-    s3 = new double[N8];
-    
-    for ( int i = 0; i < N8; i++ ) {
-      c[  i ] =   Math.cos( 2 * Math.PI * i / N );
-      c3[ i ] =   Math.cos( 2 * Math.PI * 3 * i / N );
-      s[  i ] = - Math.sin( 2 * Math.PI * i / N );
-      s3[ i ] = - Math.sin( 2 * Math.PI * 3 * i / N );
-    }
-
-  }
-
-
-
   /**
    * Convenience method to multiply two complex transforms of the same size.
    * @param Xr     double array containing the real part of the first transform 
@@ -317,13 +420,26 @@ public class CDFTdp {
     if ( Xr.length != Yr.length  ||  Xi.length != Yi.length  ||  Xr.length != Xi.length )
       throw new IllegalArgumentException( "Transform array lengths are not equal" );
     
-    double tmp;
-    for ( int i = 0;  i < Xr.length;  i++ ) {
-      tmp   = Xr[i]*Yr[i]  -  sign*Xi[i]*Yi[i];
-      Yi[i] = Xr[i]*Yi[i]  +  sign*Xi[i]*Yr[i];
-      Yr[i] = tmp;
-    }
+    FFTKernels.INSTANCE.complexProduct( Xr, Xi, Yr, Yi, sign );
+    
+  }
+  
+  
+  
+  /**
+   * Convenience method to multiply two interleaved complex transforms of the same size.
+   * @param X      double array containing the first transform, real parts in X[2k] and imaginary parts in X[2k+1]
+   * @param Y      double array containing the second transform before call, the product after call
+   * @param sign   +1 for convolution type product, -1 for correlation type product
+   */
+  public static void dftProduct( double[] X, double[] Y, double sign ) {
+    
+    if ( X.length != Y.length  ||  X.length % 2 != 0 )
+      throw new IllegalArgumentException( "Interleaved transform array lengths are not equal or not even" );
+    
+    FFTKernels.INSTANCE.interleavedProduct( X, Y, sign );
     
   }
 
+
 }
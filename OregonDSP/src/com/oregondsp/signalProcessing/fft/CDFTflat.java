@@ -0,0 +1,358 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ * Package-private class implementing a power-of-two length complex DFT with the split radix algorithm as a flat
+ * schedule of butterfly passes.
+ *
+ * The decomposition is the same as that of the CDFTsr tree:  a length-L DFT at transform offset o combines a
+ * length-L/2 DFT at o with length-L/4 DFTs at o+L/2 and o+3L/4.  Rather than linking objects, this class walks the
+ * decomposition once at construction and records, for each length L, the offsets of all length-L blocks.  Evaluation
+ * gathers the input into the transform arrays in the order in which the tree reads it (bit-reversed order), then
+ * applies the L = 2, 4, 8, ..., N passes in turn, each pass a loop over primitive offset and twiddle tables.
+ */
+class CDFTflat {
+
+  /** Log base 2 of the length of the transform. */
+  private final int       log2N;
+
+  /** int specifying the length of the transform. */
+  private final int       N;
+
+  /** Input index of each transform element before the butterfly passes. */
+  private final int[]     perm;
+
+  /** blocks[m] contains the offsets of the length-2^m blocks, 1 <= m <= log2N. */
+  private final int[][]   blocks;
+
+  /** Twiddle factors exp( -2*pi*i*k/L ) and exp( -2*pi*i*3k/L ),  0 <= k < L/4,  for each L = 2^m >= 4. */
+  private final float[][] c1, s1, c3, s3;
+
+
+
+  /**
+   * Instantiates a new CDFTflat.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   */
+  CDFTflat( int log2N ) {
+
+    this.log2N = log2N;
+    N = 1 << log2N;
+
+    perm = new int[ N ];
+    for ( int i = 0;  i < N;  i++ ) {
+      perm[i] = Integer.reverse( i ) >>> ( 32 - log2N );
+    }
+
+    int[] count = new int[ log2N+1 ];
+    countBlocks( N, count );
+    blocks = new int[ log2N+1 ][];
+    for ( int m = 1;  m <= log2N;  m++ ) blocks[m] = new int[ count[m] ];
+    int[] fill = new int[ log2N+1 ];
+    listBlocks( 0, N, fill );
+
+    c1 = new float[ log2N+1 ][];
+    s1 = new float[ log2N+1 ][];
+    c3 = new float[ log2N+1 ][];
+    s3 = new float[ log2N+1 ][];
+    for ( int m = 2;  m <= log2N;  m++ ) {
+      int L  = 1 << m;
+      int L4 = L/4;
+      c1[m] = new float[ L4 ];
+      s1[m] = new float[ L4 ];
+      c3[m] = new float[ L4 ];
+      s3[m] = new float[ L4 ];
+      Twiddles w = Twiddles.of( L );
+      for ( int k = 0;  k < L4;  k++ ) {
+        c1[m][k] =  (float) w.cos( k );
+        s1[m][k] = -(float) w.sin( k );
+        c3[m][k] =  (float) w.cos( 3*k );
+        s3[m][k] = -(float) w.sin( 3*k );
+      }
+    }
+  }
+
+
+
+  private void countBlocks( int L, int[] count ) {
+    if ( L < 2 ) return;
+    count[ Integer.numberOfTrailingZeros( L ) ]++;
+    if ( L == 2 ) return;
+    countBlocks( L/2, count );
+    countBlocks( L/4, count );
+    countBlocks( L/4, count );
+  }
+
+
+
+  private void listBlocks( int o, int L, int[] fill ) {
+    if ( L < 2 ) return;
+    int m = Integer.numberOfTrailingZeros( L );
+    blocks[m][ fill[m]++ ] = o;
+    if ( L == 2 ) return;
+    listBlocks( o,         L/2, fill );
+    listBlocks( o + L/2,   L/4, fill );
+    listBlocks( o + 3*L/4, L/4, fill );
+  }
+
+
+
+  /**
+   * Evaluates the complex DFT.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+
+    for ( int i = 0;  i < N;  i++ ) {
+      int j = perm[i];
+      Xr[i] = xr[j];
+      Xi[i] = xi[j];
+    }
+
+    passes( Xr, Xi );
+  }
+
+
+
+  /**
+   * Evaluates the complex DFT of a scaled sequence, folding the scale factor into the bit-reversed gather.
+   *
+   * @param xr     float[] containing the input sequence real part.
+   * @param xi     float[] containing the input sequence imaginary part.
+   * @param Xr     float[] containing the output transform real part.
+   * @param Xi     float[] containing the output transform imaginary part.
+   * @param scale  float multiplying the sequence.
+   */
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi, float scale ) {
+
+    for ( int i = 0;  i < N;  i++ ) {
+      int j = perm[i];
+      Xr[i] = xr[j]*scale;
+      Xi[i] = xi[j]*scale;
+    }
+
+    passes( Xr, Xi );
+  }
+
+
+
+  /**
+   * Applies the butterfly passes to data already in bit-reversed order.
+   *
+   * @param Xr  float[] containing the transform real part.
+   * @param Xi  float[] containing the transform imaginary part.
+   */
+  void passes( float[] Xr, float[] Xi ) {
+
+    // length-2 blocks
+
+    int[] b = blocks[1];
+    for ( int j = 0;  j < b.length;  j++ ) {
+      int o = b[j];
+      float ar = Xr[o];
+      float ai = Xi[o];
+      Xr[o]   = ar + Xr[o+1];
+      Xi[o]   = ai + Xi[o+1];
+      Xr[o+1] = ar - Xr[o+1];
+      Xi[o+1] = ai - Xi[o+1];
+    }
+
+    // L-shaped butterflies for blocks of length 4 and greater
+
+    FFTKernels kernels = FFTKernels.INSTANCE;
+
+    for ( int m = 2;  m <= log2N;  m++ ) {
+
+      int     N4  = 1 << ( m-2 );
+      float[] wc1 = c1[m];
+      float[] ws1 = s1[m];
+      float[] wc3 = c3[m];
+      float[] ws3 = s3[m];
+
+      b = blocks[m];
+      for ( int j = 0;  j < b.length;  j++ ) {
+        kernels.butterflies( Xr, Xi, b[j], N4, wc1, ws1, wc3, ws3 );
+      }
+    }
+  }
+
+
+
+  /**
+   * Evaluates the complex DFT in place.  The sequence is permuted into bit-reversed order by pairwise exchanges,
+   * optionally scaled, and transformed by the butterfly passes.
+   *
+   * @param Xr     float[] containing the sequence real part on entry, the transform real part on return.
+   * @param Xi     float[] containing the sequence imaginary part on entry, the transform imaginary part on return.
+   * @param scale  float multiplying the sequence.
+   */
+  void evaluateInPlace( float[] Xr, float[] Xi, float scale ) {
+
+    for ( int i = 0;  i < N;  i++ ) {
+      int j = perm[i];
+      if ( i < j ) {
+        float tmp = Xr[i];
+        Xr[i] = Xr[j]*scale;
+        Xr[j] = tmp*scale;
+        tmp   = Xi[i];
+        Xi[i] = Xi[j]*scale;
+        Xi[j] = tmp*scale;
+      }
+      else if ( i == j ) {
+        Xr[i] *= scale;
+        Xi[i] *= scale;
+      }
+    }
+
+    passes( Xr, Xi );
+  }
+
+
+
+  /**
+   * Evaluates the forward or unnormalized inverse DFT of an interleaved complex sequence in place.  Element k of
+   * the sequence has its real part in z[2k] and its imaginary part in z[2k+1].  The inverse uses the conjugated
+   * twiddle factors.
+   *
+   * @param z        float[] of length 2N containing the sequence on entry and the transform on return.
+   * @param inverse  true for the inverse DFT (without 1/N normalization), false for the forward DFT.
+   */
+  void evaluateInterleaved( float[] z, boolean inverse ) {
+
+    for ( int i = 0;  i < N;  i++ ) {
+      int j = perm[i];
+      if ( i < j ) {
+        int ii = 2*i;
+        int jj = 2*j;
+        float tmp = z[ii];
+        z[ii]     = z[jj];
+        z[jj]     = tmp;
+        tmp       = z[ii+1];
+        z[ii+1]   = z[jj+1];
+        z[jj+1]   = tmp;
+      }
+    }
+
+    interleavedPasses( z, inverse );
+  }
+
+
+
+  /**
+   * Evaluates the forward or inverse DFT of an interleaved complex sequence, folding a scale factor into the
+   * bit-reversed gather.  The sequence and transform arrays may be the same array, in which case the gather is
+   * done by pairwise exchanges.
+   *
+   * @param z        float[] of length 2N containing the interleaved sequence.
+   * @param Z        float[] of length 2N containing the interleaved transform on return.
+   * @param inverse  true for the inverse DFT, false for the forward DFT.
+   * @param scale    float multiplying the sequence.
+   */
+  void evaluateInterleaved( float[] z, float[] Z, boolean inverse, float scale ) {
+
+    if ( z == Z ) {
+      for ( int i = 0;  i < N;  i++ ) {
+        int j  = perm[i];
+        int ii = 2*i;
+        if ( i < j ) {
+          int jj = 2*j;
+          float tmp = z[ii];
+          z[ii]     = z[jj]*scale;
+          z[jj]     = tmp*scale;
+          tmp       = z[ii+1];
+          z[ii+1]   = z[jj+1]*scale;
+          z[jj+1]   = tmp*scale;
+        }
+        else if ( i == j ) {
+          z[ii]   *= scale;
+          z[ii+1] *= scale;
+        }
+      }
+    }
+    else {
+      for ( int i = 0;  i < N;  i++ ) {
+        int j = 2*perm[i];
+        Z[2*i]   = z[j]*scale;
+        Z[2*i+1] = z[j+1]*scale;
+      }
+    }
+
+    interleavedPasses( Z, inverse );
+  }
+
+
+
+  /**
+   * Applies the butterfly passes to interleaved data already in bit-reversed order.
+   *
+   * @param z        float[] containing the interleaved transform.
+   * @param inverse  true for the conjugated twiddle factors of the inverse DFT.
+   */
+  private void interleavedPasses( float[] z, boolean inverse ) {
+
+    float sign = inverse  ?  -1.0f  :  1.0f;
+
+    // length-2 blocks
+
+    int[] b = blocks[1];
+    for ( int j = 0;  j < b.length;  j++ ) {
+      int o = 2*b[j];
+      float ar = z[o];
+      float ai = z[o+1];
+      z[o]   = ar + z[o+2];
+      z[o+1] = ai + z[o+3];
+      z[o+2] = ar - z[o+2];
+      z[o+3] = ai - z[o+3];
+    }
+
+    // L-shaped butterflies for blocks of length 4 and greater
+
+    FFTKernels kernels = FFTKernels.INSTANCE;
+
+    for ( int m = 2;  m <= log2N;  m++ ) {
+
+      int     N4  = 1 << ( m-2 );
+      float[] wc1 = c1[m];
+      float[] ws1 = s1[m];
+      float[] wc3 = c3[m];
+      float[] ws3 = s3[m];
+
+      b = blocks[m];
+      for ( int j = 0;  j < b.length;  j++ ) {
+        kernels.interleavedButterflies( z, b[j], N4, wc1, ws1, wc3, ws3, sign );
+      }
+    }
+  }
+
+
+
+  /**
+   * Approximate size of this engine, in table entries.
+   *
+   * @return    int containing the number of index and twiddle table entries.
+   */
+  int weight() {
+    return 3*N;
+  }
+
+}
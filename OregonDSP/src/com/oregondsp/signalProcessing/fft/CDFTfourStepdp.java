@@ -0,0 +1,366 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ *  Class to calculate very large power-of-two complex DFTs with the four-step algorithm.
+ *
+ *  <p>For transforms of 2^22 points and more the data are many times larger than the processor caches, and the
+ *  split-radix passes of CDFT, each of which strides through the full arrays, are limited by memory bandwidth.  The
+ *  four-step algorithm views the length N = N1*N2 sequence as an N1 x N2 matrix, x[n1][n2] = x(N2*n1 + n2), and
+ *  factors the DFT into N2 DFTs of length N1 down the columns, a multiplication by the twiddle factors W^(n2*k1),
+ *  W = exp( -2*pi*i/N ), and N1 DFTs of length N2 along the rows.  This class uses the six-step arrangement, in
+ *  which transposes make each of the sub-transforms operate on a contiguous row:</p>
+ *
+ *  <ol>
+ *  <li>transpose x into an N2 x N1 matrix,</li>
+ *  <li>transform each row (length N1) and multiply by the twiddle factors,</li>
+ *  <li>transpose into an N1 x N2 matrix,</li>
+ *  <li>transform each row (length N2),</li>
+ *  <li>transpose into the N2 x N1 matrix X[k2][k1] = X(k1 + N1*k2).</li>
+ *  </ol>
+ *
+ *  <p>N1 and N2 are the powers of two nearest sqrt(N).  Each row is copied into a small buffer that stays in cache
+ *  and transformed with the shared CDFTPlandp of its length, so the full arrays are touched only by the three
+ *  transposes, which move the data in square tiles.  The row transforms and the transposes are divided among the
+ *  worker threads of a ForkJoinPool.</p>
+ *
+ *  <p>The transform is in natural order, as for CDFT.  Sequence and transform arrays must be distinct;  the
+ *  sequence arrays are not modified.  The intermediate matrix is held in an FFTWorkspace.  The evaluation methods
+ *  that take an FFTWorkspace argument may be called concurrently from several threads, provided each thread
+ *  supplies its own workspace.</p>
+ *
+ *  <p> Example of use:</p>
+ *  <p>
+ *  <font face="courier">
+ *   CDFTfourStepdp Xfm = new CDFTfourStepdp( 24 );<BR>
+ *   <BR>
+ *   Xfm.evaluate( xr, xi, Xr, Xi );<BR>
+ *  </font>
+ *  </p>
+ */
+public class CDFTfourStepdp {
+
+  /** Side of the square tiles moved by the transposes. */
+  private static final int                   TILE   = 32;
+
+  /** Approximate number of points handled by one task before a row or tile range is split no further. */
+  private static final int                   GRAIN  = 1 << 15;
+
+  /** Steps run by the tasks. */
+  private static final int                   TRANSPOSE = 0;
+  private static final int                   COLUMNS   = 1;
+  private static final int                   ROWS      = 2;
+
+  /** Length of the transform. */
+  private final int                          N;
+
+  /** Lengths of the column and row DFTs. */
+  private final int                          N1, N2;
+
+  /** Log base 2 of N1. */
+  private final int                          log2N1;
+
+  /** Plans for the length N1 and length N2 DFTs. */
+  private final CDFTPlandp                     plan1, plan2;
+
+  /** W^j = exp( -2*pi*i*j/N ),  0 <= j < N1, and W^(N1*j),  0 <= j < N2, combined to form the twiddle factors. */
+  private final double[]                      fineR, fineI, coarseR, coarseI;
+
+  /** Pool executing the row transforms and transposes. */
+  private final ForkJoinPool                 pool;
+
+  /** Row buffers for each thread. */
+  private final ThreadLocal< FFTWorkspace >  rows;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private final FFTWorkspace                 workspace;
+
+
+
+  /**
+   * Constructs a CDFTfourStepdp instance that runs on the common ForkJoinPool.
+   * @param log2N     base-2 logarithm of the length of the transform (log2N >= 6).
+   */
+  public CDFTfourStepdp( int log2N ) {
+    this( log2N, ForkJoinPool.commonPool() );
+  }
+
+
+
+  /**
+   * Constructs a CDFTfourStepdp instance that runs on a specified ForkJoinPool.
+   * @param log2N     base-2 logarithm of the length of the transform (log2N >= 6).
+   * @param pool      ForkJoinPool in which the row transforms and transposes are run.
+   */
+  public CDFTfourStepdp( int log2N, ForkJoinPool pool ) {
+
+    if ( log2N < 6 ) throw new IllegalArgumentException( "DFT size must be >= 64" );
+
+    this.pool = pool;
+    N         = 1 << log2N;
+    log2N1    = log2N / 2;
+    N1        = 1 << log2N1;
+    N2        = N / N1;
+
+    plan1 = FFTPlanCache.cdftdp( log2N1 );
+    plan2 = FFTPlanCache.cdftdp( log2N - log2N1 );
+
+    fineR   = new double[ N1 ];
+    fineI   = new double[ N1 ];
+    coarseR = new double[ N2 ];
+    coarseI = new double[ N2 ];
+    Twiddles w = Twiddles.of( N );
+    for ( int j = 0;  j < N1;  j++ ) {
+      fineR[j]   =  w.cos( j );
+      fineI[j]   = -w.sin( j );
+    }
+    w = Twiddles.of( N2 );
+    for ( int j = 0;  j < N2;  j++ ) {
+      coarseR[j] =  w.cos( j );
+      coarseI[j] = -w.sin( j );
+    }
+
+    workspace = new FFTWorkspace();
+    rows      = new ThreadLocal< FFTWorkspace >() {
+      @Override
+      protected FFTWorkspace initialValue() {
+        return new FFTWorkspace();
+      }
+    };
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFT with specified sequence and transform arrays.
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   */
+  public void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
+    evaluate( xr, xi, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DFT with specified sequence and transform arrays and scratch storage.
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param workspace   FFTWorkspace holding the intermediate matrix, or null to allocate it for this call
+   */
+  public void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi, FFTWorkspace workspace ) {
+    transform( xr, xi, Xr, Xi, 1.0, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT with specified transform and sequence arrays.
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   */
+  public void evaluateInverse( double[] Xr, double[] Xi, double[] xr, double[] xi ) {
+    evaluateInverse( Xr, Xi, xr, xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT with specified transform and sequence arrays and scratch storage.
+   * @param Xr          double array containing transform real part
+   * @param Xi          double array containing transform imaginary part
+   * @param xr          double array containing sequence real part
+   * @param xi          double array containing sequence imaginary part
+   * @param workspace   FFTWorkspace holding the intermediate matrix, or null to allocate it for this call
+   */
+  public void evaluateInverse( double[] Xr, double[] Xi, double[] xr, double[] xi, FFTWorkspace workspace ) {
+
+    // forward DFT with the real and imaginary parts exchanged, the 1/N applied in the last transpose
+
+    transform( Xi, Xr, xi, xr, 1.0/N, workspace );
+  }
+
+
+
+  private void transform( double[] xr, double[] xi, double[] Xr, double[] Xi, double scale, FFTWorkspace workspace ) {
+
+    if ( xr == Xr  ||  xi == Xi ) throw new IllegalArgumentException( "Sequence and transform arrays must be distinct" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    double[] Tr = workspace.doubles( FFTWorkspace.MATRIX,   N );
+    double[] Ti = workspace.doubles( FFTWorkspace.MATRIX+1, N );
+
+    // x (N1 x N2)  ->  X (N2 x N1),  column DFTs and twiddles in X,  X  ->  T (N1 x N2),  row DFTs in T,
+    // T  ->  X (N2 x N1)
+
+    run( new Task( TRANSPOSE, xr, xi, Xr, Xi, N1, N2, 1.0, 0, tiles( N1 ) ) );
+    run( new Task( COLUMNS,   Xr, Xi, null, null, N2, N1, 1.0, 0, N2 ) );
+    run( new Task( TRANSPOSE, Xr, Xi, Tr, Ti, N2, N1, 1.0, 0, tiles( N2 ) ) );
+    run( new Task( ROWS,      Tr, Ti, null, null, N1, N2, 1.0, 0, N1 ) );
+    run( new Task( TRANSPOSE, Tr, Ti, Xr, Xi, N1, N2, scale, 0, tiles( N1 ) ) );
+  }
+
+
+
+  private static int tiles( int nRows ) {
+    return ( nRows + TILE - 1 ) / TILE;
+  }
+
+
+
+  private void run( Task task ) {
+    if ( pool.getParallelism() == 1 )
+      task.compute();
+    else
+      pool.invoke( task );
+  }
+
+
+
+  // Copies tile rows [from, to) of the nRows x nCols matrix a into the nCols x nRows matrix b, multiplying by scale.
+
+  private static void transpose( double[] ar, double[] ai, double[] br, double[] bi, int nRows, int nCols, double scale,
+                                 int from, int to ) {
+
+    int rowEnd = Math.min( nRows, to*TILE );
+
+    for ( int r0 = from*TILE;  r0 < rowEnd;  r0 += TILE ) {
+      int r1 = Math.min( r0 + TILE, nRows );
+      for ( int c0 = 0;  c0 < nCols;  c0 += TILE ) {
+        int c1 = Math.min( c0 + TILE, nCols );
+        for ( int r = r0;  r < r1;  r++ ) {
+          int src = r*nCols;
+          for ( int c = c0;  c < c1;  c++ ) {
+            int dst = c*nRows + r;
+            br[dst] = ar[src+c]*scale;
+            bi[dst] = ai[src+c]*scale;
+          }
+        }
+      }
+    }
+  }
+
+
+
+  // Transforms rows [from, to) of the nRows x nCols matrix a in place.  The rows of the first (N2 x N1) pass, which
+  // are the columns of the sequence, are also multiplied by the twiddle factors W^(n2*k1) = W^(N1*hi) * W^lo,
+  // n2*k1 = N1*hi + lo.
+
+  private void transformRows( double[] ar, double[] ai, int nCols, boolean twiddle, int from, int to ) {
+
+    FFTWorkspace ws = rows.get();
+    double[] ur = ws.doubles( FFTWorkspace.ROWS, nCols );
+    double[] ui = ws.doubles( FFTWorkspace.ROWS+1, nCols );
+    double[] Ur = ws.doubles( FFTWorkspace.ROWS+2, nCols );
+    double[] Ui = ws.doubles( FFTWorkspace.ROWS+3, nCols );
+
+    CDFTPlandp plan = twiddle  ?  plan1  :  plan2;
+
+    for ( int row = from;  row < to;  row++ ) {
+
+      int o = row*nCols;
+      System.arraycopy( ar, o, ur, 0, nCols );
+      System.arraycopy( ai, o, ui, 0, nCols );
+
+      plan.evaluate( ur, ui, Ur, Ui );
+
+      if ( twiddle ) {
+        for ( int k = 0;  k < nCols;  k++ ) {
+          int   e  = row*k;
+          int   lo = e & ( N1 - 1 );
+          int   hi = e >>> log2N1;
+          double wr = coarseR[hi]*fineR[lo] - coarseI[hi]*fineI[lo];
+          double wi = coarseR[hi]*fineI[lo] + coarseI[hi]*fineR[lo];
+          ar[o+k]  = Ur[k]*wr - Ui[k]*wi;
+          ai[o+k]  = Ur[k]*wi + Ui[k]*wr;
+        }
+      }
+      else {
+        System.arraycopy( Ur, 0, ar, o, nCols );
+        System.arraycopy( Ui, 0, ai, o, nCols );
+      }
+    }
+  }
+
+
+
+  // Runs one step over rows (or tile rows) [from, to), splitting the range in halves until each task covers roughly
+  // GRAIN points.
+
+  private class Task extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int     step;
+    private final double[] ar, ai, br, bi;
+    private final int     nRows, nCols;
+    private final double   scale;
+    private final int     from, to;
+
+    Task( int step, double[] ar, double[] ai, double[] br, double[] bi, int nRows, int nCols, double scale, int from, int to ) {
+      this.step  = step;
+      this.ar    = ar;
+      this.ai    = ai;
+      this.br    = br;
+      this.bi    = bi;
+      this.nRows = nRows;
+      this.nCols = nCols;
+      this.scale = scale;
+      this.from  = from;
+      this.to    = to;
+    }
+
+    @Override
+    protected void compute() {
+
+      long points = (long) ( to - from ) * nCols * ( ( step == TRANSPOSE )  ?  TILE  :  1 );
+
+      if ( to - from > 1  &&  points > GRAIN ) {
+        int mid = ( from + to ) >>> 1;
+        invokeAll( new Task( step, ar, ai, br, bi, nRows, nCols, scale, from, mid ),
+                   new Task( step, ar, ai, br, bi, nRows, nCols, scale, mid,  to  ) );
+        return;
+      }
+
+      if ( step == TRANSPOSE )
+        transpose( ar, ai, br, bi, nRows, nCols, scale, from, to );
+      else
+        transformRows( ar, ai, nCols, step == COLUMNS, from, to );
+    }
+  }
+
+}
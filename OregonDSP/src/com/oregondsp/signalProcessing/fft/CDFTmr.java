@@ -0,0 +1,654 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ *  Class to calculate the complex discrete Fourier transform of a complex sequence of arbitrary length and its inverse.
+ *
+ *  <p>The CDFT class is limited to lengths that are powers of two, which forces zero-padding of records whose natural
+ *  lengths are, for example, 6000 or 360000 samples.  This class accepts any length N >= 1 and chooses among three
+ *  algorithms:</p>
+ *  <ul>
+ *  <li>lengths that are powers of two (N >= 8) use the split-radix plan shared with CDFT,</li>
+ *  <li>lengths whose only prime factors are 2, 3, 5 and 7 use a mixed-radix Stockham algorithm with radix-4, 2, 3, 5
+ *  and 7 stages, which produces the transform in natural order without a digit-reversal permutation,</li>
+ *  <li>all other lengths use Bluestein's chirp-z algorithm, which expresses the DFT as a circular convolution evaluated
+ *  with a power-of-two split-radix DFT of length at least 2N-1.</li>
+ *  </ul>
+ *
+ *  <p>The real and imaginary parts of the transform are stored in Xr and Xi in natural order, as for CDFT.  Input and
+ *  output arrays must be distinct.</p>
+ *
+ *  <p> Example of use:</p>
+ *  <p>
+ *  <font face="courier">
+ *   int N &nbsp= 6000;<BR>
+ *   float[] xr = new float[N];<BR>
+ *   float[] xi = new float[N];<BR>
+ *   float[] Xr = new float[N];<BR>
+ *   float[] Xi = new float[N];<BR>
+ *   CDFTmr Xfm = new CDFTmr( N );<BR>
+ *   <BR>
+ *   Xfm.evaluate( xr, xi, Xr, Xi );<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>The tables of a CDFTmr instance are not modified after construction.  The evaluation methods that take an
+ *  FFTWorkspace argument may therefore be called concurrently from several threads, provided each thread supplies its
+ *  own workspace.  The methods without a workspace argument use scratch arrays private to the instance.</p>
+ *
+ *  <p>See "Self-sorting Mixed-radix Fast Fourier Transforms", Temperton, C., Journal of Computational Physics,
+ *  VOL. 52, 1983, pp. 1-23, and "A Linear Filtering Approach to the Computation of the Discrete Fourier Transform",
+ *  Bluestein, L. I., IEEE TRANSACTIONS ON AUDIO AND ELECTROACOUSTICS, VOL. 18, NO. 4, 1970, pp. 451-455.</p>
+ */
+public class CDFTmr {
+
+  /** Constant for radix-3 butterflies:  sin( 2*pi/3 ). */
+  private static final float S3        = (float) Math.sin( 2.0*Math.PI/3.0 );
+
+  /** Constants for radix-5 butterflies. */
+  private static final float C51       = (float) Math.cos( 2.0*Math.PI/5.0 );
+  private static final float C52       = (float) Math.cos( 4.0*Math.PI/5.0 );
+  private static final float S51       = (float) Math.sin( 2.0*Math.PI/5.0 );
+  private static final float S52       = (float) Math.sin( 4.0*Math.PI/5.0 );
+
+  /** Length of the transform. */
+  private int          N;
+
+  /** Split-radix plan used directly for powers of two, or for the convolution in Bluestein's algorithm. */
+  private CDFTPlan     pow2;
+
+  /** Radices of the Stockham stages, in order of application. */
+  private int[]        factors;
+
+  /** Twiddle factors for each Stockham stage, (P-1)*m values per stage. */
+  private float[][]    wr, wi;
+
+  /** cos( 2*pi*k/P ) and sin( 2*pi*k/P ) tables for radix-7 stages. */
+  private float[]      c7, s7;
+
+  /** Bluestein chirp, exp( i*pi*n*n/N ). */
+  private float[]      chirpr, chirpi;
+
+  /** DFT of the Bluestein convolution kernel, scaled by 1/M. */
+  private float[]      Br, Bi;
+
+  /** Length of the Bluestein convolution. */
+  private int          M;
+
+  /** Power-of-two plan for the Bluestein convolution. */
+  private CDFTPlan     bluesteinPlan;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private FFTWorkspace workspace;
+
+
+
+  /**
+   * Constructs a CDFTmr instance for the specified transform length.
+   * @param N     int specifying the length of the transform (N >= 1).
+   */
+  public CDFTmr( int N ) {
+
+    if ( N < 1 ) throw new IllegalArgumentException( "DFT size must be >= 1" );
+
+    this.N    = N;
+    workspace = new FFTWorkspace();
+
+    if ( N >= 8  &&  ( N & (N-1) ) == 0 ) {
+      pow2 = FFTPlanCache.cdft( Integer.numberOfTrailingZeros( N ) );
+    }
+    else if ( smooth( N ) ) {
+      createStages();
+    }
+    else {
+      createBluestein();
+    }
+
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFT with specified sequence and transform arrays.
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   */
+  public void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    evaluate( xr, xi, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DFT with specified sequence and transform arrays and scratch storage.
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    if ( pow2 != null )
+      pow2.evaluate( xr, xi, Xr, Xi );
+    else if ( factors != null )
+      stockham( xr, xi, Xr, Xi, workspace );
+    else
+      bluestein( xr, xi, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT with specified transform and sequence arrays.
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   */
+  public void evaluateInverse( float[] Xr, float[] Xi, float[] xr, float[] xi ) {
+    evaluateInverse( Xr, Xi, xr, xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT with specified transform and sequence arrays and scratch storage.
+   * @param Xr          float array containing transform real part
+   * @param Xi          float array containing transform imaginary part
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluateInverse( float[] Xr, float[] Xi, float[] xr, float[] xi, FFTWorkspace workspace ) {
+
+    // The inverse DFT is the forward DFT with the real and imaginary parts exchanged on input and output
+
+    evaluate( Xi, Xr, xi, xr, workspace );
+
+    float scale = 1.0f / N;
+    for ( int i = 0;  i < N;  i++ ) {
+      xr[i] *= scale;
+      xi[i] *= scale;
+    }
+  }
+
+
+
+  /**
+   * Tests whether a length factors completely into 2, 3, 5 and 7.
+   * @param n     int specifying the length
+   * @return      true if the only prime factors of n are 2, 3, 5 and 7
+   */
+  static boolean smooth( int n ) {
+    int[] p = { 2, 3, 5, 7 };
+    for ( int i = 0;  i < p.length;  i++ ) {
+      while ( n % p[i] == 0 ) n /= p[i];
+    }
+    return n == 1;
+  }
+
+
+
+  // Stockham autosort algorithm
+
+  private void createStages() {
+
+    // radix-4 stages first, then at most one radix-2 stage, then radix-3, 5 and 7
+
+    int[] f = new int[ 32 ];
+    int   nf = 0;
+    int   n  = N;
+    while ( n % 4 == 0 ) { f[nf++] = 4;  n /= 4; }
+    while ( n % 2 == 0 ) { f[nf++] = 2;  n /= 2; }
+    while ( n % 3 == 0 ) { f[nf++] = 3;  n /= 3; }
+    while ( n % 5 == 0 ) { f[nf++] = 5;  n /= 5; }
+    while ( n % 7 == 0 ) { f[nf++] = 7;  n /= 7; }
+
+    factors = new int[ nf ];
+    System.arraycopy( f, 0, factors, 0, nf );
+
+    wr = new float[ nf ][];
+    wi = new float[ nf ][];
+
+    // stage with radix P acting on subsequences of length n:  twiddles exp( -2*pi*i*p*t/n ),  0 <= p < n/P,  1 <= t < P
+
+    n = N;
+    for ( int stage = 0;  stage < nf;  stage++ ) {
+      int P = factors[stage];
+      int m = n / P;
+      wr[stage] = new float[ m*(P-1) ];
+      wi[stage] = new float[ m*(P-1) ];
+      Twiddles w = Twiddles.of( n );
+      for ( int p = 0;  p < m;  p++ ) {
+        for ( int t = 1;  t < P;  t++ ) {
+          int j = (int) ( (long) p*t % n );
+          wr[stage][ p*(P-1) + t-1 ] =  (float) w.cos( j );
+          wi[stage][ p*(P-1) + t-1 ] = -(float) w.sin( j );
+        }
+      }
+      n = m;
+    }
+
+    c7 = new float[ 7 ];
+    s7 = new float[ 7 ];
+    for ( int k = 0;  k < 7;  k++ ) {
+      c7[k] = (float) Math.cos( 2.0*Math.PI*k/7.0 );
+      s7[k] = (float) Math.sin( 2.0*Math.PI*k/7.0 );
+    }
+  }
+
+
+
+  private void stockham( float[] xr, float[] xi, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    int nf = factors.length;
+
+    if ( nf == 0 ) {                          // N == 1
+      Xr[0] = xr[0];
+      Xi[0] = xi[0];
+      return;
+    }
+
+    float[] Wr = workspace.floats( FFTWorkspace.STAGE,   N );
+    float[] Wi = workspace.floats( FFTWorkspace.STAGE+1, N );
+
+    // the last stage writes the output arrays; earlier stages alternate between the scratch and output arrays
+
+    float[] ar = xr;
+    float[] ai = xi;
+    int n = N;
+    int s = 1;
+    for ( int stage = 0;  stage < nf;  stage++ ) {
+      boolean toOutput = ( ( nf - 1 - stage ) % 2 == 0 );
+      float[] br = toOutput ? Xr : Wr;
+      float[] bi = toOutput ? Xi : Wi;
+      int P = factors[stage];
+      switch ( P ) {
+        case 2:  radix2( n, s, stage, ar, ai, br, bi );  break;
+        case 3:  radix3( n, s, stage, ar, ai, br, bi );  break;
+        case 4:  radix4( n, s, stage, ar, ai, br, bi );  break;
+        case 5:  radix5( n, s, stage, ar, ai, br, bi );  break;
+        default: radix7( n, s, stage, ar, ai, br, bi, workspace );
+      }
+      ar = br;
+      ai = bi;
+      n /= P;
+      s *= P;
+    }
+
+  }
+
+
+
+  //  Each stage performs, for 0 <= p < m = n/P and 0 <= q < s, a length-P DFT of the elements x[ q + s*(p + j*m) ],
+  //  multiplies output t by exp( -2*pi*i*p*t/n ) and stores it in y[ q + s*(P*p + t) ].
+
+  private void radix2( int n, int s, int stage, float[] xr, float[] xi, float[] yr, float[] yi ) {
+
+    int m = n / 2;
+    float[] twr = wr[stage];
+    float[] twi = wi[stage];
+
+    for ( int p = 0;  p < m;  p++ ) {
+      float w1r = twr[p];
+      float w1i = twi[p];
+      int i0 = s*p;
+      int i1 = i0 + s*m;
+      int j0 = s*2*p;
+      int j1 = j0 + s;
+      for ( int q = 0;  q < s;  q++ ) {
+        float ar = xr[i0+q];
+        float ai = xi[i0+q];
+        float br = xr[i1+q];
+        float bi = xi[i1+q];
+        yr[j0+q] = ar + br;
+        yi[j0+q] = ai + bi;
+        float dr = ar - br;
+        float di = ai - bi;
+        yr[j1+q] = w1r*dr - w1i*di;
+        yi[j1+q] = w1r*di + w1i*dr;
+      }
+    }
+  }
+
+
+
+  private void radix3( int n, int s, int stage, float[] xr, float[] xi, float[] yr, float[] yi ) {
+
+    int m = n / 3;
+    float[] twr = wr[stage];
+    float[] twi = wi[stage];
+
+    for ( int p = 0;  p < m;  p++ ) {
+      float w1r = twr[2*p];
+      float w1i = twi[2*p];
+      float w2r = twr[2*p+1];
+      float w2i = twi[2*p+1];
+      int i0 = s*p;
+      int i1 = i0 + s*m;
+      int i2 = i1 + s*m;
+      int j0 = s*3*p;
+      int j1 = j0 + s;
+      int j2 = j1 + s;
+      for ( int q = 0;  q < s;  q++ ) {
+        float a0r = xr[i0+q],  a0i = xi[i0+q];
+        float a1r = xr[i1+q],  a1i = xi[i1+q];
+        float a2r = xr[i2+q],  a2i = xi[i2+q];
+
+        float tr = a1r + a2r;
+        float ti = a1i + a2i;
+        float ur = a0r - 0.5f*tr;
+        float ui = a0i - 0.5f*ti;
+        float vr = S3*( a1r - a2r );
+        float vi = S3*( a1i - a2i );
+
+        yr[j0+q] = a0r + tr;
+        yi[j0+q] = a0i + ti;
+
+        float b1r = ur + vi;
+        float b1i = ui - vr;
+        float b2r = ur - vi;
+        float b2i = ui + vr;
+
+        yr[j1+q] = w1r*b1r - w1i*b1i;
+        yi[j1+q] = w1r*b1i + w1i*b1r;
+        yr[j2+q] = w2r*b2r - w2i*b2i;
+        yi[j2+q] = w2r*b2i + w2i*b2r;
+      }
+    }
+  }
+
+
+
+  private void radix4( int n, int s, int stage, float[] xr, float[] xi, float[] yr, float[] yi ) {
+
+    int m = n / 4;
+    float[] twr = wr[stage];
+    float[] twi = wi[stage];
+
+    for ( int p = 0;  p < m;  p++ ) {
+      float w1r = twr[3*p];
+      float w1i = twi[3*p];
+      float w2r = twr[3*p+1];
+      float w2i = twi[3*p+1];
+      float w3r = twr[3*p+2];
+      float w3i = twi[3*p+2];
+      int i0 = s*p;
+      int i1 = i0 + s*m;
+      int i2 = i1 + s*m;
+      int i3 = i2 + s*m;
+      int j0 = s*4*p;
+      int j1 = j0 + s;
+      int j2 = j1 + s;
+      int j3 = j2 + s;
+      for ( int q = 0;  q < s;  q++ ) {
+        float a0r = xr[i0+q],  a0i = xi[i0+q];
+        float a1r = xr[i1+q],  a1i = xi[i1+q];
+        float a2r = xr[i2+q],  a2i = xi[i2+q];
+        float a3r = xr[i3+q],  a3i = xi[i3+q];
+
+        float t0r = a0r + a2r,  t0i = a0i + a2i;
+        float t1r = a0r - a2r,  t1i = a0i - a2i;
+        float t2r = a1r + a3r,  t2i = a1i + a3i;
+        float t3r = a1r - a3r,  t3i = a1i - a3i;
+
+        yr[j0+q] = t0r + t2r;
+        yi[j0+q] = t0i + t2i;
+
+        // b1 = t1 - i*t3,  b2 = t0 - t2,  b3 = t1 + i*t3
+
+        float b1r = t1r + t3i,  b1i = t1i - t3r;
+        float b2r = t0r - t2r,  b2i = t0i - t2i;
+        float b3r = t1r - t3i,  b3i = t1i + t3r;
+
+        yr[j1+q] = w1r*b1r - w1i*b1i;
+        yi[j1+q] = w1r*b1i + w1i*b1r;
+        yr[j2+q] = w2r*b2r - w2i*b2i;
+        yi[j2+q] = w2r*b2i + w2i*b2r;
+        yr[j3+q] = w3r*b3r - w3i*b3i;
+        yi[j3+q] = w3r*b3i + w3i*b3r;
+      }
+    }
+  }
+
+
+
+  private void radix5( int n, int s, int stage, float[] xr, float[] xi, float[] yr, float[] yi ) {
+
+    int m = n / 5;
+    float[] twr = wr[stage];
+    float[] twi = wi[stage];
+
+    for ( int p = 0;  p < m;  p++ ) {
+      int tw = 4*p;
+      float w1r = twr[tw],    w1i = twi[tw];
+      float w2r = twr[tw+1],  w2i = twi[tw+1];
+      float w3r = twr[tw+2],  w3i = twi[tw+2];
+      float w4r = twr[tw+3],  w4i = twi[tw+3];
+      int i0 = s*p;
+      int i1 = i0 + s*m;
+      int i2 = i1 + s*m;
+      int i3 = i2 + s*m;
+      int i4 = i3 + s*m;
+      int j0 = s*5*p;
+      int j1 = j0 + s;
+      int j2 = j1 + s;
+      int j3 = j2 + s;
+      int j4 = j3 + s;
+      for ( int q = 0;  q < s;  q++ ) {
+        float a0r = xr[i0+q],  a0i = xi[i0+q];
+        float a1r = xr[i1+q],  a1i = xi[i1+q];
+        float a2r = xr[i2+q],  a2i = xi[i2+q];
+        float a3r = xr[i3+q],  a3i = xi[i3+q];
+        float a4r = xr[i4+q],  a4i = xi[i4+q];
+
+        float t1r = a1r + a4r,  t1i = a1i + a4i;
+        float t2r = a2r + a3r,  t2i = a2i + a3i;
+        float t3r = a1r - a4r,  t3i = a1i - a4i;
+        float t4r = a2r - a3r,  t4i = a2i - a3i;
+
+        yr[j0+q] = a0r + t1r + t2r;
+        yi[j0+q] = a0i + t1i + t2i;
+
+        float u1r = a0r + C51*t1r + C52*t2r,  u1i = a0i + C51*t1i + C52*t2i;
+        float u2r = a0r + C52*t1r + C51*t2r,  u2i = a0i + C52*t1i + C51*t2i;
+        float v1r = S51*t3r + S52*t4r,        v1i = S51*t3i + S52*t4i;
+        float v2r = S52*t3r - S51*t4r,        v2i = S52*t3i - S51*t4i;
+
+        // b1 = u1 - i*v1,  b4 = u1 + i*v1,  b2 = u2 - i*v2,  b3 = u2 + i*v2
+
+        float b1r = u1r + v1i,  b1i = u1i - v1r;
+        float b4r = u1r - v1i,  b4i = u1i + v1r;
+        float b2r = u2r + v2i,  b2i = u2i - v2r;
+        float b3r = u2r - v2i,  b3i = u2i + v2r;
+
+        yr[j1+q] = w1r*b1r - w1i*b1i;
+        yi[j1+q] = w1r*b1i + w1i*b1r;
+        yr[j2+q] = w2r*b2r - w2i*b2i;
+        yi[j2+q] = w2r*b2i + w2i*b2r;
+        yr[j3+q] = w3r*b3r - w3i*b3i;
+        yi[j3+q] = w3r*b3i + w3i*b3r;
+        yr[j4+q] = w4r*b4r - w4i*b4i;
+        yi[j4+q] = w4r*b4i + w4i*b4r;
+      }
+    }
+  }
+
+
+
+  private void radix7( int n, int s, int stage, float[] xr, float[] xi, float[] yr, float[] yi, FFTWorkspace workspace ) {
+
+    final int P = 7;
+    final int H = 3;                          // (P-1)/2
+
+    int m = n / P;
+    float[] twr = wr[stage];
+    float[] twi = wi[stage];
+
+    // sums and differences of symmetric input pairs
+
+    float[] tr = workspace.floats( FFTWorkspace.RADIX,   2*H );
+    float[] ti = workspace.floats( FFTWorkspace.RADIX+1, 2*H );
+
+    for ( int p = 0;  p < m;  p++ ) {
+      int i0 = s*p;
+      int j0 = s*P*p;
+      int tw = (P-1)*p;
+      for ( int q = 0;  q < s;  q++ ) {
+
+        float a0r = xr[i0+q];
+        float a0i = xi[i0+q];
+        float b0r = a0r;
+        float b0i = a0i;
+        for ( int j = 1;  j <= H;  j++ ) {
+          int ij  = i0 + q + s*m*j;
+          int ijc = i0 + q + s*m*(P-j);
+          tr[j-1]   = xr[ij] + xr[ijc];
+          ti[j-1]   = xi[ij] + xi[ijc];
+          tr[H+j-1] = xr[ij] - xr[ijc];
+          ti[H+j-1] = xi[ij] - xi[ijc];
+          b0r += tr[j-1];
+          b0i += ti[j-1];
+        }
+        yr[j0+q] = b0r;
+        yi[j0+q] = b0i;
+
+        for ( int k = 1;  k <= H;  k++ ) {
+          float ur = a0r;
+          float ui = a0i;
+          float vr = 0.0f;
+          float vi = 0.0f;
+          for ( int j = 1;  j <= H;  j++ ) {
+            int jk = ( j*k ) % P;
+            ur += c7[jk]*tr[j-1];
+            ui += c7[jk]*ti[j-1];
+            vr += s7[jk]*tr[H+j-1];
+            vi += s7[jk]*ti[H+j-1];
+          }
+
+          // b(k) = u - i*v,  b(P-k) = u + i*v
+
+          float bkr = ur + vi,  bki = ui - vr;
+          float bcr = ur - vi,  bci = ui + vr;
+
+          int jk = j0 + q + s*k;
+          int jc = j0 + q + s*(P-k);
+          float w1r = twr[tw+k-1],    w1i = twi[tw+k-1];
+          float w2r = twr[tw+P-k-1],  w2i = twi[tw+P-k-1];
+          yr[jk] = w1r*bkr - w1i*bki;
+          yi[jk] = w1r*bki + w1i*bkr;
+          yr[jc] = w2r*bcr - w2i*bci;
+          yi[jc] = w2r*bci + w2i*bcr;
+        }
+      }
+    }
+  }
+
+
+
+  // Bluestein's algorithm:  X[k] = conjg( w[k] ) * sum_n ( x[n]*conjg( w[n] ) ) * w[k-n],   w[n] = exp( i*pi*n*n/N )
+
+  private void createBluestein() {
+
+    int log2M = 3;
+    M = 8;
+    while ( M < 2*N-1 ) {
+      M *= 2;
+      log2M++;
+    }
+    CDFTPlan plan = FFTPlanCache.cdft( log2M );
+
+    chirpr = new float[ N ];
+    chirpi = new float[ N ];
+    long twoN = 2L*N;
+    Twiddles w = Twiddles.of( 2*N );
+    for ( int n = 0;  n < N;  n++ ) {
+      int j = (int) ( (long) n*n % twoN );
+      chirpr[n] = (float) w.cos( j );
+      chirpi[n] = (float) w.sin( j );
+    }
+
+    float[] br = new float[ M ];
+    float[] bi = new float[ M ];
+    float scale = 1.0f / M;
+    br[0] = chirpr[0]*scale;
+    bi[0] = chirpi[0]*scale;
+    for ( int n = 1;  n < N;  n++ ) {
+      br[n]   = br[M-n] = chirpr[n]*scale;
+      bi[n]   = bi[M-n] = chirpi[n]*scale;
+    }
+
+    Br = new float[ M ];
+    Bi = new float[ M ];
+    plan.evaluate( br, bi, Br, Bi );
+
+    bluesteinPlan = plan;
+  }
+
+
+
+  private void bluestein( float[] xr, float[] xi, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    float[] ar = workspace.floats( FFTWorkspace.BLUESTEIN,   M );
+    float[] ai = workspace.floats( FFTWorkspace.BLUESTEIN+1, M );
+    float[] Ar = workspace.floats( FFTWorkspace.BLUESTEIN+2, M );
+    float[] Ai = workspace.floats( FFTWorkspace.BLUESTEIN+3, M );
+
+    for ( int n = 0;  n < N;  n++ ) {
+      ar[n] = xr[n]*chirpr[n] + xi[n]*chirpi[n];
+      ai[n] = xi[n]*chirpr[n] - xr[n]*chirpi[n];
+    }
+    for ( int n = N;  n < M;  n++ ) {
+      ar[n] = 0.0f;
+      ai[n] = 0.0f;
+    }
+
+    bluesteinPlan.evaluate( ar, ai, Ar, Ai );
+
+    for ( int k = 0;  k < M;  k++ ) {
+      float tmp = Ar[k]*Br[k] - Ai[k]*Bi[k];
+      Ai[k]     = Ar[k]*Bi[k] + Ai[k]*Br[k];
+      Ar[k]     = tmp;
+    }
+
+    // unnormalized inverse DFT (the 1/M is folded into B) by exchanging real and imaginary parts
+
+    bluesteinPlan.evaluate( Ai, Ar, ai, ar );
+
+    for ( int k = 0;  k < N;  k++ ) {
+      Xr[k] = ar[k]*chirpr[k] + ai[k]*chirpi[k];
+      Xi[k] = ai[k]*chirpr[k] - ar[k]*chirpi[k];
+    }
+  }
+
+}
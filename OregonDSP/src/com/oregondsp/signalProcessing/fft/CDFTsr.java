@@ -23,7 +23,8 @@ package com.oregondsp.signalProcessing.fft;
 /**
  * Package-private class implementing an arbitrary power-of-two length complex DFT with the split radix algorithm.
  * 
- * Creates smaller CDFTsr instances recursively and calls these in the evaluation.
+ * Creates smaller CDFTsr instances recursively and calls these in the evaluation.  The recursion ends in
+ * unrolled length-32 and length-64 leaves (CDFTsr32 and CDFTsr64).
  * 
  * @author David B. Harris,   Deschutes Signal Processing LLC
  */
@@ -32,12 +33,6 @@ class CDFTsr {
   /** Constant twiddle factor for N/2 butterfly. */
   private static final float SQRT2BY2 = (float) (Math.sqrt( 2.0 ) / 2.0); 
 
-  /** float[] pair specifying complex input sequence. */
-  protected float[] xr, xi;
-  
-  /** float[] pair specifying complex output transform. */
-  protected float[] Xr, Xi;
-
   /** int specifying offset into the top-level length-N sequence arrays. */
   protected int     xoffset;
   
@@ -109,20 +104,20 @@ class CDFTsr {
     f       = 1;
     reflect = 2*c.length;
 
-    if ( m > 6 ) {
+    if ( m > 8 ) {
       dft1 = new CDFTsr( this, 0, 2, 0, m-1 );
       dft2 = new CDFTsr( this, 1, 4, N/2, m-2 );
       dft3 = new CDFTsr( this, 3, 4, 3*N/4, m-2 );
     }
-    else if ( m == 6 ) {
-      dft1 = new CDFTsr( this, 0, 2, 0, 5 );
-      dft2 = new CDFTsr16(     1, 4, N/2 );
-      dft3 = new CDFTsr16(     3, 4, 3*N/4 );
+    else if ( m == 8 ) {
+      dft1 = new CDFTsr( this, 0, 2, 0, 7 );
+      dft2 = new CDFTsr64(     1, 4, N/2 );
+      dft3 = new CDFTsr64(     3, 4, 3*N/4 );
     }
-    else if ( m == 5 ) {
-      dft1 = new CDFTsr16(     0, 2, 0 );
-      dft2 = new CDFTsr8(      1, 4, N/2 );
-      dft3 = new CDFTsr8(      3, 4, 3*N/4 );
+    else if ( m == 7 ) {
+      dft1 = new CDFTsr64(     0, 2, 0 );
+      dft2 = new CDFTsr32(     1, 4, N/2 );
+      dft3 = new CDFTsr32(     3, 4, 3*N/4 );
     }
 
   }
@@ -167,20 +162,20 @@ class CDFTsr {
     f       = c.length / N8;
     reflect = 2*c.length;
 
-    if ( m > 6 ) {
+    if ( m > 8 ) {
       dft1 = new CDFTsr( this, dataOffset,                dataStride*2, transformOffset,         m-1 );
       dft2 = new CDFTsr( this, dataOffset + dataStride,   dataStride*4, transformOffset + N/2,   m-2 );
       dft3 = new CDFTsr( this, dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4, m-2 );
     }
-    else if ( m == 6 ) {
-      dft1 = new CDFTsr(   this, dataOffset,                dataStride*2, transformOffset,       5 );
-      dft2 = new CDFTsr16(       dataOffset + dataStride,   dataStride*4, transformOffset + N/2    );
-      dft3 = new CDFTsr16(       dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4  );
+    else if ( m == 8 ) {
+      dft1 = new CDFTsr(   this, dataOffset,                dataStride*2, transformOffset,       7 );
+      dft2 = new CDFTsr64(       dataOffset + dataStride,   dataStride*4, transformOffset + N/2    );
+      dft3 = new CDFTsr64(       dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4  );
     }
-    else if ( m == 5 ) {
-      dft1 = new CDFTsr16(       dataOffset,                dataStride*2, transformOffset );
-      dft2 = new CDFTsr8(        dataOffset + dataStride,   dataStride*4, transformOffset + N/2 );
-      dft3 = new CDFTsr8(        dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4 );
+    else if ( m == 7 ) {
+      dft1 = new CDFTsr64(       dataOffset,                dataStride*2, transformOffset );
+      dft2 = new CDFTsr32(       dataOffset + dataStride,   dataStride*4, transformOffset + N/2 );
+      dft3 = new CDFTsr32(       dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4 );
     }
 
   }
@@ -188,37 +183,22 @@ class CDFTsr {
   
   
   /**
-   * Links the user-supplied input sequence and output transform arrays.  Propagates the links to child DFTs.
-   * 
+   * Evaluates the complex DFT.
+   *
    * @param xr  float[] containing the input sequence real part.
    * @param xi  float[] containing the input sequence imaginary part.
-   * @param Xr  float[] containing the output sequence real part.
-   * @param Xi  float[] containing the output sequence imaginary part.
-   */
-  void link( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
-    this.xr = xr;
-    this.xi = xi;
-    this.Xr = Xr;
-    this.Xi = Xi;
-    dft1.link( xr, xi, Xr, Xi );
-    dft2.link( xr, xi, Xr, Xi );
-    dft3.link( xr, xi, Xr, Xi );
-  }
-
-
-
-  /**
-   * Evaluates the complex DFT.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
    */
-  void evaluate() {
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
 
     float T1r, T1i, T3r, T3i;
     float Rr, Ri, Sr, Si;
     float Wr, Wi;
 
-    dft1.evaluate();
-    dft2.evaluate();
-    dft3.evaluate();
+    dft1.evaluate( xr, xi, Xr, Xi );
+    dft2.evaluate( xr, xi, Xr, Xi );
+    dft3.evaluate( xr, xi, Xr, Xi );
 
       // k = 0 butterfly
 
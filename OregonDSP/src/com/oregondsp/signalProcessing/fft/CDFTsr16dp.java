@@ -98,26 +98,14 @@ class CDFTsr16dp extends CDFTsrdp {
   
   
   /** 
-   * Links the user-supplied input sequence and output transform arrays.
-   * 
+   * Evaluates the length-16 complex DFT.
+   *
    * @param xr  double[] containing the input sequence real part.
    * @param xi  double[] containing the input sequence imaginary part.
-   * @param Xr  double[] containing the output sequence real part.
-   * @param Xi  double[] containing the output sequence imaginary part.
-   */
-  void link( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
-    this.xr = xr;
-    this.xi = xi;
-    this.Xr = Xr;
-    this.Xi = Xi;
-  }
-  
-  
-  
-  /** 
-   * Evaluates the length-16 complex DFT.
+   * @param Xr  double[] containing the output transform real part.
+   * @param Xi  double[] containing the output transform imaginary part.
    */
-  void evaluate() {
+  void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
     
     double T1r, T1i, T3r, T3i; 
     double Rr, Ri, Sr, Si;
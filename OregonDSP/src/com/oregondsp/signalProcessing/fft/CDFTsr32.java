@@ -0,0 +1,884 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ * Package-private class implementing a length-32 complex DFT with a split-radix algorithm.
+ *
+ * The split radix decomposition is unrolled into straight-line code with constant twiddle factors, and the
+ * intermediate results are held in local variables until the transform is stored.  Instances serve as the
+ * leaves of the CDFTsr recursion.
+ */
+class CDFTsr32 extends CDFTsr {
+
+  /** Constant twiddle factor */
+  static final float C_1_16   = (float) Math.cos(2.0 * Math.PI / 16);
+  
+  /** Constant twiddle factor */
+  static final float C_3_16   = (float) Math.cos(2.0 * Math.PI*3.0 / 16);
+  
+  /** Constant twiddle factor */
+  static final float C_1_32   = (float) Math.cos(2.0 * Math.PI / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_3_32   = (float) Math.cos(2.0 * Math.PI*3.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_5_32   = (float) Math.cos(2.0 * Math.PI*5.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_7_32   = (float) Math.cos(2.0 * Math.PI*7.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float SQRT2BY2 = (float) ( Math.sqrt(2.0)/2.0 );
+
+
+  /** Input sequence indices */
+  private int n0, n1, n2, n3, n4, n5, n6, n7, n8, n9, n10, n11, n12, n13, n14, n15,
+              n16, n17, n18, n19, n20, n21, n22, n23, n24, n25, n26, n27, n28, n29, n30, n31;
+  
+  /** Output transform indices */
+  private int m0, m1, m2, m3, m4, m5, m6, m7, m8, m9, m10, m11, m12, m13, m14, m15,
+              m16, m17, m18, m19, m20, m21, m22, m23, m24, m25, m26, m27, m28, m29, m30, m31;
+
+
+  /**
+   * Instantiates a new CDFTsr32 instance.
+   *
+   * @param dataOffset       int specifying offset into the top-level length-N sequence array.
+   * @param dataStride       int specifying the stride of butterflies into the top-level length-N sequence array.
+   * @param transformOffset  int specifying the offset into the length-N transform array.
+   */
+  CDFTsr32( int dataOffset, int dataStride, int transformOffset ) {
+
+     m = 5;
+     N = 32;
+     xoffset = dataOffset;
+     xstride = dataStride;
+     Xoffset = transformOffset;
+
+     n0 = xoffset;
+     n1 = n0 + xstride;
+     n2 = n1 + xstride;
+     n3 = n2 + xstride;
+     n4 = n3 + xstride;
+     n5 = n4 + xstride;
+     n6 = n5 + xstride;
+     n7 = n6 + xstride;
+     n8 = n7 + xstride;
+     n9 = n8 + xstride;
+     n10 = n9 + xstride;
+     n11 = n10 + xstride;
+     n12 = n11 + xstride;
+     n13 = n12 + xstride;
+     n14 = n13 + xstride;
+     n15 = n14 + xstride;
+     n16 = n15 + xstride;
+     n17 = n16 + xstride;
+     n18 = n17 + xstride;
+     n19 = n18 + xstride;
+     n20 = n19 + xstride;
+     n21 = n20 + xstride;
+     n22 = n21 + xstride;
+     n23 = n22 + xstride;
+     n24 = n23 + xstride;
+     n25 = n24 + xstride;
+     n26 = n25 + xstride;
+     n27 = n26 + xstride;
+     n28 = n27 + xstride;
+     n29 = n28 + xstride;
+     n30 = n29 + xstride;
+     n31 = n30 + xstride;
+
+     m0 = Xoffset;
+     m1 = m0 + 1;
+     m2 = m1 + 1;
+     m3 = m2 + 1;
+     m4 = m3 + 1;
+     m5 = m4 + 1;
+     m6 = m5 + 1;
+     m7 = m6 + 1;
+     m8 = m7 + 1;
+     m9 = m8 + 1;
+     m10 = m9 + 1;
+     m11 = m10 + 1;
+     m12 = m11 + 1;
+     m13 = m12 + 1;
+     m14 = m13 + 1;
+     m15 = m14 + 1;
+     m16 = m15 + 1;
+     m17 = m16 + 1;
+     m18 = m17 + 1;
+     m19 = m18 + 1;
+     m20 = m19 + 1;
+     m21 = m20 + 1;
+     m22 = m21 + 1;
+     m23 = m22 + 1;
+     m24 = m23 + 1;
+     m25 = m24 + 1;
+     m26 = m25 + 1;
+     m27 = m26 + 1;
+     m28 = m27 + 1;
+     m29 = m28 + 1;
+     m30 = m29 + 1;
+     m31 = m30 + 1;
+
+  }
+  
+  
+  
+  /** 
+   * Evaluates the length-32 complex DFT.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    
+    float T1r, T1i, T3r, T3i; 
+    float Rr, Ri, Sr, Si;
+    float yr0, yr1, yr2, yr3, yr4, yr5, yr6, yr7, yr8, yr9, yr10, yr11, yr12, yr13, yr14, yr15,
+          yr16, yr17, yr18, yr19, yr20, yr21, yr22, yr23, yr24, yr25, yr26, yr27, yr28, yr29, yr30, yr31;
+    float yi0, yi1, yi2, yi3, yi4, yi5, yi6, yi7, yi8, yi9, yi10, yi11, yi12, yi13, yi14, yi15,
+          yi16, yi17, yi18, yi19, yi20, yi21, yi22, yi23, yi24, yi25, yi26, yi27, yi28, yi29, yi30, yi31;
+
+
+// Length 2 DFT
+
+    yr0 = xr[n0] + xr[n16];
+    yi0 = xi[n0] + xi[n16];
+    yr1 = xr[n0] - xr[n16];
+    yi1 = xi[n0] - xi[n16];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n8]  + xr[n24];
+    Ri = xi[n8]  + xi[n24];
+    Sr = xi[n24] - xi[n8];
+    Si = xr[n8]  - xr[n24];
+
+    yr2 = yr0 - Rr;
+    yi2 = yi0 - Ri;
+    yr3 = yr1 + Sr;
+    yi3 = yi1 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr1 -= Sr;
+    yi1 -= Si;
+
+
+// Length 2 DFT
+
+    yr4 = xr[n4] + xr[n20];
+    yi4 = xi[n4] + xi[n20];
+    yr5 = xr[n4] - xr[n20];
+    yi5 = xi[n4] - xi[n20];
+
+// Length 2 DFT
+
+    yr6 = xr[n12] + xr[n28];
+    yi6 = xi[n12] + xi[n28];
+    yr7 = xr[n12] - xr[n28];
+    yi7 = xi[n12] - xi[n28];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr4 + yr6;
+    Ri = yi4 + yi6;
+    Sr = yi6 - yi4;
+    Si = yr4 - yr6;
+
+    yr4 = yr0 - Rr;
+    yi4 = yi0 - Ri;
+    yr6 = yr2 + Sr;
+    yi6 = yi2 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr2 -= Sr;
+    yi2 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr5 + yi5 );
+    T1i =  SQRT2BY2 * ( yi5 - yr5 );
+    T3r =  SQRT2BY2 * ( yi7 - yr7 );
+    T3i = -SQRT2BY2 * ( yi7 + yr7 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr5 = yr1 - Rr;
+    yi5 = yi1 - Ri;
+    yr7 = yr3 + Sr;
+    yi7 = yi3 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr3 -= Sr;
+    yi3 -= Si;
+
+
+// Length 2 DFT
+
+    yr8 = xr[n2] + xr[n18];
+    yi8 = xi[n2] + xi[n18];
+    yr9 = xr[n2] - xr[n18];
+    yi9 = xi[n2] - xi[n18];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n10] + xr[n26];
+    Ri = xi[n10] + xi[n26];
+    Sr = xi[n26] - xi[n10];
+    Si = xr[n10] - xr[n26];
+
+    yr10 = yr8 - Rr;
+    yi10 = yi8 - Ri;
+    yr11 = yr9 + Sr;
+    yi11 = yi9 + Si;
+
+    yr8 += Rr;
+    yi8 += Ri;
+    yr9 -= Sr;
+    yi9 -= Si;
+
+
+// Length 2 DFT
+
+    yr12 = xr[n6] + xr[n22];
+    yi12 = xi[n6] + xi[n22];
+    yr13 = xr[n6] - xr[n22];
+    yi13 = xi[n6] - xi[n22];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n14] + xr[n30];
+    Ri = xi[n14] + xi[n30];
+    Sr = xi[n30] - xi[n14];
+    Si = xr[n14] - xr[n30];
+
+    yr14 = yr12 - Rr;
+    yi14 = yi12 - Ri;
+    yr15 = yr13 + Sr;
+    yi15 = yi13 + Si;
+
+    yr12 += Rr;
+    yi12 += Ri;
+    yr13 -= Sr;
+    yi13 -= Si;
+
+
+  // length 16 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr8  + yr12;
+    Ri = yi8  + yi12;
+    Sr = yi12 - yi8;
+    Si = yr8  - yr12;
+
+    yr8  = yr0 - Rr;
+    yi8  = yi0 - Ri;
+    yr12 = yr4 + Sr;
+    yi12 = yi4 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr4 -= Sr;
+    yi4 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr9  + C_3_16 * yi9;
+    T1i =  C_1_16 * yi9  - C_3_16 * yr9;
+    T3r =  C_3_16 * yr13 + C_1_16 * yi13;
+    T3i =  C_3_16 * yi13 - C_1_16 * yr13;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr9  = yr1 - Rr;
+    yi9  = yi1 - Ri;
+    yr13 = yr5 + Sr;
+    yi13 = yi5 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr5 -= Sr;
+    yi5 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr10 + yi10 );
+    T1i =  SQRT2BY2 * ( yi10 - yr10 );
+    T3r =  SQRT2BY2 * ( yi14 - yr14 );
+    T3i = -SQRT2BY2 * ( yi14 + yr14 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr10 = yr2 - Rr;
+    yi10 = yi2 - Ri;
+    yr14 = yr6 + Sr;
+    yi14 = yi6 + Si;
+
+    yr2 += Rr;
+    yi2 += Ri;
+    yr6 -= Sr;
+    yi6 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr11 + C_1_16 * yi11;
+    T1i =  C_3_16 * yi11 - C_1_16 * yr11;
+    T3r = -C_1_16 * yr15 - C_3_16 * yi15;
+    T3i = -C_1_16 * yi15 + C_3_16 * yr15;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr11 = yr3 - Rr;
+    yi11 = yi3 - Ri;
+    yr15 = yr7 + Sr;
+    yi15 = yi7 + Si;
+
+    yr3 += Rr;
+    yi3 += Ri;
+    yr7 -= Sr;
+    yi7 -= Si;
+
+
+// Length 2 DFT
+
+    yr16 = xr[n1] + xr[n17];
+    yi16 = xi[n1] + xi[n17];
+    yr17 = xr[n1] - xr[n17];
+    yi17 = xi[n1] - xi[n17];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n9]  + xr[n25];
+    Ri = xi[n9]  + xi[n25];
+    Sr = xi[n25] - xi[n9];
+    Si = xr[n9]  - xr[n25];
+
+    yr18 = yr16 - Rr;
+    yi18 = yi16 - Ri;
+    yr19 = yr17 + Sr;
+    yi19 = yi17 + Si;
+
+    yr16 += Rr;
+    yi16 += Ri;
+    yr17 -= Sr;
+    yi17 -= Si;
+
+
+// Length 2 DFT
+
+    yr20 = xr[n5] + xr[n21];
+    yi20 = xi[n5] + xi[n21];
+    yr21 = xr[n5] - xr[n21];
+    yi21 = xi[n5] - xi[n21];
+
+// Length 2 DFT
+
+    yr22 = xr[n13] + xr[n29];
+    yi22 = xi[n13] + xi[n29];
+    yr23 = xr[n13] - xr[n29];
+    yi23 = xi[n13] - xi[n29];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr20 + yr22;
+    Ri = yi20 + yi22;
+    Sr = yi22 - yi20;
+    Si = yr20 - yr22;
+
+    yr20 = yr16 - Rr;
+    yi20 = yi16 - Ri;
+    yr22 = yr18 + Sr;
+    yi22 = yi18 + Si;
+
+    yr16 += Rr;
+    yi16 += Ri;
+    yr18 -= Sr;
+    yi18 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr21 + yi21 );
+    T1i =  SQRT2BY2 * ( yi21 - yr21 );
+    T3r =  SQRT2BY2 * ( yi23 - yr23 );
+    T3i = -SQRT2BY2 * ( yi23 + yr23 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr21 = yr17 - Rr;
+    yi21 = yi17 - Ri;
+    yr23 = yr19 + Sr;
+    yi23 = yi19 + Si;
+
+    yr17 += Rr;
+    yi17 += Ri;
+    yr19 -= Sr;
+    yi19 -= Si;
+
+
+// Length 2 DFT
+
+    yr24 = xr[n3] + xr[n19];
+    yi24 = xi[n3] + xi[n19];
+    yr25 = xr[n3] - xr[n19];
+    yi25 = xi[n3] - xi[n19];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n11] + xr[n27];
+    Ri = xi[n11] + xi[n27];
+    Sr = xi[n27] - xi[n11];
+    Si = xr[n11] - xr[n27];
+
+    yr26 = yr24 - Rr;
+    yi26 = yi24 - Ri;
+    yr27 = yr25 + Sr;
+    yi27 = yi25 + Si;
+
+    yr24 += Rr;
+    yi24 += Ri;
+    yr25 -= Sr;
+    yi25 -= Si;
+
+
+// Length 2 DFT
+
+    yr28 = xr[n7] + xr[n23];
+    yi28 = xi[n7] + xi[n23];
+    yr29 = xr[n7] - xr[n23];
+    yi29 = xi[n7] - xi[n23];
+
+// Length 2 DFT
+
+    yr30 = xr[n15] + xr[n31];
+    yi30 = xi[n15] + xi[n31];
+    yr31 = xr[n15] - xr[n31];
+    yi31 = xi[n15] - xi[n31];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr28 + yr30;
+    Ri = yi28 + yi30;
+    Sr = yi30 - yi28;
+    Si = yr28 - yr30;
+
+    yr28 = yr24 - Rr;
+    yi28 = yi24 - Ri;
+    yr30 = yr26 + Sr;
+    yi30 = yi26 + Si;
+
+    yr24 += Rr;
+    yi24 += Ri;
+    yr26 -= Sr;
+    yi26 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr29 + yi29 );
+    T1i =  SQRT2BY2 * ( yi29 - yr29 );
+    T3r =  SQRT2BY2 * ( yi31 - yr31 );
+    T3i = -SQRT2BY2 * ( yi31 + yr31 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr29 = yr25 - Rr;
+    yi29 = yi25 - Ri;
+    yr31 = yr27 + Sr;
+    yi31 = yi27 + Si;
+
+    yr25 += Rr;
+    yi25 += Ri;
+    yr27 -= Sr;
+    yi27 -= Si;
+
+
+  // length 32 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr16 + yr24;
+    Ri = yi16 + yi24;
+    Sr = yi24 - yi16;
+    Si = yr16 - yr24;
+
+    yr16 = yr0 - Rr;
+    yi16 = yi0 - Ri;
+    yr24 = yr8 + Sr;
+    yi24 = yi8 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr8 -= Sr;
+    yi8 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_32 * yr17 + C_7_32 * yi17;
+    T1i =  C_1_32 * yi17 - C_7_32 * yr17;
+    T3r =  C_3_32 * yr25 + C_5_32 * yi25;
+    T3i =  C_3_32 * yi25 - C_5_32 * yr25;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr17 = yr1 - Rr;
+    yi17 = yi1 - Ri;
+    yr25 = yr9 + Sr;
+    yi25 = yi9 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr9 -= Sr;
+    yi9 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr18 + C_3_16 * yi18;
+    T1i =  C_1_16 * yi18 - C_3_16 * yr18;
+    T3r =  C_3_16 * yr26 + C_1_16 * yi26;
+    T3i =  C_3_16 * yi26 - C_1_16 * yr26;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr18 = yr2 - Rr;
+    yi18 = yi2 - Ri;
+    yr26 = yr10 + Sr;
+    yi26 = yi10 + Si;
+
+    yr2  += Rr;
+    yi2  += Ri;
+    yr10 -= Sr;
+    yi10 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_32 * yr19 + C_5_32 * yi19;
+    T1i =  C_3_32 * yi19 - C_5_32 * yr19;
+    T3r = -C_7_32 * yr27 + C_1_32 * yi27;
+    T3i = -C_7_32 * yi27 - C_1_32 * yr27;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr19 = yr3 - Rr;
+    yi19 = yi3 - Ri;
+    yr27 = yr11 + Sr;
+    yi27 = yi11 + Si;
+
+    yr3  += Rr;
+    yi3  += Ri;
+    yr11 -= Sr;
+    yi11 -= Si;
+
+  // k = 4
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr20 + yi20 );
+    T1i =  SQRT2BY2 * ( yi20 - yr20 );
+    T3r =  SQRT2BY2 * ( yi28 - yr28 );
+    T3i = -SQRT2BY2 * ( yi28 + yr28 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr20 = yr4 - Rr;
+    yi20 = yi4 - Ri;
+    yr28 = yr12 + Sr;
+    yi28 = yi12 + Si;
+
+    yr4  += Rr;
+    yi4  += Ri;
+    yr12 -= Sr;
+    yi12 -= Si;
+
+  // k = 5
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_5_32 * yr21 + C_3_32 * yi21;
+    T1i =  C_5_32 * yi21 - C_3_32 * yr21;
+    T3r = -C_1_32 * yr29 + C_7_32 * yi29;
+    T3i = -C_1_32 * yi29 - C_7_32 * yr29;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr21 = yr5 - Rr;
+    yi21 = yi5 - Ri;
+    yr29 = yr13 + Sr;
+    yi29 = yi13 + Si;
+
+    yr5  += Rr;
+    yi5  += Ri;
+    yr13 -= Sr;
+    yi13 -= Si;
+
+  // k = 6
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr22 + C_1_16 * yi22;
+    T1i =  C_3_16 * yi22 - C_1_16 * yr22;
+    T3r = -C_1_16 * yr30 - C_3_16 * yi30;
+    T3i = -C_1_16 * yi30 + C_3_16 * yr30;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr22 = yr6 - Rr;
+    yi22 = yi6 - Ri;
+    yr30 = yr14 + Sr;
+    yi30 = yi14 + Si;
+
+    yr6  += Rr;
+    yi6  += Ri;
+    yr14 -= Sr;
+    yi14 -= Si;
+
+  // k = 7
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_7_32 * yr23 + C_1_32 * yi23;
+    T1i =  C_7_32 * yi23 - C_1_32 * yr23;
+    T3r = -C_5_32 * yr31 - C_3_32 * yi31;
+    T3i = -C_5_32 * yi31 + C_3_32 * yr31;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr23 = yr7 - Rr;
+    yi23 = yi7 - Ri;
+    yr31 = yr15 + Sr;
+    yi31 = yi15 + Si;
+
+    yr7  += Rr;
+    yi7  += Ri;
+    yr15 -= Sr;
+    yi15 -= Si;
+
+
+  // store transform
+
+    Xr[m0]  = yr0;
+    Xi[m0]  = yi0;
+    Xr[m1]  = yr1;
+    Xi[m1]  = yi1;
+    Xr[m2]  = yr2;
+    Xi[m2]  = yi2;
+    Xr[m3]  = yr3;
+    Xi[m3]  = yi3;
+    Xr[m4]  = yr4;
+    Xi[m4]  = yi4;
+    Xr[m5]  = yr5;
+    Xi[m5]  = yi5;
+    Xr[m6]  = yr6;
+    Xi[m6]  = yi6;
+    Xr[m7]  = yr7;
+    Xi[m7]  = yi7;
+    Xr[m8]  = yr8;
+    Xi[m8]  = yi8;
+    Xr[m9]  = yr9;
+    Xi[m9]  = yi9;
+    Xr[m10] = yr10;
+    Xi[m10] = yi10;
+    Xr[m11] = yr11;
+    Xi[m11] = yi11;
+    Xr[m12] = yr12;
+    Xi[m12] = yi12;
+    Xr[m13] = yr13;
+    Xi[m13] = yi13;
+    Xr[m14] = yr14;
+    Xi[m14] = yi14;
+    Xr[m15] = yr15;
+    Xi[m15] = yi15;
+    Xr[m16] = yr16;
+    Xi[m16] = yi16;
+    Xr[m17] = yr17;
+    Xi[m17] = yi17;
+    Xr[m18] = yr18;
+    Xi[m18] = yi18;
+    Xr[m19] = yr19;
+    Xi[m19] = yi19;
+    Xr[m20] = yr20;
+    Xi[m20] = yi20;
+    Xr[m21] = yr21;
+    Xi[m21] = yi21;
+    Xr[m22] = yr22;
+    Xi[m22] = yi22;
+    Xr[m23] = yr23;
+    Xi[m23] = yi23;
+    Xr[m24] = yr24;
+    Xi[m24] = yi24;
+    Xr[m25] = yr25;
+    Xi[m25] = yi25;
+    Xr[m26] = yr26;
+    Xi[m26] = yi26;
+    Xr[m27] = yr27;
+    Xi[m27] = yi27;
+    Xr[m28] = yr28;
+    Xi[m28] = yi28;
+    Xr[m29] = yr29;
+    Xi[m29] = yi29;
+    Xr[m30] = yr30;
+    Xi[m30] = yi30;
+    Xr[m31] = yr31;
+    Xi[m31] = yi31;
+    
+  }
+
+}
@@ -0,0 +1,2047 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ * Package-private class implementing a length-64 complex DFT with a split-radix algorithm.
+ *
+ * The split radix decomposition is unrolled into straight-line code with constant twiddle factors, and the
+ * intermediate results are held in local variables until the transform is stored.  Instances serve as the
+ * leaves of the CDFTsr recursion.
+ */
+class CDFTsr64 extends CDFTsr {
+
+  /** Constant twiddle factor */
+  static final float C_1_16   = (float) Math.cos(2.0 * Math.PI / 16);
+  
+  /** Constant twiddle factor */
+  static final float C_3_16   = (float) Math.cos(2.0 * Math.PI*3.0 / 16);
+  
+  /** Constant twiddle factor */
+  static final float C_1_32   = (float) Math.cos(2.0 * Math.PI / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_3_32   = (float) Math.cos(2.0 * Math.PI*3.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_5_32   = (float) Math.cos(2.0 * Math.PI*5.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_7_32   = (float) Math.cos(2.0 * Math.PI*7.0 / 32);
+  
+  /** Constant twiddle factor */
+  static final float C_1_64   = (float) Math.cos(2.0 * Math.PI / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_3_64   = (float) Math.cos(2.0 * Math.PI*3.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_5_64   = (float) Math.cos(2.0 * Math.PI*5.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_7_64   = (float) Math.cos(2.0 * Math.PI*7.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_9_64   = (float) Math.cos(2.0 * Math.PI*9.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_11_64  = (float) Math.cos(2.0 * Math.PI*11.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_13_64  = (float) Math.cos(2.0 * Math.PI*13.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float C_15_64  = (float) Math.cos(2.0 * Math.PI*15.0 / 64);
+  
+  /** Constant twiddle factor */
+  static final float SQRT2BY2 = (float) ( Math.sqrt(2.0)/2.0 );
+
+
+  /** Input sequence indices */
+  private int n0, n1, n2, n3, n4, n5, n6, n7, n8, n9, n10, n11, n12, n13, n14, n15,
+              n16, n17, n18, n19, n20, n21, n22, n23, n24, n25, n26, n27, n28, n29, n30, n31,
+              n32, n33, n34, n35, n36, n37, n38, n39, n40, n41, n42, n43, n44, n45, n46, n47,
+              n48, n49, n50, n51, n52, n53, n54, n55, n56, n57, n58, n59, n60, n61, n62, n63;
+  
+  /** Output transform indices */
+  private int m0, m1, m2, m3, m4, m5, m6, m7, m8, m9, m10, m11, m12, m13, m14, m15,
+              m16, m17, m18, m19, m20, m21, m22, m23, m24, m25, m26, m27, m28, m29, m30, m31,
+              m32, m33, m34, m35, m36, m37, m38, m39, m40, m41, m42, m43, m44, m45, m46, m47,
+              m48, m49, m50, m51, m52, m53, m54, m55, m56, m57, m58, m59, m60, m61, m62, m63;
+
+
+  /**
+   * Instantiates a new CDFTsr64 instance.
+   *
+   * @param dataOffset       int specifying offset into the top-level length-N sequence array.
+   * @param dataStride       int specifying the stride of butterflies into the top-level length-N sequence array.
+   * @param transformOffset  int specifying the offset into the length-N transform array.
+   */
+  CDFTsr64( int dataOffset, int dataStride, int transformOffset ) {
+
+     m = 6;
+     N = 64;
+     xoffset = dataOffset;
+     xstride = dataStride;
+     Xoffset = transformOffset;
+
+     n0 = xoffset;
+     n1 = n0 + xstride;
+     n2 = n1 + xstride;
+     n3 = n2 + xstride;
+     n4 = n3 + xstride;
+     n5 = n4 + xstride;
+     n6 = n5 + xstride;
+     n7 = n6 + xstride;
+     n8 = n7 + xstride;
+     n9 = n8 + xstride;
+     n10 = n9 + xstride;
+     n11 = n10 + xstride;
+     n12 = n11 + xstride;
+     n13 = n12 + xstride;
+     n14 = n13 + xstride;
+     n15 = n14 + xstride;
+     n16 = n15 + xstride;
+     n17 = n16 + xstride;
+     n18 = n17 + xstride;
+     n19 = n18 + xstride;
+     n20 = n19 + xstride;
+     n21 = n20 + xstride;
+     n22 = n21 + xstride;
+     n23 = n22 + xstride;
+     n24 = n23 + xstride;
+     n25 = n24 + xstride;
+     n26 = n25 + xstride;
+     n27 = n26 + xstride;
+     n28 = n27 + xstride;
+     n29 = n28 + xstride;
+     n30 = n29 + xstride;
+     n31 = n30 + xstride;
+     n32 = n31 + xstride;
+     n33 = n32 + xstride;
+     n34 = n33 + xstride;
+     n35 = n34 + xstride;
+     n36 = n35 + xstride;
+     n37 = n36 + xstride;
+     n38 = n37 + xstride;
+     n39 = n38 + xstride;
+     n40 = n39 + xstride;
+     n41 = n40 + xstride;
+     n42 = n41 + xstride;
+     n43 = n42 + xstride;
+     n44 = n43 + xstride;
+     n45 = n44 + xstride;
+     n46 = n45 + xstride;
+     n47 = n46 + xstride;
+     n48 = n47 + xstride;
+     n49 = n48 + xstride;
+     n50 = n49 + xstride;
+     n51 = n50 + xstride;
+     n52 = n51 + xstride;
+     n53 = n52 + xstride;
+     n54 = n53 + xstride;
+     n55 = n54 + xstride;
+     n56 = n55 + xstride;
+     n57 = n56 + xstride;
+     n58 = n57 + xstride;
+     n59 = n58 + xstride;
+     n60 = n59 + xstride;
+     n61 = n60 + xstride;
+     n62 = n61 + xstride;
+     n63 = n62 + xstride;
+
+     m0 = Xoffset;
+     m1 = m0 + 1;
+     m2 = m1 + 1;
+     m3 = m2 + 1;
+     m4 = m3 + 1;
+     m5 = m4 + 1;
+     m6 = m5 + 1;
+     m7 = m6 + 1;
+     m8 = m7 + 1;
+     m9 = m8 + 1;
+     m10 = m9 + 1;
+     m11 = m10 + 1;
+     m12 = m11 + 1;
+     m13 = m12 + 1;
+     m14 = m13 + 1;
+     m15 = m14 + 1;
+     m16 = m15 + 1;
+     m17 = m16 + 1;
+     m18 = m17 + 1;
+     m19 = m18 + 1;
+     m20 = m19 + 1;
+     m21 = m20 + 1;
+     m22 = m21 + 1;
+     m23 = m22 + 1;
+     m24 = m23 + 1;
+     m25 = m24 + 1;
+     m26 = m25 + 1;
+     m27 = m26 + 1;
+     m28 = m27 + 1;
+     m29 = m28 + 1;
+     m30 = m29 + 1;
+     m31 = m30 + 1;
+     m32 = m31 + 1;
+     m33 = m32 + 1;
+     m34 = m33 + 1;
+     m35 = m34 + 1;
+     m36 = m35 + 1;
+     m37 = m36 + 1;
+     m38 = m37 + 1;
+     m39 = m38 + 1;
+     m40 = m39 + 1;
+     m41 = m40 + 1;
+     m42 = m41 + 1;
+     m43 = m42 + 1;
+     m44 = m43 + 1;
+     m45 = m44 + 1;
+     m46 = m45 + 1;
+     m47 = m46 + 1;
+     m48 = m47 + 1;
+     m49 = m48 + 1;
+     m50 = m49 + 1;
+     m51 = m50 + 1;
+     m52 = m51 + 1;
+     m53 = m52 + 1;
+     m54 = m53 + 1;
+     m55 = m54 + 1;
+     m56 = m55 + 1;
+     m57 = m56 + 1;
+     m58 = m57 + 1;
+     m59 = m58 + 1;
+     m60 = m59 + 1;
+     m61 = m60 + 1;
+     m62 = m61 + 1;
+     m63 = m62 + 1;
+
+  }
+  
+  
+  
+  /** 
+   * Evaluates the length-64 complex DFT.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    
+    float T1r, T1i, T3r, T3i; 
+    float Rr, Ri, Sr, Si;
+
+
+  // the sub-transforms are separate methods to keep each method small enough for the JIT compiler
+
+    evaluateHalf( xr, xi, Xr, Xi );
+    evaluateQuarter1( xr, xi, Xr, Xi );
+    evaluateQuarter3( xr, xi, Xr, Xi );
+
+
+  // length 64 dft
+
+
+  // k = 0 butterfly
+
+    Rr = Xr[m32] + Xr[m48];
+    Ri = Xi[m32] + Xi[m48];
+    Sr = Xi[m48] - Xi[m32];
+    Si = Xr[m32] - Xr[m48];
+
+    Xr[m32] = Xr[m0] - Rr;
+    Xi[m32] = Xi[m0] - Ri;
+    Xr[m48] = Xr[m16] + Sr;
+    Xi[m48] = Xi[m16] + Si;
+
+    Xr[m0]  += Rr;
+    Xi[m0]  += Ri;
+    Xr[m16] -= Sr;
+    Xi[m16] -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_64 * Xr[m33] + C_15_64 * Xi[m33];
+    T1i =  C_1_64 * Xi[m33] - C_15_64 * Xr[m33];
+    T3r =  C_3_64 * Xr[m49] + C_13_64 * Xi[m49];
+    T3i =  C_3_64 * Xi[m49] - C_13_64 * Xr[m49];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m33] = Xr[m1] - Rr;
+    Xi[m33] = Xi[m1] - Ri;
+    Xr[m49] = Xr[m17] + Sr;
+    Xi[m49] = Xi[m17] + Si;
+
+    Xr[m1]  += Rr;
+    Xi[m1]  += Ri;
+    Xr[m17] -= Sr;
+    Xi[m17] -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_32 * Xr[m34] + C_7_32 * Xi[m34];
+    T1i =  C_1_32 * Xi[m34] - C_7_32 * Xr[m34];
+    T3r =  C_3_32 * Xr[m50] + C_5_32 * Xi[m50];
+    T3i =  C_3_32 * Xi[m50] - C_5_32 * Xr[m50];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m34] = Xr[m2] - Rr;
+    Xi[m34] = Xi[m2] - Ri;
+    Xr[m50] = Xr[m18] + Sr;
+    Xi[m50] = Xi[m18] + Si;
+
+    Xr[m2]  += Rr;
+    Xi[m2]  += Ri;
+    Xr[m18] -= Sr;
+    Xi[m18] -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_64 * Xr[m35] + C_13_64 * Xi[m35];
+    T1i =  C_3_64 * Xi[m35] - C_13_64 * Xr[m35];
+    T3r =  C_9_64 * Xr[m51] + C_7_64 * Xi[m51];
+    T3i =  C_9_64 * Xi[m51] - C_7_64 * Xr[m51];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m35] = Xr[m3] - Rr;
+    Xi[m35] = Xi[m3] - Ri;
+    Xr[m51] = Xr[m19] + Sr;
+    Xi[m51] = Xi[m19] + Si;
+
+    Xr[m3]  += Rr;
+    Xi[m3]  += Ri;
+    Xr[m19] -= Sr;
+    Xi[m19] -= Si;
+
+  // k = 4
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * Xr[m36] + C_3_16 * Xi[m36];
+    T1i =  C_1_16 * Xi[m36] - C_3_16 * Xr[m36];
+    T3r =  C_3_16 * Xr[m52] + C_1_16 * Xi[m52];
+    T3i =  C_3_16 * Xi[m52] - C_1_16 * Xr[m52];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m36] = Xr[m4] - Rr;
+    Xi[m36] = Xi[m4] - Ri;
+    Xr[m52] = Xr[m20] + Sr;
+    Xi[m52] = Xi[m20] + Si;
+
+    Xr[m4]  += Rr;
+    Xi[m4]  += Ri;
+    Xr[m20] -= Sr;
+    Xi[m20] -= Si;
+
+  // k = 5
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_5_64 * Xr[m37] + C_11_64 * Xi[m37];
+    T1i =  C_5_64 * Xi[m37] - C_11_64 * Xr[m37];
+    T3r =  C_15_64 * Xr[m53] + C_1_64 * Xi[m53];
+    T3i =  C_15_64 * Xi[m53] - C_1_64 * Xr[m53];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m37] = Xr[m5] - Rr;
+    Xi[m37] = Xi[m5] - Ri;
+    Xr[m53] = Xr[m21] + Sr;
+    Xi[m53] = Xi[m21] + Si;
+
+    Xr[m5]  += Rr;
+    Xi[m5]  += Ri;
+    Xr[m21] -= Sr;
+    Xi[m21] -= Si;
+
+  // k = 6
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_32 * Xr[m38] + C_5_32 * Xi[m38];
+    T1i =  C_3_32 * Xi[m38] - C_5_32 * Xr[m38];
+    T3r = -C_7_32 * Xr[m54] + C_1_32 * Xi[m54];
+    T3i = -C_7_32 * Xi[m54] - C_1_32 * Xr[m54];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m38] = Xr[m6] - Rr;
+    Xi[m38] = Xi[m6] - Ri;
+    Xr[m54] = Xr[m22] + Sr;
+    Xi[m54] = Xi[m22] + Si;
+
+    Xr[m6]  += Rr;
+    Xi[m6]  += Ri;
+    Xr[m22] -= Sr;
+    Xi[m22] -= Si;
+
+  // k = 7
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_7_64 * Xr[m39] + C_9_64 * Xi[m39];
+    T1i =  C_7_64 * Xi[m39] - C_9_64 * Xr[m39];
+    T3r = -C_11_64 * Xr[m55] + C_5_64 * Xi[m55];
+    T3i = -C_11_64 * Xi[m55] - C_5_64 * Xr[m55];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m39] = Xr[m7] - Rr;
+    Xi[m39] = Xi[m7] - Ri;
+    Xr[m55] = Xr[m23] + Sr;
+    Xi[m55] = Xi[m23] + Si;
+
+    Xr[m7]  += Rr;
+    Xi[m7]  += Ri;
+    Xr[m23] -= Sr;
+    Xi[m23] -= Si;
+
+  // k = 8
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( Xr[m40] + Xi[m40] );
+    T1i =  SQRT2BY2 * ( Xi[m40] - Xr[m40] );
+    T3r =  SQRT2BY2 * ( Xi[m56] - Xr[m56] );
+    T3i = -SQRT2BY2 * ( Xi[m56] + Xr[m56] );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m40] = Xr[m8] - Rr;
+    Xi[m40] = Xi[m8] - Ri;
+    Xr[m56] = Xr[m24] + Sr;
+    Xi[m56] = Xi[m24] + Si;
+
+    Xr[m8]  += Rr;
+    Xi[m8]  += Ri;
+    Xr[m24] -= Sr;
+    Xi[m24] -= Si;
+
+  // k = 9
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_9_64 * Xr[m41] + C_7_64 * Xi[m41];
+    T1i =  C_9_64 * Xi[m41] - C_7_64 * Xr[m41];
+    T3r = -C_5_64 * Xr[m57] + C_11_64 * Xi[m57];
+    T3i = -C_5_64 * Xi[m57] - C_11_64 * Xr[m57];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m41] = Xr[m9] - Rr;
+    Xi[m41] = Xi[m9] - Ri;
+    Xr[m57] = Xr[m25] + Sr;
+    Xi[m57] = Xi[m25] + Si;
+
+    Xr[m9]  += Rr;
+    Xi[m9]  += Ri;
+    Xr[m25] -= Sr;
+    Xi[m25] -= Si;
+
+  // k = 10
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_5_32 * Xr[m42] + C_3_32 * Xi[m42];
+    T1i =  C_5_32 * Xi[m42] - C_3_32 * Xr[m42];
+    T3r = -C_1_32 * Xr[m58] + C_7_32 * Xi[m58];
+    T3i = -C_1_32 * Xi[m58] - C_7_32 * Xr[m58];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m42] = Xr[m10] - Rr;
+    Xi[m42] = Xi[m10] - Ri;
+    Xr[m58] = Xr[m26] + Sr;
+    Xi[m58] = Xi[m26] + Si;
+
+    Xr[m10] += Rr;
+    Xi[m10] += Ri;
+    Xr[m26] -= Sr;
+    Xi[m26] -= Si;
+
+  // k = 11
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_11_64 * Xr[m43] + C_5_64 * Xi[m43];
+    T1i =  C_11_64 * Xi[m43] - C_5_64 * Xr[m43];
+    T3r = -C_1_64 * Xr[m59] - C_15_64 * Xi[m59];
+    T3i = -C_1_64 * Xi[m59] + C_15_64 * Xr[m59];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m43] = Xr[m11] - Rr;
+    Xi[m43] = Xi[m11] - Ri;
+    Xr[m59] = Xr[m27] + Sr;
+    Xi[m59] = Xi[m27] + Si;
+
+    Xr[m11] += Rr;
+    Xi[m11] += Ri;
+    Xr[m27] -= Sr;
+    Xi[m27] -= Si;
+
+  // k = 12
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * Xr[m44] + C_1_16 * Xi[m44];
+    T1i =  C_3_16 * Xi[m44] - C_1_16 * Xr[m44];
+    T3r = -C_1_16 * Xr[m60] - C_3_16 * Xi[m60];
+    T3i = -C_1_16 * Xi[m60] + C_3_16 * Xr[m60];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m44] = Xr[m12] - Rr;
+    Xi[m44] = Xi[m12] - Ri;
+    Xr[m60] = Xr[m28] + Sr;
+    Xi[m60] = Xi[m28] + Si;
+
+    Xr[m12] += Rr;
+    Xi[m12] += Ri;
+    Xr[m28] -= Sr;
+    Xi[m28] -= Si;
+
+  // k = 13
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_13_64 * Xr[m45] + C_3_64 * Xi[m45];
+    T1i =  C_13_64 * Xi[m45] - C_3_64 * Xr[m45];
+    T3r = -C_7_64 * Xr[m61] - C_9_64 * Xi[m61];
+    T3i = -C_7_64 * Xi[m61] + C_9_64 * Xr[m61];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m45] = Xr[m13] - Rr;
+    Xi[m45] = Xi[m13] - Ri;
+    Xr[m61] = Xr[m29] + Sr;
+    Xi[m61] = Xi[m29] + Si;
+
+    Xr[m13] += Rr;
+    Xi[m13] += Ri;
+    Xr[m29] -= Sr;
+    Xi[m29] -= Si;
+
+  // k = 14
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_7_32 * Xr[m46] + C_1_32 * Xi[m46];
+    T1i =  C_7_32 * Xi[m46] - C_1_32 * Xr[m46];
+    T3r = -C_5_32 * Xr[m62] - C_3_32 * Xi[m62];
+    T3i = -C_5_32 * Xi[m62] + C_3_32 * Xr[m62];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m46] = Xr[m14] - Rr;
+    Xi[m46] = Xi[m14] - Ri;
+    Xr[m62] = Xr[m30] + Sr;
+    Xi[m62] = Xi[m30] + Si;
+
+    Xr[m14] += Rr;
+    Xi[m14] += Ri;
+    Xr[m30] -= Sr;
+    Xi[m30] -= Si;
+
+  // k = 15
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_15_64 * Xr[m47] + C_1_64 * Xi[m47];
+    T1i =  C_15_64 * Xi[m47] - C_1_64 * Xr[m47];
+    T3r = -C_13_64 * Xr[m63] - C_3_64 * Xi[m63];
+    T3i = -C_13_64 * Xi[m63] + C_3_64 * Xr[m63];
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    Xr[m47] = Xr[m15] - Rr;
+    Xi[m47] = Xi[m15] - Ri;
+    Xr[m63] = Xr[m31] + Sr;
+    Xi[m63] = Xi[m31] + Si;
+
+    Xr[m15] += Rr;
+    Xi[m15] += Ri;
+    Xr[m31] -= Sr;
+    Xi[m31] -= Si;
+    
+  }
+
+
+
+  /** 
+   * Evaluates the length-32 DFT of samples 2n.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  private void evaluateHalf( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    
+    float T1r, T1i, T3r, T3i; 
+    float Rr, Ri, Sr, Si;
+    float yr0, yr1, yr2, yr3, yr4, yr5, yr6, yr7, yr8, yr9, yr10, yr11, yr12, yr13, yr14, yr15,
+          yr16, yr17, yr18, yr19, yr20, yr21, yr22, yr23, yr24, yr25, yr26, yr27, yr28, yr29, yr30, yr31;
+    float yi0, yi1, yi2, yi3, yi4, yi5, yi6, yi7, yi8, yi9, yi10, yi11, yi12, yi13, yi14, yi15,
+          yi16, yi17, yi18, yi19, yi20, yi21, yi22, yi23, yi24, yi25, yi26, yi27, yi28, yi29, yi30, yi31;
+
+
+// Length 2 DFT
+
+    yr0 = xr[n0] + xr[n32];
+    yi0 = xi[n0] + xi[n32];
+    yr1 = xr[n0] - xr[n32];
+    yi1 = xi[n0] - xi[n32];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n16] + xr[n48];
+    Ri = xi[n16] + xi[n48];
+    Sr = xi[n48] - xi[n16];
+    Si = xr[n16] - xr[n48];
+
+    yr2 = yr0 - Rr;
+    yi2 = yi0 - Ri;
+    yr3 = yr1 + Sr;
+    yi3 = yi1 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr1 -= Sr;
+    yi1 -= Si;
+
+
+// Length 2 DFT
+
+    yr4 = xr[n8] + xr[n40];
+    yi4 = xi[n8] + xi[n40];
+    yr5 = xr[n8] - xr[n40];
+    yi5 = xi[n8] - xi[n40];
+
+// Length 2 DFT
+
+    yr6 = xr[n24] + xr[n56];
+    yi6 = xi[n24] + xi[n56];
+    yr7 = xr[n24] - xr[n56];
+    yi7 = xi[n24] - xi[n56];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr4 + yr6;
+    Ri = yi4 + yi6;
+    Sr = yi6 - yi4;
+    Si = yr4 - yr6;
+
+    yr4 = yr0 - Rr;
+    yi4 = yi0 - Ri;
+    yr6 = yr2 + Sr;
+    yi6 = yi2 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr2 -= Sr;
+    yi2 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr5 + yi5 );
+    T1i =  SQRT2BY2 * ( yi5 - yr5 );
+    T3r =  SQRT2BY2 * ( yi7 - yr7 );
+    T3i = -SQRT2BY2 * ( yi7 + yr7 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr5 = yr1 - Rr;
+    yi5 = yi1 - Ri;
+    yr7 = yr3 + Sr;
+    yi7 = yi3 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr3 -= Sr;
+    yi3 -= Si;
+
+
+// Length 2 DFT
+
+    yr8 = xr[n4] + xr[n36];
+    yi8 = xi[n4] + xi[n36];
+    yr9 = xr[n4] - xr[n36];
+    yi9 = xi[n4] - xi[n36];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n20] + xr[n52];
+    Ri = xi[n20] + xi[n52];
+    Sr = xi[n52] - xi[n20];
+    Si = xr[n20] - xr[n52];
+
+    yr10 = yr8 - Rr;
+    yi10 = yi8 - Ri;
+    yr11 = yr9 + Sr;
+    yi11 = yi9 + Si;
+
+    yr8 += Rr;
+    yi8 += Ri;
+    yr9 -= Sr;
+    yi9 -= Si;
+
+
+// Length 2 DFT
+
+    yr12 = xr[n12] + xr[n44];
+    yi12 = xi[n12] + xi[n44];
+    yr13 = xr[n12] - xr[n44];
+    yi13 = xi[n12] - xi[n44];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n28] + xr[n60];
+    Ri = xi[n28] + xi[n60];
+    Sr = xi[n60] - xi[n28];
+    Si = xr[n28] - xr[n60];
+
+    yr14 = yr12 - Rr;
+    yi14 = yi12 - Ri;
+    yr15 = yr13 + Sr;
+    yi15 = yi13 + Si;
+
+    yr12 += Rr;
+    yi12 += Ri;
+    yr13 -= Sr;
+    yi13 -= Si;
+
+
+  // length 16 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr8  + yr12;
+    Ri = yi8  + yi12;
+    Sr = yi12 - yi8;
+    Si = yr8  - yr12;
+
+    yr8  = yr0 - Rr;
+    yi8  = yi0 - Ri;
+    yr12 = yr4 + Sr;
+    yi12 = yi4 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr4 -= Sr;
+    yi4 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr9  + C_3_16 * yi9;
+    T1i =  C_1_16 * yi9  - C_3_16 * yr9;
+    T3r =  C_3_16 * yr13 + C_1_16 * yi13;
+    T3i =  C_3_16 * yi13 - C_1_16 * yr13;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr9  = yr1 - Rr;
+    yi9  = yi1 - Ri;
+    yr13 = yr5 + Sr;
+    yi13 = yi5 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr5 -= Sr;
+    yi5 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr10 + yi10 );
+    T1i =  SQRT2BY2 * ( yi10 - yr10 );
+    T3r =  SQRT2BY2 * ( yi14 - yr14 );
+    T3i = -SQRT2BY2 * ( yi14 + yr14 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr10 = yr2 - Rr;
+    yi10 = yi2 - Ri;
+    yr14 = yr6 + Sr;
+    yi14 = yi6 + Si;
+
+    yr2 += Rr;
+    yi2 += Ri;
+    yr6 -= Sr;
+    yi6 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr11 + C_1_16 * yi11;
+    T1i =  C_3_16 * yi11 - C_1_16 * yr11;
+    T3r = -C_1_16 * yr15 - C_3_16 * yi15;
+    T3i = -C_1_16 * yi15 + C_3_16 * yr15;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr11 = yr3 - Rr;
+    yi11 = yi3 - Ri;
+    yr15 = yr7 + Sr;
+    yi15 = yi7 + Si;
+
+    yr3 += Rr;
+    yi3 += Ri;
+    yr7 -= Sr;
+    yi7 -= Si;
+
+
+// Length 2 DFT
+
+    yr16 = xr[n2] + xr[n34];
+    yi16 = xi[n2] + xi[n34];
+    yr17 = xr[n2] - xr[n34];
+    yi17 = xi[n2] - xi[n34];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n18] + xr[n50];
+    Ri = xi[n18] + xi[n50];
+    Sr = xi[n50] - xi[n18];
+    Si = xr[n18] - xr[n50];
+
+    yr18 = yr16 - Rr;
+    yi18 = yi16 - Ri;
+    yr19 = yr17 + Sr;
+    yi19 = yi17 + Si;
+
+    yr16 += Rr;
+    yi16 += Ri;
+    yr17 -= Sr;
+    yi17 -= Si;
+
+
+// Length 2 DFT
+
+    yr20 = xr[n10] + xr[n42];
+    yi20 = xi[n10] + xi[n42];
+    yr21 = xr[n10] - xr[n42];
+    yi21 = xi[n10] - xi[n42];
+
+// Length 2 DFT
+
+    yr22 = xr[n26] + xr[n58];
+    yi22 = xi[n26] + xi[n58];
+    yr23 = xr[n26] - xr[n58];
+    yi23 = xi[n26] - xi[n58];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr20 + yr22;
+    Ri = yi20 + yi22;
+    Sr = yi22 - yi20;
+    Si = yr20 - yr22;
+
+    yr20 = yr16 - Rr;
+    yi20 = yi16 - Ri;
+    yr22 = yr18 + Sr;
+    yi22 = yi18 + Si;
+
+    yr16 += Rr;
+    yi16 += Ri;
+    yr18 -= Sr;
+    yi18 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr21 + yi21 );
+    T1i =  SQRT2BY2 * ( yi21 - yr21 );
+    T3r =  SQRT2BY2 * ( yi23 - yr23 );
+    T3i = -SQRT2BY2 * ( yi23 + yr23 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr21 = yr17 - Rr;
+    yi21 = yi17 - Ri;
+    yr23 = yr19 + Sr;
+    yi23 = yi19 + Si;
+
+    yr17 += Rr;
+    yi17 += Ri;
+    yr19 -= Sr;
+    yi19 -= Si;
+
+
+// Length 2 DFT
+
+    yr24 = xr[n6] + xr[n38];
+    yi24 = xi[n6] + xi[n38];
+    yr25 = xr[n6] - xr[n38];
+    yi25 = xi[n6] - xi[n38];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n22] + xr[n54];
+    Ri = xi[n22] + xi[n54];
+    Sr = xi[n54] - xi[n22];
+    Si = xr[n22] - xr[n54];
+
+    yr26 = yr24 - Rr;
+    yi26 = yi24 - Ri;
+    yr27 = yr25 + Sr;
+    yi27 = yi25 + Si;
+
+    yr24 += Rr;
+    yi24 += Ri;
+    yr25 -= Sr;
+    yi25 -= Si;
+
+
+// Length 2 DFT
+
+    yr28 = xr[n14] + xr[n46];
+    yi28 = xi[n14] + xi[n46];
+    yr29 = xr[n14] - xr[n46];
+    yi29 = xi[n14] - xi[n46];
+
+// Length 2 DFT
+
+    yr30 = xr[n30] + xr[n62];
+    yi30 = xi[n30] + xi[n62];
+    yr31 = xr[n30] - xr[n62];
+    yi31 = xi[n30] - xi[n62];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr28 + yr30;
+    Ri = yi28 + yi30;
+    Sr = yi30 - yi28;
+    Si = yr28 - yr30;
+
+    yr28 = yr24 - Rr;
+    yi28 = yi24 - Ri;
+    yr30 = yr26 + Sr;
+    yi30 = yi26 + Si;
+
+    yr24 += Rr;
+    yi24 += Ri;
+    yr26 -= Sr;
+    yi26 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr29 + yi29 );
+    T1i =  SQRT2BY2 * ( yi29 - yr29 );
+    T3r =  SQRT2BY2 * ( yi31 - yr31 );
+    T3i = -SQRT2BY2 * ( yi31 + yr31 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr29 = yr25 - Rr;
+    yi29 = yi25 - Ri;
+    yr31 = yr27 + Sr;
+    yi31 = yi27 + Si;
+
+    yr25 += Rr;
+    yi25 += Ri;
+    yr27 -= Sr;
+    yi27 -= Si;
+
+
+  // length 32 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr16 + yr24;
+    Ri = yi16 + yi24;
+    Sr = yi24 - yi16;
+    Si = yr16 - yr24;
+
+    yr16 = yr0 - Rr;
+    yi16 = yi0 - Ri;
+    yr24 = yr8 + Sr;
+    yi24 = yi8 + Si;
+
+    yr0 += Rr;
+    yi0 += Ri;
+    yr8 -= Sr;
+    yi8 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_32 * yr17 + C_7_32 * yi17;
+    T1i =  C_1_32 * yi17 - C_7_32 * yr17;
+    T3r =  C_3_32 * yr25 + C_5_32 * yi25;
+    T3i =  C_3_32 * yi25 - C_5_32 * yr25;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr17 = yr1 - Rr;
+    yi17 = yi1 - Ri;
+    yr25 = yr9 + Sr;
+    yi25 = yi9 + Si;
+
+    yr1 += Rr;
+    yi1 += Ri;
+    yr9 -= Sr;
+    yi9 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr18 + C_3_16 * yi18;
+    T1i =  C_1_16 * yi18 - C_3_16 * yr18;
+    T3r =  C_3_16 * yr26 + C_1_16 * yi26;
+    T3i =  C_3_16 * yi26 - C_1_16 * yr26;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr18 = yr2 - Rr;
+    yi18 = yi2 - Ri;
+    yr26 = yr10 + Sr;
+    yi26 = yi10 + Si;
+
+    yr2  += Rr;
+    yi2  += Ri;
+    yr10 -= Sr;
+    yi10 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_32 * yr19 + C_5_32 * yi19;
+    T1i =  C_3_32 * yi19 - C_5_32 * yr19;
+    T3r = -C_7_32 * yr27 + C_1_32 * yi27;
+    T3i = -C_7_32 * yi27 - C_1_32 * yr27;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr19 = yr3 - Rr;
+    yi19 = yi3 - Ri;
+    yr27 = yr11 + Sr;
+    yi27 = yi11 + Si;
+
+    yr3  += Rr;
+    yi3  += Ri;
+    yr11 -= Sr;
+    yi11 -= Si;
+
+  // k = 4
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr20 + yi20 );
+    T1i =  SQRT2BY2 * ( yi20 - yr20 );
+    T3r =  SQRT2BY2 * ( yi28 - yr28 );
+    T3i = -SQRT2BY2 * ( yi28 + yr28 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr20 = yr4 - Rr;
+    yi20 = yi4 - Ri;
+    yr28 = yr12 + Sr;
+    yi28 = yi12 + Si;
+
+    yr4  += Rr;
+    yi4  += Ri;
+    yr12 -= Sr;
+    yi12 -= Si;
+
+  // k = 5
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_5_32 * yr21 + C_3_32 * yi21;
+    T1i =  C_5_32 * yi21 - C_3_32 * yr21;
+    T3r = -C_1_32 * yr29 + C_7_32 * yi29;
+    T3i = -C_1_32 * yi29 - C_7_32 * yr29;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr21 = yr5 - Rr;
+    yi21 = yi5 - Ri;
+    yr29 = yr13 + Sr;
+    yi29 = yi13 + Si;
+
+    yr5  += Rr;
+    yi5  += Ri;
+    yr13 -= Sr;
+    yi13 -= Si;
+
+  // k = 6
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr22 + C_1_16 * yi22;
+    T1i =  C_3_16 * yi22 - C_1_16 * yr22;
+    T3r = -C_1_16 * yr30 - C_3_16 * yi30;
+    T3i = -C_1_16 * yi30 + C_3_16 * yr30;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr22 = yr6 - Rr;
+    yi22 = yi6 - Ri;
+    yr30 = yr14 + Sr;
+    yi30 = yi14 + Si;
+
+    yr6  += Rr;
+    yi6  += Ri;
+    yr14 -= Sr;
+    yi14 -= Si;
+
+  // k = 7
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_7_32 * yr23 + C_1_32 * yi23;
+    T1i =  C_7_32 * yi23 - C_1_32 * yr23;
+    T3r = -C_5_32 * yr31 - C_3_32 * yi31;
+    T3i = -C_5_32 * yi31 + C_3_32 * yr31;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr23 = yr7 - Rr;
+    yi23 = yi7 - Ri;
+    yr31 = yr15 + Sr;
+    yi31 = yi15 + Si;
+
+    yr7  += Rr;
+    yi7  += Ri;
+    yr15 -= Sr;
+    yi15 -= Si;
+
+
+  // store transform
+
+    Xr[m0]  = yr0;
+    Xi[m0]  = yi0;
+    Xr[m1]  = yr1;
+    Xi[m1]  = yi1;
+    Xr[m2]  = yr2;
+    Xi[m2]  = yi2;
+    Xr[m3]  = yr3;
+    Xi[m3]  = yi3;
+    Xr[m4]  = yr4;
+    Xi[m4]  = yi4;
+    Xr[m5]  = yr5;
+    Xi[m5]  = yi5;
+    Xr[m6]  = yr6;
+    Xi[m6]  = yi6;
+    Xr[m7]  = yr7;
+    Xi[m7]  = yi7;
+    Xr[m8]  = yr8;
+    Xi[m8]  = yi8;
+    Xr[m9]  = yr9;
+    Xi[m9]  = yi9;
+    Xr[m10] = yr10;
+    Xi[m10] = yi10;
+    Xr[m11] = yr11;
+    Xi[m11] = yi11;
+    Xr[m12] = yr12;
+    Xi[m12] = yi12;
+    Xr[m13] = yr13;
+    Xi[m13] = yi13;
+    Xr[m14] = yr14;
+    Xi[m14] = yi14;
+    Xr[m15] = yr15;
+    Xi[m15] = yi15;
+    Xr[m16] = yr16;
+    Xi[m16] = yi16;
+    Xr[m17] = yr17;
+    Xi[m17] = yi17;
+    Xr[m18] = yr18;
+    Xi[m18] = yi18;
+    Xr[m19] = yr19;
+    Xi[m19] = yi19;
+    Xr[m20] = yr20;
+    Xi[m20] = yi20;
+    Xr[m21] = yr21;
+    Xi[m21] = yi21;
+    Xr[m22] = yr22;
+    Xi[m22] = yi22;
+    Xr[m23] = yr23;
+    Xi[m23] = yi23;
+    Xr[m24] = yr24;
+    Xi[m24] = yi24;
+    Xr[m25] = yr25;
+    Xi[m25] = yi25;
+    Xr[m26] = yr26;
+    Xi[m26] = yi26;
+    Xr[m27] = yr27;
+    Xi[m27] = yi27;
+    Xr[m28] = yr28;
+    Xi[m28] = yi28;
+    Xr[m29] = yr29;
+    Xi[m29] = yi29;
+    Xr[m30] = yr30;
+    Xi[m30] = yi30;
+    Xr[m31] = yr31;
+    Xi[m31] = yi31;
+    
+  }
+
+
+
+  /** 
+   * Evaluates the length-16 DFT of samples 4n+1.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  private void evaluateQuarter1( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    
+    float T1r, T1i, T3r, T3i; 
+    float Rr, Ri, Sr, Si;
+    float yr32, yr33, yr34, yr35, yr36, yr37, yr38, yr39, yr40, yr41, yr42, yr43, yr44, yr45, yr46, yr47;
+    float yi32, yi33, yi34, yi35, yi36, yi37, yi38, yi39, yi40, yi41, yi42, yi43, yi44, yi45, yi46, yi47;
+
+
+// Length 2 DFT
+
+    yr32 = xr[n1] + xr[n33];
+    yi32 = xi[n1] + xi[n33];
+    yr33 = xr[n1] - xr[n33];
+    yi33 = xi[n1] - xi[n33];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n17] + xr[n49];
+    Ri = xi[n17] + xi[n49];
+    Sr = xi[n49] - xi[n17];
+    Si = xr[n17] - xr[n49];
+
+    yr34 = yr32 - Rr;
+    yi34 = yi32 - Ri;
+    yr35 = yr33 + Sr;
+    yi35 = yi33 + Si;
+
+    yr32 += Rr;
+    yi32 += Ri;
+    yr33 -= Sr;
+    yi33 -= Si;
+
+
+// Length 2 DFT
+
+    yr36 = xr[n9] + xr[n41];
+    yi36 = xi[n9] + xi[n41];
+    yr37 = xr[n9] - xr[n41];
+    yi37 = xi[n9] - xi[n41];
+
+// Length 2 DFT
+
+    yr38 = xr[n25] + xr[n57];
+    yi38 = xi[n25] + xi[n57];
+    yr39 = xr[n25] - xr[n57];
+    yi39 = xi[n25] - xi[n57];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr36 + yr38;
+    Ri = yi36 + yi38;
+    Sr = yi38 - yi36;
+    Si = yr36 - yr38;
+
+    yr36 = yr32 - Rr;
+    yi36 = yi32 - Ri;
+    yr38 = yr34 + Sr;
+    yi38 = yi34 + Si;
+
+    yr32 += Rr;
+    yi32 += Ri;
+    yr34 -= Sr;
+    yi34 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr37 + yi37 );
+    T1i =  SQRT2BY2 * ( yi37 - yr37 );
+    T3r =  SQRT2BY2 * ( yi39 - yr39 );
+    T3i = -SQRT2BY2 * ( yi39 + yr39 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr37 = yr33 - Rr;
+    yi37 = yi33 - Ri;
+    yr39 = yr35 + Sr;
+    yi39 = yi35 + Si;
+
+    yr33 += Rr;
+    yi33 += Ri;
+    yr35 -= Sr;
+    yi35 -= Si;
+
+
+// Length 2 DFT
+
+    yr40 = xr[n5] + xr[n37];
+    yi40 = xi[n5] + xi[n37];
+    yr41 = xr[n5] - xr[n37];
+    yi41 = xi[n5] - xi[n37];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n21] + xr[n53];
+    Ri = xi[n21] + xi[n53];
+    Sr = xi[n53] - xi[n21];
+    Si = xr[n21] - xr[n53];
+
+    yr42 = yr40 - Rr;
+    yi42 = yi40 - Ri;
+    yr43 = yr41 + Sr;
+    yi43 = yi41 + Si;
+
+    yr40 += Rr;
+    yi40 += Ri;
+    yr41 -= Sr;
+    yi41 -= Si;
+
+
+// Length 2 DFT
+
+    yr44 = xr[n13] + xr[n45];
+    yi44 = xi[n13] + xi[n45];
+    yr45 = xr[n13] - xr[n45];
+    yi45 = xi[n13] - xi[n45];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n29] + xr[n61];
+    Ri = xi[n29] + xi[n61];
+    Sr = xi[n61] - xi[n29];
+    Si = xr[n29] - xr[n61];
+
+    yr46 = yr44 - Rr;
+    yi46 = yi44 - Ri;
+    yr47 = yr45 + Sr;
+    yi47 = yi45 + Si;
+
+    yr44 += Rr;
+    yi44 += Ri;
+    yr45 -= Sr;
+    yi45 -= Si;
+
+
+  // length 16 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr40 + yr44;
+    Ri = yi40 + yi44;
+    Sr = yi44 - yi40;
+    Si = yr40 - yr44;
+
+    yr40 = yr32 - Rr;
+    yi40 = yi32 - Ri;
+    yr44 = yr36 + Sr;
+    yi44 = yi36 + Si;
+
+    yr32 += Rr;
+    yi32 += Ri;
+    yr36 -= Sr;
+    yi36 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr41 + C_3_16 * yi41;
+    T1i =  C_1_16 * yi41 - C_3_16 * yr41;
+    T3r =  C_3_16 * yr45 + C_1_16 * yi45;
+    T3i =  C_3_16 * yi45 - C_1_16 * yr45;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr41 = yr33 - Rr;
+    yi41 = yi33 - Ri;
+    yr45 = yr37 + Sr;
+    yi45 = yi37 + Si;
+
+    yr33 += Rr;
+    yi33 += Ri;
+    yr37 -= Sr;
+    yi37 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr42 + yi42 );
+    T1i =  SQRT2BY2 * ( yi42 - yr42 );
+    T3r =  SQRT2BY2 * ( yi46 - yr46 );
+    T3i = -SQRT2BY2 * ( yi46 + yr46 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr42 = yr34 - Rr;
+    yi42 = yi34 - Ri;
+    yr46 = yr38 + Sr;
+    yi46 = yi38 + Si;
+
+    yr34 += Rr;
+    yi34 += Ri;
+    yr38 -= Sr;
+    yi38 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr43 + C_1_16 * yi43;
+    T1i =  C_3_16 * yi43 - C_1_16 * yr43;
+    T3r = -C_1_16 * yr47 - C_3_16 * yi47;
+    T3i = -C_1_16 * yi47 + C_3_16 * yr47;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr43 = yr35 - Rr;
+    yi43 = yi35 - Ri;
+    yr47 = yr39 + Sr;
+    yi47 = yi39 + Si;
+
+    yr35 += Rr;
+    yi35 += Ri;
+    yr39 -= Sr;
+    yi39 -= Si;
+
+
+  // store transform
+
+    Xr[m32] = yr32;
+    Xi[m32] = yi32;
+    Xr[m33] = yr33;
+    Xi[m33] = yi33;
+    Xr[m34] = yr34;
+    Xi[m34] = yi34;
+    Xr[m35] = yr35;
+    Xi[m35] = yi35;
+    Xr[m36] = yr36;
+    Xi[m36] = yi36;
+    Xr[m37] = yr37;
+    Xi[m37] = yi37;
+    Xr[m38] = yr38;
+    Xi[m38] = yi38;
+    Xr[m39] = yr39;
+    Xi[m39] = yi39;
+    Xr[m40] = yr40;
+    Xi[m40] = yi40;
+    Xr[m41] = yr41;
+    Xi[m41] = yi41;
+    Xr[m42] = yr42;
+    Xi[m42] = yi42;
+    Xr[m43] = yr43;
+    Xi[m43] = yi43;
+    Xr[m44] = yr44;
+    Xi[m44] = yi44;
+    Xr[m45] = yr45;
+    Xi[m45] = yi45;
+    Xr[m46] = yr46;
+    Xi[m46] = yi46;
+    Xr[m47] = yr47;
+    Xi[m47] = yi47;
+    
+  }
+
+
+
+  /** 
+   * Evaluates the length-16 DFT of samples 4n+3.
+   *
+   * @param xr  float[] containing the input sequence real part.
+   * @param xi  float[] containing the input sequence imaginary part.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
+   */
+  private void evaluateQuarter3( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    
+    float T1r, T1i, T3r, T3i; 
+    float Rr, Ri, Sr, Si;
+    float yr48, yr49, yr50, yr51, yr52, yr53, yr54, yr55, yr56, yr57, yr58, yr59, yr60, yr61, yr62, yr63;
+    float yi48, yi49, yi50, yi51, yi52, yi53, yi54, yi55, yi56, yi57, yi58, yi59, yi60, yi61, yi62, yi63;
+
+
+// Length 2 DFT
+
+    yr48 = xr[n3] + xr[n35];
+    yi48 = xi[n3] + xi[n35];
+    yr49 = xr[n3] - xr[n35];
+    yi49 = xi[n3] - xi[n35];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n19] + xr[n51];
+    Ri = xi[n19] + xi[n51];
+    Sr = xi[n51] - xi[n19];
+    Si = xr[n19] - xr[n51];
+
+    yr50 = yr48 - Rr;
+    yi50 = yi48 - Ri;
+    yr51 = yr49 + Sr;
+    yi51 = yi49 + Si;
+
+    yr48 += Rr;
+    yi48 += Ri;
+    yr49 -= Sr;
+    yi49 -= Si;
+
+
+// Length 2 DFT
+
+    yr52 = xr[n11] + xr[n43];
+    yi52 = xi[n11] + xi[n43];
+    yr53 = xr[n11] - xr[n43];
+    yi53 = xi[n11] - xi[n43];
+
+// Length 2 DFT
+
+    yr54 = xr[n27] + xr[n59];
+    yi54 = xi[n27] + xi[n59];
+    yr55 = xr[n27] - xr[n59];
+    yi55 = xi[n27] - xi[n59];
+
+  // length 8 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr52 + yr54;
+    Ri = yi52 + yi54;
+    Sr = yi54 - yi52;
+    Si = yr52 - yr54;
+
+    yr52 = yr48 - Rr;
+    yi52 = yi48 - Ri;
+    yr54 = yr50 + Sr;
+    yi54 = yi50 + Si;
+
+    yr48 += Rr;
+    yi48 += Ri;
+    yr50 -= Sr;
+    yi50 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr53 + yi53 );
+    T1i =  SQRT2BY2 * ( yi53 - yr53 );
+    T3r =  SQRT2BY2 * ( yi55 - yr55 );
+    T3i = -SQRT2BY2 * ( yi55 + yr55 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr53 = yr49 - Rr;
+    yi53 = yi49 - Ri;
+    yr55 = yr51 + Sr;
+    yi55 = yi51 + Si;
+
+    yr49 += Rr;
+    yi49 += Ri;
+    yr51 -= Sr;
+    yi51 -= Si;
+
+
+// Length 2 DFT
+
+    yr56 = xr[n7] + xr[n39];
+    yi56 = xi[n7] + xi[n39];
+    yr57 = xr[n7] - xr[n39];
+    yi57 = xi[n7] - xi[n39];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n23] + xr[n55];
+    Ri = xi[n23] + xi[n55];
+    Sr = xi[n55] - xi[n23];
+    Si = xr[n23] - xr[n55];
+
+    yr58 = yr56 - Rr;
+    yi58 = yi56 - Ri;
+    yr59 = yr57 + Sr;
+    yi59 = yi57 + Si;
+
+    yr56 += Rr;
+    yi56 += Ri;
+    yr57 -= Sr;
+    yi57 -= Si;
+
+
+// Length 2 DFT
+
+    yr60 = xr[n15] + xr[n47];
+    yi60 = xi[n15] + xi[n47];
+    yr61 = xr[n15] - xr[n47];
+    yi61 = xi[n15] - xi[n47];
+
+  // length 4 dft
+
+
+  // k = 0 butterfly
+
+    Rr = xr[n31] + xr[n63];
+    Ri = xi[n31] + xi[n63];
+    Sr = xi[n63] - xi[n31];
+    Si = xr[n31] - xr[n63];
+
+    yr62 = yr60 - Rr;
+    yi62 = yi60 - Ri;
+    yr63 = yr61 + Sr;
+    yi63 = yi61 + Si;
+
+    yr60 += Rr;
+    yi60 += Ri;
+    yr61 -= Sr;
+    yi61 -= Si;
+
+
+  // length 16 dft
+
+
+  // k = 0 butterfly
+
+    Rr = yr56 + yr60;
+    Ri = yi56 + yi60;
+    Sr = yi60 - yi56;
+    Si = yr56 - yr60;
+
+    yr56 = yr48 - Rr;
+    yi56 = yi48 - Ri;
+    yr60 = yr52 + Sr;
+    yi60 = yi52 + Si;
+
+    yr48 += Rr;
+    yi48 += Ri;
+    yr52 -= Sr;
+    yi52 -= Si;
+
+
+  // all other butterflies
+
+  // k = 1
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_1_16 * yr57 + C_3_16 * yi57;
+    T1i =  C_1_16 * yi57 - C_3_16 * yr57;
+    T3r =  C_3_16 * yr61 + C_1_16 * yi61;
+    T3i =  C_3_16 * yi61 - C_1_16 * yr61;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr57 = yr49 - Rr;
+    yi57 = yi49 - Ri;
+    yr61 = yr53 + Sr;
+    yi61 = yi53 + Si;
+
+    yr49 += Rr;
+    yi49 += Ri;
+    yr53 -= Sr;
+    yi53 -= Si;
+
+  // k = 2
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  SQRT2BY2 * ( yr58 + yi58 );
+    T1i =  SQRT2BY2 * ( yi58 - yr58 );
+    T3r =  SQRT2BY2 * ( yi62 - yr62 );
+    T3i = -SQRT2BY2 * ( yi62 + yr62 );
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr58 = yr50 - Rr;
+    yi58 = yi50 - Ri;
+    yr62 = yr54 + Sr;
+    yi62 = yi54 + Si;
+
+    yr50 += Rr;
+    yi50 += Ri;
+    yr54 -= Sr;
+    yi54 -= Si;
+
+  // k = 3
+  // T1 = Wk*O1
+  // T3 = W3k*O3
+
+    T1r =  C_3_16 * yr59 + C_1_16 * yi59;
+    T1i =  C_3_16 * yi59 - C_1_16 * yr59;
+    T3r = -C_1_16 * yr63 - C_3_16 * yi63;
+    T3i = -C_1_16 * yi63 + C_3_16 * yr63;
+
+  // R = T1 + T3
+  // S = i*(T1 - T3)
+
+    Rr = T1r + T3r;
+    Ri = T1i + T3i;
+    Sr = T3i - T1i;
+    Si = T1r - T3r;
+
+    yr59 = yr51 - Rr;
+    yi59 = yi51 - Ri;
+    yr63 = yr55 + Sr;
+    yi63 = yi55 + Si;
+
+    yr51 += Rr;
+    yi51 += Ri;
+    yr55 -= Sr;
+    yi55 -= Si;
+
+
+  // store transform
+
+    Xr[m48] = yr48;
+    Xi[m48] = yi48;
+    Xr[m49] = yr49;
+    Xi[m49] = yi49;
+    Xr[m50] = yr50;
+    Xi[m50] = yi50;
+    Xr[m51] = yr51;
+    Xi[m51] = yi51;
+    Xr[m52] = yr52;
+    Xi[m52] = yi52;
+    Xr[m53] = yr53;
+    Xi[m53] = yi53;
+    Xr[m54] = yr54;
+    Xi[m54] = yi54;
+    Xr[m55] = yr55;
+    Xi[m55] = yi55;
+    Xr[m56] = yr56;
+    Xi[m56] = yi56;
+    Xr[m57] = yr57;
+    Xi[m57] = yi57;
+    Xr[m58] = yr58;
+    Xi[m58] = yi58;
+    Xr[m59] = yr59;
+    Xi[m59] = yi59;
+    Xr[m60] = yr60;
+    Xi[m60] = yi60;
+    Xr[m61] = yr61;
+    Xi[m61] = yi61;
+    Xr[m62] = yr62;
+    Xi[m62] = yi62;
+    Xr[m63] = yr63;
+    Xi[m63] = yi63;
+    
+  }
+
+}
@@ -74,26 +74,14 @@ class CDFTsr8 extends CDFTsr {
   
   
   /**
-   * Links the user-supplied input sequence and output transform arrays.
-   * 
+   * Evaluates the length-8 complex DFT.
+   *
    * @param xr  float[] containing the input sequence real part.
    * @param xi  float[] containing the input sequence imaginary part.
-   * @param Xr  float[] containing the output sequence real part.
-   * @param Xi  float[] containing the output sequence imaginary part.
-   */
-  void link( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
-    this.xr = xr;
-    this.xi = xi;
-    this.Xr = Xr;
-    this.Xi = Xi;
-  }
-
-
-
-  /**
-   * Evaluates the length-8 complex DFT.
+   * @param Xr  float[] containing the output transform real part.
+   * @param Xi  float[] containing the output transform imaginary part.
    */
-  void evaluate() {
+  void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
      
     float T1r, T1i, T3r, T3i; 
     float Rr, Ri, Sr, Si;
@@ -24,7 +24,8 @@ package com.oregondsp.signalProcessing.fft;
  * Package-private class implementing an arbitrary power-of-two length complex DFT with the split radix algorithm.
  * Double precision version.
  * 
- * Creates smaller CDFTsrdp instances recursively and calls these in the evaluation.
+ * Creates smaller CDFTsrdp instances recursively and calls these in the evaluation.  The recursion ends in
+ * unrolled length-32 and length-64 leaves (CDFTsr32dp and CDFTsr64dp).
  * 
  * @author David B. Harris,   Deschutes Signal Processing LLC
  */
@@ -33,12 +34,6 @@ class CDFTsrdp {
   /** Constant twiddle factor for N/2 butterfly. */
   private static final double SQRT2BY2 = (double) (Math.sqrt( 2.0 ) / 2.0); 
 
-  /** double[] pair specifying complex input sequence. */
-  protected double[] xr, xi;
-  
-  /** double[] pair specifying complex output transform. */
-  protected double[] Xr, Xi;
-
   /** int specifying offset into the top-level length-N sequence arrays. */
   protected int     xoffset;
   
@@ -110,20 +105,20 @@ class CDFTsrdp {
     f       = 1;
     reflect = 2*c.length;
 
-    if ( m > 6 ) {
+    if ( m > 8 ) {
       dft1 = new CDFTsrdp( this, 0, 2, 0, m-1 );
       dft2 = new CDFTsrdp( this, 1, 4, N/2, m-2 );
       dft3 = new CDFTsrdp( this, 3, 4, 3*N/4, m-2 );
     }
-    else if ( m == 6 ) {
-      dft1 = new CDFTsrdp( this, 0, 2, 0, 5 );
-      dft2 = new CDFTsr16dp(     1, 4, N/2 );
-      dft3 = new CDFTsr16dp(     3, 4, 3*N/4 );
+    else if ( m == 8 ) {
+      dft1 = new CDFTsrdp( this, 0, 2, 0, 7 );
+      dft2 = new CDFTsr64dp(     1, 4, N/2 );
+      dft3 = new CDFTsr64dp(     3, 4, 3*N/4 );
     }
-    else if ( m == 5 ) {
-      dft1 = new CDFTsr16dp(     0, 2, 0 );
-      dft2 = new CDFTsr8dp(      1, 4, N/2 );
-      dft3 = new CDFTsr8dp(      3, 4, 3*N/4 );
+    else if ( m == 7 ) {
+      dft1 = new CDFTsr64dp(     0, 2, 0 );
+      dft2 = new CDFTsr32dp(     1, 4, N/2 );
+      dft3 = new CDFTsr32dp(     3, 4, 3*N/4 );
     }
 
   }
@@ -168,20 +163,20 @@ class CDFTsrdp {
     f       = c.length / N8;
     reflect = 2*c.length;
 
-    if ( m > 6 ) {
+    if ( m > 8 ) {
       dft1 = new CDFTsrdp( this, dataOffset,                dataStride*2, transformOffset,         m-1 );
       dft2 = new CDFTsrdp( this, dataOffset + dataStride,   dataStride*4, transformOffset + N/2,   m-2 );
       dft3 = new CDFTsrdp( this, dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4, m-2 );
     }
-    else if ( m == 6 ) {
-      dft1 = new CDFTsrdp( this, dataOffset,                dataStride*2, transformOffset,       5 );
-      dft2 = new CDFTsr16dp(     dataOffset + dataStride,   dataStride*4, transformOffset + N/2    );
-      dft3 = new CDFTsr16dp(     dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4  );
+    else if ( m == 8 ) {
+      dft1 = new CDFTsrdp(   this, dataOffset,                dataStride*2, transformOffset,       7 );
+      dft2 = new CDFTsr64dp(       dataOffset + dataStride,   dataStride*4, transformOffset + N/2    );
+      dft3 = new CDFTsr64dp(       dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4  );
     }
-    else if ( m == 5 ) {
-      dft1 = new CDFTsr16dp(     dataOffset,                dataStride*2, transformOffset );
-      dft2 = new CDFTsr8dp(      dataOffset + dataStride,   dataStride*4, transformOffset + N/2 );
-      dft3 = new CDFTsr8dp(      dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4 );
+    else if ( m == 7 ) {
+      dft1 = new CDFTsr64dp(       dataOffset,                dataStride*2, transformOffset );
+      dft2 = new CDFTsr32dp(       dataOffset + dataStride,   dataStride*4, transformOffset + N/2 );
+      dft3 = new CDFTsr32dp(       dataOffset + 3*dataStride, dataStride*4, transformOffset + 3*N/4 );
     }
 
   }
@@ -189,37 +184,22 @@ class CDFTsrdp {
   
   
   /**
-   * Links the user-supplied input sequence and output transform arrays.  Propagates the links to child DFTs.
-   * 
+   * Evaluates the complex DFT.
+   *
    * @param xr  double[] containing the input sequence real part.
    * @param xi  double[] containing the input sequence imaginary part.
-   * @param Xr  double[] containing the output sequence real part.
-   * @param Xi  double[] containing the output sequence imaginary part.
-   */
-  void link( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
-    this.xr = xr;
-    this.xi = xi;
-    this.Xr = Xr;
-    this.Xi = Xi;
-    dft1.link( xr, xi, Xr, Xi );
-    dft2.link( xr, xi, Xr, Xi );
-    dft3.link( xr, xi, Xr, Xi );
-  }
-
-
-
-  /**
-   * Evaluates the complex DFT.
+   * @param Xr  double[] containing the output transform real part.
+   * @param Xi  double[] containing the output transform imaginary part.
    */
-  void evaluate() {
+  void evaluate( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
 
     double T1r, T1i, T3r, T3i;
     double Rr, Ri, Sr, Si;
     double Wr, Wi;
 
-    dft1.evaluate();
-    dft2.evaluate();
-    dft3.evaluate();
+    dft1.evaluate( xr, xi, Xr, Xi );
+    dft2.evaluate( xr, xi, Xr, Xi );
+    dft3.evaluate( xr, xi, Xr, Xi );
 
       // k = 0 butterfly
 
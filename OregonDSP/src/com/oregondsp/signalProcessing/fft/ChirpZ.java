@@ -0,0 +1,312 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ *  Class to calculate the chirp z-transform of a complex sequence:  the z-transform evaluated at M points on a
+ *  spiral arc in the z-plane.
+ *
+ *  <p>The arc begins at A = A0*exp( i*theta0 ) and advances by the ratio 1/W, W = W0*exp( -i*phi0 ), from one point
+ *  to the next:</p>
+ *  <p>
+ *  <font face="courier">
+ *   z[k] = A * W^(-k),&nbsp&nbsp 0 <= k < M<BR>
+ *   X[k] = sum_n x[n] * z[k]^(-n),&nbsp&nbsp 0 <= n < N<BR>
+ *  </font>
+ *  </p>
+ *  <p>With A0 = W0 = 1 the points lie on the unit circle at frequencies theta0 + k*phi0 radians per sample, and the
+ *  transform is the DFT of x evaluated at M arbitrarily spaced bins.  The static zoom() method constructs this case
+ *  from a frequency band, which gives a high-resolution view of a narrow band without zero-padding the sequence to
+ *  the length that would produce the same bin spacing with an RDFT.</p>
+ *
+ *  <p>The transform is evaluated with Bluestein's algorithm, as in CDFTmr:  nk = ( n*n + k*k - (k-n)*(k-n) )/2
+ *  expresses the sum as a convolution of the chirp-modulated sequence with the chirp W^(-m*m/2), which is computed
+ *  with a power-of-two CDFT of the smallest length L >= N+M-1.  The cost is two length-L transforms plus O(N+M)
+ *  multiplications, independent of the bin spacing.  The chirps and the transform of the convolution kernel are
+ *  computed in double precision at construction.</p>
+ *
+ *  <p> Example of use (256 bins spanning 10 to 12 Hz of a 20000-point record sampled at 100 Hz):</p>
+ *  <p>
+ *  <font face="courier">
+ *   float[] x &nbsp= new float[20000];<BR>
+ *   float[] Xr = new float[256];<BR>
+ *   float[] Xi = new float[256];<BR>
+ *   ChirpZ Xfm = ChirpZ.zoom( 20000, 256, 10.0, 12.0, 0.01 );<BR>
+ *   <BR>
+ *   Xfm.evaluate( x, Xr, Xi );<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>The tables of a ChirpZ instance are not modified after construction.  The evaluation methods that take an
+ *  FFTWorkspace argument may therefore be called concurrently from several threads, provided each thread supplies its
+ *  own workspace.  The methods without a workspace argument use scratch arrays private to the instance.</p>
+ *
+ *  <p>See "The Chirp z-Transform Algorithm", Rabiner, L. R., Schafer, R. W. and Rader, C. M., IEEE TRANSACTIONS ON
+ *  AUDIO AND ELECTROACOUSTICS, VOL. 17, NO. 2, 1969, pp. 86-92.</p>
+ */
+public class ChirpZ {
+
+  /** Length of the sequence. */
+  private final int          N;
+
+  /** Number of points on the arc. */
+  private final int          M;
+
+  /** Length of the convolution. */
+  private final int          L;
+
+  /** Power-of-two plan for the convolution. */
+  private final CDFTPlan     plan;
+
+  /** Sequence premultiplier, A^(-n) * W^(n*n/2). */
+  private final float[]      ar, ai;
+
+  /** Transform postmultiplier, W^(k*k/2). */
+  private final float[]      br, bi;
+
+  /** DFT of the convolution kernel W^(-m*m/2), scaled by 1/L. */
+  private final float[]      Vr, Vi;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private final FFTWorkspace workspace;
+
+
+
+  /**
+   * Constructs a ChirpZ instance for the arc z[k] = A * W^(-k), A = A0*exp( i*theta0 ), W = W0*exp( -i*phi0 ).
+   * The chirps grow or decay as W0^(m*m/2), so with W0 != 1 the lengths must be small enough to keep them in range.
+   *
+   * @param N         int specifying the length of the sequence (N >= 1).
+   * @param M         int specifying the number of points on the arc (M >= 1).
+   * @param A0        double specifying the radius of the first point.
+   * @param theta0    double specifying the angle of the first point, in radians.
+   * @param W0        double specifying the inverse of the radial growth from one point to the next.
+   * @param phi0      double specifying the angular step from one point to the next, in radians.
+   */
+  public ChirpZ( int N, int M, double A0, double theta0, double W0, double phi0 ) {
+
+    if ( N < 1  ||  M < 1 ) throw new IllegalArgumentException( "Sequence length and number of points must be >= 1" );
+    if ( !( A0 > 0.0 )  ||  !( W0 > 0.0 ) ) throw new IllegalArgumentException( "Arc radii must be positive" );
+
+    this.N    = N;
+    this.M    = M;
+    workspace = new FFTWorkspace();
+
+    int log2L = 3;
+    int n2    = 8;
+    while ( n2 < N+M-1 ) {
+      n2 *= 2;
+      log2L++;
+    }
+    L    = n2;
+    plan = FFTPlanCache.cdft( log2L );
+
+    double lnA = Math.log( A0 );
+    double lnW = Math.log( W0 );
+
+    ar = new float[ N ];
+    ai = new float[ N ];
+    for ( int n = 0;  n < N;  n++ ) {
+      double h   = 0.5 * ( (long) n*n );
+      double mag = Math.exp( h*lnW - n*lnA );
+      double phs = n*theta0 + h*phi0;
+      ar[n] =  (float) ( mag*Math.cos( phs ) );
+      ai[n] = -(float) ( mag*Math.sin( phs ) );
+    }
+
+    br = new float[ M ];
+    bi = new float[ M ];
+    for ( int k = 0;  k < M;  k++ ) {
+      double h   = 0.5 * ( (long) k*k );
+      double mag = Math.exp( h*lnW );
+      br[k] =  (float) ( mag*Math.cos( h*phi0 ) );
+      bi[k] = -(float) ( mag*Math.sin( h*phi0 ) );
+    }
+
+    // kernel W^(-m*m/2) for -(N-1) <= m < M, stored circularly
+
+    float[] vr = new float[ L ];
+    float[] vi = new float[ L ];
+    double scale = 1.0 / L;
+    for ( int m = 0;  m < Math.max( M, N );  m++ ) {
+      double h   = 0.5 * ( (long) m*m );
+      double mag = Math.exp( -h*lnW ) * scale;
+      float  cr  = (float) ( mag*Math.cos( h*phi0 ) );
+      float  ci  = (float) ( mag*Math.sin( h*phi0 ) );
+      if ( m < M ) {
+        vr[m] = cr;
+        vi[m] = ci;
+      }
+      if ( m > 0  &&  m < N ) {
+        vr[L-m] = cr;
+        vi[L-m] = ci;
+      }
+    }
+
+    plan.evaluateInPlace( vr, vi );
+    Vr = vr;
+    Vi = vi;
+  }
+
+
+
+  /**
+   * Constructs a ChirpZ instance evaluating the DFT of a sequence at M equally spaced frequencies from f1 to f2
+   * inclusive.  Frequencies are in Hz and may lie anywhere in ( -1/(2*delta), 1/(2*delta) ].
+   *
+   * @param N         int specifying the length of the sequence (N >= 1).
+   * @param M         int specifying the number of frequencies (M >= 1).
+   * @param f1        double specifying the first frequency, in Hz.
+   * @param f2        double specifying the last frequency, in Hz.
+   * @param delta     double specifying the sampling interval of the sequence, in seconds.
+   * @return          ChirpZ instance for the band.
+   */
+  public static ChirpZ zoom( int N, int M, double f1, double f2, double delta ) {
+    double df = M > 1  ?  ( f2 - f1 ) / ( M-1 )  :  0.0;
+    return new ChirpZ( N, M, 1.0, 2.0*Math.PI*f1*delta, 1.0, 2.0*Math.PI*df*delta );
+  }
+
+
+
+  /**
+   * Accessor for the length of the sequence.
+   * @return   int containing the length of the sequence
+   */
+  public int getSequenceLength() {
+    return N;
+  }
+
+
+
+  /**
+   * Accessor for the number of points on the arc.
+   * @return   int containing the number of points on the arc
+   */
+  public int getNumberOfPoints() {
+    return M;
+  }
+
+
+
+  /**
+   * Accessor for the length of the power-of-two DFT evaluating the convolution.
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return L;
+  }
+
+
+
+  /**
+   * Evaluates the chirp z-transform of a complex sequence.
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param Xr          float array of length at least M containing transform real part
+   * @param Xi          float array of length at least M containing transform imaginary part
+   */
+  public void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+    evaluate( xr, xi, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the chirp z-transform of a complex sequence with specified scratch storage.
+   * @param xr          float array containing sequence real part
+   * @param xi          float array containing sequence imaginary part
+   * @param Xr          float array of length at least M containing transform real part
+   * @param Xi          float array of length at least M containing transform imaginary part
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( float[] xr, float[] xi, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    float[] cr = workspace.floats( FFTWorkspace.CHIRPZ,   L );
+    float[] ci = workspace.floats( FFTWorkspace.CHIRPZ+1, L );
+
+    for ( int n = 0;  n < N;  n++ ) {
+      cr[n] = xr[n]*ar[n] - xi[n]*ai[n];
+      ci[n] = xr[n]*ai[n] + xi[n]*ar[n];
+    }
+
+    convolve( cr, ci, Xr, Xi );
+  }
+
+
+
+  /**
+   * Evaluates the chirp z-transform of a real sequence.
+   * @param x           float array containing the sequence
+   * @param Xr          float array of length at least M containing transform real part
+   * @param Xi          float array of length at least M containing transform imaginary part
+   */
+  public void evaluate( float[] x, float[] Xr, float[] Xi ) {
+    evaluate( x, Xr, Xi, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the chirp z-transform of a real sequence with specified scratch storage.
+   * @param x           float array containing the sequence
+   * @param Xr          float array of length at least M containing transform real part
+   * @param Xi          float array of length at least M containing transform imaginary part
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( float[] x, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    float[] cr = workspace.floats( FFTWorkspace.CHIRPZ,   L );
+    float[] ci = workspace.floats( FFTWorkspace.CHIRPZ+1, L );
+
+    for ( int n = 0;  n < N;  n++ ) {
+      cr[n] = x[n]*ar[n];
+      ci[n] = x[n]*ai[n];
+    }
+
+    convolve( cr, ci, Xr, Xi );
+  }
+
+
+
+  // circular convolution of the premultiplied sequence with the kernel, followed by the postmultiplication
+
+  private void convolve( float[] cr, float[] ci, float[] Xr, float[] Xi ) {
+
+    for ( int n = N;  n < L;  n++ ) {
+      cr[n] = 0.0f;
+      ci[n] = 0.0f;
+    }
+
+    plan.evaluateInPlace( cr, ci );
+
+    FFTKernels.INSTANCE.complexProduct( Vr, Vi, cr, ci, 1.0f );
+
+    // unnormalized inverse DFT (the 1/L is folded into V) by exchanging real and imaginary parts
+
+    plan.evaluateInPlace( ci, cr );
+
+    for ( int k = 0;  k < M;  k++ ) {
+      Xr[k] = cr[k]*br[k] - ci[k]*bi[k];
+      Xi[k] = cr[k]*bi[k] + ci[k]*br[k];
+    }
+  }
+
+}
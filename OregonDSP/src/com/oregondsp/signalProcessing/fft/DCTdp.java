@@ -0,0 +1,222 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ *  Class to calculate the discrete cosine transform (DCT-II) of a real sequence and its inverse (DCT-III) with a real
+ *  DFT of the same length.
+ *
+ *  <p>The forward transform is</p>
+ *  <p>
+ *  <font face="courier">
+ *   Y[k] = sum_n x[n] * cos( pi*(2n+1)*k/(2N) ),&nbsp&nbsp 0 <= n,k < N<BR>
+ *  </font>
+ *  </p>
+ *  <p>and the inverse, a DCT-III, is scaled so that evaluateInverse( evaluate( x ) ) returns x:</p>
+ *  <p>
+ *  <font face="courier">
+ *   x[n] = Y[0]/N + (2/N) * sum_k Y[k] * cos( pi*(2n+1)*k/(2N) ),&nbsp&nbsp 1 <= k < N<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>Double precision version.</p>
+ *
+ *  <p>Rather than mirroring the sequence into a real DFT of length 2N, the class uses Makhoul's reordering:  the
+ *  sequence v[n] = x[2n], v[N-1-n] = x[2n+1], 0 <= n < N/2, has the length-N DFT V[k] with
+ *  Y[k] = Re( exp( -i*pi*k/(2N) ) * V[k] ).  The symmetry V[N-k] = conjg( V[k] ) gives Y[k] and Y[N-k] from the
+ *  same bin, so the post-rotation works pairwise on the packed form of the RDFT and the cost is one length-N real DFT
+ *  plus N/2 complex multiplications.  The RDFT plan is the one shared through the FFTPlanCache with RDFT instances of
+ *  the same size.  Lengths are powers of two, N >= 16.</p>
+ *
+ *  <p>The sequence and transform arrays may be the same array.  A DCTdp instance keeps scratch arrays from one
+ *  evaluation to the next and should not be used by more than one thread at a time, except through the methods
+ *  taking an FFTWorkspace, with each thread supplying its own.</p>
+ *
+ *  <p>See "A Fast Cosine Transform in One and Two Dimensions", Makhoul, J., IEEE TRANSACTIONS ON ACOUSTICS, SPEECH,
+ *  AND SIGNAL PROCESSING, VOL. ASSP-28, NO. 1, FEBRUARY 1980, pp. 27-34.</p>
+ */
+public class DCTdp {
+
+  private static final double SQRT_HALF = Math.sqrt( 0.5 );
+  private static final double SQRT_TWO  = Math.sqrt( 2.0 );
+
+  /** Length of the transform. */
+  private final int          N;
+
+  /** Real DFT of length N. */
+  private final RDFTPlandp   plan;
+
+  /** cos( pi*k/(2N) ) and sin( pi*k/(2N) ),  0 <= k < N/2. */
+  private final double[]     c, s;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private final FFTWorkspace workspace;
+
+
+
+  /**
+   * Constructs a DCTdp instance for the specified transform length.
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform (log2N >= 4).
+   */
+  public DCTdp( int log2N ) {
+
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DCT size must be >= 16" );
+
+    N         = 1 << log2N;
+    plan      = FFTPlanCache.rdftdp( log2N );
+    workspace = new FFTWorkspace();
+
+    int N2 = N/2;
+    c = new double[ N2 ];
+    s = new double[ N2 ];
+    Twiddles w = Twiddles.of( 4*N );
+    for ( int k = 0;  k < N2;  k++ ) {
+      c[k] = w.cos( k );
+      s[k] = w.sin( k );
+    }
+  }
+
+
+
+  /**
+   * Accessor for the length of the transform
+   * @return   int containing the length of the transform
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DCT-II of a real sequence.
+   * @param x     double[] containing the sequence.
+   * @param Y     double[] containing the transform on return.  May be the same array as x.
+   */
+  public void evaluate( double[] x, double[] Y ) {
+    evaluate( x, Y, 1.0, false, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DCT-II of a real sequence with specified scratch storage.
+   * @param x           double[] containing the sequence.
+   * @param Y           double[] containing the transform on return.  May be the same array as x.
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( double[] x, double[] Y, FFTWorkspace workspace ) {
+    evaluate( x, Y, 1.0, false, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse transform, a DCT-III scaled by 2/N.
+   * @param Y     double[] containing the transform.
+   * @param x     double[] containing the sequence on return.  May be the same array as Y.
+   */
+  public void evaluateInverse( double[] Y, double[] x ) {
+    evaluateInverse( Y, x, 1.0, false, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse transform, a DCT-III scaled by 2/N, with specified scratch storage.
+   * @param Y           double[] containing the transform.
+   * @param x           double[] containing the sequence on return.  May be the same array as Y.
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluateInverse( double[] Y, double[] x, FFTWorkspace workspace ) {
+    evaluateInverse( Y, x, 1.0, false, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DCT-II of the sequence x[n]*odd^n, optionally reversing the transform.  With odd = -1 and reverse
+   * set this is the DST-II, since cos( pi*(2n+1)*(N-1-k)/(2N) ) = (-1)^n * sin( pi*(2n+1)*(k+1)/(2N) ).
+   */
+  void evaluate( double[] x, double[] Y, double odd, boolean reverse, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int     N2 = N/2;
+    double[] v  = workspace.doubles( FFTWorkspace.DCT, N );
+
+    for ( int n = 0;  n < N2;  n++ ) {
+      v[n]     = x[2*n];
+      v[N-1-n] = x[2*n+1]*odd;
+    }
+
+    plan.evaluate( v, Y, workspace );
+
+    // Y[k] = Re( exp( -i*pi*k/(2N) )*V[k] ),  Y[N-k] = -Im( exp( -i*pi*k/(2N) )*V[k] )
+
+    Y[N2] *= SQRT_HALF;
+    for ( int k = 1;  k < N2;  k++ ) {
+      double a = Y[k];
+      double b = Y[N-k];
+      Y[k]    = a*c[k] + b*s[k];
+      Y[N-k]  = a*s[k] - b*c[k];
+    }
+
+    if ( reverse ) {
+      for ( int k = 0;  k < N2;  k++ ) {
+        double tmp = Y[k];
+        Y[k]      = Y[N-1-k];
+        Y[N-1-k]  = tmp;
+      }
+    }
+  }
+
+
+
+  /**
+   * Inverts evaluate( x, Y, odd, reverse, workspace ).
+   */
+  void evaluateInverse( double[] Y, double[] x, double odd, boolean reverse, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int     N2 = N/2;
+    double[] V  = workspace.doubles( FFTWorkspace.DCT,   N );
+    double[] v  = workspace.doubles( FFTWorkspace.DCT+1, N );
+
+    // V[k] = exp( i*pi*k/(2N) )*( Y[k] - i*Y[N-k] ) in packed form;  Y[ Math.abs( r-k ) ] is Y[k], or Y[N-1-k] for a
+    // reversed transform
+
+    int r = reverse  ?  N-1  :  0;
+    V[0]  = Y[r];
+    V[N2] = Y[ Math.abs( r-N2 ) ]*SQRT_TWO;
+    for ( int k = 1;  k < N2;  k++ ) {
+      double a = Y[ Math.abs( r-k ) ];
+      double b = Y[ Math.abs( r-N+k ) ];
+      V[k]    = a*c[k] + b*s[k];
+      V[N-k]  = a*s[k] - b*c[k];
+    }
+
+    plan.evaluateInverse( V, v, workspace );
+
+    for ( int n = 0;  n < N2;  n++ ) {
+      x[2*n]   = v[n];
+      x[2*n+1] = v[N-1-n]*odd;
+    }
+  }
+
+}
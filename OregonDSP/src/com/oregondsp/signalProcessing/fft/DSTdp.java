@@ -0,0 +1,124 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ *  Class to calculate the discrete sine transform (DST-II) of a real sequence and its inverse (DST-III) with a real
+ *  DFT of the same length.
+ *
+ *  <p>The forward transform is</p>
+ *  <p>
+ *  <font face="courier">
+ *   Y[k] = sum_n x[n] * sin( pi*(2n+1)*(k+1)/(2N) ),&nbsp&nbsp 0 <= n,k < N<BR>
+ *  </font>
+ *  </p>
+ *  <p>and the inverse, a DST-III, is scaled so that evaluateInverse( evaluate( x ) ) returns x:</p>
+ *  <p>
+ *  <font face="courier">
+ *   x[n] = (-1)^n * Y[N-1]/N + (2/N) * sum_k Y[k] * sin( pi*(2n+1)*(k+1)/(2N) ),&nbsp&nbsp 0 <= k < N-1<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>Double precision version.</p>
+ *
+ *  <p>Since cos( pi*(2n+1)*(N-1-k)/(2N) ) = (-1)^n * sin( pi*(2n+1)*(k+1)/(2N) ), the DST-II is the DCT-II of the
+ *  sequence with its odd samples negated, in reverse order.  The sign change and reversal are folded into the
+ *  reordering and post-rotation of DCTdp, so the cost is that of the DCT.  Lengths are powers of two, N >= 16.</p>
+ *
+ *  <p>The sequence and transform arrays may be the same array.  A DSTdp instance keeps scratch arrays from one
+ *  evaluation to the next and should not be used by more than one thread at a time, except through the methods
+ *  taking an FFTWorkspace, with each thread supplying its own.</p>
+ */
+public class DSTdp {
+
+  /** DCT of the same length. */
+  private final DCTdp        dct;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private final FFTWorkspace workspace;
+
+
+
+  /**
+   * Constructs a DSTdp instance for the specified transform length.
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform (log2N >= 4).
+   */
+  public DSTdp( int log2N ) {
+
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DST size must be >= 16" );
+
+    dct       = new DCTdp( log2N );
+    workspace = new FFTWorkspace();
+  }
+
+
+
+  /**
+   * Accessor for the length of the transform
+   * @return   int containing the length of the transform
+   */
+  public int getFFTSize() {
+    return dct.getFFTSize();
+  }
+
+
+
+  /**
+   * Evaluates the DST-II of a real sequence.
+   * @param x     double[] containing the sequence.
+   * @param Y     double[] containing the transform on return.  May be the same array as x.
+   */
+  public void evaluate( double[] x, double[] Y ) {
+    dct.evaluate( x, Y, -1.0, true, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DST-II of a real sequence with specified scratch storage.
+   * @param x           double[] containing the sequence.
+   * @param Y           double[] containing the transform on return.  May be the same array as x.
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluate( double[] x, double[] Y, FFTWorkspace workspace ) {
+    dct.evaluate( x, Y, -1.0, true, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse transform, a DST-III scaled by 2/N.
+   * @param Y     double[] containing the transform.
+   * @param x     double[] containing the sequence on return.  May be the same array as Y.
+   */
+  public void evaluateInverse( double[] Y, double[] x ) {
+    dct.evaluateInverse( Y, x, -1.0, true, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse transform, a DST-III scaled by 2/N, with specified scratch storage.
+   * @param Y           double[] containing the transform.
+   * @param x           double[] containing the sequence on return.  May be the same array as Y.
+   * @param workspace   FFTWorkspace providing scratch arrays, or null to allocate them for this call
+   */
+  public void evaluateInverse( double[] Y, double[] x, FFTWorkspace workspace ) {
+    dct.evaluateInverse( Y, x, -1.0, true, workspace );
+  }
+
+}
@@ -0,0 +1,71 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ * Enum FFTEngine used to select the implementation of the power-of-two split-radix complex DFT.
+ *
+ * <p>Both engines compute the same split-radix decomposition and share the RDFT, CDFT and plan APIs;  they differ
+ * only in how the decomposition is executed.  The engine used by the constructors that do not name one is given
+ * by the system property <font face="courier">oregondsp.fft.engine</font> ("recursive" or "flat").  When the
+ * property is absent the default is FLAT if the vectorized kernels are in use (see isVectorized()), since only the
+ * flat schedule presents its butterflies as contiguous loops, and RECURSIVE otherwise.  Without the property, the
+ * FFTPlanner may instead choose the engine for each size by measurement.</p>
+ */
+public enum FFTEngine {
+
+  /** Recursively linked CDFTsr objects with hand-coded leaves of length 8 to 64 */
+  RECURSIVE,
+  /** Bit-reversed gather followed by a precomputed flat schedule of butterfly passes */
+  FLAT;
+
+
+  private static final FFTEngine DEFAULT = parse( System.getProperty( "oregondsp.fft.engine" ) );
+
+
+  /**
+   * Tests whether the FFT kernels use the incubating Vector API.  This is the case when the jdk.incubator.vector
+   * module is present at run time, the optional VectorKernels class (source folder src-vector) is on the class path,
+   * and the system property oregondsp.fft.vector is not "false".
+   * @return   true if the butterflies, real DFT butterflies and transform products are vectorized
+   */
+  public static boolean isVectorized() {
+    return FFTKernels.INSTANCE.isVectorized();
+  }
+
+
+  /**
+   * Accessor for the engine used when none is specified.
+   * @return   FFTEngine selected by the oregondsp.fft.engine system property, or RECURSIVE
+   */
+  public static FFTEngine getDefault() {
+    return DEFAULT;
+  }
+
+
+  private static FFTEngine parse( String name ) {
+    FFTEngine fallback = isVectorized()  ?  FLAT  :  RECURSIVE;
+    if ( name == null ) return fallback;
+    try {
+      return valueOf( name.trim().toUpperCase() );
+    }
+    catch ( IllegalArgumentException e ) {
+      return fallback;
+    }
+  }
+
+}
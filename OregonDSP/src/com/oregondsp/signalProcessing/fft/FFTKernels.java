@@ -0,0 +1,771 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ * Package-private class containing the innermost loops of the power-of-two transforms:  the split-radix butterflies of
+ * the flat engine, the final (forward) and initial (inverse) butterflies of the real DFTs and the transform products.
+ * The complex butterflies and products come in two layouts, split (separate real and imaginary arrays) and
+ * interleaved (real and imaginary parts of element k in elements 2k and 2k+1 of one array).
+ *
+ * This class holds the scalar implementations.  When the jdk.incubator.vector module is present at run time (Java 16
+ * and later, started with --add-modules jdk.incubator.vector), the subclass VectorKernels is loaded in its place and
+ * overrides these methods with Vector API implementations.  VectorKernels lives in the separate source folder
+ * src-vector, because the main source folder is compiled for Java 8;  compile it against the main classes with
+ * <font face="courier">javac --release 17 --add-modules jdk.incubator.vector</font>.  When that class or the module
+ * is absent, or the system property oregondsp.fft.vector is "false", the scalar code is used.
+ */
+class FFTKernels {
+
+  /** Kernels used by all transforms. */
+  static final FFTKernels INSTANCE = load();
+
+
+
+  FFTKernels() {
+  }
+
+
+
+  private static FFTKernels load() {
+    if ( "false".equalsIgnoreCase( System.getProperty( "oregondsp.fft.vector" ) ) ) return new FFTKernels();
+    try {
+      Class.forName( "jdk.incubator.vector.FloatVector" );
+      Class< ? > c = Class.forName( "com.oregondsp.signalProcessing.fft.VectorKernels" );
+      return (FFTKernels) c.getDeclaredConstructor().newInstance();
+    }
+    catch ( ReflectiveOperationException | LinkageError e ) {
+      return new FFTKernels();
+    }
+  }
+
+
+
+  /**
+   * Tests whether this instance uses the Vector API.
+   *
+   * @return    true for the vectorized kernels.
+   */
+  boolean isVectorized() {
+    return false;
+  }
+
+
+
+  /**
+   * L-shaped split-radix butterflies for one block of length 4*N4 at offset o.
+   *
+   * @param Xr      float[] containing the transform real part.
+   * @param Xi      float[] containing the transform imaginary part.
+   * @param o       int specifying the offset of the block.
+   * @param N4      int specifying one quarter of the length of the block.
+   * @param c1      float[] containing cos( 2*pi*k/L ),  0 <= k < N4.
+   * @param s1      float[] containing -sin( 2*pi*k/L ).
+   * @param c3      float[] containing cos( 2*pi*3k/L ).
+   * @param s3      float[] containing -sin( 2*pi*3k/L ).
+   */
+  void butterflies( float[] Xr, float[] Xi, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3 ) {
+    butterflies( Xr, Xi, o, N4, c1, s1, c3, s3, 0 );
+  }
+
+
+
+  /**
+   * Scalar butterflies for 0 <= k0 <= k < N4;  also finishes the remainder of a vectorized loop.
+   */
+  final void butterflies( float[] Xr, float[] Xi, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3, int k0 ) {
+
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      int kp    = o    + k;
+      int kpN4  = kp   + N4;
+      int kpN2  = kpN4 + N4;
+      int kp3N4 = kpN2 + N4;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      float Wr  = c1[k];
+      float Wi  = s1[k];
+      float T1r = Wr * Xr[kpN2] - Wi * Xi[kpN2];
+      float T1i = Wr * Xi[kpN2] + Wi * Xr[kpN2];
+      Wr = c3[k];
+      Wi = s3[k];
+      float T3r = Wr * Xr[kp3N4] - Wi * Xi[kp3N4];
+      float T3i = Wr * Xi[kp3N4] + Wi * Xr[kp3N4];
+
+      // R = T1 + T3
+      // S = i*(T1 - T3)
+
+      float Rr = T1r + T3r;
+      float Ri = T1i + T3i;
+      float Sr = T3i - T1i;
+      float Si = T1r - T3r;
+
+      Xr[kpN2]  = Xr[kp] - Rr;
+      Xi[kpN2]  = Xi[kp] - Ri;
+      Xr[kp3N4] = Xr[kpN4] + Sr;
+      Xi[kp3N4] = Xi[kpN4] + Si;
+
+      Xr[kp]   += Rr;
+      Xi[kp]   += Ri;
+      Xr[kpN4] -= Sr;
+      Xi[kpN4] -= Si;
+    }
+  }
+
+
+  /**
+   * L-shaped split-radix butterflies for one block of length 4*N4 at offset o of an interleaved complex sequence,
+   * in which element k has its real part in z[2k] and its imaginary part in z[2k+1].
+   *
+   * @param z       float[] containing the interleaved transform.
+   * @param o       int specifying the offset of the block, in complex elements.
+   * @param N4      int specifying one quarter of the length of the block.
+   * @param c1      float[] containing cos( 2*pi*k/L ),  0 <= k < N4.
+   * @param s1      float[] containing -sin( 2*pi*k/L ).
+   * @param c3      float[] containing cos( 2*pi*3k/L ).
+   * @param s3      float[] containing -sin( 2*pi*3k/L ).
+   * @param sign    1 for the forward DFT, -1 for the inverse DFT (conjugated twiddle factors).
+   */
+  void interleavedButterflies( float[] z, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3, float sign ) {
+    interleavedButterflies( z, o, N4, c1, s1, c3, s3, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar interleaved butterflies for 0 <= k0 <= k < N4;  also finishes the remainder of a vectorized loop.
+   */
+  final void interleavedButterflies( float[] z, int o, int N4, float[] c1, float[] s1, float[] c3, float[] s3, float sign, int k0 ) {
+
+    int d = 2*N4;
+
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      int kp    = 2*( o + k );
+      int kpN4  = kp   + d;
+      int kpN2  = kpN4 + d;
+      int kp3N4 = kpN2 + d;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      float Wr  = c1[k];
+      float Wi  = sign*s1[k];
+      float T1r = Wr * z[kpN2] - Wi * z[kpN2+1];
+      float T1i = Wr * z[kpN2+1] + Wi * z[kpN2];
+      Wr = c3[k];
+      Wi = sign*s3[k];
+      float T3r = Wr * z[kp3N4] - Wi * z[kp3N4+1];
+      float T3i = Wr * z[kp3N4+1] + Wi * z[kp3N4];
+
+      // R = T1 + T3
+      // S = i*(T1 - T3), or -i*(T1 - T3) for the inverse
+
+      float Rr = T1r + T3r;
+      float Ri = T1i + T3i;
+      float Sr = sign*( T3i - T1i );
+      float Si = sign*( T1r - T3r );
+
+      z[kpN2]    = z[kp]   - Rr;
+      z[kpN2+1]  = z[kp+1] - Ri;
+      z[kp3N4]   = z[kpN4]   + Sr;
+      z[kp3N4+1] = z[kpN4+1] + Si;
+
+      z[kp]     += Rr;
+      z[kp+1]   += Ri;
+      z[kpN4]   -= Sr;
+      z[kpN4+1] -= Si;
+    }
+  }
+
+
+
+
+  /**
+   * Final butterflies of the forward real DFT, 1 <= k < N/4.
+   *
+   * @param X       float[] containing the transform in conjugate symmetric packed form.
+   * @param Xr      float[] containing the real part of the length-N/2 complex DFT.
+   * @param Xi      float[] containing the imaginary part of the length-N/2 complex DFT.
+   * @param c       float[] containing cos( 2*pi*k/N ),  0 <= k < N/4.
+   * @param s       float[] containing sin( 2*pi*k/N ),  0 <= k < N/4.
+   * @param N       int specifying the length of the real DFT.
+   */
+  void realForward( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N ) {
+    realForward( X, Xr, Xi, c, s, N, 1 );
+  }
+
+
+
+  /**
+   * Scalar final butterflies of the forward real DFT for k0 <= k < N/4.
+   */
+  final void realForward( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N, int k0 ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    int N2pk = N2 + k0;
+    int N2mk = N2 - k0;
+    int Nmk  = N  - k0;
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      float Xrk = Xr[k];
+      float Xik = Xi[k];
+      float XrN2mk = Xr[N2mk];
+      float XiN2mk = Xi[N2mk];
+
+      float Sr = ( Xrk + XrN2mk )/2;
+      float Si = ( Xik - XiN2mk )/2;
+
+      float Dr = ( Xik + XiN2mk )/2;
+      float Di = ( XrN2mk - Xrk )/2;
+
+      float tmp = c[k]*Dr + s[k]*Di;
+      Di        = c[k]*Di - s[k]*Dr;
+      Dr        = tmp;
+
+      X[k]      = Sr + Dr;
+      X[Nmk]    = Si + Di;
+
+      X[N2mk]   = Sr - Dr;
+      X[N2pk]   = Di - Si;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+    }
+  }
+
+
+
+  /**
+   * Initial butterflies of the inverse real DFT, 1 <= k < N/4 and N/4 < k < N/2.
+   *
+   * @param X       float[] containing the transform in conjugate symmetric packed form.
+   * @param Xr      float[] containing the real part of the length-N/2 complex DFT.
+   * @param Xi      float[] containing the imaginary part of the length-N/2 complex DFT.
+   * @param c       float[] containing cos( 2*pi*k/N ),  0 <= k < N/4.
+   * @param s       float[] containing sin( 2*pi*k/N ),  0 <= k < N/4.
+   * @param N       int specifying the length of the real DFT.
+   */
+  void realInverse( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N ) {
+    realInverse( X, Xr, Xi, c, s, N, 1, N/4 + 1 );
+  }
+
+
+
+  /**
+   * Scalar initial butterflies of the inverse real DFT for k0 <= k < N/4 and k1 <= k < N/2.
+   */
+  final void realInverse( float[] X, float[] Xr, float[] Xi, float[] c, float[] s, int N, int k0, int k1 ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    int N2pk = N2 + k0;
+    int N2mk = N2 - k0;
+    int Nmk  = N  - k0;
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      float Xrk    =  X[k];
+      float Xik    =  X[Nmk];
+      float XrkpN2 =  X[N2mk];
+      float XikpN2 = -X[N2pk];
+
+      float Dr = Xrk - XrkpN2;
+      float Di = Xik - XikpN2;
+
+      Xr[k] = Xrk + XrkpN2  -  s[k]*Dr  -  c[k]*Di;
+      Xi[k] = Xik + XikpN2  +  c[k]*Dr  -  s[k]*Di;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+    }
+
+    //  cos( 2*pi/N * (N/4+m) ) = cos( 2*pi/N*m + pi/2 ) = -cos( 2*pi/N*(N/4-m) )
+    //  sin( 2*pi/N * (N/4+m) ) = sin( 2*pi/N * (N/4-m) )
+
+    N2pk = N2 + k1;
+    N2mk = N2 - k1;
+    Nmk  = N  - k1;
+    int reflect = N2 - k1;
+    for ( int k = k1;  k < N2;  k++ ) {
+
+      float Xrk    =  X[k];
+      float Xik    =  X[Nmk];
+      float XrkpN2 =  X[N2mk];
+      float XikpN2 = -X[N2pk];
+
+      float Dr = Xrk - XrkpN2;
+      float Di = Xik - XikpN2;
+
+      Xr[k] = Xrk + XrkpN2  -  s[reflect]*Dr  +  c[reflect]*Di;
+      Xi[k] = Xik + XikpN2  -  c[reflect]*Dr  -  s[reflect]*Di;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+      reflect--;
+    }
+  }
+
+
+
+  /**
+   * Product of two complex transforms.
+   *
+   * @param Xr     float[] containing the real part of the first transform.
+   * @param Xi     float[] containing the imaginary part of the first transform.
+   * @param Yr     float[] containing the real part of the second transform before call, of the product after call.
+   * @param Yi     float[] containing the imaginary part of the second transform before call, of the product after call.
+   * @param sign   +1 for convolution type product, -1 for correlation type product.
+   */
+  void complexProduct( float[] Xr, float[] Xi, float[] Yr, float[] Yi, float sign ) {
+    complexProduct( Xr, Xi, Yr, Yi, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar product of two complex transforms for i >= i0.
+   */
+  final void complexProduct( float[] Xr, float[] Xi, float[] Yr, float[] Yi, float sign, int i0 ) {
+    float tmp;
+    for ( int i = i0;  i < Xr.length;  i++ ) {
+      tmp   = Xr[i]*Yr[i]  -  sign*Xi[i]*Yi[i];
+      Yi[i] = Xr[i]*Yi[i]  +  sign*Xi[i]*Yr[i];
+      Yr[i] = tmp;
+    }
+  }
+
+
+  /**
+   * Product of two interleaved complex transforms.
+   *
+   * @param X      float[] containing the first transform, real parts in X[2k] and imaginary parts in X[2k+1].
+   * @param Y      float[] containing the second transform before call, the product after call.
+   * @param sign   +1 for convolution type product, -1 for correlation type product.
+   */
+  void interleavedProduct( float[] X, float[] Y, float sign ) {
+    interleavedProduct( X, Y, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar product of two interleaved complex transforms for array index i >= i0 (i0 even).
+   */
+  final void interleavedProduct( float[] X, float[] Y, float sign, int i0 ) {
+    float tmp;
+    for ( int i = i0;  i < X.length;  i += 2 ) {
+      tmp    = X[i]*Y[i]    -  sign*X[i+1]*Y[i+1];
+      Y[i+1] = X[i]*Y[i+1]  +  sign*X[i+1]*Y[i];
+      Y[i]   = tmp;
+    }
+  }
+
+
+
+
+  /**
+   * Product of two conjugate symmetric transforms in packed form.
+   *
+   * @param kernel       float[] containing the first DFT.
+   * @param transform    float[] containing the second DFT before call, the product after the call.
+   * @param sign         +1 if a convolution type product, -1 if a correlation type product.
+   */
+  void packedProduct( float[] kernel, float[] transform, float sign ) {
+    int n    = kernel.length;
+    transform[0]   *= kernel[0];
+    transform[n/2] *= kernel[n/2];
+    packedProduct( kernel, transform, sign, 1 );
+  }
+
+
+
+  /**
+   * Scalar product of two conjugate symmetric transforms for i0 <= i < n/2.
+   */
+  final void packedProduct( float[] kernel, float[] transform, float sign, int i0 ) {
+    int n    = kernel.length;
+    int half = n/2;
+    float tmp;
+    for ( int i = i0;  i < half;  i++ ) {
+      int im = n-i;
+      tmp           = kernel[i]*transform[i]  - sign*kernel[im]*transform[im];
+      transform[im] = kernel[i]*transform[im] + sign*kernel[im]*transform[i];
+      transform[i]  = tmp;
+    }
+  }
+
+
+
+  /**
+   * L-shaped split-radix butterflies for one block of length 4*N4 at offset o.
+   *
+   * @param Xr      double[] containing the transform real part.
+   * @param Xi      double[] containing the transform imaginary part.
+   * @param o       int specifying the offset of the block.
+   * @param N4      int specifying one quarter of the length of the block.
+   * @param c1      double[] containing cos( 2*pi*k/L ),  0 <= k < N4.
+   * @param s1      double[] containing -sin( 2*pi*k/L ).
+   * @param c3      double[] containing cos( 2*pi*3k/L ).
+   * @param s3      double[] containing -sin( 2*pi*3k/L ).
+   */
+  void butterflies( double[] Xr, double[] Xi, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3 ) {
+    butterflies( Xr, Xi, o, N4, c1, s1, c3, s3, 0 );
+  }
+
+
+
+  /**
+   * Scalar butterflies for 0 <= k0 <= k < N4;  also finishes the remainder of a vectorized loop.
+   */
+  final void butterflies( double[] Xr, double[] Xi, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3, int k0 ) {
+
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      int kp    = o    + k;
+      int kpN4  = kp   + N4;
+      int kpN2  = kpN4 + N4;
+      int kp3N4 = kpN2 + N4;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      double Wr  = c1[k];
+      double Wi  = s1[k];
+      double T1r = Wr * Xr[kpN2] - Wi * Xi[kpN2];
+      double T1i = Wr * Xi[kpN2] + Wi * Xr[kpN2];
+      Wr = c3[k];
+      Wi = s3[k];
+      double T3r = Wr * Xr[kp3N4] - Wi * Xi[kp3N4];
+      double T3i = Wr * Xi[kp3N4] + Wi * Xr[kp3N4];
+
+      // R = T1 + T3
+      // S = i*(T1 - T3)
+
+      double Rr = T1r + T3r;
+      double Ri = T1i + T3i;
+      double Sr = T3i - T1i;
+      double Si = T1r - T3r;
+
+      Xr[kpN2]  = Xr[kp] - Rr;
+      Xi[kpN2]  = Xi[kp] - Ri;
+      Xr[kp3N4] = Xr[kpN4] + Sr;
+      Xi[kp3N4] = Xi[kpN4] + Si;
+
+      Xr[kp]   += Rr;
+      Xi[kp]   += Ri;
+      Xr[kpN4] -= Sr;
+      Xi[kpN4] -= Si;
+    }
+  }
+
+
+  /**
+   * L-shaped split-radix butterflies for one block of length 4*N4 at offset o of an interleaved complex sequence,
+   * in which element k has its real part in z[2k] and its imaginary part in z[2k+1].
+   *
+   * @param z       double[] containing the interleaved transform.
+   * @param o       int specifying the offset of the block, in complex elements.
+   * @param N4      int specifying one quarter of the length of the block.
+   * @param c1      double[] containing cos( 2*pi*k/L ),  0 <= k < N4.
+   * @param s1      double[] containing -sin( 2*pi*k/L ).
+   * @param c3      double[] containing cos( 2*pi*3k/L ).
+   * @param s3      double[] containing -sin( 2*pi*3k/L ).
+   * @param sign    1 for the forward DFT, -1 for the inverse DFT (conjugated twiddle factors).
+   */
+  void interleavedButterflies( double[] z, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3, double sign ) {
+    interleavedButterflies( z, o, N4, c1, s1, c3, s3, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar interleaved butterflies for 0 <= k0 <= k < N4;  also finishes the remainder of a vectorized loop.
+   */
+  final void interleavedButterflies( double[] z, int o, int N4, double[] c1, double[] s1, double[] c3, double[] s3, double sign, int k0 ) {
+
+    int d = 2*N4;
+
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      int kp    = 2*( o + k );
+      int kpN4  = kp   + d;
+      int kpN2  = kpN4 + d;
+      int kp3N4 = kpN2 + d;
+
+      // T1 = Wk*O1
+      // T3 = W3k*O3
+
+      double Wr  = c1[k];
+      double Wi  = sign*s1[k];
+      double T1r = Wr * z[kpN2] - Wi * z[kpN2+1];
+      double T1i = Wr * z[kpN2+1] + Wi * z[kpN2];
+      Wr = c3[k];
+      Wi = sign*s3[k];
+      double T3r = Wr * z[kp3N4] - Wi * z[kp3N4+1];
+      double T3i = Wr * z[kp3N4+1] + Wi * z[kp3N4];
+
+      // R = T1 + T3
+      // S = i*(T1 - T3), or -i*(T1 - T3) for the inverse
+
+      double Rr = T1r + T3r;
+      double Ri = T1i + T3i;
+      double Sr = sign*( T3i - T1i );
+      double Si = sign*( T1r - T3r );
+
+      z[kpN2]    = z[kp]   - Rr;
+      z[kpN2+1]  = z[kp+1] - Ri;
+      z[kp3N4]   = z[kpN4]   + Sr;
+      z[kp3N4+1] = z[kpN4+1] + Si;
+
+      z[kp]     += Rr;
+      z[kp+1]   += Ri;
+      z[kpN4]   -= Sr;
+      z[kpN4+1] -= Si;
+    }
+  }
+
+
+
+
+  /**
+   * Final butterflies of the forward real DFT, 1 <= k < N/4.
+   *
+   * @param X       double[] containing the transform in conjugate symmetric packed form.
+   * @param Xr      double[] containing the real part of the length-N/2 complex DFT.
+   * @param Xi      double[] containing the imaginary part of the length-N/2 complex DFT.
+   * @param c       double[] containing cos( 2*pi*k/N ),  0 <= k < N/4.
+   * @param s       double[] containing sin( 2*pi*k/N ),  0 <= k < N/4.
+   * @param N       int specifying the length of the real DFT.
+   */
+  void realForward( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N ) {
+    realForward( X, Xr, Xi, c, s, N, 1 );
+  }
+
+
+
+  /**
+   * Scalar final butterflies of the forward real DFT for k0 <= k < N/4.
+   */
+  final void realForward( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N, int k0 ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    int N2pk = N2 + k0;
+    int N2mk = N2 - k0;
+    int Nmk  = N  - k0;
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      double Xrk = Xr[k];
+      double Xik = Xi[k];
+      double XrN2mk = Xr[N2mk];
+      double XiN2mk = Xi[N2mk];
+
+      double Sr = ( Xrk + XrN2mk )/2;
+      double Si = ( Xik - XiN2mk )/2;
+
+      double Dr = ( Xik + XiN2mk )/2;
+      double Di = ( XrN2mk - Xrk )/2;
+
+      double tmp = c[k]*Dr + s[k]*Di;
+      Di        = c[k]*Di - s[k]*Dr;
+      Dr        = tmp;
+
+      X[k]      = Sr + Dr;
+      X[Nmk]    = Si + Di;
+
+      X[N2mk]   = Sr - Dr;
+      X[N2pk]   = Di - Si;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+    }
+  }
+
+
+
+  /**
+   * Initial butterflies of the inverse real DFT, 1 <= k < N/4 and N/4 < k < N/2.
+   *
+   * @param X       double[] containing the transform in conjugate symmetric packed form.
+   * @param Xr      double[] containing the real part of the length-N/2 complex DFT.
+   * @param Xi      double[] containing the imaginary part of the length-N/2 complex DFT.
+   * @param c       double[] containing cos( 2*pi*k/N ),  0 <= k < N/4.
+   * @param s       double[] containing sin( 2*pi*k/N ),  0 <= k < N/4.
+   * @param N       int specifying the length of the real DFT.
+   */
+  void realInverse( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N ) {
+    realInverse( X, Xr, Xi, c, s, N, 1, N/4 + 1 );
+  }
+
+
+
+  /**
+   * Scalar initial butterflies of the inverse real DFT for k0 <= k < N/4 and k1 <= k < N/2.
+   */
+  final void realInverse( double[] X, double[] Xr, double[] Xi, double[] c, double[] s, int N, int k0, int k1 ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    int N2pk = N2 + k0;
+    int N2mk = N2 - k0;
+    int Nmk  = N  - k0;
+    for ( int k = k0;  k < N4;  k++ ) {
+
+      double Xrk    =  X[k];
+      double Xik    =  X[Nmk];
+      double XrkpN2 =  X[N2mk];
+      double XikpN2 = -X[N2pk];
+
+      double Dr = Xrk - XrkpN2;
+      double Di = Xik - XikpN2;
+
+      Xr[k] = Xrk + XrkpN2  -  s[k]*Dr  -  c[k]*Di;
+      Xi[k] = Xik + XikpN2  +  c[k]*Dr  -  s[k]*Di;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+    }
+
+    //  cos( 2*pi/N * (N/4+m) ) = cos( 2*pi/N*m + pi/2 ) = -cos( 2*pi/N*(N/4-m) )
+    //  sin( 2*pi/N * (N/4+m) ) = sin( 2*pi/N * (N/4-m) )
+
+    N2pk = N2 + k1;
+    N2mk = N2 - k1;
+    Nmk  = N  - k1;
+    int reflect = N2 - k1;
+    for ( int k = k1;  k < N2;  k++ ) {
+
+      double Xrk    =  X[k];
+      double Xik    =  X[Nmk];
+      double XrkpN2 =  X[N2mk];
+      double XikpN2 = -X[N2pk];
+
+      double Dr = Xrk - XrkpN2;
+      double Di = Xik - XikpN2;
+
+      Xr[k] = Xrk + XrkpN2  -  s[reflect]*Dr  +  c[reflect]*Di;
+      Xi[k] = Xik + XikpN2  -  c[reflect]*Dr  -  s[reflect]*Di;
+
+      N2pk++;
+      N2mk--;
+      Nmk--;
+      reflect--;
+    }
+  }
+
+
+
+  /**
+   * Product of two complex transforms.
+   *
+   * @param Xr     double[] containing the real part of the first transform.
+   * @param Xi     double[] containing the imaginary part of the first transform.
+   * @param Yr     double[] containing the real part of the second transform before call, of the product after call.
+   * @param Yi     double[] containing the imaginary part of the second transform before call, of the product after call.
+   * @param sign   +1 for convolution type product, -1 for correlation type product.
+   */
+  void complexProduct( double[] Xr, double[] Xi, double[] Yr, double[] Yi, double sign ) {
+    complexProduct( Xr, Xi, Yr, Yi, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar product of two complex transforms for i >= i0.
+   */
+  final void complexProduct( double[] Xr, double[] Xi, double[] Yr, double[] Yi, double sign, int i0 ) {
+    double tmp;
+    for ( int i = i0;  i < Xr.length;  i++ ) {
+      tmp   = Xr[i]*Yr[i]  -  sign*Xi[i]*Yi[i];
+      Yi[i] = Xr[i]*Yi[i]  +  sign*Xi[i]*Yr[i];
+      Yr[i] = tmp;
+    }
+  }
+
+
+  /**
+   * Product of two interleaved complex transforms.
+   *
+   * @param X      double[] containing the first transform, real parts in X[2k] and imaginary parts in X[2k+1].
+   * @param Y      double[] containing the second transform before call, the product after call.
+   * @param sign   +1 for convolution type product, -1 for correlation type product.
+   */
+  void interleavedProduct( double[] X, double[] Y, double sign ) {
+    interleavedProduct( X, Y, sign, 0 );
+  }
+
+
+
+  /**
+   * Scalar product of two interleaved complex transforms for array index i >= i0 (i0 even).
+   */
+  final void interleavedProduct( double[] X, double[] Y, double sign, int i0 ) {
+    double tmp;
+    for ( int i = i0;  i < X.length;  i += 2 ) {
+      tmp    = X[i]*Y[i]    -  sign*X[i+1]*Y[i+1];
+      Y[i+1] = X[i]*Y[i+1]  +  sign*X[i+1]*Y[i];
+      Y[i]   = tmp;
+    }
+  }
+
+
+
+
+  /**
+   * Product of two conjugate symmetric transforms in packed form.
+   *
+   * @param kernel       double[] containing the first DFT.
+   * @param transform    double[] containing the second DFT before call, the product after the call.
+   * @param sign         +1 if a convolution type product, -1 if a correlation type product.
+   */
+  void packedProduct( double[] kernel, double[] transform, double sign ) {
+    int n    = kernel.length;
+    transform[0]   *= kernel[0];
+    transform[n/2] *= kernel[n/2];
+    packedProduct( kernel, transform, sign, 1 );
+  }
+
+
+
+  /**
+   * Scalar product of two conjugate symmetric transforms for i0 <= i < n/2.
+   */
+  final void packedProduct( double[] kernel, double[] transform, double sign, int i0 ) {
+    int n    = kernel.length;
+    int half = n/2;
+    double tmp;
+    for ( int i = i0;  i < half;  i++ ) {
+      int im = n-i;
+      tmp           = kernel[i]*transform[i]  - sign*kernel[im]*transform[im];
+      transform[im] = kernel[i]*transform[im] + sign*kernel[im]*transform[i];
+      transform[i]  = tmp;
+    }
+  }
+
+}
@@ -0,0 +1,318 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+
+/**
+ * Process-wide registry of FFT plans.
+ *
+ * <p>Constructing a CDFT, CDFTdp, RDFT or RDFTdp object requires sine and cosine tables and a tree of
+ * linked split-radix DFTs, both of which depend only upon the size and precision of the transform.
+ * This class retains those structures (plans) once they have been computed, and hands the same immutable
+ * plan to every transform object of the same size, precision and engine (see FFTEngine).  Consequently,
+ * instantiating a transform of a size that has been seen before costs little more than a table lookup.</p>
+ *
+ * <p>The cache is bounded.  Each plan is weighted by the number of points in its tables, and the least
+ * recently used plans are evicted when the total weight exceeds the capacity.  Eviction only removes a
+ * plan from the registry; transform objects that already hold a reference to an evicted plan continue
+ * to work.  The initial capacity is 2<sup>24</sup> points, and may be changed with the system property
+ * <font face="courier">oregondsp.fft.planCacheCapacity</font> or with setCapacity().</p>
+ *
+ * <p>Requests that do not name an engine receive the plan for the engine chosen by the FFTPlanner.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public final class FFTPlanCache {
+
+  /** Default capacity of the cache in table points. */
+  private static final long DEFAULT_CAPACITY = 1L << 24;
+
+  /** Plan kind tags used to form cache keys. */
+  private static final int CDFT   = 0;
+  private static final int CDFTDP = 1;
+  private static final int RDFT   = 2;
+  private static final int RDFTDP = 3;
+
+  /** Plans in least-recently-used order. */
+  private static final LinkedHashMap< Long, Entry > plans = new LinkedHashMap< Long, Entry >( 16, 0.75f, true );
+
+  /** Maximum total weight of the retained plans. */
+  private static long capacity = Long.getLong( "oregondsp.fft.planCacheCapacity", DEFAULT_CAPACITY );
+
+  /** Total weight of the retained plans. */
+  private static long weight = 0;
+
+  /** Number of requests satisfied from the cache. */
+  private static long hits   = 0;
+
+  /** Number of requests that required a new plan. */
+  private static long misses = 0;
+
+
+
+  private FFTPlanCache() {
+  }
+
+
+
+  /**
+   * Obtains the plan for a single precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         shared CDFTPlan instance.
+   */
+  static CDFTPlan cdft( int log2N ) {
+    return cdft( log2N, FFTPlanner.cdft( log2N ) );
+  }
+
+
+
+  /**
+   * Obtains the plan for a single precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         shared CDFTPlan instance.
+   */
+  static CDFTPlan cdft( int log2N, FFTEngine engine ) {
+    Long key = key( CDFT, log2N, engine );
+    CDFTPlan plan = (CDFTPlan) lookup( key );
+    if ( plan == null ) {
+      plan = new CDFTPlan( log2N, engine );
+      plan = (CDFTPlan) insert( key, plan, plan.weight() );
+    }
+    return plan;
+  }
+
+
+
+  /**
+   * Obtains the plan for a double precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         shared CDFTPlandp instance.
+   */
+  static CDFTPlandp cdftdp( int log2N ) {
+    return cdftdp( log2N, FFTPlanner.cdftdp( log2N ) );
+  }
+
+
+
+  /**
+   * Obtains the plan for a double precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         shared CDFTPlandp instance.
+   */
+  static CDFTPlandp cdftdp( int log2N, FFTEngine engine ) {
+    Long key = key( CDFTDP, log2N, engine );
+    CDFTPlandp plan = (CDFTPlandp) lookup( key );
+    if ( plan == null ) {
+      plan = new CDFTPlandp( log2N, engine );
+      plan = (CDFTPlandp) insert( key, plan, plan.weight() );
+    }
+    return plan;
+  }
+
+
+
+  /**
+   * Obtains the plan for a single precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         shared RDFTPlan instance.
+   */
+  static RDFTPlan rdft( int log2N ) {
+    return rdft( log2N, FFTPlanner.rdft( log2N ) );
+  }
+
+
+
+  /**
+   * Obtains the plan for a single precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         shared RDFTPlan instance.
+   */
+  static RDFTPlan rdft( int log2N, FFTEngine engine ) {
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
+    Long key = key( RDFT, log2N, engine );
+    RDFTPlan plan = (RDFTPlan) lookup( key );
+    if ( plan == null ) {
+      plan = new RDFTPlan( log2N, cdft( log2N-1, engine ) );
+      plan = (RDFTPlan) insert( key, plan, plan.weight() );
+    }
+    return plan;
+  }
+
+
+
+  /**
+   * Obtains the plan for a double precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         shared RDFTPlandp instance.
+   */
+  static RDFTPlandp rdftdp( int log2N ) {
+    return rdftdp( log2N, FFTPlanner.rdftdp( log2N ) );
+  }
+
+
+
+  /**
+   * Obtains the plan for a double precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         shared RDFTPlandp instance.
+   */
+  static RDFTPlandp rdftdp( int log2N, FFTEngine engine ) {
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
+    Long key = key( RDFTDP, log2N, engine );
+    RDFTPlandp plan = (RDFTPlandp) lookup( key );
+    if ( plan == null ) {
+      plan = new RDFTPlandp( log2N, cdftdp( log2N-1, engine ) );
+      plan = (RDFTPlandp) insert( key, plan, plan.weight() );
+    }
+    return plan;
+  }
+
+
+
+  /**
+   * Sets the capacity of the cache and evicts plans as necessary to honor it.
+   *
+   * @param points    long specifying the maximum total number of table points retained by the cache.
+   */
+  public static synchronized void setCapacity( long points ) {
+    if ( points < 0 ) throw new IllegalArgumentException( "Cache capacity must be >= 0" );
+    capacity = points;
+    evict();
+  }
+
+
+
+  /**
+   * Accessor for the capacity of the cache.
+   *
+   * @return    long containing the maximum total number of table points retained by the cache.
+   */
+  public static synchronized long getCapacity() {
+    return capacity;
+  }
+
+
+
+  /**
+   * Removes all plans from the cache.
+   */
+  public static synchronized void clear() {
+    plans.clear();
+    weight = 0;
+  }
+
+
+
+  /**
+   * Accessor for the number of plans currently retained.
+   *
+   * @return    int containing the number of plans in the cache.
+   */
+  public static synchronized int size() {
+    return plans.size();
+  }
+
+
+
+  /**
+   * Accessor for the number of plan requests satisfied from the cache.
+   *
+   * @return    long containing the number of cache hits since the JVM started.
+   */
+  public static synchronized long getHits() {
+    return hits;
+  }
+
+
+
+  /**
+   * Accessor for the number of plan requests that required construction of a new plan.
+   *
+   * @return    long containing the number of cache misses since the JVM started.
+   */
+  public static synchronized long getMisses() {
+    return misses;
+  }
+
+
+
+  private static Long key( int kind, int log2N, FFTEngine engine ) {
+    return Long.valueOf( ( (long) engine.ordinal() << 40 )  |  ( (long) kind << 32 )  |  ( 1L << log2N ) );
+  }
+
+
+
+  private static synchronized Object lookup( Long key ) {
+    Entry entry = plans.get( key );
+    if ( entry == null ) return null;
+    hits++;
+    return entry.plan;
+  }
+
+
+
+  // Plans are constructed outside the lock so that a large plan does not block requests for other sizes.
+  // If another thread has inserted a plan for the same key in the meantime, that plan is returned instead.
+
+  private static synchronized Object insert( Long key, Object plan, int w ) {
+    Entry entry = plans.get( key );
+    if ( entry != null ) return entry.plan;
+    misses++;
+    plans.put( key, new Entry( plan, w ) );
+    weight += w;
+    evict();
+    return plan;
+  }
+
+
+
+  private static void evict() {
+    Iterator< Entry > i = plans.values().iterator();
+    while ( weight > capacity  &&  i.hasNext() ) {
+      weight -= i.next().weight;
+      i.remove();
+    }
+  }
+
+
+
+  private static final class Entry {
+
+    final Object plan;
+    final int    weight;
+
+    Entry( Object plan, int weight ) {
+      this.plan   = plan;
+      this.weight = weight;
+    }
+  }
+
+}
@@ -0,0 +1,563 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * Self-tuning selection of the FFTEngine used for each transform size and precision.
+ *
+ * <p>The fastest way to execute the split-radix decomposition depends upon the host:  the processor, its caches,
+ * the JIT compiler and whether the vectorized kernels are available.  The planner chooses the engine for the
+ * transform constructors that do not name one (CDFT, CDFTdp, RDFT, RDFTdp, the mixed-radix classes and the plan
+ * factories).  It operates in one of two modes, after the FFTW planner:</p>
+ *
+ * <p>ESTIMATE (the default) performs no measurements.  A size is given the engine recorded in the wisdom for it,
+ * if any, and otherwise the default engine (see FFTEngine.getDefault()).</p>
+ *
+ * <p>MEASURE times every engine on the first request for a size and precision that has no wisdom, records the
+ * fastest in the wisdom and saves the wisdom file.  Planning a size takes a fraction of a second;  later requests,
+ * in this JVM or in later ones that load the same wisdom file, cost a table lookup.</p>
+ *
+ * <p>The mode is given by the system property <font face="courier">oregondsp.fft.planner</font> ("estimate" or
+ * "measure") or by setMode().  Wisdom is kept in a java.util.Properties file named by the system property
+ * <font face="courier">oregondsp.fft.wisdom</font> or by setWisdomFile().  If no file is named, MEASURE mode uses
+ * <font face="courier">.oregondsp-fftwisdom</font> in the user's home directory, and ESTIMATE mode uses no file at
+ * all:  constructing a transform then never touches the file system.  The file is loaded on first use and saved
+ * after each measurement.  Wisdom recorded with the vectorized kernels is kept apart from wisdom recorded without
+ * them.  An engine named with the system property <font face="courier">oregondsp.fft.engine</font> overrides the
+ * planner.</p>
+ *
+ * <p> Example of use:</p>
+ * <p>
+ * <font face="courier">
+ *  FFTPlanner.setMode( FFTPlanner.Mode.MEASURE );<BR>
+ *  RDFT fft = new RDFT( 12 );          // measures the 4096-point real DFT engines on the first run only<BR>
+ * </font>
+ * </p>
+ *
+ * <p>All methods are thread-safe.  Looking up an engine takes no lock.  A size is measured once, by the first thread
+ * to request it;  other threads requesting the same size wait for its result, while requests for other sizes
+ * proceed.</p>
+ */
+public final class FFTPlanner {
+
+  /**
+   * Planning modes.
+   */
+  public enum Mode {
+
+    /** Use wisdom when present and the default engine otherwise */
+    ESTIMATE,
+    /** Time the engines for sizes without wisdom and record the fastest */
+    MEASURE
+
+  }
+
+
+  /** Transform kind tags. */
+  private static final int      CDFT   = 0;
+  private static final int      CDFTDP = 1;
+  private static final int      RDFT   = 2;
+  private static final int      RDFTDP = 3;
+
+  /** Prefixes of the wisdom keys, indexed by kind. */
+  private static final String[] NAMES  = { "cdft", "cdftdp", "rdft", "rdftdp" };
+
+  /** Time spent running each engine before it is timed, in nanoseconds. */
+  private static final long     WARMUP_NANOS = 20000000L;
+
+  /** Minimum duration of one timing trial, in nanoseconds. */
+  private static final long     TRIAL_NANOS  = 2000000L;
+
+  /** Number of timing trials per engine;  the fastest trial is used. */
+  private static final int      TRIALS       = 7;
+
+  /** Current planning mode. */
+  private static volatile Mode     mode      = parseMode( System.getProperty( "oregondsp.fft.planner" ) );
+
+  /** True if the wisdom file has been named, by the system property or by setWisdomFile(). */
+  private static volatile boolean  fileNamed = System.getProperty( "oregondsp.fft.wisdom" ) != null;
+
+  /** File named for the wisdom, or null if the wisdom is not persisted;  used only if fileNamed is true. */
+  private static volatile File     file      = namedFile();
+
+  /** Wisdom file whose contents have been merged into the wisdom. */
+  private static volatile File     loaded    = null;
+
+  /** Engine chosen for each transform, keyed by kind, log2N and kernel type. */
+  private static final ConcurrentMap< String, FFTEngine >  wisdom
+    = new ConcurrentHashMap< String, FFTEngine >();
+
+  /** Measurements in progress, keyed as the wisdom. */
+  private static final ConcurrentMap< String, FutureTask< FFTEngine > >  pending
+    = new ConcurrentHashMap< String, FutureTask< FFTEngine > >();
+
+
+
+  private FFTPlanner() {
+  }
+
+
+
+  /**
+   * Obtains the engine for a single precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         FFTEngine that executes the transform.
+   */
+  public static FFTEngine cdft( int log2N ) {
+    return engine( CDFT, log2N );
+  }
+
+
+
+  /**
+   * Obtains the engine for a double precision complex DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         FFTEngine that executes the transform.
+   */
+  public static FFTEngine cdftdp( int log2N ) {
+    return engine( CDFTDP, log2N );
+  }
+
+
+
+  /**
+   * Obtains the engine for a single precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         FFTEngine that executes the transform.
+   */
+  public static FFTEngine rdft( int log2N ) {
+    return engine( RDFT, log2N );
+  }
+
+
+
+  /**
+   * Obtains the engine for a double precision real DFT.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         FFTEngine that executes the transform.
+   */
+  public static FFTEngine rdftdp( int log2N ) {
+    return engine( RDFTDP, log2N );
+  }
+
+
+
+  /**
+   * Sets the planning mode.
+   *
+   * @param mode    Mode used for sizes without wisdom.
+   */
+  public static void setMode( Mode mode ) {
+    if ( mode == null ) throw new IllegalArgumentException( "Planner mode must not be null" );
+    FFTPlanner.mode = mode;
+  }
+
+
+
+  /**
+   * Accessor for the planning mode.
+   *
+   * @return    Mode used for sizes without wisdom.
+   */
+  public static Mode getMode() {
+    return mode;
+  }
+
+
+
+  /**
+   * Sets the file in which wisdom is kept, in either mode.  The wisdom it contains, if any, is merged into the current
+   * wisdom on the next request for an engine.
+   *
+   * @param f    File holding the wisdom, or null to keep the wisdom in memory only.
+   */
+  public static synchronized void setWisdomFile( File f ) {
+    file      = f;
+    fileNamed = true;
+  }
+
+
+
+  /**
+   * Accessor for the file in which wisdom is kept in the current mode.
+   *
+   * @return    File holding the wisdom, or null if the wisdom is kept in memory only.
+   */
+  public static File getWisdomFile() {
+    if ( fileNamed ) return file;
+    return mode == Mode.MEASURE  ?  defaultFile()  :  null;
+  }
+
+
+
+  /**
+   * Merges the wisdom stored in a file into the current wisdom.
+   *
+   * @param f    File containing wisdom written by exportWisdom() or by the planner.
+   * @throws IOException    if the file cannot be read.
+   */
+  public static void importWisdom( File f ) throws IOException {
+    merge( f );
+  }
+
+
+
+  /**
+   * Writes the current wisdom to a file.
+   *
+   * @param f    File to which the wisdom is written.
+   * @throws IOException    if the file cannot be written.
+   */
+  public static synchronized void exportWisdom( File f ) throws IOException {
+    write( f, properties() );
+  }
+
+
+
+  /**
+   * Discards the wisdom held in memory.  The wisdom file is not changed until the next measurement.
+   */
+  public static void forgetWisdom() {
+    wisdom.clear();
+  }
+
+
+
+  private static FFTEngine engine( int kind, int log2N ) {
+
+    if ( System.getProperty( "oregondsp.fft.engine" ) != null ) return FFTEngine.getDefault();
+
+    load();
+
+    String    key    = NAMES[kind] + "." + log2N + ( FFTEngine.isVectorized()  ?  ".vector"  :  "" );
+    FFTEngine engine = wisdom.get( key );
+    if ( engine != null ) return engine;
+
+    // sizes below the minimum are left for the plan constructors to reject
+
+    if ( mode == Mode.ESTIMATE  ||  log2N < ( kind >= RDFT  ?  4  :  3 ) ) return FFTEngine.getDefault();
+
+    return plan( kind, log2N, key );
+  }
+
+
+
+  // Measures the engines for a transform without holding a lock.  The first thread to request the key runs the
+  // measurement;  later threads requesting the same key wait for its result.
+
+  private static FFTEngine plan( final int kind, final int log2N, final String key ) {
+
+    FutureTask< FFTEngine > task = new FutureTask< FFTEngine >( new Callable< FFTEngine >() {
+      public FFTEngine call() {
+        FFTEngine engine = wisdom.get( key );
+        if ( engine != null ) return engine;         // recorded by a measurement that finished since the lookup
+        engine = measure( kind, log2N );
+        wisdom.put( key, engine );
+        save();
+        return engine;
+      }
+    } );
+
+    FutureTask< FFTEngine > running = pending.putIfAbsent( key, task );
+    if ( running == null ) {
+      running = task;
+      try {
+        task.run();
+      }
+      finally {
+        pending.remove( key );
+      }
+    }
+
+    boolean interrupted = false;
+    try {
+      while ( true ) {
+        try {
+          return running.get();
+        }
+        catch ( InterruptedException e ) {
+          interrupted = true;
+        }
+      }
+    }
+    catch ( ExecutionException e ) {
+      Throwable cause = e.getCause();
+      if ( cause instanceof RuntimeException ) throw (RuntimeException) cause;
+      if ( cause instanceof Error ) throw (Error) cause;
+      throw new IllegalStateException( cause );
+    }
+    finally {
+      if ( interrupted ) Thread.currentThread().interrupt();
+    }
+  }
+
+
+
+  // Merges the wisdom file in use for the current mode, once.  The lock is taken only while a file is read.
+
+  private static void load() {
+    File f = getWisdomFile();
+    if ( f == null  ||  f.equals( loaded ) ) return;
+    synchronized ( FFTPlanner.class ) {
+      if ( f.equals( loaded ) ) return;
+      try {
+        merge( f );
+      }
+      catch ( IOException e ) {
+        // an unreadable wisdom file is treated as an empty one
+      }
+      loaded = f;
+    }
+  }
+
+
+
+  // Saves the wisdom to the file in use, if any.  The lock serializes writers, so that their replacements of the file
+  // do not interleave.
+
+  private static void save() {
+    File f = getWisdomFile();
+    if ( f == null ) return;
+    synchronized ( FFTPlanner.class ) {
+      try {
+        write( f, properties() );
+      }
+      catch ( IOException e ) {
+        // the wisdom remains in effect for this JVM
+      }
+    }
+  }
+
+
+
+  // Times each engine on the transform, alternating among the engines from one trial to the next so that a
+  // disturbance affects all of them alike, and returns the engine with the shortest trial.
+
+  private static FFTEngine measure( int kind, int log2N ) {
+
+    FFTEngine[] engines = FFTEngine.values();
+    Trial[]     trials  = new Trial[ engines.length ];
+    int[]       reps    = new int[ engines.length ];
+    double[]    best    = new double[ engines.length ];
+
+    for ( int e = 0;  e < engines.length;  e++ ) {
+      trials[e] = trial( kind, log2N, engines[e] );
+      long start = System.nanoTime();
+      long count = 0;
+      long elapsed;
+      do {
+        trials[e].run();
+        count++;
+        elapsed = System.nanoTime() - start;
+      } while ( elapsed < WARMUP_NANOS );
+      reps[e] = (int) Math.max( 1, count * TRIAL_NANOS / elapsed );
+      best[e] = Double.MAX_VALUE;
+    }
+
+    for ( int t = 0;  t < TRIALS;  t++ ) {
+      for ( int e = 0;  e < engines.length;  e++ ) {
+        long start = System.nanoTime();
+        for ( int r = 0;  r < reps[e];  r++ ) trials[e].run();
+        best[e] = Math.min( best[e], (double) ( System.nanoTime() - start ) / reps[e] );
+      }
+    }
+
+    int fastest = 0;
+    for ( int e = 1;  e < engines.length;  e++ ) {
+      if ( best[e] < best[fastest] ) fastest = e;
+    }
+    return engines[ fastest ];
+  }
+
+
+
+  // Plans are constructed directly rather than through the FFTPlanCache, so that the engines that lose do not
+  // occupy the cache.
+
+  private static Trial trial( int kind, int log2N, FFTEngine engine ) {
+
+    final int          N         = 1 << log2N;
+    final FFTWorkspace workspace = new FFTWorkspace();
+
+    if ( kind == CDFT ) {
+      final CDFTPlan plan = new CDFTPlan( log2N, engine );
+      final float[]  xr = signal( N, 1 ), xi = signal( N, 2 ), Xr = new float[N], Xi = new float[N];
+      return new Trial() {
+        void run() { plan.evaluate( xr, xi, Xr, Xi ); }
+      };
+    }
+    else if ( kind == CDFTDP ) {
+      final CDFTPlandp plan = new CDFTPlandp( log2N, engine );
+      final double[]   xr = signaldp( N, 1 ), xi = signaldp( N, 2 ), Xr = new double[N], Xi = new double[N];
+      return new Trial() {
+        void run() { plan.evaluate( xr, xi, Xr, Xi ); }
+      };
+    }
+    else if ( kind == RDFT ) {
+      final RDFTPlan plan = new RDFTPlan( log2N, new CDFTPlan( log2N-1, engine ) );
+      final float[]  x = signal( N, 1 ), X = new float[N];
+      return new Trial() {
+        void run() { plan.evaluate( x, X, workspace ); }
+      };
+    }
+    else {
+      final RDFTPlandp plan = new RDFTPlandp( log2N, new CDFTPlandp( log2N-1, engine ) );
+      final double[]   x = signaldp( N, 1 ), X = new double[N];
+      return new Trial() {
+        void run() { plan.evaluate( x, X, workspace ); }
+      };
+    }
+  }
+
+
+
+  private static float[] signal( int N, int seed ) {
+    float[] x = new float[ N ];
+    for ( int n = 0;  n < N;  n++ ) x[n] = (float) Math.sin( 0.37*seed*n + seed );
+    return x;
+  }
+
+
+
+  private static double[] signaldp( int N, int seed ) {
+    double[] x = new double[ N ];
+    for ( int n = 0;  n < N;  n++ ) x[n] = Math.sin( 0.37*seed*n + seed );
+    return x;
+  }
+
+
+
+  // Entries that do not name a known engine are ignored.
+
+  private static void merge( File f ) throws IOException {
+    if ( !f.exists() ) return;
+    Properties  p  = new Properties();
+    InputStream in = new FileInputStream( f );
+    try {
+      p.load( in );
+    }
+    finally {
+      in.close();
+    }
+    for ( String key : p.stringPropertyNames() ) {
+      FFTEngine engine = parseEngine( p.getProperty( key ) );
+      if ( engine != null ) wisdom.put( key, engine );
+    }
+  }
+
+
+
+  private static Properties properties() {
+    Properties p = new Properties();
+    for ( Map.Entry< String, FFTEngine > entry : wisdom.entrySet() ) {
+      p.setProperty( entry.getKey(), entry.getValue().name() );
+    }
+    return p;
+  }
+
+
+
+  // The wisdom is written to a temporary file that then replaces the wisdom file, so that a JVM reading the
+  // wisdom never sees a partially written file.
+
+  private static void write( File f, Properties p ) throws IOException {
+    File dir = f.getAbsoluteFile().getParentFile();
+    File tmp = File.createTempFile( f.getName(), ".tmp", dir );
+    try {
+      OutputStream out = new FileOutputStream( tmp );
+      try {
+        p.store( out, "OregonDSP FFT wisdom" );
+      }
+      finally {
+        out.close();
+      }
+      if ( !tmp.renameTo( f ) ) {
+        if ( !f.delete()  ||  !tmp.renameTo( f ) ) throw new IOException( "Unable to replace " + f );
+      }
+    }
+    finally {
+      tmp.delete();
+    }
+  }
+
+
+
+  private static File namedFile() {
+    String name = System.getProperty( "oregondsp.fft.wisdom" );
+    return name == null  ||  name.trim().length() == 0  ?  null  :  new File( name );
+  }
+
+
+
+  private static File defaultFile() {
+    try {
+      return new File( System.getProperty( "user.home" ), ".oregondsp-fftwisdom" );
+    }
+    catch ( SecurityException e ) {
+      return null;
+    }
+  }
+
+
+
+  private static Mode parseMode( String name ) {
+    if ( name == null ) return Mode.ESTIMATE;
+    try {
+      return Mode.valueOf( name.trim().toUpperCase() );
+    }
+    catch ( IllegalArgumentException e ) {
+      return Mode.ESTIMATE;
+    }
+  }
+
+
+
+  private static FFTEngine parseEngine( String name ) {
+    if ( name == null ) return null;
+    try {
+      return FFTEngine.valueOf( name.trim() );
+    }
+    catch ( IllegalArgumentException e ) {
+      return null;
+    }
+  }
+
+
+
+  private static abstract class Trial {
+    abstract void run();
+  }
+
+}
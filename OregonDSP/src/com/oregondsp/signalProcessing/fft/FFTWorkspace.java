@@ -0,0 +1,143 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.Arrays;
+
+
+/**
+ * Scratch storage for the stateless evaluation methods of the FFT plans.
+ *
+ * <p>Plans (RDFTPlan, RDFTPlandp and the like) are immutable and may be shared among threads, but some
+ * transforms require temporary arrays during evaluation.  An FFTWorkspace supplies those arrays and keeps
+ * them from one call to the next, so that repeated evaluations do not allocate.  The arrays grow as needed,
+ * so a single workspace may be used with plans of different sizes and precisions.</p>
+ *
+ * <p>A workspace is not thread-safe:  each thread should use its own.</p>
+ */
+public final class FFTWorkspace {
+
+  // Slot registry.  Every class that takes scratch arrays from a workspace owns one of the ranges below, and the
+  // ranges do not overlap, so that any evaluation may call any other with the same workspace.  Each range begins
+  // where the previous one ends;  a new user appends a range and moves SLOTS.  The same slots serve the float and
+  // double arrays, which are separate.
+
+  /** RDFTPlan and RDFTPlandp:  the half-length complex sequence and its transform, 4 slots. */
+  static final int RDFT        = 0;
+
+  /** RDFTPlan and RDFTPlandp:  staging of buffer evaluations, 1 slot. */
+  static final int RDFT_BUFFER = RDFT + 4;
+
+  /** RDFTPlan and RDFTPlandp:  decimated sequence and transform of the output-pruned DFT, 2 slots. */
+  static final int RDFT_PRUNE  = RDFT_BUFFER + 1;
+
+  /** RDFTPlan and RDFTPlandp:  bin accumulators of the output-pruned DFT (double), 2 slots. */
+  static final int RDFT_BINS   = RDFT_PRUNE + 2;
+
+  /** CDFTPlan and CDFTPlandp:  copy of the input of the input-pruned DFT, 2 slots. */
+  static final int CDFT_INPUT  = RDFT_BINS + 2;
+
+  /** CDFTPlan and CDFTPlandp:  sub-transform sequences and transforms of the pruned DFTs, 4 slots. */
+  static final int PRUNE       = CDFT_INPUT + 2;
+
+  /** CDFTPlan and CDFTPlandp:  bin accumulators of the output-pruned DFT (double), 2 slots. */
+  static final int BINS        = PRUNE + 4;
+
+  /** CDFTmr and CDFTmrdp:  Stockham stage ping-pong arrays, 2 slots. */
+  static final int STAGE       = BINS + 2;
+
+  /** CDFTmr and CDFTmrdp:  generic radix butterfly temporaries, 2 slots. */
+  static final int RADIX       = STAGE + 2;
+
+  /** CDFTmr and CDFTmrdp:  Bluestein chirp sequence and its transform, 4 slots. */
+  static final int BLUESTEIN   = RADIX + 2;
+
+  /** RDFTmr and RDFTmrdp:  complex sequences and transforms of the arbitrary-length real DFT, 4 slots. */
+  static final int REAL_MR     = BLUESTEIN + 4;
+
+  /** CDFTfourStep and CDFTfourStepdp:  the intermediate N1 x N2 matrix, 2 slots. */
+  static final int MATRIX      = REAL_MR + 4;
+
+  /** CDFTfourStep and CDFTfourStepdp:  row copies and transforms in each worker thread, 4 slots. */
+  static final int ROWS        = MATRIX + 2;
+
+  /** RDFTBatch and RDFTBatchdp:  gathered channel of a strided buffer and its transform, 2 slots. */
+  static final int COPY        = ROWS + 4;
+
+  /** ChirpZ and ChirpZdp:  the convolution, 2 slots. */
+  static final int CHIRPZ      = COPY + 2;
+
+  /** DCT and DCTdp:  the reordered sequence and its transform, 2 slots. */
+  static final int DCT         = CHIRPZ + 2;
+
+  /** Number of slots in the registry. */
+  static final int SLOTS       = DCT + 2;
+
+  /** Single precision scratch arrays, indexed by slot. */
+  private float[][]  floats;
+
+  /** Double precision scratch arrays, indexed by slot. */
+  private double[][] doubles;
+
+
+
+  /**
+   * Instantiates a new, empty FFTWorkspace.  Arrays are allocated on first use.
+   */
+  public FFTWorkspace() {
+    floats  = new float[ SLOTS ][];
+    doubles = new double[ SLOTS ][];
+  }
+
+
+
+  /**
+   * Obtains a single precision scratch array.
+   *
+   * @param slot      int identifying the array, from the registry above - distinct slots refer to distinct arrays.
+   * @param length    int specifying the minimum length of the array.
+   * @return          float[] of at least the requested length.  Contents are unspecified.
+   */
+  float[] floats( int slot, int length ) {
+    if ( slot >= floats.length ) floats = Arrays.copyOf( floats, slot+1 );
+    float[] a = floats[slot];
+    if ( a == null  ||  a.length < length ) {
+      a = new float[ length ];
+      floats[slot] = a;
+    }
+    return a;
+  }
+
+
+
+  /**
+   * Obtains a double precision scratch array.
+   *
+   * @param slot      int identifying the array, from the registry above - distinct slots refer to distinct arrays.
+   * @param length    int specifying the minimum length of the array.
+   * @return          double[] of at least the requested length.  Contents are unspecified.
+   */
+  double[] doubles( int slot, int length ) {
+    if ( slot >= doubles.length ) doubles = Arrays.copyOf( doubles, slot+1 );
+    double[] a = doubles[slot];
+    if ( a == null  ||  a.length < length ) {
+      a = new double[ length ];
+      doubles[slot] = a;
+    }
+    return a;
+  }
+
+}
@@ -0,0 +1,326 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.Arrays;
+
+
+/**
+ *  Class to evaluate the DFT of consecutive blocks of one or more continuous data streams at a set of arbitrary
+ *  frequencies, with Goertzel's algorithm.
+ *
+ *  <p>Each data stream is divided into consecutive, non-overlapping blocks of N samples.  At the end of each block the
+ *  bank produces, for each frequency f, the DFT of the block with the phase referenced to its first sample:</p>
+ *  <p>
+ *  <font face="courier">
+ *   X(f) = sum_n x[n] * exp( -2*pi*i*f*delta*n ),&nbsp&nbsp 0 <= n < N<BR>
+ *  </font>
+ *  </p>
+ *  <p>Frequencies need not fall on the bins of a length-N DFT.  Each frequency is a second-order resonator,
+ *  s[n] = x[n] + 2*cos( w )*s[n-1] - s[n-2], w = 2*pi*f*delta, that costs one multiplication and two additions per
+ *  sample;  the complex value is formed from the last two states once per block.  The states are held in double
+ *  precision and are reset at the start of every block, so errors do not accumulate from block to block.  Where the
+ *  transform of a window sliding one sample at a time is needed, see SlidingDFT.</p>
+ *
+ *  <p>An instance holds independent state for each of a number of channels, which share the resonator coefficients.
+ *  Channels may be fed in blocks of any length, unrelated to N, and in any order.  The block methods do not
+ *  allocate.</p>
+ *
+ *  <p> Example of use (60 and 180 Hz lines in 10 s blocks of 24 channels sampled at 1000 Hz):</p>
+ *  <p>
+ *  <font face="courier">
+ *   GoertzelBank bank = new GoertzelBank( new double[] { 60.0, 180.0 }, 0.001, 10000, 24 );<BR>
+ *   float[] Xr = new float[2];<BR>
+ *   float[] Xi = new float[2];<BR>
+ *   <BR>
+ *   if ( bank.filter( channel, block ) > 0 ) bank.getBins( channel, Xr, Xi );<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>See "An Algorithm for the Evaluation of Finite Trigonometric Series", Goertzel, G., AMERICAN MATHEMATICAL
+ *  MONTHLY, VOL. 65, NO. 1, 1958, pp. 34-35.</p>
+ */
+public class GoertzelBank {
+
+  /** Length of the blocks. */
+  private final int        N;
+
+  /** Number of frequencies. */
+  private final int        nf;
+
+  /** Resonator coefficients 2*cos( w ). */
+  private final double[]   a;
+
+  /** exp( -i*w ), combining the last two states. */
+  private final double[]   er, ei;
+
+  /** exp( -i*w*(N-1) ), referencing the phase to the start of the block. */
+  private final double[]   fr, fi;
+
+  /** Resonator states s[n-1] and s[n-2] for each channel. */
+  private final double[][] s1, s2;
+
+  /** Number of samples of the current block processed on each channel. */
+  private final int[]      count;
+
+  /** DFT of the most recently completed block of each channel. */
+  private final float[][]  Yr, Yi;
+
+
+
+  /**
+   * Instantiates a new GoertzelBank.
+   *
+   * @param frequencies   double[] containing the frequencies, in Hz.
+   * @param delta         double specifying the sampling interval, in seconds.
+   * @param N             int specifying the length of the blocks (N >= 2).
+   * @param nChannels     int specifying the number of independent data streams (nChannels >= 1).
+   */
+  public GoertzelBank( double[] frequencies, double delta, int N, int nChannels ) {
+
+    if ( N < 2 ) throw new IllegalArgumentException( "Block length must be >= 2" );
+    if ( nChannels < 1 ) throw new IllegalArgumentException( "Number of channels must be >= 1" );
+
+    this.N = N;
+    nf     = frequencies.length;
+
+    a  = new double[ nf ];
+    er = new double[ nf ];
+    ei = new double[ nf ];
+    fr = new double[ nf ];
+    fi = new double[ nf ];
+    for ( int j = 0;  j < nf;  j++ ) {
+      double w = 2.0*Math.PI*frequencies[j]*delta;
+      a[j]  =  2.0*Math.cos( w );
+      er[j] =  Math.cos( w );
+      ei[j] = -Math.sin( w );
+      fr[j] =  Math.cos( w*(N-1) );
+      fi[j] = -Math.sin( w*(N-1) );
+    }
+
+    s1    = new double[ nChannels ][ nf ];
+    s2    = new double[ nChannels ][ nf ];
+    count = new int[ nChannels ];
+    Yr    = new float[ nChannels ][ nf ];
+    Yi    = new float[ nChannels ][ nf ];
+  }
+
+
+
+  /**
+   * Accessor for the length of the blocks.
+   * @return   int containing the block length
+   */
+  public int getBlockLength() {
+    return N;
+  }
+
+
+
+  /**
+   * Accessor for the number of frequencies.
+   * @return   int containing the number of frequencies
+   */
+  public int getNumberOfBins() {
+    return nf;
+  }
+
+
+
+  /**
+   * Accessor for the number of channels.
+   * @return   int containing the number of channels
+   */
+  public int getNumberOfChannels() {
+    return count.length;
+  }
+
+
+
+  /**
+   * Initializes the states of all channels to zero and starts a new block on each.
+   */
+  public void initialize() {
+    for ( int ch = 0;  ch < count.length;  ch++ ) initialize( ch );
+  }
+
+
+
+  /**
+   * Initializes the state of one channel to zero and starts a new block.
+   *
+   * @param channel   int specifying the channel.
+   */
+  public void initialize( int channel ) {
+    Arrays.fill( s1[channel], 0.0 );
+    Arrays.fill( s2[channel], 0.0 );
+    Arrays.fill( Yr[channel], 0.0f );
+    Arrays.fill( Yi[channel], 0.0f );
+    count[channel] = 0;
+  }
+
+
+
+  /**
+   * Advances one channel by a block of samples.
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   * @return          int containing the number of DFT blocks completed;  the last is available from getBins().
+   */
+  public int filter( int channel, float[] x ) {
+    return filter( channel, x, 0, x.length, null, null );
+  }
+
+
+
+  /**
+   * Advances one channel by part of a block of samples.
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   * @param offset    int specifying the index of the first sample in x.
+   * @param length    int specifying the number of samples.
+   * @return          int containing the number of DFT blocks completed;  the last is available from getBins().
+   */
+  public int filter( int channel, float[] x, int offset, int length ) {
+    return filter( channel, x, offset, length, null, null );
+  }
+
+
+
+  /**
+   * Advances one channel by a block of samples and records every DFT block completed.  The value at frequency j of
+   * the m-th block completed during the call is stored in Xr[ m*nFrequencies + j ] and Xi[ m*nFrequencies + j ].
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   * @param Xr        float[] containing the real parts of the completed blocks on return.  Must have room for
+   *                  ( x.length/N + 1 )*nFrequencies values.
+   * @param Xi        float[] containing the imaginary parts of the completed blocks on return.
+   * @return          int containing the number of DFT blocks completed.
+   */
+  public int filter( int channel, float[] x, float[] Xr, float[] Xi ) {
+    return filter( channel, x, 0, x.length, Xr, Xi );
+  }
+
+
+
+  /**
+   * Obtains the DFT of the most recently completed block of one channel, or zeros if no block has been completed.
+   *
+   * @param channel   int specifying the channel.
+   * @param Xr        float[] of length at least nFrequencies containing the real parts on return.
+   * @param Xi        float[] of length at least nFrequencies containing the imaginary parts on return.
+   */
+  public void getBins( int channel, float[] Xr, float[] Xi ) {
+    System.arraycopy( Yr[channel], 0, Xr, 0, nf );
+    System.arraycopy( Yi[channel], 0, Xi, 0, nf );
+  }
+
+
+
+  private int filter( int channel, float[] x, int offset, int length, float[] Xr, float[] Xi ) {
+
+    double[] t1 = s1[channel];
+    double[] t2 = s2[channel];
+    int      n  = count[channel];
+    int      nb = 0;
+
+    int i   = offset;
+    int end = offset + length;
+    while ( i < end ) {
+
+      // run the resonators to the end of the current block or of the data, whichever comes first
+
+      int m = Math.min( end - i, N - n );
+      int j = 0;
+
+      // pairs of resonators share the loop so that their recursions overlap in the pipeline
+
+      for ( ;  j+1 < nf;  j += 2 ) {
+        double aj = a[j];
+        double ak = a[j+1];
+        double u1 = t1[j];
+        double u2 = t2[j];
+        double v1 = t1[j+1];
+        double v2 = t2[j+1];
+        for ( int k = i;  k < i+m;  k++ ) {
+          double xk = x[k];
+          double u0 = xk + aj*u1 - u2;
+          double v0 = xk + ak*v1 - v2;
+          u2 = u1;
+          u1 = u0;
+          v2 = v1;
+          v1 = v0;
+        }
+        t1[j]   = u1;
+        t2[j]   = u2;
+        t1[j+1] = v1;
+        t2[j+1] = v2;
+      }
+      for ( ;  j < nf;  j++ ) {
+        double aj = a[j];
+        double u1 = t1[j];
+        double u2 = t2[j];
+        for ( int k = i;  k < i+m;  k++ ) {
+          double u0 = x[k] + aj*u1 - u2;
+          u2 = u1;
+          u1 = u0;
+        }
+        t1[j] = u1;
+        t2[j] = u2;
+      }
+      i += m;
+      n += m;
+
+      if ( n == N ) {
+        complete( channel );
+        if ( Xr != null ) {
+          System.arraycopy( Yr[channel], 0, Xr, nb*nf, nf );
+          System.arraycopy( Yi[channel], 0, Xi, nb*nf, nf );
+        }
+        nb++;
+        n = 0;
+      }
+    }
+
+    count[channel] = n;
+    return nb;
+  }
+
+
+
+  // X = exp( -i*w*(N-1) ) * ( s[N-1] - exp( -i*w )*s[N-2] ), then reset the resonators for the next block
+
+  private void complete( int channel ) {
+
+    double[] t1 = s1[channel];
+    double[] t2 = s2[channel];
+    float[]  yr = Yr[channel];
+    float[]  yi = Yi[channel];
+
+    for ( int j = 0;  j < nf;  j++ ) {
+      double vr = t1[j] - er[j]*t2[j];
+      double vi =       - ei[j]*t2[j];
+      yr[j] = (float) ( vr*fr[j] - vi*fi[j] );
+      yi[j] = (float) ( vr*fi[j] + vi*fr[j] );
+      t1[j] = 0.0;
+      t2[j] = 0.0;
+    }
+  }
+
+}
@@ -0,0 +1,242 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ *  Class to calculate the discrete Fourier transforms of many real sequences of the same length in one call.
+ *
+ *  <p>All channels share one transform (an RDFTmr, which uses the shared RDFTPlan when the length is a power of
+ *  two), and the channels are divided among the worker threads of a ForkJoinPool.  Each worker thread keeps its own
+ *  FFTWorkspace from one call to the next, so repeated batches do not allocate scratch arrays.</p>
+ *
+ *  <p>Channels may be supplied as a channel-major two-dimensional array, x[channel][sample], or as a contiguous
+ *  buffer in which channel c occupies elements offset + c*stride ... offset + c*stride + N - 1.  Transforms are
+ *  stored in the conjugate symmetric packed form described in RDFT.</p>
+ *
+ *  <p> Example of use:</p>
+ *  <p>
+ *  <font face="courier">
+ *   RDFTBatch batch = new RDFTBatch( 6000 );<BR>
+ *   float[][] x = new float[ nChannels ][ 6000 ];<BR>
+ *   float[][] X = new float[ nChannels ][ 6000 ];<BR>
+ *   <BR>
+ *   batch.evaluate( x, X );<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>A batch instance may be used concurrently by several threads.</p>
+ */
+public class RDFTBatch {
+
+  /** Approximate number of points transformed by one task before the channel range is split no further. */
+  private static final int                   GRAIN = 1 << 15;
+
+  /** Length of the transforms. */
+  private final int                          N;
+
+  /** Transform shared by all channels. */
+  private final RDFTmr                       dft;
+
+  /** Pool executing the channel tasks. */
+  private final ForkJoinPool                 pool;
+
+  /** Scratch storage for each thread. */
+  private final ThreadLocal< FFTWorkspace >  workspaces;
+
+
+
+  /**
+   * Constructs an RDFTBatch instance that runs on the common ForkJoinPool.
+   * @param N     int specifying the length of each transform.
+   */
+  public RDFTBatch( int N ) {
+    this( N, ForkJoinPool.commonPool() );
+  }
+
+
+
+  /**
+   * Constructs an RDFTBatch instance that runs on a specified ForkJoinPool.
+   * @param N     int specifying the length of each transform.
+   * @param pool  ForkJoinPool in which the channels are transformed.
+   */
+  public RDFTBatch( int N, ForkJoinPool pool ) {
+    this.N     = N;
+    this.pool  = pool;
+    dft        = new RDFTmr( N );
+    workspaces = new ThreadLocal< FFTWorkspace >() {
+      @Override
+      protected FFTWorkspace initialValue() {
+        return new FFTWorkspace();
+      }
+    };
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFTs of a set of real sequences.
+   * @param x     float[][] containing the real sequences, x[channel][sample].
+   * @param X     float[][] containing the transforms in conjugate symmetric packed form, X[channel][k].
+   */
+  public void evaluate( float[][] x, float[][] X ) {
+    if ( X.length < x.length ) throw new IllegalArgumentException( "Transform array has fewer channels than sequence array" );
+    run( new Task( false, x, X, null, 0, 0, null, 0, 0, 0, x.length ) );
+  }
+
+
+
+  /**
+   * Evaluates the DFTs of a set of real sequences stored in a contiguous buffer.
+   * @param x          float[] containing the real sequences.
+   * @param xOffset    int specifying the index of the first sample of channel 0 in x.
+   * @param xStride    int specifying the distance between the first samples of successive channels in x (>= N).
+   * @param X          float[] containing the transforms in conjugate symmetric packed form.
+   * @param XOffset    int specifying the index of the first transform element of channel 0 in X.
+   * @param XStride    int specifying the distance between the transforms of successive channels in X (>= N).
+   * @param nChannels  int specifying the number of channels.
+   */
+  public void evaluate( float[] x, int xOffset, int xStride, float[] X, int XOffset, int XStride, int nChannels ) {
+    checkStrides( xStride, XStride );
+    run( new Task( false, null, null, x, xOffset, xStride, X, XOffset, XStride, 0, nChannels ) );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFTs of a set of conjugate symmetric transforms.
+   * @param X     float[][] containing the transforms in conjugate symmetric packed form, X[channel][k].
+   * @param x     float[][] containing the real sequences, x[channel][sample].
+   */
+  public void evaluateInverse( float[][] X, float[][] x ) {
+    if ( x.length < X.length ) throw new IllegalArgumentException( "Sequence array has fewer channels than transform array" );
+    run( new Task( true, X, x, null, 0, 0, null, 0, 0, 0, X.length ) );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFTs of a set of conjugate symmetric transforms stored in a contiguous buffer.
+   * @param X          float[] containing the transforms in conjugate symmetric packed form.
+   * @param XOffset    int specifying the index of the first transform element of channel 0 in X.
+   * @param XStride    int specifying the distance between the transforms of successive channels in X (>= N).
+   * @param x          float[] containing the real sequences.
+   * @param xOffset    int specifying the index of the first sample of channel 0 in x.
+   * @param xStride    int specifying the distance between the first samples of successive channels in x (>= N).
+   * @param nChannels  int specifying the number of channels.
+   */
+  public void evaluateInverse( float[] X, int XOffset, int XStride, float[] x, int xOffset, int xStride, int nChannels ) {
+    checkStrides( XStride, xStride );
+    run( new Task( true, null, null, X, XOffset, XStride, x, xOffset, xStride, 0, nChannels ) );
+  }
+
+
+
+  private void checkStrides( int inStride, int outStride ) {
+    if ( inStride < N  ||  outStride < N ) throw new IllegalArgumentException( "Channel stride must be >= DFT size" );
+  }
+
+
+
+  private void run( Task task ) {
+    if ( task.to - task.from <= 1  ||  pool.getParallelism() == 1 )
+      task.compute();
+    else
+      pool.invoke( task );
+  }
+
+
+
+  // Transforms channels [from, to) of either a pair of two-dimensional arrays or a pair of strided buffers,
+  // splitting the range in halves until each task covers roughly GRAIN points.
+
+  private class Task extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean   inverse;
+    private final float[][] in2, out2;
+    private final float[]   in;
+    private final int       inOffset, inStride;
+    private final float[]   out;
+    private final int       outOffset, outStride;
+    private final int       from, to;
+
+    Task( boolean inverse, float[][] in2, float[][] out2,
+          float[] in, int inOffset, int inStride, float[] out, int outOffset, int outStride, int from, int to ) {
+      this.inverse   = inverse;
+      this.in2       = in2;
+      this.out2      = out2;
+      this.in        = in;
+      this.inOffset  = inOffset;
+      this.inStride  = inStride;
+      this.out       = out;
+      this.outOffset = outOffset;
+      this.outStride = outStride;
+      this.from      = from;
+      this.to        = to;
+    }
+
+    @Override
+    protected void compute() {
+
+      if ( to - from > 1  &&  (long) ( to - from ) * N > GRAIN ) {
+        int mid = ( from + to ) >>> 1;
+        invokeAll( new Task( inverse, in2, out2, in, inOffset, inStride, out, outOffset, outStride, from, mid ),
+                   new Task( inverse, in2, out2, in, inOffset, inStride, out, outOffset, outStride, mid,  to  ) );
+        return;
+      }
+
+      FFTWorkspace workspace = workspaces.get();
+
+      for ( int ch = from;  ch < to;  ch++ ) {
+        float[] a;
+        float[] b;
+        if ( in2 != null ) {
+          a = in2[ch];
+          b = out2[ch];
+        }
+        else {
+          a = workspace.floats( FFTWorkspace.COPY,   N );
+          b = workspace.floats( FFTWorkspace.COPY+1, N );
+          System.arraycopy( in, inOffset + ch*inStride, a, 0, N );
+        }
+
+        if ( inverse )
+          dft.evaluateInverse( a, b, workspace );
+        else
+          dft.evaluate( a, b, workspace );
+
+        if ( in2 == null ) System.arraycopy( b, 0, out, outOffset + ch*outStride, N );
+      }
+    }
+  }
+
+}
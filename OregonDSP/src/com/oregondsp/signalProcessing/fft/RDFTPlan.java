@@ -0,0 +1,768 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Immutable, thread-safe implementation of a power-of-two real DFT:  the sine and cosine tables of the final
+ * butterflies and the plan for the half-length complex DFT.
+ *
+ * <p>Unlike RDFT, which keeps private scratch arrays, a plan holds no state that changes during evaluation.
+ * The caller supplies the sequence and transform arrays and an FFTWorkspace on each call, so one plan
+ * can serve any number of threads provided that each thread uses its own workspace.  Example of use:</p>
+ *  <p>
+ *  <font face="courier">
+ *   RDFTPlan plan = RDFTPlan.getInstance( log2N );<BR>
+ *   <BR>
+ *   // in each worker thread<BR>
+ *   FFTWorkspace workspace = new FFTWorkspace();<BR>
+ *   plan.evaluate( x, X, workspace );<BR>
+ *  </font>
+ *  </p>
+ *
+ * <p>The same array may be passed as sequence and transform, in which case the transform is computed in place
+ * without scratch arrays and the workspace argument is not used.</p>
+ *
+ * <p>The sequence and transform may also be held in FloatBuffers, for example direct buffers filled by an acquisition
+ * system or views of memory-mapped files.  They are staged through a workspace array, one bulk transfer in and one
+ * out, by design:  the butterflies and the Vector API kernels that produce the packed transform work on arrays, so
+ * reading the buffer directly in the even/odd split would only move the copy to the output side.  A bulk transfer
+ * between a direct buffer and an array runs at memory-copy speed, 2N moves beside the N log2 N arithmetic of the
+ * transform, and the staging array belongs to the workspace, so nothing is allocated per call.</p>
+ */
+public final class RDFTPlan {
+
+  /** Log base 2 of the length of the transform. */
+  final int      log2N;
+
+  /** int specifying the length of the transform. */
+  final int      N;
+
+  /** float[] containing the cos(x) table, 0 <= x < pi/2. */
+  final float[]  c;
+
+  /** float[] containing the sin(x) table, 0 <= x < pi/2. */
+  final float[]  s;
+
+  /** Plan for the length N/2 complex DFT. */
+  final CDFTPlan half;
+
+  /** int[] containing the first element of each cycle of the packing permutation of the in-place transforms. */
+  final int[]    leaders;
+
+
+
+  /**
+   * Instantiates a new RDFTPlan.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param half     CDFTPlan for the length N/2 complex DFT.
+   */
+  RDFTPlan( int log2N, CDFTPlan half ) {
+
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
+
+    this.log2N = log2N;
+    this.half  = half;
+    N = 1 << log2N;
+
+    leaders = cycleLeaders( N );
+
+    int N4 = N/4;
+
+    s  = new float[ N4 ];
+    c  = new float[ N4 ];
+
+    Twiddles w = Twiddles.of( N );
+    for ( int i = 0;  i < N4;  i++ ) {
+      s[i] = (float)  w.sin( i );
+      c[i] = (float)  w.cos( i );
+    }
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a real DFT of the specified size.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         RDFTPlan instance shared through the FFTPlanCache.
+   */
+  public static RDFTPlan getInstance( int log2N ) {
+    return FFTPlanCache.rdft( log2N );
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a real DFT of the specified size whose half-length complex DFT is executed by
+   * the specified engine.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         RDFTPlan instance shared through the FFTPlanCache.
+   */
+  public static RDFTPlan getInstance( int log2N, FFTEngine engine ) {
+    return FFTPlanCache.rdft( log2N, engine );
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x.
+   *
+   * @param x          float[] containing the real sequence in natural order.
+   * @param X          float[] containing the transform of the sequence in conjugate symmetric packed form.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluate( float[] x, float[] X, FFTWorkspace workspace ) {
+    if ( x == X ) {
+      evaluateInPlace( x );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluate( x, X, workspace.floats( FFTWorkspace.RDFT, N2 ), workspace.floats( FFTWorkspace.RDFT+1, N2 ), workspace.floats( FFTWorkspace.RDFT+2, N2 ), workspace.floats( FFTWorkspace.RDFT+3, N2 ) );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform.
+   *
+   * @param X          float[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x          float[] containing the output real sequence in natural order.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateInverse( float[] X, float[] x, FFTWorkspace workspace ) {
+    if ( X == x ) {
+      evaluateInverseInPlace( X );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluateInverse( X, x, workspace.floats( FFTWorkspace.RDFT, N2 ), workspace.floats( FFTWorkspace.RDFT+1, N2 ), workspace.floats( FFTWorkspace.RDFT+2, N2 ), workspace.floats( FFTWorkspace.RDFT+3, N2 ), 1.0f/N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform without the 1/N normalization.  The result is
+   * N times the inverse DFT;  callers that scale the data elsewhere (a convolution kernel spectrum, for example)
+   * avoid one multiply per output sample.
+   *
+   * @param X          float[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x          float[] containing the output real sequence in natural order, scaled by N.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateInverseUnnormalized( float[] X, float[] x, FFTWorkspace workspace ) {
+    if ( X == x ) {
+      evaluateInverseInPlace( X, 1.0f );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluateInverse( X, x, workspace.floats( FFTWorkspace.RDFT, N2 ), workspace.floats( FFTWorkspace.RDFT+1, N2 ), workspace.floats( FFTWorkspace.RDFT+2, N2 ), workspace.floats( FFTWorkspace.RDFT+3, N2 ), 1.0f );
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence held in a FloatBuffer, which may be a direct (off-heap) buffer or a view of
+   * a memory-mapped file.  The N samples beginning at the position of x are moved into a workspace array with one bulk
+   * transfer, transformed there in place, and moved to X with another.  As with the bulk get and put methods of
+   * FloatBuffer, the position of each buffer advances by N.  Because the sequence is read completely before the
+   * transform is written, x and X may be views of the same storage.
+   *
+   * @param x          FloatBuffer containing the real sequence in natural order, beginning at its position.
+   * @param X          FloatBuffer receiving the transform in conjugate symmetric packed form, from its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in x.
+   * @throws BufferOverflowException   if fewer than N elements remain in X.
+   */
+  public void evaluate( FloatBuffer x, FloatBuffer X, FFTWorkspace workspace ) {
+
+    if ( x.remaining() < N ) throw new BufferUnderflowException();
+    if ( X.remaining() < N ) throw new BufferOverflowException();
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    // the sequence is split into the scratch arrays before the packed transform overwrites it
+
+    int N2 = N/2;
+    float[] T = workspace.floats( FFTWorkspace.RDFT_BUFFER, N );
+    x.get( T, 0, N );
+    evaluate( T, T, workspace.floats( FFTWorkspace.RDFT, N2 ), workspace.floats( FFTWorkspace.RDFT+1, N2 ), workspace.floats( FFTWorkspace.RDFT+2, N2 ), workspace.floats( FFTWorkspace.RDFT+3, N2 ) );
+    X.put( T, 0, N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a FloatBuffer.  The position of each buffer
+   * advances by N.
+   *
+   * @param X          FloatBuffer containing the transform in conjugate symmetric packed form, from its position.
+   * @param x          FloatBuffer receiving the real sequence in natural order, beginning at its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in X.
+   * @throws BufferOverflowException   if fewer than N elements remain in x.
+   */
+  public void evaluateInverse( FloatBuffer X, FloatBuffer x, FFTWorkspace workspace ) {
+    evaluateInverse( X, x, workspace, 1.0f/N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a FloatBuffer without the 1/N normalization.
+   *
+   * @param X          FloatBuffer containing the transform in conjugate symmetric packed form, from its position.
+   * @param x          FloatBuffer receiving the real sequence in natural order, scaled by N, beginning at its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in X.
+   * @throws BufferOverflowException   if fewer than N elements remain in x.
+   */
+  public void evaluateInverseUnnormalized( FloatBuffer X, FloatBuffer x, FFTWorkspace workspace ) {
+    evaluateInverse( X, x, workspace, 1.0f );
+  }
+
+
+
+  private void evaluateInverse( FloatBuffer X, FloatBuffer x, FFTWorkspace workspace, float scale ) {
+
+    if ( X.remaining() < N ) throw new BufferUnderflowException();
+    if ( x.remaining() < N ) throw new BufferOverflowException();
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    // the transform is read into the scratch arrays before the sequence overwrites it
+
+    int N2 = N/2;
+    float[] T = workspace.floats( FFTWorkspace.RDFT_BUFFER, N );
+    X.get( T, 0, N );
+    evaluateInverse( T, T, workspace.floats( FFTWorkspace.RDFT, N2 ), workspace.floats( FFTWorkspace.RDFT+1, N2 ), workspace.floats( FFTWorkspace.RDFT+2, N2 ), workspace.floats( FFTWorkspace.RDFT+3, N2 ), scale );
+    x.put( T, 0, N );
+  }
+
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x using the supplied length-N/2 scratch arrays.
+   */
+  void evaluate( float[] x, float[] X, float[] xr, float[] xi, float[] Xr, float[] Xi ) {
+
+    int N2 = N/2;
+
+    // Uses symmetries to perform the real length-N DFT with a special length-N set of butterflies
+    // and one length-N/2 complex DFT.
+    //
+    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
+    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
+    
+    for ( int i = 0;  i < N2;  i++ ) {
+      int j = i << 1;
+      xr[i] = x[j++];
+      xi[i] = x[j];
+    }
+    
+    half.evaluate( xr, xi, Xr, Xi );
+    
+    unpack( Xr, Xi, X );
+  }
+
+
+
+  // Combines the half-length complex DFT Z = Xr + i*Xi into the conjugate symmetric packed transform X.
+
+  private void unpack( float[] Xr, float[] Xi, float[] X ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // special case at k = 0
+    
+    X[0]  = Xr[0] + Xi[0];
+    X[N2] = Xr[0] - Xi[0];
+    
+    // 1 <= k < N/4
+    
+    FFTKernels.INSTANCE.realForward( X, Xr, Xi, c, s, N );
+    
+    // special case at k = N/4
+    
+    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
+    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
+    
+    X[N4]    =  Xr[N4];
+    X[N2+N4] = -Xi[N4];
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform using the supplied length-N/2 scratch arrays,
+   * multiplying the result by scale (1/N for the normalized inverse).
+   */
+  void evaluateInverse( float[] X, float[] x, float[] xr, float[] xi, float[] Xr, float[] Xi, float scale ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // Assumed input storage:
+    //   0     1     2     3     ...       N/2-1      N/2       N/2+1      N/2+2    ...    N-1
+    // Xr(0) Xr(1) Xr(2) Xr(3)   ...     Xr(N/2-1)  Xr(N/2)   Xi(N/2-1)  Xi(N/2-2)        Xi(1)
+    
+    
+    // Uses symmetries to perform the real length-N inverse DFT with a special length-N set of butterflies
+    // and one length-N/2 complex DFT.
+    //
+    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
+    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
+    
+    
+    // special case at k = 0
+    
+    Xr[0] = X[0] + X[N2];
+    Xi[0] = X[0] - X[N2];
+    
+    // 1 <= k < N/4  and  N/4 < k < N/2
+    
+    FFTKernels.INSTANCE.realInverse( X, Xr, Xi, c, s, N );
+    
+    // special case at k = N/4
+    
+    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
+    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
+    
+    Xr[N4] =  2.0f*X[N4];
+    Xi[N4] = -2.0f*X[N2+N4];
+    
+    // unnormalized inverse of the half-length DFT:  forward DFT with real and imaginary parts exchanged
+    
+    half.evaluate( Xi, Xr, xi, xr );
+    
+    for ( int k = 0;  k < N2;  k++ ) {
+      int i = k << 1;
+      x[i++] = xr[k]*scale;
+      x[i]   = xi[k]*scale;
+    }
+  }
+
+
+  /**
+   * Evaluates the DFT of a real sequence that is zero beyond its first length samples (input pruning).  Only
+   * x[offset] ... x[offset+length-1] are read, so a short block need not be copied into a zero-filled buffer.
+   * The half-length complex DFT is input-pruned as described in CDFTPlan.
+   *
+   * @param x          float[] containing the real sequence.
+   * @param offset     int specifying the index of the first sequence element in x.
+   * @param length     int specifying the number of sequence elements that may be nonzero (0 <= length <= N).
+   * @param X          float[] containing the transform of the sequence in conjugate symmetric packed form.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluate( float[] x, int offset, int length, float[] X, FFTWorkspace workspace ) {
+
+    if ( length < 0  ||  length > N ) throw new IllegalArgumentException( "Pruned sequence length must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int N2 = N/2;
+
+    float[] zr = workspace.floats( FFTWorkspace.RDFT, N2 );
+    float[] zi = workspace.floats( FFTWorkspace.RDFT+1, N2 );
+    float[] Zr = workspace.floats( FFTWorkspace.RDFT+2, N2 );
+    float[] Zi = workspace.floats( FFTWorkspace.RDFT+3, N2 );
+
+    int n2 = length/2;
+    for ( int i = 0, j = offset;  i < n2;  i++ ) {
+      zr[i] = x[j++];
+      zi[i] = x[j++];
+    }
+    if ( ( length & 1 ) != 0 ) {
+      zr[n2] = x[ offset + length - 1 ];
+      zi[n2] = 0.0f;
+    }
+
+    half.evaluatePruned( zr, zi, ( length + 1 )/2, Zr, Zi, workspace );
+
+    unpack( Zr, Zi, X );
+  }
+
+
+
+  /**
+   * Evaluates a band of nBins consecutive DFT bins, k0 ... k0+nBins-1 (modulo N), of a real sequence without
+   * computing the rest of the transform (output pruning).  As in CDFTPlan.evaluateBins, the sequence is split into
+   * P = N/M decimated sequences, here transformed with real DFTs of length M >= 16, and the bins are assembled in
+   * double precision from X(k) = sum over r < P of W^(r*k) Y_r( k mod M ), with W^(r*k) read from the tables.
+   *
+   * @param x          float[] containing the real sequence in natural order.
+   * @param k0         int specifying the first bin.
+   * @param nBins      int specifying the number of bins (0 <= nBins <= N).
+   * @param Xr         float[] containing the real parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1.
+   * @param Xi         float[] containing the imaginary parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateBins( float[] x, int k0, int nBins, float[] Xr, float[] Xi, FFTWorkspace workspace ) {
+
+    if ( nBins < 0  ||  nBins > N ) throw new IllegalArgumentException( "Number of bins must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int      log2M = Math.min( log2N, Math.max( 4, 35 - Integer.numberOfLeadingZeros( Math.max( nBins, 1 ) - 1 ) ) );
+    int      M     = 1 << log2M;
+    int      P     = N >>> log2M;
+    RDFTPlan sub   = ( M == N )  ?  this  :  FFTPlanCache.rdft( log2M, half.engine );
+
+    float[]  u  = workspace.floats( FFTWorkspace.RDFT_PRUNE,   M );
+    float[]  U  = workspace.floats( FFTWorkspace.RDFT_PRUNE+1, M );
+
+    double[] Ar = workspace.doubles( FFTWorkspace.RDFT_BINS,   nBins );
+    double[] Ai = workspace.doubles( FFTWorkspace.RDFT_BINS+1, nBins );
+    for ( int t = 0;  t < nBins;  t++ ) {
+      Ar[t] = 0.0;
+      Ai[t] = 0.0;
+    }
+
+    int M2 = M/2;
+
+    for ( int r = 0;  r < P;  r++ ) {
+
+      for ( int q = 0, n = r;  q < M;  q++, n += P ) u[q] = x[n];
+
+      sub.evaluate( u, U, workspace );
+
+      for ( int t = 0;  t < nBins;  t++ ) {
+
+        // Y_r(m) from the packed transform, with Y_r(m) = conjg( Y_r(M-m) ) for m > M/2
+
+        int   k = k0 + t;
+        int   m = k & ( M-1 );
+        float yr;
+        float yi;
+        if ( m == 0  ||  m == M2 ) {
+          yr = U[m];
+          yi = 0.0f;
+        }
+        else if ( m < M2 ) {
+          yr = U[m];
+          yi = U[M-m];
+        }
+        else {
+          yr =  U[M-m];
+          yi = -U[m];
+        }
+
+        // W^(r*k) from the quarter-wave tables
+
+        int   j = ( r*k ) & ( N-1 );
+        int   a = j & ( N/4 - 1 );
+        float wr;
+        float wi;
+        switch ( j >>> ( log2N - 2 ) ) {
+          case 0:  wr =  c[a];  wi = -s[a];  break;
+          case 1:  wr = -s[a];  wi = -c[a];  break;
+          case 2:  wr = -c[a];  wi =  s[a];  break;
+          default: wr =  s[a];  wi =  c[a];
+        }
+
+        Ar[t] += (double) wr*yr - (double) wi*yi;
+        Ai[t] += (double) wr*yi + (double) wi*yr;
+      }
+    }
+
+    for ( int t = 0;  t < nBins;  t++ ) {
+      Xr[t] = (float) Ar[t];
+      Xi[t] = (float) Ai[t];
+    }
+  }
+
+
+  /**
+   * Evaluates the DFTs of two real sequences of length N with a single complex DFT of length N.
+   *
+   * <p>The complex sequence z[n] = x[n] + i*y[n] is transformed, and the two conjugate symmetric transforms are
+   * separated with</p>
+   *
+   * <p>X(k) = ( Z(k) + conjg( Z(N-k) ) )/2,      Y(k) = ( Z(k) - conjg( Z(N-k) ) )/(2i)</p>
+   *
+   * <p>Each separation reads and writes the elements k and N-k of the two transform arrays, so no scratch storage
+   * is used, and the transform arrays may be the sequence arrays themselves.</p>
+   *
+   * @param x          float[] containing the first real sequence in natural order.
+   * @param y          float[] containing the second real sequence in natural order.
+   * @param X          float[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y          float[] containing the transform of y in conjugate symmetric packed form.
+   */
+  public void evaluate( float[] x, float[] y, float[] X, float[] Y ) {
+
+    int N2 = N/2;
+
+    FFTPlanCache.cdft( log2N, half.engine ).evaluate( x, y, X, Y );
+
+    // k = 0 and k = N/2:  X(k) = Zr(k),  Y(k) = Zi(k)
+
+    for ( int k = 1;  k < N2;  k++ ) {
+      int   m  = N - k;
+      float Ar = X[k];
+      float Br = X[m];
+      float Ai = Y[k];
+      float Bi = Y[m];
+      X[k] = ( Ar + Br )*0.5f;
+      X[m] = ( Ai - Bi )*0.5f;
+      Y[k] = ( Ai + Bi )*0.5f;
+      Y[m] = ( Br - Ar )*0.5f;
+    }
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFTs of two conjugate symmetric transforms with a single complex inverse DFT of length N.
+   * The spectrum Z(k) = X(k) + i*Y(k) is formed in the sequence arrays and inverted in place;  the real and
+   * imaginary parts of the result are the two sequences.  The sequence arrays may be the transform arrays.
+   *
+   * @param X          float[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y          float[] containing the transform of y in conjugate symmetric packed form.
+   * @param x          float[] containing the first real sequence in natural order.
+   * @param y          float[] containing the second real sequence in natural order.
+   */
+  public void evaluateInverse( float[] X, float[] Y, float[] x, float[] y ) {
+
+    int N2 = N/2;
+
+    x[0]  = X[0];
+    y[0]  = Y[0];
+    x[N2] = X[N2];
+    y[N2] = Y[N2];
+
+    for ( int k = 1;  k < N2;  k++ ) {
+      int   m  = N - k;
+      float Xr = X[k];
+      float Xi = X[m];
+      float Yr = Y[k];
+      float Yi = Y[m];
+      x[k] = Xr - Yi;
+      y[k] = Xi + Yr;
+      x[m] = Xr + Yi;
+      y[m] = Yr - Xi;
+    }
+
+    FFTPlanCache.cdft( log2N, half.engine ).evaluateInverseInPlace( x, y );
+  }
+
+
+  /**
+   * Evaluates the DFT of a real sequence in place:  the sequence array is overwritten by its transform in conjugate
+   * symmetric packed form.  No length-N/2 scratch arrays are used.
+   *
+   * <p>The even and odd samples already form the interleaved complex sequence z[n] = x[2n] + i*x[2n+1], which is
+   * transformed in place.  The butterflies combining Z(k) and Z(N/2-k) read and write the same four elements, and a
+   * final permutation, following each of its cycles, moves the interleaved spectrum into packed order.</p>
+   *
+   * @param x          float[] containing the real sequence in natural order on entry, its transform on return.
+   */
+  public void evaluateInPlace( float[] x ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    half.inPlace().evaluateInterleaved( x, false );
+
+    // special case at k = 0:  X(0) and X(N/2) replace Z(0)
+
+    float Zr = x[0];
+    float Zi = x[1];
+    x[0] = Zr + Zi;
+    x[1] = Zr - Zi;
+
+    // 1 <= k < N/4:  X(k) replaces Z(k) and X(N/2-k) replaces Z(N/2-k)
+
+    for ( int k = 1;  k < N4;  k++ ) {
+
+      int   p  = 2*k;
+      int   q  = N - p;
+      float Ar = x[p];
+      float Ai = x[p+1];
+      float Br = x[q];
+      float Bi = -x[q+1];
+
+      float Er = ( Ar + Br )/2;
+      float Ei = ( Ai + Bi )/2;
+      float Or = ( Ai - Bi )/2;
+      float Oi = ( Br - Ar )/2;
+
+      float Tr = c[k]*Or + s[k]*Oi;
+      float Ti = c[k]*Oi - s[k]*Or;
+
+      x[p]   = Er + Tr;
+      x[p+1] = Ei + Ti;
+      x[q]   = Er - Tr;
+      x[q+1] = Ti - Ei;
+    }
+
+    // special case at k = N/4:  X(N/4) = conjg( Z(N/4) )
+
+    x[N2+1] = -x[N2+1];
+
+    permute( x, false );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform in place:  the transform array is overwritten by
+   * the real sequence.  No length-N/2 scratch arrays are used.
+   *
+   * @param X          float[] containing the transform in conjugate symmetric packed form on entry, the real
+   *                   sequence in natural order on return.
+   */
+  public void evaluateInverseInPlace( float[] X ) {
+    evaluateInverseInPlace( X, 1.0f/N );
+  }
+
+
+
+  private void evaluateInverseInPlace( float[] X, float scale ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    permute( X, true );
+
+    // Z(k) = E2(k) + i*O2(k),  E2(k) = X(k) + conjg( X(N/2-k) ),  O2(k) = ( X(k) - conjg( X(N/2-k) ) )*W^(-k),
+    // scaled here so that the unnormalized half-length inverse DFT returns the sequence
+
+    float Ar = X[0];
+    float Br = X[1];
+    X[0] = ( Ar + Br )*scale;
+    X[1] = ( Ar - Br )*scale;
+
+    for ( int k = 1;  k < N4;  k++ ) {
+
+      int   p  = 2*k;
+      int   q  = N - p;
+      Ar       = X[p];
+      float Ai = X[p+1];
+      Br       = X[q];
+      float Bi = -X[q+1];
+
+      float Er = Ar + Br;
+      float Ei = Ai + Bi;
+      float Dr = Ar - Br;
+      float Di = Ai - Bi;
+
+      float Or = c[k]*Dr - s[k]*Di;
+      float Oi = c[k]*Di + s[k]*Dr;
+
+      X[p]   = ( Er - Oi )*scale;
+      X[p+1] = ( Ei + Or )*scale;
+      X[q]   = ( Er + Oi )*scale;
+      X[q+1] = ( Or - Ei )*scale;
+    }
+
+    X[N2]   =  2.0f*X[N2]*scale;
+    X[N2+1] = -2.0f*X[N2+1]*scale;
+
+    // the real and imaginary parts of z are the even and odd samples of the sequence
+
+    half.inPlace().evaluateInterleaved( X, true );
+  }
+
+
+
+  // Moves the interleaved spectrum, X(0) and X(N/2) in elements 0 and 1 and Xr(k), Xi(k) in elements 2k, 2k+1,
+  // 0 < k < N/2, into packed order (or back, for the inverse).  Each cycle of the permutation is followed once, from
+  // its leader in the table built with the plan, so no marker set is needed.
+
+  private void permute( float[] x, boolean inverse ) {
+
+    int N2 = N/2;
+
+    for ( int start : leaders ) {
+
+      int   p = start;
+      float v = x[p];
+      do {
+        int q;
+        if ( inverse )
+          q = ( p == N2 )  ?  1  :  ( ( p < N2 )  ?  2*p  :  2*( N-p ) + 1 );
+        else
+          q = ( p == 1 )  ?  N2  :  ( ( ( p & 1 ) == 0 )  ?  p/2  :  N - p/2 );
+        float t = x[q];
+        x[q] = v;
+        v    = t;
+        p = q;
+      } while ( p != start );
+    }
+  }
+
+
+
+  /**
+   * Finds the first element of each cycle of the permutation applied by the in-place transforms of length N,
+   * following each cycle once with a bit set marking the elements already visited.  The inverse permutation has the
+   * same cycles, so the same leaders serve both directions.
+   *
+   * @param N        int specifying the length of the transform.
+   * @return         int[] containing the leaders in increasing order.
+   */
+  static int[] cycleLeaders( int N ) {
+
+    int    N2      = N/2;
+    long[] done    = new long[ ( N + 63 ) >>> 6 ];
+    int[]  leaders = new int[ N ];
+    int    n       = 0;
+
+    for ( int start = 1;  start < N;  start++ ) {
+
+      if ( ( done[ start >>> 6 ] & ( 1L << start ) ) != 0 ) continue;
+
+      leaders[ n++ ] = start;
+      int p = start;
+      do {
+        p = ( p == 1 )  ?  N2  :  ( ( ( p & 1 ) == 0 )  ?  p/2  :  N - p/2 );
+        done[ p >>> 6 ] |= 1L << p;
+      } while ( p != start );
+    }
+
+    return Arrays.copyOf( leaders, n );
+  }
+
+
+  /**
+   * Approximate size of this plan, used by the cache to bound the memory it retains.
+   *
+   * @return    int containing the number of table entries in this plan.
+   */
+  int weight() {
+    return N/2 + leaders.length;
+  }
+
+}
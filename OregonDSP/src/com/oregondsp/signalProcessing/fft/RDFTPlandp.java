@@ -0,0 +1,734 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.DoubleBuffer;
+
+
+/**
+ * Immutable, thread-safe implementation of a power-of-two real DFT:  the sine and cosine tables of the final
+ * butterflies and the plan for the half-length complex DFT.
+ *
+ * Double precision version.
+ *
+ * <p>Unlike RDFTdp, which keeps private scratch arrays, a plan holds no state that changes during evaluation.
+ * The caller supplies the sequence and transform arrays and an FFTWorkspace on each call, so one plan
+ * can serve any number of threads provided that each thread uses its own workspace.  Example of use:</p>
+ *  <p>
+ *  <font face="courier">
+ *   RDFTPlandp plan = RDFTPlandp.getInstance( log2N );<BR>
+ *   <BR>
+ *   // in each worker thread<BR>
+ *   FFTWorkspace workspace = new FFTWorkspace();<BR>
+ *   plan.evaluate( x, X, workspace );<BR>
+ *  </font>
+ *  </p>
+ *
+ * <p>The same array may be passed as sequence and transform, in which case the transform is computed in place
+ * without scratch arrays and the workspace argument is not used.</p>
+ *
+ * <p>The sequence and transform may also be held in DoubleBuffers, for example direct buffers filled by an acquisition
+ * system or views of memory-mapped files.  They are staged through a workspace array, one bulk transfer in and one
+ * out, deliberately and for the same reasons as in RDFTPlan.</p>
+ */
+public final class RDFTPlandp {
+
+  /** Log base 2 of the length of the transform. */
+  final int      log2N;
+
+  /** int specifying the length of the transform. */
+  final int      N;
+
+  /** double[] containing the cos(x) table, 0 <= x < pi/2. */
+  final double[] c;
+
+  /** double[] containing the sin(x) table, 0 <= x < pi/2. */
+  final double[] s;
+
+  /** Plan for the length N/2 complex DFT. */
+  final CDFTPlandp half;
+
+  /** int[] containing the first element of each cycle of the packing permutation of the in-place transforms. */
+  final int[]    leaders;
+
+
+
+  /**
+   * Instantiates a new RDFTPlandp.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param half     CDFTPlandp for the length N/2 complex DFT.
+   */
+  RDFTPlandp( int log2N, CDFTPlandp half ) {
+
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
+
+    this.log2N = log2N;
+    this.half  = half;
+    N = 1 << log2N;
+
+    leaders = RDFTPlan.cycleLeaders( N );
+
+    int N4 = N/4;
+
+    s  = new double[ N4 ];
+    c  = new double[ N4 ];
+
+    Twiddles w = Twiddles.of( N );
+    for ( int i = 0;  i < N4;  i++ ) {
+      s[i] = w.sin( i );
+      c[i] = w.cos( i );
+    }
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a real DFT of the specified size.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @return         RDFTPlandp instance shared through the FFTPlanCache.
+   */
+  public static RDFTPlandp getInstance( int log2N ) {
+    return FFTPlanCache.rdftdp( log2N );
+  }
+
+
+
+  /**
+   * Obtains the shared plan for a real DFT of the specified size whose half-length complex DFT is executed by
+   * the specified engine.
+   *
+   * @param log2N    int specifying the base-2 logarithm of the length of the transform.
+   * @param engine   FFTEngine executing the split-radix decomposition.
+   * @return         RDFTPlandp instance shared through the FFTPlanCache.
+   */
+  public static RDFTPlandp getInstance( int log2N, FFTEngine engine ) {
+    return FFTPlanCache.rdftdp( log2N, engine );
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x.
+   *
+   * @param x          double[] containing the real sequence in natural order.
+   * @param X          double[] containing the transform of the sequence in conjugate symmetric packed form.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluate( double[] x, double[] X, FFTWorkspace workspace ) {
+    if ( x == X ) {
+      evaluateInPlace( x );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluate( x, X, workspace.doubles( FFTWorkspace.RDFT, N2 ), workspace.doubles( FFTWorkspace.RDFT+1, N2 ), workspace.doubles( FFTWorkspace.RDFT+2, N2 ), workspace.doubles( FFTWorkspace.RDFT+3, N2 ) );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform.
+   *
+   * @param X          double[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x          double[] containing the output real sequence in natural order.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateInverse( double[] X, double[] x, FFTWorkspace workspace ) {
+    if ( X == x ) {
+      evaluateInverseInPlace( X );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluateInverse( X, x, workspace.doubles( FFTWorkspace.RDFT, N2 ), workspace.doubles( FFTWorkspace.RDFT+1, N2 ), workspace.doubles( FFTWorkspace.RDFT+2, N2 ), workspace.doubles( FFTWorkspace.RDFT+3, N2 ), 1.0/N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform without the 1/N normalization.  The result is
+   * N times the inverse DFT;  callers that scale the data elsewhere (a convolution kernel spectrum, for example)
+   * avoid one multiply per output sample.
+   *
+   * @param X          double[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x          double[] containing the output real sequence in natural order, scaled by N.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateInverseUnnormalized( double[] X, double[] x, FFTWorkspace workspace ) {
+    if ( X == x ) {
+      evaluateInverseInPlace( X, 1.0 );
+      return;
+    }
+    if ( workspace == null ) workspace = new FFTWorkspace();
+    int N2 = N/2;
+    evaluateInverse( X, x, workspace.doubles( FFTWorkspace.RDFT, N2 ), workspace.doubles( FFTWorkspace.RDFT+1, N2 ), workspace.doubles( FFTWorkspace.RDFT+2, N2 ), workspace.doubles( FFTWorkspace.RDFT+3, N2 ), 1.0 );
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence held in a DoubleBuffer, which may be a direct (off-heap) buffer or a view of
+   * a memory-mapped file.  The N samples beginning at the position of x are moved into a workspace array with one bulk
+   * transfer, transformed there in place, and moved to X with another.  As with the bulk get and put methods of
+   * DoubleBuffer, the position of each buffer advances by N.  Because the sequence is read completely before the
+   * transform is written, x and X may be views of the same storage.
+   *
+   * @param x          DoubleBuffer containing the real sequence in natural order, beginning at its position.
+   * @param X          DoubleBuffer receiving the transform in conjugate symmetric packed form, from its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in x.
+   * @throws BufferOverflowException   if fewer than N elements remain in X.
+   */
+  public void evaluate( DoubleBuffer x, DoubleBuffer X, FFTWorkspace workspace ) {
+
+    if ( x.remaining() < N ) throw new BufferUnderflowException();
+    if ( X.remaining() < N ) throw new BufferOverflowException();
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    // the sequence is split into the scratch arrays before the packed transform overwrites it
+
+    int N2 = N/2;
+    double[] T = workspace.doubles( FFTWorkspace.RDFT_BUFFER, N );
+    x.get( T, 0, N );
+    evaluate( T, T, workspace.doubles( FFTWorkspace.RDFT, N2 ), workspace.doubles( FFTWorkspace.RDFT+1, N2 ), workspace.doubles( FFTWorkspace.RDFT+2, N2 ), workspace.doubles( FFTWorkspace.RDFT+3, N2 ) );
+    X.put( T, 0, N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a DoubleBuffer.  The position of each buffer
+   * advances by N.
+   *
+   * @param X          DoubleBuffer containing the transform in conjugate symmetric packed form, from its position.
+   * @param x          DoubleBuffer receiving the real sequence in natural order, beginning at its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in X.
+   * @throws BufferOverflowException   if fewer than N elements remain in x.
+   */
+  public void evaluateInverse( DoubleBuffer X, DoubleBuffer x, FFTWorkspace workspace ) {
+    evaluateInverse( X, x, workspace, 1.0/N );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a DoubleBuffer without the 1/N normalization.
+   *
+   * @param X          DoubleBuffer containing the transform in conjugate symmetric packed form, from its position.
+   * @param x          DoubleBuffer receiving the real sequence in natural order, scaled by N, from its position.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   * @throws BufferUnderflowException  if fewer than N elements remain in X.
+   * @throws BufferOverflowException   if fewer than N elements remain in x.
+   */
+  public void evaluateInverseUnnormalized( DoubleBuffer X, DoubleBuffer x, FFTWorkspace workspace ) {
+    evaluateInverse( X, x, workspace, 1.0 );
+  }
+
+
+
+  private void evaluateInverse( DoubleBuffer X, DoubleBuffer x, FFTWorkspace workspace, double scale ) {
+
+    if ( X.remaining() < N ) throw new BufferUnderflowException();
+    if ( x.remaining() < N ) throw new BufferOverflowException();
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    // the transform is read into the scratch arrays before the sequence overwrites it
+
+    int N2 = N/2;
+    double[] T = workspace.doubles( FFTWorkspace.RDFT_BUFFER, N );
+    X.get( T, 0, N );
+    evaluateInverse( T, T, workspace.doubles( FFTWorkspace.RDFT, N2 ), workspace.doubles( FFTWorkspace.RDFT+1, N2 ), workspace.doubles( FFTWorkspace.RDFT+2, N2 ), workspace.doubles( FFTWorkspace.RDFT+3, N2 ), scale );
+    x.put( T, 0, N );
+  }
+
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x using the supplied length-N/2 scratch arrays.
+   */
+  void evaluate( double[] x, double[] X, double[] xr, double[] xi, double[] Xr, double[] Xi ) {
+
+    int N2 = N/2;
+
+    // Uses symmetries to perform the real length-N DFT with a special length-N set of butterflies
+    // and one length-N/2 complex DFT.
+    //
+    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
+    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
+    
+    for ( int i = 0;  i < N2;  i++ ) {
+      int j = i << 1;
+      xr[i] = x[j++];
+      xi[i] = x[j];
+    }
+    
+    half.evaluate( xr, xi, Xr, Xi );
+    
+    unpack( Xr, Xi, X );
+  }
+
+
+
+  // Combines the half-length complex DFT Z = Xr + i*Xi into the conjugate symmetric packed transform X.
+
+  private void unpack( double[] Xr, double[] Xi, double[] X ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // special case at k = 0
+    
+    X[0]  = Xr[0] + Xi[0];
+    X[N2] = Xr[0] - Xi[0];
+    
+    // 1 <= k < N/4
+    
+    FFTKernels.INSTANCE.realForward( X, Xr, Xi, c, s, N );
+    
+    // special case at k = N/4
+    
+    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
+    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
+    
+    X[N4]    =  Xr[N4];
+    X[N2+N4] = -Xi[N4];
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform using the supplied length-N/2 scratch arrays,
+   * multiplying the result by scale (1/N for the normalized inverse).
+   */
+  void evaluateInverse( double[] X, double[] x, double[] xr, double[] xi, double[] Xr, double[] Xi, double scale ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    // Assumed input storage:
+    //   0     1     2     3     ...       N/2-1      N/2       N/2+1      N/2+2    ...    N-1
+    // Xr(0) Xr(1) Xr(2) Xr(3)   ...     Xr(N/2-1)  Xr(N/2)   Xi(N/2-1)  Xi(N/2-2)        Xi(1)
+    
+    
+    // Uses symmetries to perform the real length-N inverse DFT with a special length-N set of butterflies
+    // and one length-N/2 complex DFT.
+    //
+    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
+    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
+    
+    
+    // special case at k = 0
+    
+    Xr[0] = X[0] + X[N2];
+    Xi[0] = X[0] - X[N2];
+    
+    // 1 <= k < N/4  and  N/4 < k < N/2
+    
+    FFTKernels.INSTANCE.realInverse( X, Xr, Xi, c, s, N );
+    
+    // special case at k = N/4
+    
+    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
+    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
+    
+    Xr[N4] =  2.0f*X[N4];
+    Xi[N4] = -2.0f*X[N2+N4];
+    
+    // unnormalized inverse of the half-length DFT:  forward DFT with real and imaginary parts exchanged
+    
+    half.evaluate( Xi, Xr, xi, xr );
+    
+    for ( int k = 0;  k < N2;  k++ ) {
+      int i = k << 1;
+      x[i++] = xr[k]*scale;
+      x[i]   = xi[k]*scale;
+    }
+  }
+
+
+  /**
+   * Evaluates the DFT of a real sequence that is zero beyond its first length samples (input pruning).  Only
+   * x[offset] ... x[offset+length-1] are read, so a short block need not be copied into a zero-filled buffer.
+   * The half-length complex DFT is input-pruned as described in CDFTPlandp.
+   *
+   * @param x          double[] containing the real sequence.
+   * @param offset     int specifying the index of the first sequence element in x.
+   * @param length     int specifying the number of sequence elements that may be nonzero (0 <= length <= N).
+   * @param X          double[] containing the transform of the sequence in conjugate symmetric packed form.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluate( double[] x, int offset, int length, double[] X, FFTWorkspace workspace ) {
+
+    if ( length < 0  ||  length > N ) throw new IllegalArgumentException( "Pruned sequence length must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int N2 = N/2;
+
+    double[] zr = workspace.doubles( FFTWorkspace.RDFT, N2 );
+    double[] zi = workspace.doubles( FFTWorkspace.RDFT+1, N2 );
+    double[] Zr = workspace.doubles( FFTWorkspace.RDFT+2, N2 );
+    double[] Zi = workspace.doubles( FFTWorkspace.RDFT+3, N2 );
+
+    int n2 = length/2;
+    for ( int i = 0, j = offset;  i < n2;  i++ ) {
+      zr[i] = x[j++];
+      zi[i] = x[j++];
+    }
+    if ( ( length & 1 ) != 0 ) {
+      zr[n2] = x[ offset + length - 1 ];
+      zi[n2] = 0.0f;
+    }
+
+    half.evaluatePruned( zr, zi, ( length + 1 )/2, Zr, Zi, workspace );
+
+    unpack( Zr, Zi, X );
+  }
+
+
+
+  /**
+   * Evaluates a band of nBins consecutive DFT bins, k0 ... k0+nBins-1 (modulo N), of a real sequence without
+   * computing the rest of the transform (output pruning).  As in CDFTPlandp.evaluateBins, the sequence is split into
+   * P = N/M decimated sequences, here transformed with real DFTs of length M >= 16, and the bins are assembled in
+   * double precision from X(k) = sum over r < P of W^(r*k) Y_r( k mod M ), with W^(r*k) read from the tables.
+   *
+   * @param x          double[] containing the real sequence in natural order.
+   * @param k0         int specifying the first bin.
+   * @param nBins      int specifying the number of bins (0 <= nBins <= N).
+   * @param Xr         double[] containing the real parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1.
+   * @param Xi         double[] containing the imaginary parts of bins k0 ... k0+nBins-1 in elements 0 ... nBins-1.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateBins( double[] x, int k0, int nBins, double[] Xr, double[] Xi, FFTWorkspace workspace ) {
+
+    if ( nBins < 0  ||  nBins > N ) throw new IllegalArgumentException( "Number of bins must be between 0 and the DFT size" );
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    int      log2M = Math.min( log2N, Math.max( 4, 35 - Integer.numberOfLeadingZeros( Math.max( nBins, 1 ) - 1 ) ) );
+    int      M     = 1 << log2M;
+    int      P     = N >>> log2M;
+    RDFTPlandp sub   = ( M == N )  ?  this  :  FFTPlanCache.rdftdp( log2M, half.engine );
+
+    double[] u  = workspace.doubles( FFTWorkspace.RDFT_PRUNE,   M );
+    double[] U  = workspace.doubles( FFTWorkspace.RDFT_PRUNE+1, M );
+
+    double[] Ar = workspace.doubles( FFTWorkspace.RDFT_BINS,   nBins );
+    double[] Ai = workspace.doubles( FFTWorkspace.RDFT_BINS+1, nBins );
+    for ( int t = 0;  t < nBins;  t++ ) {
+      Ar[t] = 0.0;
+      Ai[t] = 0.0;
+    }
+
+    int M2 = M/2;
+
+    for ( int r = 0;  r < P;  r++ ) {
+
+      for ( int q = 0, n = r;  q < M;  q++, n += P ) u[q] = x[n];
+
+      sub.evaluate( u, U, workspace );
+
+      for ( int t = 0;  t < nBins;  t++ ) {
+
+        // Y_r(m) from the packed transform, with Y_r(m) = conjg( Y_r(M-m) ) for m > M/2
+
+        int   k = k0 + t;
+        int   m = k & ( M-1 );
+        double yr;
+        double yi;
+        if ( m == 0  ||  m == M2 ) {
+          yr = U[m];
+          yi = 0.0f;
+        }
+        else if ( m < M2 ) {
+          yr = U[m];
+          yi = U[M-m];
+        }
+        else {
+          yr =  U[M-m];
+          yi = -U[m];
+        }
+
+        // W^(r*k) from the quarter-wave tables
+
+        int   j = ( r*k ) & ( N-1 );
+        int   a = j & ( N/4 - 1 );
+        double wr;
+        double wi;
+        switch ( j >>> ( log2N - 2 ) ) {
+          case 0:  wr =  c[a];  wi = -s[a];  break;
+          case 1:  wr = -s[a];  wi = -c[a];  break;
+          case 2:  wr = -c[a];  wi =  s[a];  break;
+          default: wr =  s[a];  wi =  c[a];
+        }
+
+        Ar[t] += wr*yr - wi*yi;
+        Ai[t] += wr*yi + wi*yr;
+      }
+    }
+
+    for ( int t = 0;  t < nBins;  t++ ) {
+      Xr[t] = Ar[t];
+      Xi[t] = Ai[t];
+    }
+  }
+
+
+  /**
+   * Evaluates the DFTs of two real sequences of length N with a single complex DFT of length N.
+   *
+   * <p>The complex sequence z[n] = x[n] + i*y[n] is transformed, and the two conjugate symmetric transforms are
+   * separated with</p>
+   *
+   * <p>X(k) = ( Z(k) + conjg( Z(N-k) ) )/2,      Y(k) = ( Z(k) - conjg( Z(N-k) ) )/(2i)</p>
+   *
+   * <p>Each separation reads and writes the elements k and N-k of the two transform arrays, so no scratch storage
+   * is used, and the transform arrays may be the sequence arrays themselves.</p>
+   *
+   * @param x          double[] containing the first real sequence in natural order.
+   * @param y          double[] containing the second real sequence in natural order.
+   * @param X          double[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y          double[] containing the transform of y in conjugate symmetric packed form.
+   */
+  public void evaluate( double[] x, double[] y, double[] X, double[] Y ) {
+
+    int N2 = N/2;
+
+    FFTPlanCache.cdftdp( log2N, half.engine ).evaluate( x, y, X, Y );
+
+    // k = 0 and k = N/2:  X(k) = Zr(k),  Y(k) = Zi(k)
+
+    for ( int k = 1;  k < N2;  k++ ) {
+      int   m  = N - k;
+      double Ar = X[k];
+      double Br = X[m];
+      double Ai = Y[k];
+      double Bi = Y[m];
+      X[k] = ( Ar + Br )*0.5;
+      X[m] = ( Ai - Bi )*0.5;
+      Y[k] = ( Ai + Bi )*0.5;
+      Y[m] = ( Br - Ar )*0.5;
+    }
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFTs of two conjugate symmetric transforms with a single complex inverse DFT of length N.
+   * The spectrum Z(k) = X(k) + i*Y(k) is formed in the sequence arrays and inverted in place;  the real and
+   * imaginary parts of the result are the two sequences.  The sequence arrays may be the transform arrays.
+   *
+   * @param X          double[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y          double[] containing the transform of y in conjugate symmetric packed form.
+   * @param x          double[] containing the first real sequence in natural order.
+   * @param y          double[] containing the second real sequence in natural order.
+   */
+  public void evaluateInverse( double[] X, double[] Y, double[] x, double[] y ) {
+
+    int N2 = N/2;
+
+    x[0]  = X[0];
+    y[0]  = Y[0];
+    x[N2] = X[N2];
+    y[N2] = Y[N2];
+
+    for ( int k = 1;  k < N2;  k++ ) {
+      int   m  = N - k;
+      double Xr = X[k];
+      double Xi = X[m];
+      double Yr = Y[k];
+      double Yi = Y[m];
+      x[k] = Xr - Yi;
+      y[k] = Xi + Yr;
+      x[m] = Xr + Yi;
+      y[m] = Yr - Xi;
+    }
+
+    FFTPlanCache.cdftdp( log2N, half.engine ).evaluateInverseInPlace( x, y );
+  }
+
+
+  /**
+   * Evaluates the DFT of a real sequence in place:  the sequence array is overwritten by its transform in conjugate
+   * symmetric packed form.  No length-N/2 scratch arrays are used.
+   *
+   * <p>The even and odd samples already form the interleaved complex sequence z[n] = x[2n] + i*x[2n+1], which is
+   * transformed in place.  The butterflies combining Z(k) and Z(N/2-k) read and write the same four elements, and a
+   * final permutation, following each of its cycles, moves the interleaved spectrum into packed order.</p>
+   *
+   * @param x          double[] containing the real sequence in natural order on entry, its transform on return.
+   */
+  public void evaluateInPlace( double[] x ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    half.inPlace().evaluateInterleaved( x, false );
+
+    // special case at k = 0:  X(0) and X(N/2) replace Z(0)
+
+    double Zr = x[0];
+    double Zi = x[1];
+    x[0] = Zr + Zi;
+    x[1] = Zr - Zi;
+
+    // 1 <= k < N/4:  X(k) replaces Z(k) and X(N/2-k) replaces Z(N/2-k)
+
+    for ( int k = 1;  k < N4;  k++ ) {
+
+      int   p  = 2*k;
+      int   q  = N - p;
+      double Ar = x[p];
+      double Ai = x[p+1];
+      double Br = x[q];
+      double Bi = -x[q+1];
+
+      double Er = ( Ar + Br )/2;
+      double Ei = ( Ai + Bi )/2;
+      double Or = ( Ai - Bi )/2;
+      double Oi = ( Br - Ar )/2;
+
+      double Tr = c[k]*Or + s[k]*Oi;
+      double Ti = c[k]*Oi - s[k]*Or;
+
+      x[p]   = Er + Tr;
+      x[p+1] = Ei + Ti;
+      x[q]   = Er - Tr;
+      x[q+1] = Ti - Ei;
+    }
+
+    // special case at k = N/4:  X(N/4) = conjg( Z(N/4) )
+
+    x[N2+1] = -x[N2+1];
+
+    permute( x, false );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform in place:  the transform array is overwritten by
+   * the real sequence.  No length-N/2 scratch arrays are used.
+   *
+   * @param X          double[] containing the transform in conjugate symmetric packed form on entry, the real
+   *                   sequence in natural order on return.
+   */
+  public void evaluateInverseInPlace( double[] X ) {
+    evaluateInverseInPlace( X, 1.0/N );
+  }
+
+
+
+  private void evaluateInverseInPlace( double[] X, double scale ) {
+
+    int N2 = N/2;
+    int N4 = N/4;
+
+    permute( X, true );
+
+    // Z(k) = E2(k) + i*O2(k),  E2(k) = X(k) + conjg( X(N/2-k) ),  O2(k) = ( X(k) - conjg( X(N/2-k) ) )*W^(-k),
+    // scaled here so that the unnormalized half-length inverse DFT returns the sequence
+
+    double Ar = X[0];
+    double Br = X[1];
+    X[0] = ( Ar + Br )*scale;
+    X[1] = ( Ar - Br )*scale;
+
+    for ( int k = 1;  k < N4;  k++ ) {
+
+      int   p  = 2*k;
+      int   q  = N - p;
+      Ar       = X[p];
+      double Ai = X[p+1];
+      Br       = X[q];
+      double Bi = -X[q+1];
+
+      double Er = Ar + Br;
+      double Ei = Ai + Bi;
+      double Dr = Ar - Br;
+      double Di = Ai - Bi;
+
+      double Or = c[k]*Dr - s[k]*Di;
+      double Oi = c[k]*Di + s[k]*Dr;
+
+      X[p]   = ( Er - Oi )*scale;
+      X[p+1] = ( Ei + Or )*scale;
+      X[q]   = ( Er + Oi )*scale;
+      X[q+1] = ( Or - Ei )*scale;
+    }
+
+    X[N2]   =  2.0*X[N2]*scale;
+    X[N2+1] = -2.0*X[N2+1]*scale;
+
+    // the real and imaginary parts of z are the even and odd samples of the sequence
+
+    half.inPlace().evaluateInterleaved( X, true );
+  }
+
+
+
+  // Moves the interleaved spectrum, X(0) and X(N/2) in elements 0 and 1 and Xr(k), Xi(k) in elements 2k, 2k+1,
+  // 0 < k < N/2, into packed order (or back, for the inverse).  Each cycle of the permutation is followed once, from
+  // its leader in the table built with the plan, so no marker set is needed.
+
+  private void permute( double[] x, boolean inverse ) {
+
+    int N2 = N/2;
+
+    for ( int start : leaders ) {
+
+      int    p = start;
+      double v = x[p];
+      do {
+        int q;
+        if ( inverse )
+          q = ( p == N2 )  ?  1  :  ( ( p < N2 )  ?  2*p  :  2*( N-p ) + 1 );
+        else
+          q = ( p == 1 )  ?  N2  :  ( ( ( p & 1 ) == 0 )  ?  p/2  :  N - p/2 );
+        double t = x[q];
+        x[q] = v;
+        v    = t;
+        p = q;
+      } while ( p != start );
+    }
+  }
+
+
+  /**
+   * Approximate size of this plan, used by the cache to bound the memory it retains.
+   *
+   * @return    int containing the number of table entries in this plan.
+   */
+  int weight() {
+    return N/2 + leaders.length;
+  }
+
+}
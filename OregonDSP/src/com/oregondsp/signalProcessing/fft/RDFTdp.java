@@ -18,6 +18,8 @@
 
 package com.oregondsp.signalProcessing.fft;
 
+import java.nio.DoubleBuffer;
+
 
 /**
  * 
@@ -72,6 +74,20 @@ package com.oregondsp.signalProcessing.fft;
  *  Consequently, the data arrays can be reloaded and the evaluate method invoked to compute additional 
  *  DFTs without incurring the cost of RDFT object instantiation.</p>
  *  
+ *  <p>The sine and cosine tables and the half-length complex DFT are shared among all RDFTdp instances of the
+ *  same size through the FFTPlanCache, so that instantiation is inexpensive for sizes that are already in use.</p>
+ *  
+ *  <p>The methods evaluateInPlace() and evaluateInverseInPlace() overwrite their argument with the result and
+ *  use no scratch arrays, which is useful for transforms too large to double-buffer.</p>
+ *  
+ *  <p>Sequences and transforms held in DoubleBuffers (direct buffers, views of memory-mapped files) are accepted by the
+ *  evaluate() and evaluateInverse() methods that take buffer arguments, which stage the data through the scratch
+ *  arrays with bulk transfers.</p>
+ *  
+ *  <p>An RDFTdp instance keeps scratch arrays from one evaluation to the next and should not be used by more than 
+ *  one thread at a time.  For concurrent use, obtain the immutable RDFTPlandp with getPlan() and give each thread its 
+ *  own FFTWorkspace.</p>
+ *  
  *  <p>
  *  The inverse DFT is calculated with a call to evaluateInverse():
  *  </p>
@@ -96,44 +112,37 @@ package com.oregondsp.signalProcessing.fft;
  */
 public class RDFTdp {
   
-  private int      N;
-  private int      N2;
-  private int      N4;
-  
-  private double[] xr;
-  private double[] xi;
-  private double[] Xr;
-  private double[] Xi;
+  private int          N;
   
-  private CDFTdp   dft;
+  private RDFTPlandp   plan;
   
-  private double[] c;
-  private double[] s;
+  private FFTWorkspace workspace;
   
   
   public RDFTdp( int log2N ) {
     
     if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
     
-    N  = 1 << log2N;
-    N2 = N/2;
-    N4 = N/4;
-    
-    xr = new double[ N2 ];
-    xi = new double[ N2 ];
-    Xr = new double[ N2 ];
-    Xi = new double[ N2 ];
+    N         = 1 << log2N;
+    plan      = FFTPlanCache.rdftdp( log2N );
+    workspace = new FFTWorkspace();
     
-    s  = new double[ N4 ];
-    c  = new double[ N4 ];
-    
-    for ( int i = 0;  i < N4;  i++ ) {
-      s[i] = Math.sin( 2.0*Math.PI/N * i );
-      c[i] = Math.cos( 2.0*Math.PI/N * i );
-    }
+  }
+  
+  
+  
+  /**
+   * Constructs an RDFTdp instance whose half-length complex DFT is executed by a specified engine.
+   * @param log2N       base-2 logarithm of the length of the transform
+   * @param engine      FFTEngine executing the split-radix decomposition
+   */
+  public RDFTdp( int log2N, FFTEngine engine ) {
     
+    if ( log2N < 4 ) throw new IllegalArgumentException( "DFT size must be >= 16" );
     
-    dft = new CDFTdp( log2N-1 );
+    N         = 1 << log2N;
+    plan      = FFTPlanCache.rdftdp( log2N, engine );
+    workspace = new FFTWorkspace();
     
   }
   
@@ -149,73 +158,24 @@ public class RDFTdp {
   
   
   
+  /**
+   * Accessor for the immutable plan that implements this transform.  The plan may be shared among threads, 
+   * each supplying its own FFTWorkspace.
+   * @return   RDFTPlandp shared by all RDFTdp instances of this size
+   */
+  public RDFTPlandp getPlan() {
+    return plan;
+  }
+  
+  
+  
   /**
    * Evaluates the DFT of a real sequence x.
    * @param x     double[] containing the real sequence in natural order.
    * @param X     double[] containing the transform of the sequence in conjugate symmetric packed form.
    */
   public void evaluate( double[] x, double[] X ) {
-     
-    // Uses symmetries to perform the real length-N DFT with a special length-N set of butterflies
-    // and one length-N/2 complex DFT.
-    //
-    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
-    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
-    
-    for ( int i = 0;  i < N2;  i++ ) {
-      int j = i << 1;
-      xr[i] = x[j++];
-      xi[i] = x[j];
-    }
-    
-    dft.evaluate( xr, xi, Xr, Xi );
-    
-    // special case at k = 0
-    
-    X[0]  = Xr[0] + Xi[0];
-    X[N2] = Xr[0] - Xi[0];
-    
-    // 1 <= k < N/4
-    
-    int N2pk = N2 + 1;
-    int N2mk = N2 - 1;
-    int Nmk  = N - 1;
-    for ( int k = 1;  k < N4;  k++ ) {
-      
-      double Xrk = Xr[k];
-      double Xik = Xi[k];
-      double XrN2mk = Xr[N2mk];
-      double XiN2mk = Xi[N2mk];
-      
-      double Sr = ( Xrk + XrN2mk )/2;
-      double Si = ( Xik - XiN2mk )/2;
-      
-      double Dr = ( Xik + XiN2mk )/2;
-      double Di = ( XrN2mk - Xrk )/2;
-      
-      double tmp = c[k]*Dr + s[k]*Di;
-      Di        = c[k]*Di - s[k]*Dr;
-      Dr        = tmp;
-      
-      X[k]      = Sr + Dr;
-      X[Nmk]    = Si + Di;
-      
-      X[N2mk]   = Sr - Dr;
-      X[N2pk]   = Di - Si;
-      
-      N2pk++;
-      N2mk--;
-      Nmk--;
-    }
-    
-    // special case at k = N/4
-    
-    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
-    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
-    
-    X[N4]    =  Xr[N4];
-    X[N2+N4] = -Xi[N4];
-     
+    plan.evaluate( x, X, workspace );
   }   
   
   
@@ -226,100 +186,138 @@ public class RDFTdp {
    * @param x     double[] containing the output real sequence in natural order.
    */
   public void evaluateInverse( double[] X, double[] x ) {
-    
-    // Assumed input storage:
-    //   0     1     2     3     ...       N/2-1      N/2       N/2+1      N/2+2    ...    N-1
-    // Xr(0) Xr(1) Xr(2) Xr(3)   ...     Xr(N/2-1)  Xr(N/2)   Xi(N/2-1)  Xi(N/2-2)        Xi(1)
-    
-    
-    // Uses symmetries to perform the real length-N inverse DFT with a special length-N set of butterflies
-    // and one length-N/2 complex DFT.
-    //
-    // uses, specifically, the identity:  x[2n] + j*x[2n+1]  <->  X[k] + X[k+N/2] + j*W^k*( X[k] - X[k+N/2] )
-    // and the fact that, for real sequences, X[k] = conjg( X[N-k] )
-    
-    
-    // special case at k = 0
-    
-    Xr[0] = X[0] + X[N2];
-    Xi[0] = X[0] - X[N2];
-    
-    // 1 <= k < N/4
-    
-    int N2pk = N2 + 1;
-    int N2mk = N2 - 1;
-    int Nmk  = N - 1;
-    for ( int k = 1;  k < N4;  k++ ) {
-      
-      double Xrk    =  X[k];
-      double Xik    =  X[Nmk];
-      double XrkpN2 =  X[N2mk];
-      double XikpN2 = -X[N2pk];
-      
-      double Dr = Xrk - XrkpN2;
-      double Di = Xik - XikpN2;
-      
-      Xr[k] = Xrk + XrkpN2  -  s[k]*Dr  -  c[k]*Di;
-      Xi[k] = Xik + XikpN2  +  c[k]*Dr  -  s[k]*Di;
-      
-      N2pk++;
-      N2mk--;
-      Nmk--;
-    }
-    
-    // special case at k = N/4
-    
-    //  cos( 2*pi/N * k ) = cos( pi/2 ) = 0
-    //  sin( 2*pi/N * k ) = sin( pi/2 ) = 1
-    
-    Xr[N4] =  2.0f*X[N4];
-    Xi[N4] = -2.0f*X[N2+N4];
-    
-    // N/4 + 1  <=  k  <  N/2 - 1;
-    
-    //  cos( 2*pi/N * (N/4+m) ) = cos( 2*pi/N*m + pi/2 ) = -cos( 2*pi/N*(N/4-m) )
-    //  sin( 2*pi/N * (N/4+m) ) = sin( 2*pi/N * (N/4-m) )
-    
-    N2pk = N2 + N4 + 1;
-    N2mk = N4 - 1;
-    Nmk  = N - N4 - 1;
-    int reflect = N4 - 1;
-    for ( int k = N4 + 1;  k < N2;  k++ ) {
-      
-      double Xrk    =  X[k];
-      double Xik    =  X[Nmk];
-      double XrkpN2 =  X[N2mk];
-      double XikpN2 = -X[N2pk];
-      
-      double Dr = Xrk - XrkpN2;
-      double Di = Xik - XikpN2;
-
-      Xr[k] = Xrk + XrkpN2  -  s[reflect]*Dr  +  c[reflect]*Di;
-      Xi[k] = Xik + XikpN2  -  c[reflect]*Dr  -  s[reflect]*Di;
-      
-      N2pk++;
-      N2mk--;
-      Nmk--;
-      reflect--;
-    }
-    
-    dft.evaluate( Xr, Xi, xr, xi );
-    
-    x[0] = xr[0]/N;
-    x[1] = xi[0]/N;
-    
-    int j = N2-1;
-    for ( int k = 1;  k < N2;  k++ ) {
-      int i = k << 1;
-      x[i++] = xr[j]/N;
-      x[i]   = xi[j]/N;
-      j--;
-    }
-    
+    plan.evaluateInverse( X, x, workspace );
+  } 
+  
+  
+  
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform without the 1/N normalization, i.e. N times the 
+   * inverse DFT.  Useful when the 1/N can be folded into another multiply, such as a filter kernel spectrum.
+   * @param X    double[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x    double[] containing the output real sequence in natural order, scaled by N.
+   */
+  public void evaluateInverseUnnormalized( double[] X, double[] x ) {
+    plan.evaluateInverseUnnormalized( X, x, workspace );
   } 
   
   
   
+  /**
+   * Evaluates the DFT of a real sequence held in a DoubleBuffer, such as a direct buffer or a view of a memory-mapped 
+   * file.  N samples are read from the position of x and N transform values are written at the position of X;  both 
+   * positions advance by N.
+   * @param x     DoubleBuffer containing the real sequence in natural order.
+   * @param X     DoubleBuffer receiving the transform of the sequence in conjugate symmetric packed form.
+   */
+  public void evaluate( DoubleBuffer x, DoubleBuffer X ) {
+    plan.evaluate( x, X, workspace );
+  }
+  
+  
+  
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a DoubleBuffer.  Both positions advance by N.
+   * @param X     DoubleBuffer containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x     DoubleBuffer receiving the output real sequence in natural order.
+   */
+  public void evaluateInverse( DoubleBuffer X, DoubleBuffer x ) {
+    plan.evaluateInverse( X, x, workspace );
+  }
+  
+  
+  
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform held in a DoubleBuffer without the 1/N normalization.
+   * @param X     DoubleBuffer containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x     DoubleBuffer receiving the output real sequence in natural order, scaled by N.
+   */
+  public void evaluateInverseUnnormalized( DoubleBuffer X, DoubleBuffer x ) {
+    plan.evaluateInverseUnnormalized( X, x, workspace );
+  }
+  
+  
+  
+  /**
+   * Evaluates the DFTs of two real sequences of the same length with one complex DFT of length N, for example two
+   * components of a multi-component recording.  The transform arrays may be the sequence arrays.
+   * @param x     double[] containing the first real sequence in natural order.
+   * @param y     double[] containing the second real sequence in natural order.
+   * @param X     double[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y     double[] containing the transform of y in conjugate symmetric packed form.
+   */
+  public void evaluate( double[] x, double[] y, double[] X, double[] Y ) {
+    plan.evaluate( x, y, X, Y );
+  }
+  
+  
+  
+  /**
+   * Evaluates the inverse DFTs of two conjugate symmetric transforms with one complex inverse DFT of length N.
+   * The sequence arrays may be the transform arrays.
+   * @param X     double[] containing the transform of x in conjugate symmetric packed form.
+   * @param Y     double[] containing the transform of y in conjugate symmetric packed form.
+   * @param x     double[] containing the first real sequence in natural order.
+   * @param y     double[] containing the second real sequence in natural order.
+   */
+  public void evaluateInverse( double[] X, double[] Y, double[] x, double[] y ) {
+    plan.evaluateInverse( X, Y, x, y );
+  }
+  
+  
+  
+  /**
+   * Evaluates the DFT of a real sequence that is zero beyond its first length samples, skipping the butterflies whose
+   * inputs are known to be zero.  A short block can be transformed where it lies, without copying it into a 
+   * zero-filled buffer.
+   * @param x          double[] containing the real sequence.
+   * @param offset     int specifying the index of the first sequence element in x.
+   * @param length     int specifying the number of sequence elements that may be nonzero;  later elements are not read.
+   * @param X          double[] containing the transform of the sequence in conjugate symmetric packed form.
+   */
+  public void evaluate( double[] x, int offset, int length, double[] X ) {
+    plan.evaluate( x, offset, length, X, workspace );
+  }
+  
+  
+  
+  /**
+   * Evaluates only the DFT bins k0 ... k0+nBins-1 (modulo N) of a real sequence, for example the band read by a
+   * narrow-band detector, skipping the butterflies that contribute to no other bin.
+   * @param x          double[] containing the real sequence in natural order.
+   * @param k0         int specifying the first bin.
+   * @param nBins      int specifying the number of bins.
+   * @param Xr         double[] containing the real parts of the bins in elements 0 ... nBins-1.
+   * @param Xi         double[] containing the imaginary parts of the bins in elements 0 ... nBins-1.
+   */
+  public void evaluateBins( double[] x, int k0, int nBins, double[] Xr, double[] Xi ) {
+    plan.evaluateBins( x, k0, nBins, Xr, Xi, workspace );
+  }
+  
+  
+  
+  /**
+   * Evaluates the DFT of a real sequence in place, without scratch arrays.
+   * @param x     double[] containing the real sequence in natural order on entry, its transform in conjugate 
+   *              symmetric packed form on return.
+   */
+  public void evaluateInPlace( double[] x ) {
+    plan.evaluateInPlace( x );
+  }
+  
+  
+  
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform in place, without scratch arrays.
+   * @param X     double[] containing the transform in conjugate symmetric packed form on entry, the real sequence 
+   *              in natural order on return.
+   */
+  public void evaluateInverseInPlace( double[] X ) {
+    plan.evaluateInverseInPlace( X );
+  }
+  
+  
+  
   /**
    * Calculates the product of two conjugate symmetric dfts of the same length and stores the result in the second dft.
    * 
@@ -363,18 +361,7 @@ public class RDFTdp {
     if ( kernel.length != transform.length )
       throw new IllegalArgumentException( "kernel and transform arrays must have the same size" );
     
-    int n    = kernel.length;
-    int half = n/2;
-    transform[0]    *= kernel[0];
-    transform[half] *= kernel[half];
-    
-    double tmp;
-    for ( int i = 1;  i < half;  i++ ) {
-      int im = n-i;
-      tmp           = kernel[i]*transform[i]  - sign*kernel[im]*transform[im];
-      transform[im] = kernel[i]*transform[im] + sign*kernel[im]*transform[i];
-      transform[i]  = tmp;
-    }
+    FFTKernels.INSTANCE.packedProduct( kernel, transform, sign );
     
   }
   
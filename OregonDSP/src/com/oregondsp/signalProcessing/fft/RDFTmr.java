@@ -0,0 +1,293 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+
+/**
+ *  Class to calculate the discrete Fourier transform of a real sequence of arbitrary length and its inverse.
+ *
+ *  <p>This class extends RDFT to lengths that are not powers of two.  Powers of two (N >= 16) use the RDFT plan.
+ *  Other even lengths compute one complex DFT of length N/2 with CDFTmr, packing the even and odd samples into the
+ *  real and imaginary parts, followed by a set of length-N butterflies.  Odd lengths compute one complex DFT of
+ *  length N with a zero imaginary part.</p>
+ *
+ *  <p>The transform is stored in conjugate symmetric packed form, as for RDFT.  For even N:</p>
+ *
+ *  <p>
+ *  <font face="courier">
+ *    0     1     2     ...    N/2-1      N/2       N/2+1      ...    N-1 <br>
+ *  Xr(0) Xr(1) Xr(2)   ...  Xr(N/2-1)  Xr(N/2)   Xi(N/2-1)    ...   Xi(1)
+ *  </font>
+ *  </p>
+ *
+ *  <p>and for odd N the real parts Xr(0) ... Xr((N-1)/2) occupy the first (N+1)/2 elements, followed by
+ *  Xi((N-1)/2) ... Xi(1).  Input and output arrays must be distinct.</p>
+ *
+ *  <p>The tables of an RDFTmr instance are not modified after construction.  The evaluation methods that take an
+ *  FFTWorkspace argument may be called concurrently from several threads, provided each thread supplies its own
+ *  workspace.  The methods without a workspace argument use scratch arrays private to the instance.</p>
+ */
+public class RDFTmr {
+
+  /** Length of the transform. */
+  private int          N;
+
+  /** Plan used when N is a power of two. */
+  private RDFTPlan     pow2;
+
+  /** Complex DFT of length N/2 (even N) or N (odd N). */
+  private CDFTmr       dft;
+
+  /** cos( 2*pi*k/N ) and sin( 2*pi*k/N ),  0 <= k < N/2, for even N. */
+  private float[]      c, s;
+
+  /** Scratch storage for the evaluation methods without a workspace argument. */
+  private FFTWorkspace workspace;
+
+
+
+  /**
+   * Constructs an RDFTmr instance for the specified transform length.
+   * @param N     int specifying the length of the transform (N >= 1).
+   */
+  public RDFTmr( int N ) {
+
+    if ( N < 1 ) throw new IllegalArgumentException( "DFT size must be >= 1" );
+
+    this.N    = N;
+    workspace = new FFTWorkspace();
+
+    if ( N >= 16  &&  ( N & (N-1) ) == 0 ) {
+      pow2 = FFTPlanCache.rdft( Integer.numberOfTrailingZeros( N ) );
+    }
+    else if ( N % 2 == 0 ) {
+      int N2 = N/2;
+      dft = new CDFTmr( N2 );
+      c   = new float[ N2 ];
+      s   = new float[ N2 ];
+      Twiddles w = Twiddles.of( N );
+      for ( int k = 0;  k < N2;  k++ ) {
+        c[k] = (float) w.cos( k );
+        s[k] = (float) w.sin( k );
+      }
+    }
+    else {
+      dft = new CDFTmr( N );
+    }
+
+  }
+
+
+
+  /**
+   * Accessor for the size of the fft
+   * @return   int containing the size of the fft
+   */
+  public int getFFTSize() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x.
+   * @param x     float[] containing the real sequence in natural order.
+   * @param X     float[] containing the transform of the sequence in conjugate symmetric packed form.
+   */
+  public void evaluate( float[] x, float[] X ) {
+    evaluate( x, X, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the DFT of a real sequence x with specified scratch storage.
+   * @param x          float[] containing the real sequence in natural order.
+   * @param X          float[] containing the transform of the sequence in conjugate symmetric packed form.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluate( float[] x, float[] X, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    if ( pow2 != null ) {
+      pow2.evaluate( x, X, workspace );
+    }
+    else if ( c != null ) {
+      evaluateEven( x, X, workspace );
+    }
+    else {
+      float[] zi = workspace.floats( FFTWorkspace.REAL_MR+1, N );
+      float[] Zr = workspace.floats( FFTWorkspace.REAL_MR+2, N );
+      float[] Zi = workspace.floats( FFTWorkspace.REAL_MR+3, N );
+      for ( int n = 0;  n < N;  n++ ) zi[n] = 0.0f;
+      dft.evaluate( x, zi, Zr, Zi, workspace );
+      X[0] = Zr[0];
+      for ( int k = 1;  k <= N/2;  k++ ) {
+        X[k]   = Zr[k];
+        X[N-k] = Zi[k];
+      }
+    }
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform.
+   * @param X     float[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x     float[] containing the output real sequence in natural order.
+   */
+  public void evaluateInverse( float[] X, float[] x ) {
+    evaluateInverse( X, x, workspace );
+  }
+
+
+
+  /**
+   * Evaluates the inverse DFT of a conjugate symmetric transform with specified scratch storage.
+   * @param X          float[] containing the input transform of the sequence in conjugate symmetric packed form.
+   * @param x          float[] containing the output real sequence in natural order.
+   * @param workspace  FFTWorkspace providing scratch arrays, or null to allocate them for this call.
+   */
+  public void evaluateInverse( float[] X, float[] x, FFTWorkspace workspace ) {
+
+    if ( workspace == null ) workspace = new FFTWorkspace();
+
+    if ( pow2 != null ) {
+      pow2.evaluateInverse( X, x, workspace );
+    }
+    else if ( c != null ) {
+      evaluateInverseEven( X, x, workspace );
+    }
+    else {
+      float[] Zr = workspace.floats( FFTWorkspace.REAL_MR, N );
+      float[] Zi = workspace.floats( FFTWorkspace.REAL_MR+1, N );
+      float[] zi = workspace.floats( FFTWorkspace.REAL_MR+2, N );
+      Zr[0] = X[0];
+      Zi[0] = 0.0f;
+      for ( int k = 1;  k <= N/2;  k++ ) {
+        Zr[k]   =  X[k];
+        Zi[k]   =  X[N-k];
+        Zr[N-k] =  X[k];
+        Zi[N-k] = -X[N-k];
+      }
+
+      // unnormalized inverse DFT by exchanging real and imaginary parts
+
+      dft.evaluate( Zi, Zr, zi, x, workspace );
+      float scale = 1.0f / N;
+      for ( int n = 0;  n < N;  n++ ) x[n] *= scale;
+    }
+  }
+
+
+
+  private void evaluateEven( float[] x, float[] X, FFTWorkspace workspace ) {
+
+    int N2 = N/2;
+
+    float[] zr = workspace.floats( FFTWorkspace.REAL_MR, N2 );
+    float[] zi = workspace.floats( FFTWorkspace.REAL_MR+1, N2 );
+    float[] Zr = workspace.floats( FFTWorkspace.REAL_MR+2, N2 );
+    float[] Zi = workspace.floats( FFTWorkspace.REAL_MR+3, N2 );
+
+    for ( int i = 0;  i < N2;  i++ ) {
+      int j = i << 1;
+      zr[i] = x[j++];
+      zi[i] = x[j];
+    }
+
+    dft.evaluate( zr, zi, Zr, Zi, workspace );
+
+    // With Z the DFT of z[n] = x[2n] + i*x[2n+1],  E(k) = ( Z(k) + conjg( Z(N/2-k) ) )/2 and
+    // O(k) = ( Z(k) - conjg( Z(N/2-k) ) )/(2i) are the DFTs of the even and odd samples, and
+    //
+    //   X(k) = E(k) + W^k*O(k),      X(N/2-k) = conjg( E(k) - W^k*O(k) ),      W = exp( -2*pi*i/N )
+
+    X[0]  = Zr[0] + Zi[0];
+    X[N2] = Zr[0] - Zi[0];
+
+    for ( int k = 1;  k <= N2/2;  k++ ) {
+
+      int   m   = N2 - k;
+      float Ar  = Zr[k];
+      float Ai  = Zi[k];
+      float Br  = Zr[m];
+      float Bi  = -Zi[m];
+
+      float Er  = ( Ar + Br )/2;
+      float Ei  = ( Ai + Bi )/2;
+      float Or  = ( Ai - Bi )/2;
+      float Oi  = ( Br - Ar )/2;
+
+      float Tr  = c[k]*Or + s[k]*Oi;
+      float Ti  = c[k]*Oi - s[k]*Or;
+
+      X[k]      = Er + Tr;
+      X[N-k]    = Ei + Ti;
+      if ( m != k ) {
+        X[m]    =   Er - Tr;
+        X[N-m]  = -( Ei - Ti );
+      }
+    }
+  }
+
+
+
+  private void evaluateInverseEven( float[] X, float[] x, FFTWorkspace workspace ) {
+
+    int N2 = N/2;
+
+    float[] Zr = workspace.floats( FFTWorkspace.REAL_MR, N2 );
+    float[] Zi = workspace.floats( FFTWorkspace.REAL_MR+1, N2 );
+    float[] zr = workspace.floats( FFTWorkspace.REAL_MR+2, N2 );
+    float[] zi = workspace.floats( FFTWorkspace.REAL_MR+3, N2 );
+
+    // Z(k) = E2(k) + i*O2(k),  E2(k) = X(k) + conjg( X(N/2-k) ),  O2(k) = ( X(k) - conjg( X(N/2-k) ) )*W^(-k)
+
+    for ( int k = 0;  k < N2;  k++ ) {
+
+      int   m  = N2 - k;
+      float Ar = X[k];
+      float Ai = ( k == 0 )  ?  0.0f  :  X[N-k];
+      float Br = X[m];
+      float Bi = ( m == N2 ) ?  0.0f  : -X[N-m];
+
+      float Er = Ar + Br;
+      float Ei = Ai + Bi;
+      float Dr = Ar - Br;
+      float Di = Ai - Bi;
+
+      float Or = c[k]*Dr - s[k]*Di;
+      float Oi = c[k]*Di + s[k]*Dr;
+
+      Zr[k] = Er - Oi;
+      Zi[k] = Ei + Or;
+    }
+
+    // unnormalized inverse DFT by exchanging real and imaginary parts
+
+    dft.evaluate( Zi, Zr, zi, zr, workspace );
+
+    float scale = 1.0f / N;
+    for ( int i = 0;  i < N2;  i++ ) {
+      int j = i << 1;
+      x[j++] = zr[i]*scale;
+      x[j]   = zi[i]*scale;
+    }
+  }
+
+}
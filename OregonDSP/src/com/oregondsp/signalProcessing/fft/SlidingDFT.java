@@ -0,0 +1,281 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.util.Arrays;
+
+
+/**
+ *  Class to track selected bins of the length-N DFT of a sliding window over one or more continuous data streams.
+ *
+ *  <p>After each sample x[n] the tracked bins are those of the DFT of the N most recent samples, with the phase
+ *  referenced to the start of the window, exactly as an RDFT of x[n-N+1] ... x[n] would produce them:</p>
+ *  <p>
+ *  <font face="courier">
+ *   X[k] = sum_j x[n-N+1+j] * exp( -2*pi*i*k*j/N ),&nbsp&nbsp 0 <= j < N<BR>
+ *  </font>
+ *  </p>
+ *  <p>Each bin costs O(1) per sample, independent of N.  The classical sliding DFT updates X[k] by a rotation,
+ *  X[k] &lt;- ( X[k] + x[n] - x[n-N] ) * exp( 2*pi*i*k/N ), which is marginally stable:  rounding errors in the
+ *  rotation accumulate without bound over a long stream.  This class instead accumulates the unrotated sum
+ *  S[k] = sum_m x[m] * exp( -2*pi*i*k*m/N ) over the window, to which each sample adds
+ *  ( x[n] - x[n-N] ) * exp( -2*pi*i*k*(n mod N)/N ) from an exact table.  No error is ever multiplied, the sums are
+ *  held in double precision, and the window phase is applied only when bins are read.</p>
+ *
+ *  <p>An instance holds independent state - a window of history and the bin sums - for each of a number of channels,
+ *  which share the tables.  Channels may be fed in blocks of any length and in any order.  The block methods do not
+ *  allocate.  Before N samples have been processed on a channel the window is padded with zeros.</p>
+ *
+ *  <p> Example of use (bins 60 and 120 of a 1000-point window on 24 channels):</p>
+ *  <p>
+ *  <font face="courier">
+ *   SlidingDFT sdft = new SlidingDFT( 1000, new int[] { 60, 120 }, 24 );<BR>
+ *   float[] Xr = new float[2];<BR>
+ *   float[] Xi = new float[2];<BR>
+ *   <BR>
+ *   sdft.filter( channel, block );<BR>
+ *   sdft.getBins( channel, Xr, Xi );<BR>
+ *  </font>
+ *  </p>
+ *
+ *  <p>See "The Sliding DFT", Jacobsen, E. and Lyons, R., IEEE SIGNAL PROCESSING MAGAZINE, VOL. 20, NO. 2, 2003,
+ *  pp. 74-80.</p>
+ */
+public class SlidingDFT {
+
+  /** Length of the window. */
+  private final int        N;
+
+  /** Tracked bins, 0 <= k < N. */
+  private final int[]      bins;
+
+  /** cos( 2*pi*j/N ) and sin( 2*pi*j/N ),  0 <= j < N. */
+  private final double[]   c, s;
+
+  /** Window of the N most recent samples of each channel, stored circularly. */
+  private final float[][]  history;
+
+  /** Position of the oldest sample in each history window, n mod N for the next sample n. */
+  private final int[]      position;
+
+  /** Table index k*n mod N of each bin for the next sample n, for each channel. */
+  private final int[][]    phase;
+
+  /** Unrotated bin sums, real and imaginary parts, for each channel. */
+  private final double[][] sr, si;
+
+
+
+  /**
+   * Instantiates a new SlidingDFT.
+   *
+   * @param N           int specifying the length of the sliding window (N >= 1).
+   * @param bins        int[] containing the indices of the tracked bins, 0 <= bins[b] < N.
+   * @param nChannels   int specifying the number of independent data streams (nChannels >= 1).
+   */
+  public SlidingDFT( int N, int[] bins, int nChannels ) {
+
+    if ( N < 1 ) throw new IllegalArgumentException( "Window length must be >= 1" );
+    if ( nChannels < 1 ) throw new IllegalArgumentException( "Number of channels must be >= 1" );
+    for ( int b = 0;  b < bins.length;  b++ ) {
+      if ( bins[b] < 0  ||  bins[b] >= N ) throw new IllegalArgumentException( "Bin index out of range: " + bins[b] );
+    }
+
+    this.N    = N;
+    this.bins = bins.clone();
+
+    c = new double[ N ];
+    s = new double[ N ];
+    Twiddles w = Twiddles.of( N );
+    for ( int j = 0;  j < N;  j++ ) {
+      c[j] = w.cos( j );
+      s[j] = w.sin( j );
+    }
+
+    history  = new float[ nChannels ][ N ];
+    position = new int[ nChannels ];
+    phase    = new int[ nChannels ][ bins.length ];
+    sr       = new double[ nChannels ][ bins.length ];
+    si       = new double[ nChannels ][ bins.length ];
+  }
+
+
+
+  /**
+   * Accessor for the length of the sliding window.
+   * @return   int containing the window length
+   */
+  public int getWindowLength() {
+    return N;
+  }
+
+
+
+  /**
+   * Accessor for the number of tracked bins.
+   * @return   int containing the number of bins
+   */
+  public int getNumberOfBins() {
+    return bins.length;
+  }
+
+
+
+  /**
+   * Accessor for the number of channels.
+   * @return   int containing the number of channels
+   */
+  public int getNumberOfChannels() {
+    return history.length;
+  }
+
+
+
+  /**
+   * Initializes the states of all channels to zero.
+   */
+  public void initialize() {
+    for ( int ch = 0;  ch < history.length;  ch++ ) initialize( ch );
+  }
+
+
+
+  /**
+   * Initializes the state of one channel to zero.
+   *
+   * @param channel   int specifying the channel.
+   */
+  public void initialize( int channel ) {
+    Arrays.fill( history[channel], 0.0f );
+    Arrays.fill( phase[channel], 0 );
+    Arrays.fill( sr[channel], 0.0 );
+    Arrays.fill( si[channel], 0.0 );
+    position[channel] = 0;
+  }
+
+
+
+  /**
+   * Advances one channel by a single sample.
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float containing the new sample.
+   */
+  public void filter( int channel, float x ) {
+    step( channel, x );
+  }
+
+
+
+  /**
+   * Advances one channel by a block of samples.
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   */
+  public void filter( int channel, float[] x ) {
+    filter( channel, x, 0, x.length );
+  }
+
+
+
+  /**
+   * Advances one channel by part of a block of samples.
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   * @param offset    int specifying the index of the first sample in x.
+   * @param length    int specifying the number of samples.
+   */
+  public void filter( int channel, float[] x, int offset, int length ) {
+    for ( int i = offset;  i < offset+length;  i++ ) step( channel, x[i] );
+  }
+
+
+
+  /**
+   * Advances one channel by a block of samples and records the tracked bins after every sample.  The value of bin b
+   * after sample i is stored in Xr[ i*nBins + b ] and Xi[ i*nBins + b ].
+   *
+   * @param channel   int specifying the channel.
+   * @param x         float[] containing the consecutive samples of the channel.
+   * @param Xr        float[] of length at least x.length*nBins containing the bin real parts on return.
+   * @param Xi        float[] of length at least x.length*nBins containing the bin imaginary parts on return.
+   */
+  public void filter( int channel, float[] x, float[] Xr, float[] Xi ) {
+    int nb = bins.length;
+    for ( int i = 0;  i < x.length;  i++ ) {
+      step( channel, x[i] );
+      rotate( channel, Xr, Xi, i*nb );
+    }
+  }
+
+
+
+  /**
+   * Obtains the tracked bins of the current window of one channel.
+   *
+   * @param channel   int specifying the channel.
+   * @param Xr        float[] of length at least nBins containing the bin real parts on return.
+   * @param Xi        float[] of length at least nBins containing the bin imaginary parts on return.
+   */
+  public void getBins( int channel, float[] Xr, float[] Xi ) {
+    rotate( channel, Xr, Xi, 0 );
+  }
+
+
+
+  private void step( int channel, float x ) {
+
+    float[]  h  = history[channel];
+    int[]    p  = phase[channel];
+    double[] ar = sr[channel];
+    double[] ai = si[channel];
+
+    int    n = position[channel];
+    double d = (double) x - h[n];
+    h[n] = x;
+    position[channel] = ( n+1 == N )  ?  0  :  n+1;
+
+    // S[k] += d * exp( -2*pi*i*k*n/N ), then advance the table index to k*(n+1) mod N
+
+    for ( int b = 0;  b < bins.length;  b++ ) {
+      int j = p[b];
+      ar[b] += d*c[j];
+      ai[b] -= d*s[j];
+      j += bins[b];
+      p[b] = ( j >= N )  ?  j - N  :  j;
+    }
+  }
+
+
+
+  // X[k] = S[k] * exp( 2*pi*i*k*(n+1)/N ) references the phase to the start of the window
+
+  private void rotate( int channel, float[] Xr, float[] Xi, int offset ) {
+
+    int[]    p  = phase[channel];
+    double[] ar = sr[channel];
+    double[] ai = si[channel];
+
+    for ( int b = 0;  b < bins.length;  b++ ) {
+      int j = p[b];
+      Xr[offset+b] = (float) ( ar[b]*c[j] - ai[b]*s[j] );
+      Xi[offset+b] = (float) ( ar[b]*s[j] + ai[b]*c[j] );
+    }
+  }
+
+}
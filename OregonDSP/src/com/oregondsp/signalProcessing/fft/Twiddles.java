@@ -0,0 +1,189 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.fft;
+
+import java.lang.ref.SoftReference;
+
+
+/**
+ * Package-private class supplying the values cos( 2*pi*k/N ) and sin( 2*pi*k/N ) from which the twiddle factor
+ * tables of the transforms are built.
+ *
+ * <p>Only the first octant, 0 <= k <= N/8, is computed when N is a multiple of 8;  the other values follow from
+ * the symmetries of the sine and cosine.  The octant is computed in blocks of B ~ sqrt( N/8 ) points.  The first
+ * point of each block is computed exactly with Math.cos and Math.sin, and the others by rotating it through an
+ * exactly computed angle of 2*pi*j/N, 0 < j < B.  Each value therefore carries the rounding error of one complex
+ * product - one or two units in the last place - with no accumulation from point to point, while the number of
+ * library calls falls from O(N) to O(sqrt(N)).</p>
+ *
+ * <p>All tables are computed in double precision;  the single precision tables are rounded from the same values.
+ * Power-of-two sizes share one master table:  the values for size N are read from the table for the largest
+ * power of two computed so far, M, at stride M/N.  The master is held through a soft reference so that it may be
+ * reclaimed when memory is short.</p>
+ */
+final class Twiddles {
+
+  /** Master table for power-of-two sizes. */
+  private static SoftReference< Twiddles > master = new SoftReference< Twiddles >( null );
+
+  /** Period of the values provided by this instance. */
+  private final int      N;
+
+  /** Period of the underlying tables. */
+  private final int      M;
+
+  /** Index multiplier M/N into the underlying tables. */
+  private final int      stride;
+
+  /** true if the tables cover the first octant of a period M divisible by 8, false if they cover a full period. */
+  private final boolean  octant;
+
+  /** cos( 2*pi*k/M ) and sin( 2*pi*k/M ). */
+  private final double[] c, s;
+
+
+
+  private Twiddles( int N ) {
+
+    this.N  = N;
+    M       = N;
+    stride  = 1;
+    octant  = ( N % 8 == 0 );
+
+    int n   = octant  ?  N/8 + 1  :  N;
+    c       = new double[ n ];
+    s       = new double[ n ];
+
+    int B   = (int) Math.ceil( Math.sqrt( n ) );
+
+    double[] fc = new double[ B ];
+    double[] fs = new double[ B ];
+    for ( int j = 0;  j < B;  j++ ) {
+      fc[j] = Math.cos( 2.0*Math.PI/N * j );
+      fs[j] = Math.sin( 2.0*Math.PI/N * j );
+    }
+
+    for ( int k0 = 0;  k0 < n;  k0 += B ) {
+      double c0 = Math.cos( 2.0*Math.PI/N * k0 );
+      double s0 = Math.sin( 2.0*Math.PI/N * k0 );
+      c[k0] = c0;
+      s[k0] = s0;
+      int kmax = Math.min( B, n - k0 );
+      for ( int j = 1;  j < kmax;  j++ ) {
+        c[k0+j] = c0*fc[j] - s0*fs[j];
+        s[k0+j] = s0*fc[j] + c0*fs[j];
+      }
+    }
+  }
+
+
+
+  private Twiddles( Twiddles table, int N ) {
+    this.N  = N;
+    M       = table.M;
+    stride  = M / N;
+    octant  = table.octant;
+    c       = table.c;
+    s       = table.s;
+  }
+
+
+
+  /**
+   * Obtains the values for the specified period.
+   *
+   * @param N    int specifying the period (N >= 1).
+   * @return     Twiddles instance providing cos( 2*pi*k/N ) and sin( 2*pi*k/N ).
+   */
+  static Twiddles of( int N ) {
+
+    if ( N < 1 ) throw new IllegalArgumentException( "Period must be >= 1" );
+
+    if ( ( N & (N-1) ) != 0  ||  N < 8 ) return new Twiddles( N );
+
+    synchronized ( Twiddles.class ) {
+      Twiddles t = master.get();
+      if ( t != null  &&  t.M >= N ) return ( t.M == N )  ?  t  :  new Twiddles( t, N );
+    }
+
+    // the table is computed outside the lock;  concurrent requests may both compute one, and the larger is kept
+
+    Twiddles t = new Twiddles( N );
+    synchronized ( Twiddles.class ) {
+      Twiddles u = master.get();
+      if ( u == null  ||  u.M < N ) master = new SoftReference< Twiddles >( t );
+    }
+    return t;
+  }
+
+
+
+  /**
+   * Accessor for the period.
+   *
+   * @return    int containing N.
+   */
+  int period() {
+    return N;
+  }
+
+
+
+  /**
+   * Evaluates cos( 2*pi*k/N ).
+   *
+   * @param k    int specifying the index, k >= 0.
+   * @return     double containing cos( 2*pi*k/N ).
+   */
+  double cos( int k ) {
+    int j = ( k % N ) * stride;
+    if ( !octant ) return c[j];
+    int M4 = M >> 2;
+    int r  = j % M4;
+    double cr = ( r <= M4 >> 1 )  ?  c[r]  :  s[ M4 - r ];
+    double sr = ( r <= M4 >> 1 )  ?  s[r]  :  c[ M4 - r ];
+    switch ( j / M4 ) {
+      case 0:   return  cr;
+      case 1:   return -sr;
+      case 2:   return -cr;
+      default:  return  sr;
+    }
+  }
+
+
+
+  /**
+   * Evaluates sin( 2*pi*k/N ).
+   *
+   * @param k    int specifying the index, k >= 0.
+   * @return     double containing sin( 2*pi*k/N ).
+   */
+  double sin( int k ) {
+    int j = ( k % N ) * stride;
+    if ( !octant ) return s[j];
+    int M4 = M >> 2;
+    int r  = j % M4;
+    double cr = ( r <= M4 >> 1 )  ?  c[r]  :  s[ M4 - r ];
+    double sr = ( r <= M4 >> 1 )  ?  s[r]  :  c[ M4 - r ];
+    switch ( j / M4 ) {
+      case 0:   return  sr;
+      case 1:   return  cr;
+      case 2:   return -sr;
+      default:  return -cr;
+    }
+  }
+
+}
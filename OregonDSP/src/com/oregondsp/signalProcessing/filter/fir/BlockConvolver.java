@@ -0,0 +1,49 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+
+/**
+ * Interface for streaming FIR filters that convolve consecutive, contiguous blocks of a fixed size with a kernel.
+ *
+ * <p>Implementations keep state from one block to the next, so a stream of any length is filtered block by block
+ * with filter(), and the results still pending when the stream ends are obtained with flush(), each call returning
+ * the next blockSize results as though a block of zeros had been filtered.  DirectFormFIR evaluates the convolution
+ * in the time domain and suits short kernels;  OverlapAdd, OverlapSave and PartitionedConvolver use DFTs and suit
+ * longer ones.</p>
+ */
+public interface BlockConvolver {
+
+  /** Filtering operation to produce an incremental convolution result from one block of data
+   * @param src    float[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    float[] containing increment of convolution result - array length must be at
+   *                  least dptr + blockSize
+   * @param dptr   Point within destination array where convolution result starts
+   */
+  void filter( float[] src, int sptr, float[] dst, int dptr );
+
+
+  /** Flushes state information - i.e. left over convolution results when no further data blocks are available
+   * @param dst       float[] where convolution results are returned.  Length of dst must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  void flush( float[] dst, int dptr );
+
+}
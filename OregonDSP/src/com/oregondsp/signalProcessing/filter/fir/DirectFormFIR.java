@@ -0,0 +1,273 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+
+
+/**
+ * Implements a finite impulse response (FIR) filter by direct-form convolution in the time domain.
+ *
+ * <p>For short kernels - half-band designs and small lowpass designs of a few tens of taps - a direct sum over the
+ * taps costs less per sample than the forward and inverse DFTs of OverlapAdd.  Like OverlapAdd, the filter works on
+ * uniform consecutive, contiguous blocks and keeps the last kernelLength-1 input samples from one block to the next,
+ * so streams of any length can be filtered;  flush() returns the results pending at the end of a stream.</p>
+ *
+ * <p>Each block is appended to the retained samples in an internal buffer, and the outputs are computed four at a
+ * time against the time-reversed kernel, so that each tap is loaded once for four outputs.  Filtering does not
+ * allocate, and the source and destination arrays may be the same.  isFasterThanOverlapAdd() gives the measured
+ * crossover between this class and OverlapAdd, and getBlockConvolver() chooses among this class, OverlapAdd and
+ * PartitionedConvolver with the same cost model.</p>
+ */
+public class DirectFormFIR implements BlockConvolver {
+
+  // Cost model fitted to timings of DirectFormFIR.filter and OverlapAdd.filter for 8 to 512 taps and blocks of
+  // 64 to 4096 samples, and of PartitionedConvolver.filter for 256 to 16384 taps and blocks of 64 to 1024 samples
+  // (HotSpot, x86-64).  The direct form costs a fixed amount per output sample plus an amount per tap;  overlap-add
+  // costs, per block, an amount per point per stage of the DFT, an amount per point for the product and overlap, and
+  // a fixed amount per call.  The partitioned convolver has the same DFT costs for its DFT of 2*blockSize points,
+  // plus an amount per partition and bin for the multiply-accumulates.  Times are in nanoseconds, but only their
+  // ratios matter.  The predicted crossover between the direct form and overlap-add lies near 180 taps for blocks of
+  // 64 samples, near 90 to 100 taps for blocks of 256 to 1024, and near 115 and 130 taps for blocks of 4096 and 16384;
+  // for blocks of 16 or fewer samples the direct form is always faster.  The uniformly partitioned convolver is
+  // predicted to be faster than overlap-add once the kernel is a few taps longer than the block, and faster than the
+  // direct form from near 110 taps for blocks of 64 samples and 340 taps for blocks of 16;  for such small blocks the
+  // measured crossovers lie lower, so the model errs towards the direct form.
+
+  private static final double DIRECT_PER_SAMPLE = 1.0;
+  private static final double DIRECT_PER_TAP    = 0.27;
+  private static final double DFT_PER_STAGE     = 1.1;
+  private static final double DFT_PER_POINT     = 1.5;
+  private static final double DFT_PER_BLOCK     = 500.0;
+  private static final double PARTITION_PER_BIN = 2.2;
+
+  private float[]  reversed;
+  private int      kernelLength;
+  private int      blockSize;
+
+  /** The last kernelLength-1 input samples, followed by the current block. */
+  private float[]  buffer;
+
+  /** Staging for the results of a block written to a FloatBuffer. */
+  private float[]  segment;
+
+
+
+  /** Constructor for a DirectFormFIR instance.
+   * @param H          float[] containing convolutional kernel
+   * @param blockSize  int specifying size of data blocks to be filtered
+   */
+  public DirectFormFIR( float[] H, int blockSize ) {
+
+    if ( H.length < 1 ) throw new IllegalArgumentException( "Kernel must have at least one tap" );
+
+    kernelLength   = H.length;
+    this.blockSize = blockSize;
+
+    reversed = new float[ kernelLength ];
+    for ( int k = 0;  k < kernelLength;  k++ ) reversed[k] = H[ kernelLength-1-k ];
+
+    buffer  = new float[ kernelLength - 1 + blockSize ];
+    segment = new float[ blockSize ];
+  }
+
+
+
+  /**
+   * Predicts from the measured crossover model whether direct-form convolution is faster than OverlapAdd for a
+   * kernel length and block size.
+   * @param kernelLength  int specifying the number of taps
+   * @param blockSize     int specifying size of data blocks to be filtered
+   * @return              true if DirectFormFIR is expected to take less time per sample than OverlapAdd
+   */
+  public static boolean isFasterThanOverlapAdd( int kernelLength, int blockSize ) {
+    return directCost( kernelLength ) < overlapAddCost( kernelLength, blockSize );
+  }
+
+
+
+  /**
+   * Provides the streaming implementation of a kernel predicted by the cost model to be fastest for a block size:  a
+   * DirectFormFIR instance for short kernels, a PartitionedConvolver instance with uniform partitions of blockSize
+   * taps for kernels much longer than the block, or otherwise an OverlapAdd instance.  The partitioned convolver is
+   * considered only for block sizes that are powers of two >= 8, which it requires.  Non-uniform partitions are not
+   * considered:  they lower the average cost for very long kernels, but the time per call then varies from block to
+   * block, which a caller must choose to accept by constructing the PartitionedConvolver itself.
+   * @param H          float[] containing convolutional kernel
+   * @param blockSize  int specifying size of data blocks to be filtered
+   * @return           BlockConvolver instance expected to take the least time per sample
+   */
+  public static BlockConvolver getBlockConvolver( float[] H, int blockSize ) {
+
+    double direct      = directCost( H.length );
+    double overlapAdd  = overlapAddCost( H.length, blockSize );
+    double partitioned = blockSize >= 8  &&  ( blockSize & (blockSize-1) ) == 0
+                           ?  partitionedCost( H.length, blockSize )  :  Double.POSITIVE_INFINITY;
+
+    if ( direct <= overlapAdd  &&  direct <= partitioned )
+      return new DirectFormFIR( H, blockSize );
+    else if ( partitioned < overlapAdd )
+      return new PartitionedConvolver( H, blockSize );
+    else
+      return new OverlapAdd( H, blockSize );
+  }
+
+
+
+  // Predicted costs per sample of the three implementations.
+
+  private static double directCost( int kernelLength ) {
+    return DIRECT_PER_SAMPLE + DIRECT_PER_TAP * kernelLength;
+  }
+
+
+  private static double overlapAddCost( int kernelLength, int blockSize ) {
+
+    int nfft     = 1;
+    int log2nfft = 0;
+    while ( nfft < kernelLength + blockSize - 1 ) {
+      nfft *= 2;
+      log2nfft++;
+    }
+
+    return ( DFT_PER_STAGE * nfft * log2nfft + DFT_PER_POINT * nfft + DFT_PER_BLOCK ) / blockSize;
+  }
+
+
+  private static double partitionedCost( int kernelLength, int blockSize ) {
+
+    int nfft       = 2*blockSize;
+    int log2nfft   = Integer.numberOfTrailingZeros( nfft );
+    int partitions = ( kernelLength + blockSize - 1 ) / blockSize;
+
+    return ( DFT_PER_STAGE * nfft * log2nfft + DFT_PER_POINT * nfft + DFT_PER_BLOCK
+             + PARTITION_PER_BIN * partitions * blockSize ) / blockSize;
+  }
+
+
+
+  /**
+   * Clears the retained input samples, as at the start of a new stream.
+   */
+  public void initialize() {
+    Arrays.fill( buffer, 0.0f );
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data
+   * @param src    float[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    float[] containing increment of convolution result - array length must be at
+   *                  least dptr + blockSize
+   * @param dptr   Point within destination array where convolution result starts
+   */
+  public void filter( float[] src, int sptr, float[] dst, int dptr ) {
+
+    if ( src.length < sptr + blockSize )
+      throw new IllegalArgumentException( "Source array length less than sptr + blockSize" );
+
+    if ( dst.length < dptr + blockSize )
+        throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
+
+    System.arraycopy( src, sptr, buffer, kernelLength-1, blockSize );
+    convolve( dst, dptr );
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data held in a FloatBuffer.
+   * blockSize samples are read from the position of src and blockSize results are written at the position of dst;
+   * both positions advance by blockSize.
+   * @param src    FloatBuffer containing data block
+   * @param dst    FloatBuffer receiving increment of convolution result
+   */
+  public void filter( FloatBuffer src, FloatBuffer dst ) {
+
+    if ( src.remaining() < blockSize ) throw new BufferUnderflowException();
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
+
+    src.get( buffer, kernelLength-1, blockSize );
+    convolve( segment, 0 );
+    dst.put( segment, 0, blockSize );
+  }
+
+
+
+  /** Flushes state information - i.e. left over convolution results when no further data blocks are available.
+   * Each call returns the next blockSize results, as though a block of zeros had been filtered.
+   * @param dst       float[] where convolution results are returned.  Length of dst must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  public void flush( float[] dst, int dptr ) {
+
+    Arrays.fill( buffer, kernelLength-1, kernelLength-1+blockSize, 0.0f );
+    convolve( dst, dptr );
+  }
+
+
+
+  // y[n] = sum_k h[k]*x[n-k] = sum_j reversed[j]*buffer[n+j], four outputs at a time;  the last kernelLength-1
+  // samples of the buffer are then retained for the next block.
+
+  private void convolve( float[] dst, int dptr ) {
+
+    float[] h = reversed;
+    float[] x = buffer;
+    int     K = kernelLength;
+
+    int n = 0;
+    for ( ;  n+3 < blockSize;  n += 4 ) {
+      float y0 = 0.0f;
+      float y1 = 0.0f;
+      float y2 = 0.0f;
+      float y3 = 0.0f;
+      float x0 = x[n];
+      float x1 = x[n+1];
+      float x2 = x[n+2];
+      for ( int j = 0;  j < K;  j++ ) {
+        float hj = h[j];
+        float x3 = x[n+j+3];
+        y0 += hj*x0;
+        y1 += hj*x1;
+        y2 += hj*x2;
+        y3 += hj*x3;
+        x0 = x1;
+        x1 = x2;
+        x2 = x3;
+      }
+      dst[dptr+n]   = y0;
+      dst[dptr+n+1] = y1;
+      dst[dptr+n+2] = y2;
+      dst[dptr+n+3] = y3;
+    }
+    for ( ;  n < blockSize;  n++ ) {
+      float y = 0.0f;
+      for ( int j = 0;  j < K;  j++ ) y += h[j]*x[n+j];
+      dst[dptr+n] = y;
+    }
+
+    System.arraycopy( x, blockSize, x, 0, K-1 );
+  }
+
+}
@@ -0,0 +1,183 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+
+
+/**
+ * Implements a finite impulse response (FIR) filter by direct-form convolution in the time domain.
+ *
+ * <p>For short kernels - half-band designs and small lowpass designs of a few tens of taps - a direct sum over the
+ * taps costs less per sample than the forward and inverse DFTs of OverlapAdd.  Like OverlapAdd, the filter works on
+ * uniform consecutive, contiguous blocks and keeps the last kernelLength-1 input samples from one block to the next,
+ * so streams of any length can be filtered;  flush() returns the results pending at the end of a stream.</p>
+ *
+ * <p>Each block is appended to the retained samples in an internal buffer, and the outputs are computed four at a
+ * time against the time-reversed kernel, so that each tap is loaded once for four outputs.  Filtering does not
+ * allocate, and the source and destination arrays may be the same.</p>
+ *
+ * <p>This is the double precision counterpart of DirectFormFIR.  It does not implement BlockConvolver, which is
+ * defined on float arrays, and there is no double precision counterpart of that interface:  the only other double
+ * precision convolver, OverlapAdd_dp, filters blocks that the caller has already transformed with an RDFTdp, so no
+ * other class could share it and no factory could choose between the two.</p>
+ */
+public class DirectFormFIR_dp {
+
+  private double[]  reversed;
+  private int       kernelLength;
+  private int       blockSize;
+
+  /** The last kernelLength-1 input samples, followed by the current block. */
+  private double[]  buffer;
+
+  /** Staging for the results of a block written to a DoubleBuffer. */
+  private double[]  segment;
+
+
+
+  /** Constructor for a DirectFormFIR_dp instance.
+   * @param H          double[] containing convolutional kernel
+   * @param blockSize  int specifying size of data blocks to be filtered
+   */
+  public DirectFormFIR_dp( double[] H, int blockSize ) {
+
+    if ( H.length < 1 ) throw new IllegalArgumentException( "Kernel must have at least one tap" );
+
+    kernelLength   = H.length;
+    this.blockSize = blockSize;
+
+    reversed = new double[ kernelLength ];
+    for ( int k = 0;  k < kernelLength;  k++ ) reversed[k] = H[ kernelLength-1-k ];
+
+    buffer  = new double[ kernelLength - 1 + blockSize ];
+    segment = new double[ blockSize ];
+  }
+
+
+
+  /**
+   * Clears the retained input samples, as at the start of a new stream.
+   */
+  public void initialize() {
+    Arrays.fill( buffer, 0.0 );
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data
+   * @param src    double[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    double[] containing increment of convolution result - array length must be at
+   *                  least dptr + blockSize
+   * @param dptr   Point within destination array where convolution result starts
+   */
+  public void filter( double[] src, int sptr, double[] dst, int dptr ) {
+
+    if ( src.length < sptr + blockSize )
+      throw new IllegalArgumentException( "Source array length less than sptr + blockSize" );
+
+    if ( dst.length < dptr + blockSize )
+        throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
+
+    System.arraycopy( src, sptr, buffer, kernelLength-1, blockSize );
+    convolve( dst, dptr );
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data held in a DoubleBuffer.
+   * blockSize samples are read from the position of src and blockSize results are written at the position of dst;
+   * both positions advance by blockSize.
+   * @param src    DoubleBuffer containing data block
+   * @param dst    DoubleBuffer receiving increment of convolution result
+   */
+  public void filter( DoubleBuffer src, DoubleBuffer dst ) {
+
+    if ( src.remaining() < blockSize ) throw new BufferUnderflowException();
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
+
+    src.get( buffer, kernelLength-1, blockSize );
+    convolve( segment, 0 );
+    dst.put( segment, 0, blockSize );
+  }
+
+
+
+  /** Flushes state information - i.e. left over convolution results when no further data blocks are available.
+   * Each call returns the next blockSize results, as though a block of zeros had been filtered.
+   * @param dst       double[] where convolution results are returned.  Length of dst must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  public void flush( double[] dst, int dptr ) {
+
+    Arrays.fill( buffer, kernelLength-1, kernelLength-1+blockSize, 0.0 );
+    convolve( dst, dptr );
+  }
+
+
+
+  // y[n] = sum_k h[k]*x[n-k] = sum_j reversed[j]*buffer[n+j], four outputs at a time;  the last kernelLength-1
+  // samples of the buffer are then retained for the next block.
+
+  private void convolve( double[] dst, int dptr ) {
+
+    double[] h = reversed;
+    double[] x = buffer;
+    int     K = kernelLength;
+
+    int n = 0;
+    for ( ;  n+3 < blockSize;  n += 4 ) {
+      double y0 = 0.0;
+      double y1 = 0.0;
+      double y2 = 0.0;
+      double y3 = 0.0;
+      double x0 = x[n];
+      double x1 = x[n+1];
+      double x2 = x[n+2];
+      for ( int j = 0;  j < K;  j++ ) {
+        double hj = h[j];
+        double x3 = x[n+j+3];
+        y0 += hj*x0;
+        y1 += hj*x1;
+        y2 += hj*x2;
+        y3 += hj*x3;
+        x0 = x1;
+        x1 = x2;
+        x2 = x3;
+      }
+      dst[dptr+n]   = y0;
+      dst[dptr+n+1] = y1;
+      dst[dptr+n+2] = y2;
+      dst[dptr+n+3] = y3;
+    }
+    for ( ;  n < blockSize;  n++ ) {
+      double y = 0.0;
+      for ( int j = 0;  j < K;  j++ ) y += h[j]*x[n+j];
+      dst[dptr+n] = y;
+    }
+
+    System.arraycopy( x, blockSize, x, 0, K-1 );
+  }
+
+}
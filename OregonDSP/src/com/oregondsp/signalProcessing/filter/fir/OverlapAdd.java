@@ -20,9 +20,10 @@
 package com.oregondsp.signalProcessing.filter.fir;
 
 
-import java.util.Arrays;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.FloatBuffer;
 
-import com.oregondsp.signalProcessing.Sequence;
 import com.oregondsp.signalProcessing.fft.RDFT;
 
 
@@ -55,13 +56,22 @@ import com.oregondsp.signalProcessing.fft.RDFT;
  * the end of the stream is reached, the remaining state information may be dumped using the flush() 
  * method. </p> 
  * 
+ * <p>Blocks held in FloatBuffers, such as direct buffers filled by an acquisition system or views of memory-mapped
+ * files, are filtered with filter( FloatBuffer, FloatBuffer ).  Each call advances the buffer positions by one block,
+ * so consecutive calls walk through a stream.  The block is staged through the segment array, one bulk transfer in
+ * and one out, by design:  the real DFT of the block and the overlap loops work on arrays, so the block would be
+ * copied for the forward transform even if the overlap loop read the buffer directly.  A bulk transfer between a
+ * direct buffer and an array runs at memory-copy speed, small beside the forward and inverse transforms, and the
+ * segment array is otherwise idle between blocks, so nothing is allocated per call.</p>
+ * 
  * <p>An example of the application of the OverlapAdd class is available in the Interpolator class.</p>
  * 
  *  @author David B. Harris,   Deschutes Signal Processing LLC
  */
-public class OverlapAdd {
+public class OverlapAdd implements BlockConvolver {
   
-  private float[]  shiftRegister;
+  private float[]  overlap;
+  private int      head;
   private RDFT     fft;
   private int      nfft;
   private float[]  kernel;
@@ -94,13 +104,13 @@ public class OverlapAdd {
     }
     fft  = new RDFT( log2nfft );
    
-    shiftRegister = new float[ nfft ];
+    overlap       = new float[ nfft ];
     kernel        = new float[ nfft ];
     segment       = new float[ nfft ];
     transform     = new float[ nfft ];
     
-    System.arraycopy( H, 0, segment, 0, H.length );
-    fft.evaluate( segment, kernel );
+    fft.evaluate( H, 0, H.length, kernel );
+    scaleKernel();
   }
   
   
@@ -114,19 +124,32 @@ public class OverlapAdd {
     if ( H.length != master.kernelLength ) 
       throw new IllegalArgumentException( "Slave kernel length inconsistent with master OverlapAdd kernel length" );
     
+    if ( H.length + master.blockSize - 1 > master.nfft )
+      throw new IllegalArgumentException( "DFT size less than kernel length + blockSize - 1" );
+    
     kernelLength = H.length;
     
     this.blockSize = master.blockSize;
     fft            = master.fft;
     nfft           = master.nfft;
     
-    shiftRegister  = new float[ nfft ];
+    overlap        = new float[ nfft ];
     kernel         = new float[ nfft ];
     segment        = new float[ nfft ];
     transform      = new float[ nfft ];
     
-    System.arraycopy( H, 0, segment, 0, H.length );
-    fft.evaluate( segment, kernel );
+    fft.evaluate( H, 0, H.length, kernel );
+    scaleKernel();
+  }
+  
+  
+  
+  // The 1/nfft normalization of the inverse DFT is folded into the kernel transform, so that filter()
+  // can use the unnormalized inverse and skip a multiply per output sample.
+
+  private void scaleKernel() {
+    float scale = 1.0f / nfft;
+    for ( int i = 0;  i < nfft;  i++ ) kernel[i] *= scale;
   }
   
   
@@ -147,30 +170,85 @@ public class OverlapAdd {
     if ( dst.length < dptr + blockSize )
         throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
     
-    // copy data
+    accumulate( src, sptr, dst, dptr );
+  }
+  
+  
+  
+  /** Filtering operation to produce an incremental convolution result from one block of data held in a FloatBuffer,
+   * for example a direct buffer filled by an acquisition system.  blockSize samples are read from the position of src
+   * and blockSize results are written at the position of dst;  both positions advance by blockSize.
+   * @param src    FloatBuffer containing data block
+   * @param dst    FloatBuffer receiving increment of convolution result
+   */
+  public void filter( FloatBuffer src, FloatBuffer dst ) {
+
+    if ( src.remaining() < blockSize ) throw new BufferUnderflowException();
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
     
-    Arrays.fill( segment, 0.0f );
-    System.arraycopy( src, sptr, segment, 0, blockSize );
+    // the block is staged in the segment array, which is free until the inverse transform
+    
+    src.get( segment, 0, blockSize );
+    accumulate( segment, 0, segment, 0 );
+    dst.put( segment, 0, blockSize );
+  }
+  
+  
+  
+  // Convolves one block with the kernel, completes blockSize results in dst and adds the remaining kernelLength-1
+  // samples of the convolution to the state.  The state is a circular accumulator of length nfft beginning at head;
+  // only the blockSize samples released and the kernelLength-1 samples of the tail are touched, rather than
+  // the whole segment being added and the state shifted down by blockSize.
+
+  private void accumulate( float[] src, int sptr, float[] dst, int dptr ) {
     
-    // circular convolution by dft
+    // circular convolution by dft - the block is transformed where it lies, and the input-pruned
+    // transform skips the butterflies on the zero padding
     
-    fft.evaluate( segment, transform );
+    fft.evaluate( src, sptr, blockSize, transform );
     RDFT.dftProduct( kernel, transform, 1.0f );
-    fft.evaluateInverse( transform, segment );
+    fft.evaluateInverseUnnormalized( transform, segment );
     
-    // overlap add
+    // the first blockSize samples complete the pending overlap and are released;  their slots are cleared for reuse
     
-    for ( int i = 0;  i < nfft;  i++ ) {
-      shiftRegister[i] += segment[i];
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]     = segment[i] + overlap[head+i];
+      overlap[head+i] = 0.0f;
     }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]          = segment[i] + overlap[head+i-nfft];
+      overlap[head+i-nfft] = 0.0f;
+    }
+    head = ( head + blockSize ) & ( nfft-1 );
     
-    // save incremental result
-    
-    System.arraycopy( shiftRegister, 0, dst, dptr, blockSize );
-    
-    // shift state information
+    // overlap add of the tail
     
-    Sequence.zeroShift( shiftRegister, -blockSize );
+    int tail = kernelLength - 1;
+    n1 = Math.min( tail, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      overlap[head+i] += segment[blockSize+i];
+    }
+    for ( int i = n1;  i < tail;  i++ ) {
+      overlap[head+i-nfft] += segment[blockSize+i];
+    }
+  }
+  
+  
+  
+  // Releases the next blockSize samples of the state into dst, clearing their slots.
+  
+  private void release( float[] dst, int dptr ) {
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]     = overlap[head+i];
+      overlap[head+i] = 0.0f;
+    }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]          = overlap[head+i-nfft];
+      overlap[head+i-nfft] = 0.0f;
+    }
+    head = ( head + blockSize ) & ( nfft-1 );
   }
   
   
@@ -181,13 +259,23 @@ public class OverlapAdd {
    */
   public void flush( float[] dst, int dptr ) {
     
-   // save incremental result
+    release( dst, dptr );
+    
+  }
+  
+  
+  
+  /** Flushes state information buffer into a FloatBuffer, whose position advances by blockSize
+   * @param dst       FloatBuffer receiving the convolution results.
+   */
+  public void flush( FloatBuffer dst ) {
     
-    System.arraycopy( shiftRegister, 0, dst, dptr, blockSize );
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
     
-    // shift state information
+    // the segment array is free between blocks and stages the results
     
-    Sequence.zeroShift( shiftRegister, -blockSize );
+    release( segment, 0 );
+    dst.put( segment, 0, blockSize );
     
   }
   
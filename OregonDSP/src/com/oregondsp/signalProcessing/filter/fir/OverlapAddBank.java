@@ -0,0 +1,323 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oregondsp.signalProcessing.fft.FFTWorkspace;
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTPlan;
+
+
+
+/**
+ * Implements a bank of finite impulse response (FIR) filters applied to the same data stream, using the overlap-add
+ * algorithm with one forward transform per block.
+ *
+ * <p>A set of OverlapAdd slave instances shares the DFT object of its master, but each instance transforms the
+ * input block again.  When many kernels - a bank of bandpass filters, for example - are applied to the same stream,
+ * this class transforms each block once and keeps the transforms of all the kernels.  For each kernel the block
+ * transform is multiplied by the kernel transform, inverted, and overlap-added into that kernel's output stream, so a
+ * block through K kernels costs one forward and K inverse DFTs, rather than K of each.</p>
+ *
+ * <p>The products and inverse transforms of the kernels are independent, and are divided among the worker threads
+ * of a ForkJoinPool.  Each worker thread keeps its own scratch arrays from one block to the next, so filtering does
+ * not allocate.  The kernels may have different lengths;  the DFT size is set by the longest.</p>
+ *
+ * <p>Blocks are filtered in uniform consecutive, contiguous blocks of blockSize samples with filter(), and the
+ * remaining results are obtained with flush(), as for OverlapAdd.  The bank keeps state from one block to the next
+ * and should not be used by more than one thread at a time.</p>
+ *
+ * <p> Example of use (a bank of bandpass kernels applied to one channel):</p>
+ * <p>
+ * <font face="courier">
+ *  OverlapAddBank bank = new OverlapAddBank( kernels, 1024 );<BR>
+ *  float[][] y = new float[ kernels.length ][ 1024 ];<BR>
+ *  <BR>
+ *  bank.filter( x, 0, y, 0 );<BR>
+ * </font>
+ * </p>
+ */
+public class OverlapAddBank {
+
+  /** Approximate number of points processed by one task before the kernel range is split no further. */
+  private static final int GRAIN = 1 << 15;
+
+  private RDFT       fft;
+  private RDFTPlan   plan;
+  private int        nfft;
+  private int        blockSize;
+  private float[][]  kernels;
+  private int[]      tails;
+
+  /** Circular accumulators of the output of each kernel, all beginning at head. */
+  private float[][]  overlap;
+  private int        head;
+
+  private float[]    transform;
+
+  private ForkJoinPool               pool;
+  private ThreadLocal< Scratch >     scratch;
+
+
+
+  /** Constructor for a bank that runs on the common ForkJoinPool.
+   * @param H          float[][] containing the convolutional kernels, H[kernel][tap]
+   * @param blockSize  int specifying size of data blocks to be filtered
+   */
+  public OverlapAddBank( float[][] H, int blockSize ) {
+    this( H, blockSize, ForkJoinPool.commonPool() );
+  }
+
+
+
+  /** Constructor for a bank that runs on a specified ForkJoinPool.
+   * @param H          float[][] containing the convolutional kernels, H[kernel][tap]
+   * @param blockSize  int specifying size of data blocks to be filtered
+   * @param pool       ForkJoinPool in which the kernel products and inverse transforms are run
+   */
+  public OverlapAddBank( float[][] H, int blockSize, ForkJoinPool pool ) {
+
+    if ( H.length < 1 ) throw new IllegalArgumentException( "Bank must have at least one kernel" );
+
+    this.blockSize = blockSize;
+    this.pool      = pool;
+
+    // compute fft size from the longest kernel
+
+    int maxLength = 0;
+    for ( float[] h : H ) {
+      if ( h.length < 1 ) throw new IllegalArgumentException( "Kernels must have at least one tap" );
+      maxLength = Math.max( maxLength, h.length );
+    }
+
+    int clength = maxLength + blockSize - 1;
+    int log2nfft = 0;
+    nfft = 1;
+    while ( nfft < clength ) {
+      log2nfft++;
+      nfft *= 2;
+    }
+    fft  = new RDFT( log2nfft );
+    plan = fft.getPlan();
+
+    // kernel transforms carry the 1/nfft normalization of the inverse DFT, as in OverlapAdd
+
+    kernels = new float[ H.length ][ nfft ];
+    tails   = new int[ H.length ];
+    overlap = new float[ H.length ][ nfft ];
+    float scale = 1.0f / nfft;
+    for ( int k = 0;  k < H.length;  k++ ) {
+      fft.evaluate( H[k], 0, H[k].length, kernels[k] );
+      for ( int i = 0;  i < nfft;  i++ ) kernels[k][i] *= scale;
+      tails[k] = H[k].length - 1;
+    }
+
+    transform = new float[ nfft ];
+    scratch   = new ThreadLocal< Scratch >() {
+      @Override
+      protected Scratch initialValue() {
+        return new Scratch( nfft );
+      }
+    };
+  }
+
+
+
+  /**
+   * Accessor for the number of kernels.
+   * @return   int containing the number of kernels, and of output streams
+   */
+  public int getNumberOfKernels() {
+    return kernels.length;
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data for every kernel
+   * @param src    float[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    float[][] containing increments of convolution results, dst[kernel][sample] - each array length
+   *                  must be at least dptr + blockSize
+   * @param dptr   Point within destination arrays where convolution results start
+   */
+  public void filter( float[] src, int sptr, float[][] dst, int dptr ) {
+
+    if ( src.length < sptr + blockSize )
+      throw new IllegalArgumentException( "Source array length less than sptr + blockSize" );
+
+    checkDestination( dst, dptr );
+
+    // the block is transformed once, where it lies, for all kernels
+
+    fft.evaluate( src, sptr, blockSize, transform );
+
+    run( new Task( dst, dptr, 0, kernels.length ) );
+    head = ( head + blockSize ) & ( nfft-1 );
+  }
+
+
+
+  /** Flushes state information buffers - i.e. left over convolution results when no further data blocks are
+   * available
+   * @param dst       float[][] where convolution results are returned, dst[kernel][sample].  Length of each array
+   *                  must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  public void flush( float[][] dst, int dptr ) {
+
+    checkDestination( dst, dptr );
+
+    for ( int k = 0;  k < kernels.length;  k++ ) release( k, dst[k], dptr );
+    head = ( head + blockSize ) & ( nfft-1 );
+  }
+
+
+
+  private void checkDestination( float[][] dst, int dptr ) {
+
+    if ( dst.length < kernels.length )
+      throw new IllegalArgumentException( "Destination array has fewer channels than the bank has kernels" );
+
+    for ( int k = 0;  k < kernels.length;  k++ ) {
+      if ( dst[k].length < dptr + blockSize )
+        throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
+    }
+  }
+
+
+
+  private void run( Task task ) {
+    if ( task.to - task.from <= 1  ||  pool.getParallelism() == 1 )
+      task.compute();
+    else
+      pool.invoke( task );
+  }
+
+
+
+  // Convolves the transformed block with kernel k, completes blockSize results in dst and adds the remaining samples
+  // of the convolution to the circular accumulator of the kernel, as OverlapAdd does.  head is advanced by the
+  // caller once all kernels are done.
+
+  private void accumulate( int k, float[] dst, int dptr, Scratch s ) {
+
+    System.arraycopy( transform, 0, s.spectrum, 0, nfft );
+    RDFT.dftProduct( kernels[k], s.spectrum, 1.0f );
+    plan.evaluateInverseUnnormalized( s.spectrum, s.segment, s.workspace );
+
+    float[] segment = s.segment;
+    float[] state   = overlap[k];
+
+    // the first blockSize samples complete the pending overlap and are released;  their slots are cleared for reuse
+
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]   = segment[i] + state[head+i];
+      state[head+i] = 0.0f;
+    }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]        = segment[i] + state[head+i-nfft];
+      state[head+i-nfft] = 0.0f;
+    }
+
+    // overlap add of the tail
+
+    int next = ( head + blockSize ) & ( nfft-1 );
+    int tail = tails[k];
+    n1 = Math.min( tail, nfft - next );
+    for ( int i = 0;  i < n1;  i++ ) {
+      state[next+i] += segment[blockSize+i];
+    }
+    for ( int i = n1;  i < tail;  i++ ) {
+      state[next+i-nfft] += segment[blockSize+i];
+    }
+  }
+
+
+
+  // Releases the next blockSize samples of the state of kernel k into dst, clearing their slots.
+
+  private void release( int k, float[] dst, int dptr ) {
+
+    float[] state = overlap[k];
+
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]   = state[head+i];
+      state[head+i] = 0.0f;
+    }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]        = state[head+i-nfft];
+      state[head+i-nfft] = 0.0f;
+    }
+  }
+
+
+
+  /** Scratch arrays for the products and inverse transforms of one thread. */
+  private static class Scratch {
+
+    final float[]      spectrum;
+    final float[]      segment;
+    final FFTWorkspace workspace;
+
+    Scratch( int nfft ) {
+      spectrum  = new float[ nfft ];
+      segment   = new float[ nfft ];
+      workspace = new FFTWorkspace();
+    }
+  }
+
+
+
+  // Processes kernels [from, to), splitting the range in halves until each task covers roughly GRAIN points.
+
+  private class Task extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final float[][] dst;
+    private final int       dptr;
+    private final int       from, to;
+
+    Task( float[][] dst, int dptr, int from, int to ) {
+      this.dst   = dst;
+      this.dptr  = dptr;
+      this.from  = from;
+      this.to    = to;
+    }
+
+    @Override
+    protected void compute() {
+
+      if ( to - from > 1  &&  (long) ( to - from ) * nfft > GRAIN ) {
+        int mid = ( from + to ) >>> 1;
+        invokeAll( new Task( dst, dptr, from, mid ),
+                   new Task( dst, dptr, mid,  to  ) );
+        return;
+      }
+
+      Scratch s = scratch.get();
+      for ( int k = from;  k < to;  k++ ) accumulate( k, dst[k], dptr, s );
+    }
+  }
+
+}
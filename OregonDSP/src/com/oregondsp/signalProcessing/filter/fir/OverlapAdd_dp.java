@@ -19,14 +19,17 @@ package com.oregondsp.signalProcessing.filter.fir;
 //You should have received a copy of the GNU Lesser General Public License
 //along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
 
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 
-import com.oregondsp.signalProcessing.Sequence;
 import com.oregondsp.signalProcessing.fft.RDFTdp;
 
 public class OverlapAdd_dp {
   
-  private double[]  shiftRegister;
+  private double[]  overlap;
+  private int       head;
+  private int       tail;
   private RDFTdp    fft;
   private int       nfft;
   private double[]  hxfm;
@@ -41,25 +44,34 @@ public class OverlapAdd_dp {
   /** Constructor for OverlapAdd_dp instance.
    * @param h          double[] containing convolutional kernel
    * @param blockSize  int specifying size of data blocks to be filtered
+   * @param fft        RDFTdp instance used for the transforms - its size must be at least h.length + blockSize - 1
    */
   public OverlapAdd_dp( double[] h, int blockSize, RDFTdp fft  ) {
     
+    if ( h.length + blockSize - 1 > fft.getFFTSize() )
+      throw new IllegalArgumentException( "DFT size less than kernel length + blockSize - 1" );
+    
     this.blockSize = blockSize;
     this.fft       = fft;
     nfft           = fft.getFFTSize();
    
-    shiftRegister = new double[ nfft ];
+    overlap       = new double[ nfft ];
     hxfm          = new double[ nfft ];
     segment       = new double[ nfft ];
     tmp           = new double[ nfft ];
     
     kernelLength  = h.length;
+    tail          = kernelLength - 1;
+    
+    fft.evaluate( h, 0, kernelLength, hxfm );
+    
+    // The 1/nfft normalization of the inverse DFT is folded into the kernel transform, so that filter()
+    // can use the unnormalized inverse and skip a multiply per output sample.
     
-    System.arraycopy( h, 0, tmp, 0, kernelLength );
-    fft.evaluate( tmp, hxfm );
+    double scale = 1.0 / nfft;
+    for ( int i = 0;  i < nfft;  i++ ) hxfm[i] *= scale;
     
   }
-
   
   
   /** Filtering operation to produce an incremental convolution result from one block of data
@@ -70,26 +82,78 @@ public class OverlapAdd_dp {
    */
   public void filter( double[] transform, double[] dst, int dptr ) {
     
+    accumulate( transform, dst, dptr );
+  }
+  
+  
+  
+  /** Filtering operation to produce an incremental convolution result from one block of data, written to a 
+   * DoubleBuffer, for example a direct buffer read by a downstream consumer.  The position of dst advances by blockSize.
+   * @param transform double[] array containing transform of data block
+   * @param dst       DoubleBuffer receiving increment of convolution result
+   */
+  public void filter( double[] transform, DoubleBuffer dst ) {
+    
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
+    
+    accumulate( transform, segment, 0 );
+    dst.put( segment, 0, blockSize );
+  }
+  
+  
+  
+  // Convolves one transformed block with the kernel, completes blockSize results in dst and adds the tail of the
+  // convolution to the state, a circular accumulator of length nfft beginning at head.  Only the released and
+  // tail samples are touched.
+  
+  private void accumulate( double[] transform, double[] dst, int dptr ) {
+    
     System.arraycopy( transform, 0, tmp, 0, transform.length );
     
     // product of kernel transform and data transform
 
     RDFTdp.dftProduct( hxfm, tmp, 1.0f );
-    fft.evaluateInverse( tmp, segment );
+    fft.evaluateInverseUnnormalized( tmp, segment );
     
-    // overlap add
+    // the first blockSize samples complete the pending overlap and are released;  their slots are cleared for reuse
     
-    for ( int i = 0;  i < nfft;  i++ ) {
-      shiftRegister[i] += segment[i];
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]     = segment[i] + overlap[head+i];
+      overlap[head+i] = 0.0;
     }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]          = segment[i] + overlap[head+i-nfft];
+      overlap[head+i-nfft] = 0.0;
+    }
+    head = ( head + blockSize ) & ( nfft-1 );
     
-    // save incremental result
-    
-    System.arraycopy( shiftRegister, 0, dst, dptr, blockSize );
-    
-    // shift state information
+    // overlap add of the tail
     
-    Sequence.zeroShift( shiftRegister, -blockSize );
+    n1 = Math.min( tail, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      overlap[head+i] += segment[blockSize+i];
+    }
+    for ( int i = n1;  i < tail;  i++ ) {
+      overlap[head+i-nfft] += segment[blockSize+i];
+    }
+  }
+  
+  
+  
+  // Releases the next blockSize samples of the state into dst, clearing their slots.
+  
+  private void release( double[] dst, int dptr ) {
+    int n1 = Math.min( blockSize, nfft - head );
+    for ( int i = 0;  i < n1;  i++ ) {
+      dst[dptr+i]     = overlap[head+i];
+      overlap[head+i] = 0.0;
+    }
+    for ( int i = n1;  i < blockSize;  i++ ) {
+      dst[dptr+i]          = overlap[head+i-nfft];
+      overlap[head+i-nfft] = 0.0;
+    }
+    head = ( head + blockSize ) & ( nfft-1 );
   }
   
   
@@ -98,7 +162,8 @@ public class OverlapAdd_dp {
    * 
    */
   public void initialize() {
-    Arrays.fill( shiftRegister, 0.0f );
+    Arrays.fill( overlap, 0.0 );
+    head = 0;
   }
   
   
@@ -109,13 +174,23 @@ public class OverlapAdd_dp {
    */
   public void flush( double[] dst, int dptr ) {
     
-   // save incremental result
+    release( dst, dptr );
+    
+  }
+  
+  
+  
+  /** Flushes state information buffer into a DoubleBuffer, whose position advances by blockSize
+   * @param dst       DoubleBuffer receiving the convolution results.
+   */
+  public void flush( DoubleBuffer dst ) {
     
-    System.arraycopy( shiftRegister, 0, dst, dptr, blockSize );
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
     
-    // shift state information
+    // the segment array is free between blocks and stages the results
     
-    Sequence.zeroShift( shiftRegister, -blockSize );
+    release( segment, 0 );
+    dst.put( segment, 0, blockSize );
     
   }
   
@@ -0,0 +1,250 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.FloatBuffer;
+
+import com.oregondsp.signalProcessing.fft.RDFT;
+
+
+
+/**
+ * Implements a finite impulse response (FIR) filter using the overlap-save algorithm.
+ * 
+ * <p>OverlapSave is an alternative to OverlapAdd with the same interface:  data are filtered in uniform consecutive,
+ * contiguous blocks with filter(), the remaining results are obtained with flush(), and "slave" instances may share
+ * the DFT of a "master" instance with the same kernel length.  The two classes produce the same output.</p>
+ * 
+ * <p>The overlap-add algorithm transforms each block alone and adds the kernelLength-1 samples by which its
+ * convolution overhangs the block into an accumulator.  The overlap-save algorithm instead keeps the input history:
+ * the last nfft input samples are held in a circular buffer, and the circular convolution of that buffer with the
+ * kernel is computed with a forward and inverse DFT.  Outputs that depend on samples wrapped from the other end of the
+ * buffer are discarded;  the last blockSize outputs, which see at least kernelLength-1 samples of history, are the
+ * linear convolution.  There is no accumulator.  Because circular convolution commutes with circular shifts, the
+ * buffer is never shifted:  each block is written over the oldest samples, and the outputs are read from the same
+ * positions.  The cost of this is that the forward DFT is of the full buffer, where OverlapAdd transforms a block that
+ * is zero beyond its first blockSize samples.  Which of the two is faster depends on the kernel length and block size;
+ * BlockFilterBenchmarks in the benchmarks module times both.</p>
+ * 
+ * <p>Blocks held in FloatBuffers are filtered with filter( FloatBuffer, FloatBuffer ), which advances the buffer 
+ * positions by one block.</p>
+ * 
+ * <p>See Oppenheim, A. V. and Schafer, R. W., Digital Signal Processing, 1975.</p>
+ */
+public class OverlapSave implements BlockConvolver {
+  
+  private float[]  history;
+  private int      head;
+  private RDFT     fft;
+  private int      nfft;
+  private float[]  kernel;
+  private int      kernelLength;
+  private int      blockSize;
+  
+  private float[]  segment;
+  private float[]  transform;
+  
+
+
+  /** Constructor for master OverlapSave instance - this one has the fft instances.
+   * @param H          float[] containing convolutional kernel
+   * @param blockSize  int specifying size of data blocks to be filtered
+   */
+  public OverlapSave( float[] H, int blockSize ) {
+    
+    kernelLength = H.length;
+    
+    this.blockSize = blockSize;
+    
+    // compute fft size
+    
+    int clength = H.length + blockSize - 1;
+    int log2nfft = 0;
+    nfft = 1;
+    while ( nfft < clength ) {
+      log2nfft++;
+      nfft *= 2;
+    }
+    fft  = new RDFT( log2nfft );
+   
+    history   = new float[ nfft ];
+    kernel    = new float[ nfft ];
+    segment   = new float[ nfft ];
+    transform = new float[ nfft ];
+    
+    fft.evaluate( H, 0, H.length, kernel );
+    scaleKernel();
+  }
+  
+  
+  
+  /** Constructor for slave OverlapSave instance - this one uses the fft instance contained in the master
+   * @param H          Float array containing kernel
+   * @param master     Master OverlapSave instance - slave obtains fft instances from the master
+   */
+  public OverlapSave( float[] H, OverlapSave master ) {
+    
+    if ( H.length != master.kernelLength ) 
+      throw new IllegalArgumentException( "Slave kernel length inconsistent with master OverlapSave kernel length" );
+    
+    kernelLength = H.length;
+    
+    this.blockSize = master.blockSize;
+    fft            = master.fft;
+    nfft           = master.nfft;
+    
+    history        = new float[ nfft ];
+    kernel         = new float[ nfft ];
+    segment        = new float[ nfft ];
+    transform      = new float[ nfft ];
+    
+    fft.evaluate( H, 0, H.length, kernel );
+    scaleKernel();
+  }
+  
+  
+  
+  // The 1/nfft normalization of the inverse DFT is folded into the kernel transform.
+
+  private void scaleKernel() {
+    float scale = 1.0f / nfft;
+    for ( int i = 0;  i < nfft;  i++ ) kernel[i] *= scale;
+  }
+  
+  
+  
+  /** Filtering operation to produce an incremental convolution result from one block of data
+   * @param src    float[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    float[] containing increment of convolution result - array length must be at
+   *                  least dptr + blockSize
+   * @param dptr   Point within destination array where convolution result starts
+   */
+  public void filter( float[] src, int sptr, float[] dst, int dptr ) {
+
+    if ( src.length < sptr + blockSize )
+      throw new IllegalArgumentException( "Source array length less than sptr + blockSize" );
+
+    if ( dst.length < dptr + blockSize )
+        throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
+    
+    // the block replaces the oldest samples in the history
+    
+    int n1 = Math.min( blockSize, nfft - head );
+    System.arraycopy( src, sptr,    history, head, n1 );
+    System.arraycopy( src, sptr+n1, history, 0,    blockSize-n1 );
+    
+    convolve();
+    
+    System.arraycopy( segment, head, dst, dptr,    n1 );
+    System.arraycopy( segment, 0,    dst, dptr+n1, blockSize-n1 );
+    
+    head = ( head + blockSize ) & ( nfft-1 );
+  }
+  
+  
+  
+  /** Filtering operation to produce an incremental convolution result from one block of data held in a FloatBuffer.
+   * blockSize samples are read from the position of src and blockSize results are written at the position of dst;  
+   * both positions advance by blockSize.
+   * @param src    FloatBuffer containing data block
+   * @param dst    FloatBuffer receiving increment of convolution result
+   */
+  public void filter( FloatBuffer src, FloatBuffer dst ) {
+
+    if ( src.remaining() < blockSize ) throw new BufferUnderflowException();
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
+    
+    int n1 = Math.min( blockSize, nfft - head );
+    src.get( history, head, n1 );
+    src.get( history, 0,    blockSize-n1 );
+    
+    convolve();
+    
+    dst.put( segment, head, n1 );
+    dst.put( segment, 0,    blockSize-n1 );
+    
+    head = ( head + blockSize ) & ( nfft-1 );
+  }
+  
+  
+  
+  // Circular convolution of the history with the kernel, by dft.  The blockSize outputs at the positions of the newest
+  // block are the linear convolution;  the others are wrapped and are not used.
+
+  private void convolve() {
+    fft.evaluate( history, transform );
+    RDFT.dftProduct( kernel, transform, 1.0f );
+    fft.evaluateInverseUnnormalized( transform, segment );
+  }
+  
+  
+  
+  /** Flushes state information - i.e. left over convolution results when no further data blocks are available.
+   * Each call returns the next blockSize results, as though a block of zeros had been filtered.
+   * @param dst       float[] where convolution results are returned.  Length of dst must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  public void flush( float[] dst, int dptr ) {
+    
+    int n1 = Math.min( blockSize, nfft - head );
+    zero( n1 );
+    
+    convolve();
+    
+    System.arraycopy( segment, head, dst, dptr,    n1 );
+    System.arraycopy( segment, 0,    dst, dptr+n1, blockSize-n1 );
+    
+    head = ( head + blockSize ) & ( nfft-1 );
+    
+  }
+  
+  
+  
+  /** Flushes state information into a FloatBuffer, whose position advances by blockSize
+   * @param dst       FloatBuffer receiving the convolution results.
+   */
+  public void flush( FloatBuffer dst ) {
+    
+    if ( dst.remaining() < blockSize ) throw new BufferOverflowException();
+    
+    int n1 = Math.min( blockSize, nfft - head );
+    zero( n1 );
+    
+    convolve();
+    
+    dst.put( segment, head, n1 );
+    dst.put( segment, 0,    blockSize-n1 );
+    
+    head = ( head + blockSize ) & ( nfft-1 );
+    
+  }
+  
+  
+  
+  // a block of zeros replaces the oldest samples in the history
+  
+  private void zero( int n1 ) {
+    for ( int i = 0;  i < n1;  i++ ) history[head+i] = 0.0f;
+    for ( int i = 0;  i < blockSize-n1;  i++ ) history[i] = 0.0f;
+  }
+  
+}
@@ -0,0 +1,313 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+
+package com.oregondsp.signalProcessing.filter.fir;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oregondsp.signalProcessing.fft.RDFT;
+
+
+
+/**
+ * Implements a finite impulse response (FIR) filter with a long kernel using partitioned frequency-domain convolution.
+ *
+ * <p>OverlapAdd and OverlapSave transform the whole kernel at once, so the DFT must be longer than the kernel and
+ * the block size together:  a kernel of tens of thousands of taps forces either a very long DFT for every small
+ * block, or a block - and a latency - comparable to the kernel.  This class splits the kernel into partitions of
+ * blockSize taps.  Each partition is transformed once, with a DFT of length 2*blockSize.  Each block of data is
+ * transformed once as well, together with the block before it, and the spectrum is kept in a frequency-domain delay
+ * line of the spectra of past blocks.  The output spectrum is the sum of the products of the partition spectra with
+ * the correspondingly delayed input spectra, and a single inverse DFT gives the output block by overlap-save.  The
+ * latency is one block, and the cost per block is one forward and one inverse DFT of length 2*blockSize plus one
+ * complex multiply-accumulate per partition and bin.</p>
+ *
+ * <p>With very long kernels the multiply-accumulates dominate.  The optional non-uniform partitioning keeps the first
+ * partitions at blockSize and lets later ones grow by factors of four, three partitions per size, up to a specified
+ * maximum:  a partition of size P starting at least P - blockSize taps into the kernel has its result in time even
+ * though it is only computed once every P samples.  Fewer, larger partitions reduce the multiply-accumulate work
+ * in proportion.  The larger partitions are evaluated in the call that completes their block, so the time per call
+ * varies from block to block while the average falls.</p>
+ *
+ * <p>Data are filtered in uniform consecutive, contiguous blocks of blockSize samples with filter(), and the remaining
+ * results are obtained with flush(), as for OverlapAdd.</p>
+ *
+ * <p>See "Efficient Convolution without Input-Output Delay", Gardner, W. G., JOURNAL OF THE AUDIO ENGINEERING
+ * SOCIETY, VOL. 43, NO. 3, 1995, pp. 127-136.</p>
+ */
+public class PartitionedConvolver implements BlockConvolver {
+
+  private int      blockSize;
+  private int      kernelLength;
+  private Stage[]  stages;
+
+  /** Circular accumulator of the output, beginning at the time of the current block. */
+  private float[]  output;
+  private int      head;
+
+
+
+  /** Constructor for a uniformly partitioned convolver.
+   * @param H          float[] containing convolutional kernel
+   * @param blockSize  int specifying size of data blocks to be filtered and of the partitions - a power of two >= 8
+   */
+  public PartitionedConvolver( float[] H, int blockSize ) {
+    this( H, blockSize, blockSize );
+  }
+
+
+
+  /** Constructor for a non-uniformly partitioned convolver.
+   * @param H                 float[] containing convolutional kernel
+   * @param blockSize         int specifying size of data blocks to be filtered and of the first partitions - a power
+   *                          of two >= 8
+   * @param maxPartitionSize  int specifying the largest partition size.  Partitions grow from blockSize by factors of
+   *                          four while they do not exceed this size;  maxPartitionSize = blockSize gives uniform
+   *                          partitions.
+   */
+  public PartitionedConvolver( float[] H, int blockSize, int maxPartitionSize ) {
+
+    if ( blockSize < 8  ||  ( blockSize & (blockSize-1) ) != 0 )
+      throw new IllegalArgumentException( "Block size must be a power of two >= 8" );
+    if ( maxPartitionSize < blockSize )
+      throw new IllegalArgumentException( "Maximum partition size must be >= block size" );
+    if ( H.length < 1 )
+      throw new IllegalArgumentException( "Kernel must have at least one tap" );
+
+    this.blockSize = blockSize;
+    kernelLength   = H.length;
+
+    // partition sizes grow by four, three partitions per size, until the next size would exceed the maximum;
+    // the offset of the partitions of size P is then P - blockSize
+
+    List< Stage > list = new ArrayList< Stage >();
+    int offset = 0;
+    int size   = blockSize;
+    while ( offset < kernelLength ) {
+      int remaining = ( kernelLength - offset + size - 1 ) / size;
+      boolean grow  = size <= maxPartitionSize / 4;
+      int count     = grow  ?  Math.min( 3, remaining )  :  remaining;
+      list.add( new Stage( H, offset, size, count ) );
+      offset += count*size;
+      if ( grow ) size *= 4;
+    }
+    stages = list.toArray( new Stage[ list.size() ] );
+
+    // the output of the last stage reaches blockSize + its offset beyond the current block
+
+    Stage last = stages[ stages.length-1 ];
+    int n = 1;
+    while ( n < blockSize + last.offset + last.size ) n *= 2;
+    output = new float[ n ];
+  }
+
+
+
+  /**
+   * Accessor for the number of partitions.
+   * @return   int containing the number of kernel partitions, of all sizes
+   */
+  public int getNumberOfPartitions() {
+    int n = 0;
+    for ( Stage stage : stages ) n += stage.count;
+    return n;
+  }
+
+
+
+  /** Filtering operation to produce an incremental convolution result from one block of data
+   * @param src    float[] array containing data block
+   * @param sptr   int specifying point within data array to begin block (usually 0).
+   *               Array length must be at least sptr + blocksize.
+   * @param dst    float[] containing increment of convolution result - array length must be at
+   *                  least dptr + blockSize
+   * @param dptr   Point within destination array where convolution result starts
+   */
+  public void filter( float[] src, int sptr, float[] dst, int dptr ) {
+
+    if ( src.length < sptr + blockSize )
+      throw new IllegalArgumentException( "Source array length less than sptr + blockSize" );
+
+    if ( dst.length < dptr + blockSize )
+        throw new IllegalArgumentException( "Destination array length less than dptr + blockSize" );
+
+    for ( Stage stage : stages ) {
+      if ( stage.put( src, sptr, blockSize ) ) accumulate( stage );
+    }
+
+    release( dst, dptr );
+  }
+
+
+
+  /** Flushes state information - i.e. left over convolution results when no further data blocks are available.
+   * Each call returns the next blockSize results, as though a block of zeros had been filtered.
+   * @param dst       float[] where convolution results are returned.  Length of dst must be >= dptr + blockSize.
+   * @param dptr      int specifying point in dst where convolution results begin.
+   */
+  public void flush( float[] dst, int dptr ) {
+
+    for ( Stage stage : stages ) {
+      if ( stage.put( null, 0, blockSize ) ) accumulate( stage );
+    }
+
+    release( dst, dptr );
+  }
+
+
+
+  // A stage completing its block at the end of the current block, time t, has the outputs for times
+  // t - size + offset  to  t + offset, which begin at least at the current block since offset >= size - blockSize.
+
+  private void accumulate( Stage stage ) {
+
+    float[] y    = stage.segment;
+    int     mask = output.length - 1;
+    int     j    = head + blockSize - stage.size + stage.offset;
+
+    for ( int i = 0;  i < stage.size;  i++ ) {
+      output[ (j+i) & mask ] += y[ stage.size + i ];
+    }
+  }
+
+
+
+  // Releases the current block of the output accumulator into dst, clearing its slots.
+
+  private void release( float[] dst, int dptr ) {
+
+    int mask = output.length - 1;
+    for ( int i = 0;  i < blockSize;  i++ ) {
+      int j = ( head + i ) & mask;
+      dst[dptr+i] = output[j];
+      output[j]   = 0.0f;
+    }
+    head = ( head + blockSize ) & mask;
+  }
+
+
+
+  /**
+   * Uniformly partitioned overlap-save convolution of the input with count partitions of size taps of the kernel,
+   * beginning at tap offset.
+   */
+  private static class Stage {
+
+    int        offset;
+    int        size;
+    int        count;
+
+    RDFT       fft;
+
+    /** Partition spectra, scaled by 1/(2*size). */
+    float[][]  partitions;
+
+    /** Frequency-domain delay line:  spectra of the most recent count input windows, newest at slot. */
+    float[][]  delayLine;
+    int        slot;
+
+    /** The last 2*size input samples, with fill samples of the newest block received. */
+    float[]    input;
+    int        fill;
+
+    float[]    spectrum;
+    float[]    segment;
+
+
+    Stage( float[] H, int offset, int size, int count ) {
+
+      this.offset = offset;
+      this.size   = size;
+      this.count  = count;
+
+      int nfft = 2*size;
+      fft      = new RDFT( Integer.numberOfTrailingZeros( nfft ) );
+
+      partitions = new float[ count ][ nfft ];
+      delayLine  = new float[ count ][ nfft ];
+      input      = new float[ nfft ];
+      spectrum   = new float[ nfft ];
+      segment    = new float[ nfft ];
+
+      float scale = 1.0f / nfft;
+      for ( int p = 0;  p < count;  p++ ) {
+        int start = offset + p*size;
+        int n     = Math.min( size, H.length - start );
+        fft.evaluate( H, start, n, partitions[p] );
+        for ( int i = 0;  i < nfft;  i++ ) partitions[p][i] *= scale;
+      }
+    }
+
+
+    // Appends n samples (zeros if src is null);  returns true and computes the output segment when a block is complete.
+    // The stage sizes are multiples of the block size, so a call never straddles the end of a stage block.
+
+    boolean put( float[] src, int sptr, int n ) {
+
+      if ( src == null )
+        for ( int i = 0;  i < n;  i++ ) input[size+fill+i] = 0.0f;
+      else
+        System.arraycopy( src, sptr, input, size+fill, n );
+      fill += n;
+      if ( fill < size ) return false;
+
+      slot = ( slot + 1 ) % count;
+      fft.evaluate( input, delayLine[slot] );
+
+      multiplyAccumulate();
+      fft.evaluateInverseUnnormalized( spectrum, segment );
+
+      System.arraycopy( input, size, input, 0, size );
+      fill = 0;
+      return true;
+    }
+
+
+    // spectrum = sum_p partitions[p] * delayLine[slot-p], in conjugate symmetric packed form
+
+    private void multiplyAccumulate() {
+
+      int nfft = 2*size;
+      int half = size;
+
+      float[] Y = spectrum;
+      for ( int p = 0;  p < count;  p++ ) {
+        float[] H = partitions[p];
+        float[] X = delayLine[ ( slot - p + count ) % count ];
+        if ( p == 0 ) {
+          Y[0]    = H[0]*X[0];
+          Y[half] = H[half]*X[half];
+          for ( int k = 1;  k < half;  k++ ) {
+            Y[k]      = H[k]*X[k]      - H[nfft-k]*X[nfft-k];
+            Y[nfft-k] = H[k]*X[nfft-k] + H[nfft-k]*X[k];
+          }
+        }
+        else {
+          Y[0]    += H[0]*X[0];
+          Y[half] += H[half]*X[half];
+          for ( int k = 1;  k < half;  k++ ) {
+            Y[k]      += H[k]*X[k]      - H[nfft-k]*X[nfft-k];
+            Y[nfft-k] += H[k]*X[nfft-k] + H[nfft-k]*X[k];
+          }
+        }
+      }
+    }
+
+  }
+
+}
@@ -23,6 +23,8 @@ import java.util.Arrays;
 import java.util.Random;
 
 import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.filter.fir.BlockConvolver;
+import com.oregondsp.signalProcessing.filter.fir.DirectFormFIR;
 import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
 
 
@@ -241,6 +243,20 @@ abstract class EquirippleFIRFilter {
   
   
   
+  /**
+   * Method to provide the fastest streaming implementation of the filter for a block size:  a DirectFormFIR instance
+   * for short designs, such as half-band filters, or an OverlapAdd or PartitionedConvolver instance for longer ones,
+   * as predicted by the cost model of DirectFormFIR.getBlockConvolver().
+   *
+   * @param blockSize the block size
+   * @return the implementation
+   */
+  public    BlockConvolver getBlockConvolver( int blockSize ) {
+    return DirectFormFIR.getBlockConvolver( getCoefficients(), blockSize );
+  }
+  
+  
+  
   /**
    * Method to filter a fixed-length sequence with this filter.
    *
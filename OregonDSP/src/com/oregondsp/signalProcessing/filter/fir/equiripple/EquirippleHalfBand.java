@@ -18,6 +18,9 @@
 
 package com.oregondsp.signalProcessing.filter.fir.equiripple;
 
+import com.oregondsp.signalProcessing.filter.fir.BlockConvolver;
+import com.oregondsp.signalProcessing.filter.fir.DirectFormFIR;
+
 
 /**
  * Designs a half-band FIR equiripple filter using the "half-band trick" and the Remez algorithm.
@@ -74,4 +77,18 @@ public class EquirippleHalfBand {
     return coefficients.clone();
   }
   
+  
+  
+  /**
+   * Method to provide the fastest streaming implementation of the filter for a block size:  usually a DirectFormFIR
+   * instance, since half-band designs are short, or an OverlapAdd or PartitionedConvolver instance, as predicted by
+   * the cost model of DirectFormFIR.getBlockConvolver().
+   *
+   * @param blockSize the block size
+   * @return the implementation
+   */
+  public BlockConvolver getBlockConvolver( int blockSize ) {
+    return DirectFormFIR.getBlockConvolver( getCoefficients(), blockSize );
+  }
+  
 }
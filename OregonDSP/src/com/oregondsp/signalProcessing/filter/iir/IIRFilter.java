@@ -20,6 +20,8 @@
 package com.oregondsp.signalProcessing.filter.iir;
 
 import java.io.PrintStream;
+import java.nio.BufferOverflowException;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -34,6 +36,12 @@ import com.oregondsp.signalProcessing.filter.Rational;
  * from one invocation of the filter methods to the next allowing continuous processing of real time
  * data streams or very large files in consecutive, contiguous blocks.
  * 
+ * Samples held in FloatBuffers, such as direct buffers or views of memory-mapped files, are filtered by moving them
+ * through a 1024-sample staging array with bulk transfers.  The staging is by design:  the sections run their
+ * recursions over arrays, and a block that stays in the first-level cache lets every section run over it, where
+ * reading the buffer directly would make each section a separate pass over off-heap memory.  A bulk transfer between
+ * a direct buffer and an array runs at memory-copy speed, and the staging array is allocated once per filter.
+ * 
  * @author David B. Harris, Deschutes Signal Processing LLC
  */
 public class IIRFilter {
@@ -44,6 +52,12 @@ public class IIRFilter {
   /** Rational object containing the transfer function of the filter. */
   protected Rational                        T;
   
+  /** Block of samples staged between a FloatBuffer and the sections, allocated on first use. */
+  private float[]                           chunk;
+  
+  /** Length of the staging block, chosen to stay in the first-level cache. */
+  private static final int                  CHUNK = 1024;
+  
   
   
   /**
@@ -183,6 +197,36 @@ public class IIRFilter {
   
   
   
+  /**
+   * Filters the samples remaining in a FloatBuffer, for example a direct buffer filled by an acquisition
+   * system or a view of a memory-mapped file, writing the result to another FloatBuffer (which may be a duplicate
+   * view of the same storage, to filter in place).  The samples are moved through a small staging block that stays
+   * in cache, one bulk transfer in and one out per block.  Both positions advance by the number of samples filtered,
+   * x.remaining().  Maintains state between invocations, allowing continuous processing.
+   *
+   * @param x    FloatBuffer containing samples of the sequence to be filtered.
+   * @param y    FloatBuffer receiving samples of the resulting filtered sequence.
+   * @throws BufferOverflowException  if y has fewer elements remaining than x.
+   */
+  public void filter( FloatBuffer x, FloatBuffer y ) {
+    
+    if ( y.remaining() < x.remaining() ) throw new BufferOverflowException();
+    if ( chunk == null ) chunk = new float[ CHUNK ];
+    
+    int remaining = x.remaining();
+    while ( remaining > 0 ) {
+      int n = Math.min( remaining, CHUNK );
+      x.get( chunk, 0, n );
+      for ( SecondOrderSection section : sections ) {
+        section.filter( chunk, chunk, n );
+      }
+      y.put( chunk, 0, n );
+      remaining -= n;
+    }
+  }
+  
+  
+  
   /**
    * Evaluates the transfer function of this IIR filter at a specified discrete time frequency.
    *
@@ -97,11 +97,21 @@ public class SecondOrderSection {
 	 * @param y     float[] containing the filtered result.  May be the same array as x.
 	 */
 	public void filter( float[] x, float[] y ) {
+		filter( x, y, Math.min( x.length, y.length ) );
+	}
+	
+	
+	/**
+	 * Filters the first n samples of a sequence.
+	 *
+	 * @param x     float[] containing the sequence of input samples.
+	 * @param y     float[] containing the filtered result.  May be the same array as x.
+	 * @param n     int specifying the number of samples to filter.
+	 */
+	void filter( float[] x, float[] y, int n ) {
 		
 		double s0;
 		
-		int n = Math.min( x.length, y.length );
-		
 		for ( int i = 0;  i < n;  i++ ) {
 			s0   = x[i] - a1*s1 -a2*s2;
 			y[i] = (float) ( b0*s0 + b1*s1 + b2*s2 );
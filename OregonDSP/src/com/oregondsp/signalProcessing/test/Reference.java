@@ -0,0 +1,168 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+/**
+ * Naive reference computations and error checks shared by the test programs.  Each test compares a fast
+ * transform or convolver with the direct sum, in double precision, and reports the error relative to the largest
+ * reference value;  a check whose error exceeds its bound is reported and makes exit() end the program with a
+ * non-zero status.
+ */
+class Reference {
+
+	private static int failures = 0;
+
+
+	/** Direct DFT of a complex sequence:  X(k) = sum_n x(n) exp( -2 pi i nk/N ). */
+	static void dft( double[] xr, double[] xi, double[] Xr, double[] Xi ) {
+		int N = xr.length;
+		for ( int k = 0;  k < N;  k++ ) {
+			double sr = 0.0;
+			double si = 0.0;
+			for ( int n = 0;  n < N;  n++ ) {
+				double a = -2.0*Math.PI*( (long) n*k % N )/N;
+				sr += xr[n]*Math.cos( a ) - xi[n]*Math.sin( a );
+				si += xr[n]*Math.sin( a ) + xi[n]*Math.cos( a );
+			}
+			Xr[k] = sr;
+			Xi[k] = si;
+		}
+	}
+
+
+	/** Direct DFT of a complex sequence at the listed bins:  X(j) = sum_n x(n) exp( -2 pi i n bins[j]/N ). */
+	static void dft( double[] xr, double[] xi, int[] bins, double[] Xr, double[] Xi ) {
+		int N = xr.length;
+		for ( int j = 0;  j < bins.length;  j++ ) {
+			double sr = 0.0;
+			double si = 0.0;
+			for ( int n = 0;  n < N;  n++ ) {
+				double a = -2.0*Math.PI*( (long) n*bins[j] % N )/N;
+				sr += xr[n]*Math.cos( a ) - xi[n]*Math.sin( a );
+				si += xr[n]*Math.sin( a ) + xi[n]*Math.cos( a );
+			}
+			Xr[j] = sr;
+			Xi[j] = si;
+		}
+	}
+
+
+	/** Direct linear convolution of x with h, of length x.length + h.length - 1. */
+	static double[] convolve( double[] x, double[] h ) {
+		double[] y = new double[ x.length + h.length - 1 ];
+		for ( int n = 0;  n < x.length;  n++ ) {
+			for ( int k = 0;  k < h.length;  k++ ) y[n+k] += x[n]*h[k];
+		}
+		return y;
+	}
+
+
+	/** Expands a transform in conjugate symmetric packed form (RDFT, RDFTmr) to its full real and imaginary parts. */
+	static void unpack( double[] X, double[] Xr, double[] Xi ) {
+		int N = X.length;
+		Xr[0] = X[0];
+		Xi[0] = 0.0;
+		for ( int k = 1;  k <= N/2;  k++ ) {
+			Xr[k]   = X[k];
+			Xr[N-k] = X[k];
+			if ( 2*k != N ) {
+				Xi[k]   =  X[N-k];
+				Xi[N-k] = -X[N-k];
+			}
+			else
+				Xi[k] = 0.0;
+		}
+	}
+
+
+	/** Maximum modulus of the difference between two complex sequences, relative to the largest modulus of the first. */
+	static double error( double[] Ar, double[] Ai, double[] Br, double[] Bi, int n ) {
+		double e = 0.0;
+		double m = 0.0;
+		for ( int i = 0;  i < n;  i++ ) {
+			e = Math.max( e, Math.hypot( Ar[i] - Br[i], Ai[i] - Bi[i] ) );
+			m = Math.max( m, Math.hypot( Ar[i], Ai[i] ) );
+		}
+		return m > 0.0  ?  e/m  :  e;
+	}
+
+
+	/** Maximum modulus of the difference between two complex sequences, relative to a specified scale. */
+	static double error( double[] Ar, double[] Ai, double[] Br, double[] Bi, int n, double scale ) {
+		double e = 0.0;
+		for ( int i = 0;  i < n;  i++ ) e = Math.max( e, Math.hypot( Ar[i] - Br[i], Ai[i] - Bi[i] ) );
+		return e/scale;
+	}
+
+
+	/** Largest modulus of a complex sequence. */
+	static double peak( double[] Ar, double[] Ai ) {
+		double m = 0.0;
+		for ( int i = 0;  i < Ar.length;  i++ ) m = Math.max( m, Math.hypot( Ar[i], Ai[i] ) );
+		return m;
+	}
+
+
+	/** Maximum absolute difference between two real sequences, relative to the largest magnitude of the first. */
+	static double error( double[] a, double[] b, int n ) {
+		double e = 0.0;
+		double m = 0.0;
+		for ( int i = 0;  i < n;  i++ ) {
+			e = Math.max( e, Math.abs( a[i] - b[i] ) );
+			m = Math.max( m, Math.abs( a[i] ) );
+		}
+		return m > 0.0  ?  e/m  :  e;
+	}
+
+
+	static double[] gaussian( Random R, int n ) {
+		double[] x = new double[ n ];
+		for ( int i = 0;  i < n;  i++ ) x[i] = R.nextGaussian();
+		return x;
+	}
+
+
+	static float[] toFloat( double[] x ) {
+		float[] y = new float[ x.length ];
+		for ( int i = 0;  i < x.length;  i++ ) y[i] = (float) x[i];
+		return y;
+	}
+
+
+	static double[] toDouble( float[] x ) {
+		double[] y = new double[ x.length ];
+		for ( int i = 0;  i < x.length;  i++ ) y[i] = x[i];
+		return y;
+	}
+
+
+	/** Reports a relative error against its bound. */
+	static void check( String label, double error, double bound ) {
+		boolean ok = error <= bound;
+		if ( !ok ) failures++;
+		System.out.println( ( ok ? "ok      " : "FAILED  " ) + label + "    error " + error + "    bound " + bound );
+	}
+
+
+	/** Ends the program, with a non-zero status if any check failed. */
+	static void exit() {
+		System.out.println( failures == 0  ?  "all checks passed"  :  failures + " check(s) failed" );
+		System.exit( failures == 0  ?  0  :  1 );
+	}
+
+}
@@ -0,0 +1,107 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.CDFTmr;
+import com.oregondsp.signalProcessing.fft.CDFTmrdp;
+import com.oregondsp.signalProcessing.fft.RDFTmr;
+import com.oregondsp.signalProcessing.fft.RDFTmrdp;
+
+/**
+ * Compares CDFTmr, CDFTmrdp, RDFTmr and RDFTmrdp with the direct DFT for prime, odd, mixed-radix and power-of-two
+ * lengths, and checks that the inverse transforms recover the input.
+ */
+public class TestArbitraryLengthDFT {
+
+	public static void main( String[] args ) {
+
+		//            trivial     small primes   radix 2,3,4,5   mixed radix        large primes (Bluestein)   powers of two
+		int[] n = { 1, 2, 3, 4,   5, 7, 11, 13,  6, 9, 25, 27,   12, 60, 210, 360,  97, 251, 1009, 4001,       16, 1024 };
+
+		Random R = new Random( 1 );
+
+		for ( int N : n ) {
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+			double[] Xr = new double[ N ];
+			double[] Xi = new double[ N ];
+			Reference.dft( xr, xi, Xr, Xi );
+
+			// complex, single precision
+
+			float[] fxr = Reference.toFloat( xr );
+			float[] fxi = Reference.toFloat( xi );
+			float[] fXr = new float[ N ];
+			float[] fXi = new float[ N ];
+			float[] fyr = new float[ N ];
+			float[] fyi = new float[ N ];
+
+			CDFTmr cdft = new CDFTmr( N );
+			cdft.evaluate( fxr, fxi, fXr, fXi );
+			Reference.check( "CDFTmr       N = " + N, Reference.error( Xr, Xi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), N ), 1.0e-5 );
+			cdft.evaluateInverse( fXr, fXi, fyr, fyi );
+			Reference.check( "CDFTmr inv   N = " + N, Reference.error( xr, xi, Reference.toDouble( fyr ), Reference.toDouble( fyi ), N ), 1.0e-5 );
+
+			// complex, double precision
+
+			double[] dXr = new double[ N ];
+			double[] dXi = new double[ N ];
+			double[] dyr = new double[ N ];
+			double[] dyi = new double[ N ];
+
+			CDFTmrdp cdftdp = new CDFTmrdp( N );
+			cdftdp.evaluate( xr, xi, dXr, dXi );
+			Reference.check( "CDFTmrdp     N = " + N, Reference.error( Xr, Xi, dXr, dXi, N ), 1.0e-12 );
+			cdftdp.evaluateInverse( dXr, dXi, dyr, dyi );
+			Reference.check( "CDFTmrdp inv N = " + N, Reference.error( xr, xi, dyr, dyi, N ), 1.0e-12 );
+
+			// real - the reference is the complex DFT with a zero imaginary part
+
+			double[] zero = new double[ N ];
+			Reference.dft( xr, zero, Xr, Xi );
+
+			float[]  fX  = new float[ N ];
+			float[]  fy  = new float[ N ];
+			double[] Ur  = new double[ N ];
+			double[] Ui  = new double[ N ];
+
+			RDFTmr rdft = new RDFTmr( N );
+			rdft.evaluate( fxr, fX );
+			Reference.unpack( Reference.toDouble( fX ), Ur, Ui );
+			Reference.check( "RDFTmr       N = " + N, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-5 );
+			rdft.evaluateInverse( fX, fy );
+			Reference.check( "RDFTmr inv   N = " + N, Reference.error( xr, Reference.toDouble( fy ), N ), 1.0e-5 );
+
+			double[] dX = new double[ N ];
+			double[] dy = new double[ N ];
+
+			RDFTmrdp rdftdp = new RDFTmrdp( N );
+			rdftdp.evaluate( xr, dX );
+			Reference.unpack( dX, Ur, Ui );
+			Reference.check( "RDFTmrdp     N = " + N, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-12 );
+			rdftdp.evaluateInverse( dX, dy );
+			Reference.check( "RDFTmrdp inv N = " + N, Reference.error( xr, dy, N ), 1.0e-12 );
+
+		}
+
+		Reference.exit();
+
+	}
+
+}
@@ -0,0 +1,136 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.CDFT;
+import com.oregondsp.signalProcessing.fft.CDFTdp;
+import com.oregondsp.signalProcessing.fft.FFTEngine;
+
+/**
+ * Compares CDFT and CDFTdp, executed by each FFTEngine, with the direct DFT for N = 8 to 65536:  the forward
+ * transform, the inverse transform and the unnormalized inverse transform.  Up to N = 4096 every bin is checked;
+ * above that the direct sums are evaluated at 64 bins, including 0, 1, N/4, N/2 and N-1 and the rest at random.
+ */
+public class TestCDFT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 3;  log2N <= 16;  log2N++ ) {
+
+			int   N    = 1 << log2N;
+			int[] bins = bins( R, N );
+			int   nb   = bins.length;
+
+			// forward reference
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+			double[] Fr = new double[ nb ];
+			double[] Fi = new double[ nb ];
+			Reference.dft( xr, xi, bins, Fr, Fi );
+
+			// inverse reference:  idft( Y ) = conj( dft( conj( Y ) ) )/N, and N times that unnormalized
+
+			double[] Yr  = Reference.gaussian( R, N );
+			double[] Yi  = Reference.gaussian( R, N );
+			double[] nYi = new double[ N ];
+			for ( int n = 0;  n < N;  n++ ) nYi[n] = -Yi[n];
+			double[] Ur = new double[ nb ];
+			double[] Ui = new double[ nb ];
+			Reference.dft( Yr, nYi, bins, Ur, Ui );
+			double[] Ir = new double[ nb ];
+			double[] Ii = new double[ nb ];
+			for ( int j = 0;  j < nb;  j++ ) {
+				Ui[j] = -Ui[j];
+				Ir[j] = Ur[j]/N;
+				Ii[j] = Ui[j]/N;
+			}
+
+			float[] fxr = Reference.toFloat( xr );
+			float[] fxi = Reference.toFloat( xi );
+			float[] fYr = Reference.toFloat( Yr );
+			float[] fYi = Reference.toFloat( Yi );
+
+			for ( FFTEngine engine : FFTEngine.values() ) {
+
+				String label = engine + "  N = " + N;
+
+				float[] Zr = new float[ N ];
+				float[] Zi = new float[ N ];
+
+				CDFT dft = new CDFT( log2N, engine );
+				dft.evaluate( fxr, fxi, Zr, Zi );
+				Reference.check( "CDFT forward                " + label, Reference.error( Fr, Fi, gather( Zr, bins ), gather( Zi, bins ), nb ), 1.0e-5 );
+				dft.evaluateInverse( fYr, fYi, Zr, Zi );
+				Reference.check( "CDFT inverse                " + label, Reference.error( Ir, Ii, gather( Zr, bins ), gather( Zi, bins ), nb ), 1.0e-5 );
+				dft.evaluateInverseUnnormalized( fYr, fYi, Zr, Zi );
+				Reference.check( "CDFT inverse unnormalized   " + label, Reference.error( Ur, Ui, gather( Zr, bins ), gather( Zi, bins ), nb ), 1.0e-5 );
+
+				double[] Dr = new double[ N ];
+				double[] Di = new double[ N ];
+
+				CDFTdp dftdp = new CDFTdp( log2N, engine );
+				dftdp.evaluate( xr, xi, Dr, Di );
+				Reference.check( "CDFTdp forward              " + label, Reference.error( Fr, Fi, gather( Dr, bins ), gather( Di, bins ), nb ), 1.0e-12 );
+				dftdp.evaluateInverse( Yr, Yi, Dr, Di );
+				Reference.check( "CDFTdp inverse              " + label, Reference.error( Ir, Ii, gather( Dr, bins ), gather( Di, bins ), nb ), 1.0e-12 );
+				dftdp.evaluateInverseUnnormalized( Yr, Yi, Dr, Di );
+				Reference.check( "CDFTdp inverse unnormalized " + label, Reference.error( Ur, Ui, gather( Dr, bins ), gather( Di, bins ), nb ), 1.0e-12 );
+			}
+		}
+
+		Reference.exit();
+
+	}
+
+
+	// Every bin for N <= 4096;  otherwise 0, 1, N/4, N/2, N-1 and 59 bins at random.
+
+	private static int[] bins( Random R, int N ) {
+		if ( N <= 4096 ) {
+			int[] b = new int[ N ];
+			for ( int k = 0;  k < N;  k++ ) b[k] = k;
+			return b;
+		}
+		int[] b = new int[ 64 ];
+		b[0] = 0;
+		b[1] = 1;
+		b[2] = N/4;
+		b[3] = N/2;
+		b[4] = N-1;
+		for ( int j = 5;  j < b.length;  j++ ) b[j] = R.nextInt( N );
+		return b;
+	}
+
+
+	private static double[] gather( float[] X, int[] bins ) {
+		double[] Y = new double[ bins.length ];
+		for ( int j = 0;  j < bins.length;  j++ ) Y[j] = X[ bins[j] ];
+		return Y;
+	}
+
+
+	private static double[] gather( double[] X, int[] bins ) {
+		double[] Y = new double[ bins.length ];
+		for ( int j = 0;  j < bins.length;  j++ ) Y[j] = X[ bins[j] ];
+		return Y;
+	}
+
+}
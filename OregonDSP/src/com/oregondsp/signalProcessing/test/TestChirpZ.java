@@ -0,0 +1,139 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.ChirpZ;
+import com.oregondsp.signalProcessing.fft.ChirpZdp;
+
+/**
+ * Compares ChirpZ and ChirpZdp with the direct sum of the z-transform on spiral arcs, on zoomed frequency bands and
+ * on the unit circle at the DFT frequencies, where the chirp z-transform is the DFT.  Real sequences are checked
+ * against the complex evaluation with a zero imaginary part.
+ */
+public class TestChirpZ {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		//  N      M     A0     theta0  W0      phi0
+		double[][] arcs = {
+			{    1,    1, 1.0,   0.0,   1.0,    0.1   },
+			{    5,    3, 1.01,  0.3,   0.999,  0.017 },
+			{  100,   37, 1.01,  0.3,   0.999,  0.017 },
+			{   37,  100, 0.98, -1.0,   1.001,  0.05  },
+			{ 1000,  256, 1.0,   0.6,   1.0,    0.001 },
+			{   37,   37, 1.0,   0.0,   1.0,    2.0*Math.PI/37   },
+			{  360,  360, 1.0,   0.0,   1.0,    2.0*Math.PI/360  }
+		};
+
+		for ( double[] arc : arcs ) {
+
+			int N = (int) arc[0];
+			int M = (int) arc[1];
+
+			String label = "N = " + N + "  M = " + M + "  A0 = " + arc[2] + "  W0 = " + arc[4];
+
+			check( label, R, N, M, arc[2], arc[3], arc[4], arc[5],
+			       new ChirpZ( N, M, arc[2], arc[3], arc[4], arc[5] ),
+			       new ChirpZdp( N, M, arc[2], arc[3], arc[4], arc[5] ) );
+		}
+
+		// 256 bins spanning 10 to 12 Hz of a 4000-point record sampled at 100 Hz
+
+		double delta = 0.01;
+		double f1    = 10.0;
+		double f2    = 12.0;
+		int    N     = 4000;
+		int    M     = 256;
+		double phi0  = 2.0*Math.PI*( f2 - f1 )/( M-1 )*delta;
+
+		check( "zoom  N = " + N + "  M = " + M, R, N, M, 1.0, 2.0*Math.PI*f1*delta, 1.0, phi0,
+		       ChirpZ.zoom( N, M, f1, f2, delta ), ChirpZdp.zoom( N, M, f1, f2, delta ) );
+
+		// on the unit circle at the DFT frequencies, the DFT itself
+
+		for ( int n : new int[] { 37, 360 } ) {
+
+			double[] xr = Reference.gaussian( R, n );
+			double[] xi = Reference.gaussian( R, n );
+			double[] Xr = new double[ n ];
+			double[] Xi = new double[ n ];
+			double[] Yr = new double[ n ];
+			double[] Yi = new double[ n ];
+			Reference.dft( xr, xi, Xr, Xi );
+
+			new ChirpZdp( n, n, 1.0, 0.0, 1.0, 2.0*Math.PI/n ).evaluate( xr, xi, Yr, Yi );
+			Reference.check( "ChirpZdp = DFT      N = " + n, Reference.error( Xr, Xi, Yr, Yi, n ), 1.0e-12 );
+		}
+
+		Reference.exit();
+
+	}
+
+
+	private static void check( String label, Random R, int N, int M, double A0, double theta0, double W0, double phi0, ChirpZ cz, ChirpZdp czdp ) {
+
+		double[] xr = Reference.gaussian( R, N );
+		double[] xi = Reference.gaussian( R, N );
+		double[] Xr = new double[ M ];
+		double[] Xi = new double[ M ];
+
+		// X[k] = sum_n x[n] z[k]^(-n),  z[k]^(-n) = A0^(-n) W0^(nk) exp( -i n ( theta0 + k phi0 ) )
+
+		for ( int k = 0;  k < M;  k++ ) {
+			double sr = 0.0;
+			double si = 0.0;
+			for ( int n = 0;  n < N;  n++ ) {
+				double m  = Math.exp( -n*Math.log( A0 ) + (double) n*k*Math.log( W0 ) );
+				double p  = n*( theta0 + k*phi0 );
+				double cr =  m*Math.cos( p );
+				double ci = -m*Math.sin( p );
+				sr += xr[n]*cr - xi[n]*ci;
+				si += xr[n]*ci + xi[n]*cr;
+			}
+			Xr[k] = sr;
+			Xi[k] = si;
+		}
+
+		float[] fXr = new float[ M ];
+		float[] fXi = new float[ M ];
+		cz.evaluate( Reference.toFloat( xr ), Reference.toFloat( xi ), fXr, fXi );
+		Reference.check( "ChirpZ      " + label, Reference.error( Xr, Xi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), M ), 1.0e-4 );
+
+		double[] dXr = new double[ M ];
+		double[] dXi = new double[ M ];
+		czdp.evaluate( xr, xi, dXr, dXi );
+		Reference.check( "ChirpZdp    " + label, Reference.error( Xr, Xi, dXr, dXi, M ), 1.0e-10 );
+
+		// real sequence against the complex evaluation with a zero imaginary part
+
+		float[] Yr = new float[ M ];
+		float[] Yi = new float[ M ];
+		cz.evaluate( Reference.toFloat( xr ), new float[ N ], fXr, fXi );
+		cz.evaluate( Reference.toFloat( xr ), Yr, Yi );
+		Reference.check( "ChirpZ real " + label, Reference.error( Reference.toDouble( fXr ), Reference.toDouble( fXi ), Reference.toDouble( Yr ), Reference.toDouble( Yi ), M ), 1.0e-6 );
+
+		double[] Zr = new double[ M ];
+		double[] Zi = new double[ M ];
+		czdp.evaluate( xr, new double[ N ], dXr, dXi );
+		czdp.evaluate( xr, Zr, Zi );
+		Reference.check( "ChirpZdp real " + label, Reference.error( dXr, dXi, Zr, Zi, M ), 1.0e-13 );
+	}
+
+}
@@ -0,0 +1,99 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.DCT;
+import com.oregondsp.signalProcessing.fft.DCTdp;
+import com.oregondsp.signalProcessing.fft.DST;
+import com.oregondsp.signalProcessing.fft.DSTdp;
+
+/**
+ * Compares DCT, DCTdp, DST and DSTdp with the direct DCT-II and DST-II sums, and checks that the inverses recover
+ * the sequence, with separate arrays and in place.
+ */
+public class TestDCT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 4;  log2N <= 12;  log2N++ ) {
+
+			int N = 1 << log2N;
+
+			double[] x = Reference.gaussian( R, N );
+			double[] C = new double[ N ];
+			double[] S = new double[ N ];
+
+			for ( int k = 0;  k < N;  k++ ) {
+				double c = 0.0;
+				double s = 0.0;
+				for ( int n = 0;  n < N;  n++ ) {
+					c += x[n]*Math.cos( Math.PI*( 2*n+1 )*k/( 2.0*N ) );
+					s += x[n]*Math.sin( Math.PI*( 2*n+1 )*( k+1 )/( 2.0*N ) );
+				}
+				C[k] = c;
+				S[k] = s;
+			}
+
+			float[] fx = Reference.toFloat( x );
+			float[] fY = new float[ N ];
+			float[] fy = new float[ N ];
+
+			DCT dct = new DCT( log2N );
+			dct.evaluate( fx, fY );
+			Reference.check( "DCT          N = " + N, Reference.error( C, Reference.toDouble( fY ), N ), 1.0e-5 );
+			dct.evaluateInverse( fY, fy );
+			Reference.check( "DCT inv      N = " + N, Reference.error( x, Reference.toDouble( fy ), N ), 1.0e-5 );
+			fy = fx.clone();
+			dct.evaluate( fy, fy );
+			dct.evaluateInverse( fy, fy );
+			Reference.check( "DCT in place N = " + N, Reference.error( x, Reference.toDouble( fy ), N ), 1.0e-5 );
+
+			DST dst = new DST( log2N );
+			dst.evaluate( fx, fY );
+			Reference.check( "DST          N = " + N, Reference.error( S, Reference.toDouble( fY ), N ), 1.0e-5 );
+			dst.evaluateInverse( fY, fy );
+			Reference.check( "DST inv      N = " + N, Reference.error( x, Reference.toDouble( fy ), N ), 1.0e-5 );
+			fy = fx.clone();
+			dst.evaluate( fy, fy );
+			dst.evaluateInverse( fy, fy );
+			Reference.check( "DST in place N = " + N, Reference.error( x, Reference.toDouble( fy ), N ), 1.0e-5 );
+
+			double[] dY = new double[ N ];
+			double[] dy = new double[ N ];
+
+			DCTdp dctdp = new DCTdp( log2N );
+			dctdp.evaluate( x, dY );
+			Reference.check( "DCTdp        N = " + N, Reference.error( C, dY, N ), 1.0e-12 );
+			dctdp.evaluateInverse( dY, dy );
+			Reference.check( "DCTdp inv    N = " + N, Reference.error( x, dy, N ), 1.0e-12 );
+
+			DSTdp dstdp = new DSTdp( log2N );
+			dstdp.evaluate( x, dY );
+			Reference.check( "DSTdp        N = " + N, Reference.error( S, dY, N ), 1.0e-12 );
+			dstdp.evaluateInverse( dY, dy );
+			Reference.check( "DSTdp inv    N = " + N, Reference.error( x, dy, N ), 1.0e-12 );
+
+		}
+
+		Reference.exit();
+
+	}
+
+}
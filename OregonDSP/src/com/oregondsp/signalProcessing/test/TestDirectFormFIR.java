@@ -0,0 +1,160 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.filter.fir.BlockConvolver;
+import com.oregondsp.signalProcessing.filter.fir.DirectFormFIR;
+import com.oregondsp.signalProcessing.filter.fir.DirectFormFIR_dp;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
+import com.oregondsp.signalProcessing.filter.fir.PartitionedConvolver;
+
+/**
+ * Compares DirectFormFIR and DirectFormFIR_dp with the direct linear convolution of a stream of blocks, including the
+ * results returned by flush(), for kernels of 1 to 200 taps and block sizes that leave 0 to 3 outputs for the
+ * remainder loop.  Filtering is checked with separate arrays, in place and with buffers.  The choice made by
+ * DirectFormFIR.getBlockConvolver() is checked against the cost model's regimes, and the convolver it returns
+ * against the direct convolution.
+ */
+public class TestDirectFormFIR {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		int[] kernelLengths = { 1, 2, 3, 4, 5, 7, 8, 31, 64, 127, 200 };
+		int[] blockSizes    = { 1, 2, 3, 5, 7, 64, 100, 257 };
+
+		for ( int K : kernelLengths ) {
+			for ( int B : blockSizes ) {
+
+				int nb = 6 + K/B;
+				int T  = nb*B;
+
+				double[] h = Reference.gaussian( R, K );
+				double[] x = Reference.gaussian( R, T );
+				double[] z = Reference.convolve( x, h );
+
+				int nflush = ( K - 1 + B - 1 )/B;
+				int L      = T + nflush*B;
+
+				float[] fh = Reference.toFloat( h );
+				float[] fx = Reference.toFloat( x );
+
+				// separate arrays
+
+				float[] y = new float[ L ];
+				DirectFormFIR f = new DirectFormFIR( fh, B );
+				for ( int b = 0;  b < nb;  b++ ) f.filter( fx, b*B, y, b*B );
+				for ( int i = 0;  i < nflush;  i++ ) f.flush( y, T + i*B );
+
+				String label = "K = " + K + "  B = " + B;
+				Reference.check( "DirectFormFIR              " + label, Reference.error( z, Reference.toDouble( y ), z.length ), 1.0e-5 );
+
+				// in place, after initialize() has cleared the first stream
+
+				float[] w = new float[ L ];
+				System.arraycopy( fx, 0, w, 0, T );
+				f.initialize();
+				for ( int b = 0;  b < nb;  b++ ) f.filter( w, b*B, w, b*B );
+				for ( int i = 0;  i < nflush;  i++ ) f.flush( w, T + i*B );
+				Reference.check( "DirectFormFIR in place     " + label, Reference.error( z, Reference.toDouble( w ), z.length ), 1.0e-5 );
+
+				// direct FloatBuffer in, heap FloatBuffer out
+
+				FloatBuffer in = ByteBuffer.allocateDirect( 4*T ).order( ByteOrder.nativeOrder() ).asFloatBuffer();
+				in.put( fx );
+				in.flip();
+				float[]     yb  = new float[ L ];
+				FloatBuffer out = FloatBuffer.wrap( yb );
+				f = new DirectFormFIR( fh, B );
+				for ( int b = 0;  b < nb;  b++ ) f.filter( in, out );
+				for ( int i = 0;  i < nflush;  i++ ) f.flush( yb, T + i*B );
+				Reference.check( "DirectFormFIR buffers      " + label, Reference.error( z, Reference.toDouble( yb ), z.length ), 1.0e-5 );
+
+				// double precision, with arrays and in place
+
+				double[] dy = new double[ L ];
+				DirectFormFIR_dp g = new DirectFormFIR_dp( h, B );
+				for ( int b = 0;  b < nb;  b++ ) g.filter( x, b*B, dy, b*B );
+				for ( int i = 0;  i < nflush;  i++ ) g.flush( dy, T + i*B );
+				Reference.check( "DirectFormFIR_dp           " + label, Reference.error( z, dy, z.length ), 1.0e-12 );
+
+				double[] dw = new double[ L ];
+				System.arraycopy( x, 0, dw, 0, T );
+				g.initialize();
+				for ( int b = 0;  b < nb;  b++ ) g.filter( dw, b*B, dw, b*B );
+				for ( int i = 0;  i < nflush;  i++ ) g.flush( dw, T + i*B );
+				Reference.check( "DirectFormFIR_dp in place  " + label, Reference.error( z, dw, z.length ), 1.0e-12 );
+
+				DoubleBuffer din = ByteBuffer.allocateDirect( 8*T ).order( ByteOrder.nativeOrder() ).asDoubleBuffer();
+				din.put( x );
+				din.flip();
+				double[]     db   = new double[ L ];
+				DoubleBuffer dout = DoubleBuffer.wrap( db );
+				g = new DirectFormFIR_dp( h, B );
+				for ( int b = 0;  b < nb;  b++ ) g.filter( din, dout );
+				for ( int i = 0;  i < nflush;  i++ ) g.flush( db, T + i*B );
+				Reference.check( "DirectFormFIR_dp buffers   " + label, Reference.error( z, db, z.length ), 1.0e-12 );
+			}
+		}
+
+		// the factory's choice:  direct form for short kernels, partitions for kernels much longer than a power-of-two
+		// block, overlap-add in between and whenever the block is not a power of two
+
+		//                    K     B   expected
+		Object[][] cases = { {     8,  256, DirectFormFIR.class },
+		                     {    31,   16, DirectFormFIR.class },
+		                     {   511, 4096, OverlapAdd.class },
+		                     {  5000,  100, OverlapAdd.class },
+		                     { 16384,  256, PartitionedConvolver.class } };
+
+		for ( Object[] c : cases ) {
+
+			int      K        = (Integer) c[0];
+			int      B        = (Integer) c[1];
+			Class<?> expected = (Class<?>) c[2];
+
+			int nb = 4 + K/B;
+			int T  = nb*B;
+
+			double[] h = Reference.gaussian( R, K );
+			double[] x = Reference.gaussian( R, T );
+			double[] z = Reference.convolve( x, h );
+
+			int     nflush = ( K - 1 + B - 1 )/B;
+			float[] y      = new float[ T + nflush*B ];
+			float[] fx     = Reference.toFloat( x );
+
+			BlockConvolver bc = DirectFormFIR.getBlockConvolver( Reference.toFloat( h ), B );
+			for ( int b = 0;  b < nb;  b++ ) bc.filter( fx, b*B, y, b*B );
+			for ( int i = 0;  i < nflush;  i++ ) bc.flush( y, T + i*B );
+
+			String label = "K = " + K + "  B = " + B + "  " + bc.getClass().getSimpleName();
+			Reference.check( "getBlockConvolver choice   " + label, bc.getClass() == expected  ?  0.0  :  1.0, 0.0 );
+			Reference.check( "getBlockConvolver result   " + label, Reference.error( z, Reference.toDouble( y ), z.length ), 1.0e-5 );
+		}
+
+		Reference.exit();
+
+	}
+
+}
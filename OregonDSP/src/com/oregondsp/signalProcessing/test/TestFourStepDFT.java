@@ -0,0 +1,86 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.oregondsp.signalProcessing.fft.CDFTfourStep;
+import com.oregondsp.signalProcessing.fft.CDFTfourStepdp;
+
+/**
+ * Compares CDFTfourStep and CDFTfourStepdp with the direct DFT for square and non-square factorizations, on one
+ * worker thread and on several, and checks that the inverse transforms recover the input.
+ */
+public class TestFourStepDFT {
+
+	public static void main( String[] args ) {
+
+		ForkJoinPool serial   = new ForkJoinPool( 1 );
+		ForkJoinPool parallel = new ForkJoinPool( 4 );
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 6;  log2N <= 12;  log2N++ ) {
+
+			int N = 1 << log2N;
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+			double[] Xr = new double[ N ];
+			double[] Xi = new double[ N ];
+			Reference.dft( xr, xi, Xr, Xi );
+
+			for ( ForkJoinPool pool : new ForkJoinPool[] { serial, parallel } ) {
+
+				String threads = "  threads = " + pool.getParallelism();
+
+				float[] fxr = Reference.toFloat( xr );
+				float[] fxi = Reference.toFloat( xi );
+				float[] fXr = new float[ N ];
+				float[] fXi = new float[ N ];
+				float[] fyr = new float[ N ];
+				float[] fyi = new float[ N ];
+
+				CDFTfourStep dft = new CDFTfourStep( log2N, pool );
+				dft.evaluate( fxr, fxi, fXr, fXi );
+				Reference.check( "CDFTfourStep       N = " + N + threads, Reference.error( Xr, Xi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), N ), 1.0e-5 );
+				dft.evaluateInverse( fXr, fXi, fyr, fyi );
+				Reference.check( "CDFTfourStep inv   N = " + N + threads, Reference.error( xr, xi, Reference.toDouble( fyr ), Reference.toDouble( fyi ), N ), 1.0e-5 );
+
+				double[] dXr = new double[ N ];
+				double[] dXi = new double[ N ];
+				double[] dyr = new double[ N ];
+				double[] dyi = new double[ N ];
+
+				CDFTfourStepdp dftdp = new CDFTfourStepdp( log2N, pool );
+				dftdp.evaluate( xr, xi, dXr, dXi );
+				Reference.check( "CDFTfourStepdp     N = " + N + threads, Reference.error( Xr, Xi, dXr, dXi, N ), 1.0e-12 );
+				dftdp.evaluateInverse( dXr, dXi, dyr, dyi );
+				Reference.check( "CDFTfourStepdp inv N = " + N + threads, Reference.error( xr, xi, dyr, dyi, N ), 1.0e-12 );
+
+			}
+
+		}
+
+		serial.shutdown();
+		parallel.shutdown();
+
+		Reference.exit();
+
+	}
+
+}
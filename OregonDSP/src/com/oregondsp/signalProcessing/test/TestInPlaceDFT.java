@@ -0,0 +1,200 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.CDFT;
+import com.oregondsp.signalProcessing.fft.CDFTdp;
+import com.oregondsp.signalProcessing.fft.FFTEngine;
+import com.oregondsp.signalProcessing.fft.FFTWorkspace;
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTPlan;
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+
+/**
+ * Compares the in-place and interleaved evaluations of CDFT and CDFTdp, under each FFTEngine, and the in-place
+ * evaluations of RDFT and RDFTdp, including RDFTPlan called with the same array as sequence and transform, with the
+ * out-of-place transforms of the same sequences.
+ */
+public class TestInPlaceDFT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 3;  log2N <= 14;  log2N++ ) {
+
+			int N = 1 << log2N;
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+
+			for ( FFTEngine engine : FFTEngine.values() ) {
+
+				String label = engine + "  N = " + N;
+
+				// single precision
+
+				float[] fxr = Reference.toFloat( xr );
+				float[] fxi = Reference.toFloat( xi );
+				float[] Xr  = new float[ N ];
+				float[] Xi  = new float[ N ];
+
+				CDFT dft = new CDFT( log2N, engine );
+				dft.evaluate( fxr, fxi, Xr, Xi );
+				double[] Ar = Reference.toDouble( Xr );
+				double[] Ai = Reference.toDouble( Xi );
+
+				float[] yr = fxr.clone();
+				float[] yi = fxi.clone();
+				dft.evaluateInPlace( yr, yi );
+				Reference.check( "CDFT in place                 " + label, Reference.error( Ar, Ai, Reference.toDouble( yr ), Reference.toDouble( yi ), N ), 1.0e-5 );
+				dft.evaluateInverseInPlace( yr, yi );
+				Reference.check( "CDFT inverse in place         " + label, Reference.error( xr, xi, Reference.toDouble( yr ), Reference.toDouble( yi ), N ), 1.0e-5 );
+
+				float[] z = interleave( fxr, fxi );
+				float[] Z = new float[ 2*N ];
+				dft.evaluateInterleaved( z, Z );
+				Reference.check( "CDFT interleaved              " + label, Reference.error( Ar, Ai, real( Z ), imag( Z ), N ), 1.0e-5 );
+				dft.evaluateInverseInterleaved( Z, z );
+				Reference.check( "CDFT inverse interleaved      " + label, Reference.error( xr, xi, real( z ), imag( z ), N ), 1.0e-5 );
+				dft.evaluateInterleaved( z, z );
+				Reference.check( "CDFT interleaved in place     " + label, Reference.error( Ar, Ai, real( z ), imag( z ), N ), 1.0e-5 );
+				dft.evaluateInverseInterleavedUnnormalized( z, z );
+				for ( int i = 0;  i < 2*N;  i++ ) z[i] /= N;
+				Reference.check( "CDFT inverse unnormalized     " + label, Reference.error( xr, xi, real( z ), imag( z ), N ), 1.0e-5 );
+
+				// double precision
+
+				double[] Dr = new double[ N ];
+				double[] Di = new double[ N ];
+
+				CDFTdp dftdp = new CDFTdp( log2N, engine );
+				dftdp.evaluate( xr, xi, Dr, Di );
+
+				double[] wr = xr.clone();
+				double[] wi = xi.clone();
+				dftdp.evaluateInPlace( wr, wi );
+				Reference.check( "CDFTdp in place               " + label, Reference.error( Dr, Di, wr, wi, N ), 1.0e-12 );
+				dftdp.evaluateInverseInPlace( wr, wi );
+				Reference.check( "CDFTdp inverse in place       " + label, Reference.error( xr, xi, wr, wi, N ), 1.0e-12 );
+
+				double[] w = interleave( xr, xi );
+				double[] W = new double[ 2*N ];
+				dftdp.evaluateInterleaved( w, W );
+				Reference.check( "CDFTdp interleaved            " + label, Reference.error( Dr, Di, real( W ), imag( W ), N ), 1.0e-12 );
+				dftdp.evaluateInverseInterleaved( W, w );
+				Reference.check( "CDFTdp inverse interleaved    " + label, Reference.error( xr, xi, real( w ), imag( w ), N ), 1.0e-12 );
+				dftdp.evaluateInterleaved( w, w );
+				Reference.check( "CDFTdp interleaved in place   " + label, Reference.error( Dr, Di, real( w ), imag( w ), N ), 1.0e-12 );
+				dftdp.evaluateInverseInterleavedUnnormalized( w, w );
+				for ( int i = 0;  i < 2*N;  i++ ) w[i] /= N;
+				Reference.check( "CDFTdp inverse unnormalized   " + label, Reference.error( xr, xi, real( w ), imag( w ), N ), 1.0e-12 );
+			}
+
+			// real DFTs, which need N >= 16
+
+			if ( log2N < 4 ) continue;
+
+			String label = "N = " + N;
+
+			float[] fx = Reference.toFloat( xr );
+			float[] X  = new float[ N ];
+
+			RDFT rdft = new RDFT( log2N );
+			rdft.evaluate( fx, X );
+			double[] A = Reference.toDouble( X );
+
+			float[] y = fx.clone();
+			rdft.evaluateInPlace( y );
+			Reference.check( "RDFT in place                 " + label, Reference.error( A, Reference.toDouble( y ), N ), 1.0e-5 );
+			rdft.evaluateInverseInPlace( y );
+			Reference.check( "RDFT inverse in place         " + label, Reference.error( xr, Reference.toDouble( y ), N ), 1.0e-5 );
+
+			RDFTPlan     plan      = RDFTPlan.getInstance( log2N );
+			FFTWorkspace workspace = new FFTWorkspace();
+			y = fx.clone();
+			plan.evaluate( y, y, workspace );
+			Reference.check( "RDFTPlan same array           " + label, Reference.error( A, Reference.toDouble( y ), N ), 1.0e-5 );
+			plan.evaluateInverseUnnormalized( y, y, workspace );
+			for ( int i = 0;  i < N;  i++ ) y[i] /= N;
+			Reference.check( "RDFTPlan inverse unnormalized " + label, Reference.error( xr, Reference.toDouble( y ), N ), 1.0e-5 );
+
+			double[] D = new double[ N ];
+			RDFTdp rdftdp = new RDFTdp( log2N );
+			rdftdp.evaluate( xr, D );
+
+			double[] v = xr.clone();
+			rdftdp.evaluateInPlace( v );
+			Reference.check( "RDFTdp in place               " + label, Reference.error( D, v, N ), 1.0e-12 );
+			rdftdp.evaluateInverseInPlace( v );
+			Reference.check( "RDFTdp inverse in place       " + label, Reference.error( xr, v, N ), 1.0e-12 );
+		}
+
+		Reference.exit();
+
+	}
+
+
+	private static float[] interleave( float[] xr, float[] xi ) {
+		float[] z = new float[ 2*xr.length ];
+		for ( int k = 0;  k < xr.length;  k++ ) {
+			z[2*k]   = xr[k];
+			z[2*k+1] = xi[k];
+		}
+		return z;
+	}
+
+
+	private static double[] interleave( double[] xr, double[] xi ) {
+		double[] z = new double[ 2*xr.length ];
+		for ( int k = 0;  k < xr.length;  k++ ) {
+			z[2*k]   = xr[k];
+			z[2*k+1] = xi[k];
+		}
+		return z;
+	}
+
+
+	private static double[] real( float[] z ) {
+		double[] x = new double[ z.length/2 ];
+		for ( int k = 0;  k < x.length;  k++ ) x[k] = z[2*k];
+		return x;
+	}
+
+
+	private static double[] imag( float[] z ) {
+		double[] x = new double[ z.length/2 ];
+		for ( int k = 0;  k < x.length;  k++ ) x[k] = z[2*k+1];
+		return x;
+	}
+
+
+	private static double[] real( double[] z ) {
+		double[] x = new double[ z.length/2 ];
+		for ( int k = 0;  k < x.length;  k++ ) x[k] = z[2*k];
+		return x;
+	}
+
+
+	private static double[] imag( double[] z ) {
+		double[] x = new double[ z.length/2 ];
+		for ( int k = 0;  k < x.length;  k++ ) x[k] = z[2*k+1];
+		return x;
+	}
+
+}
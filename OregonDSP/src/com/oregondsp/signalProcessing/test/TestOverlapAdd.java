@@ -0,0 +1,173 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd;
+import com.oregondsp.signalProcessing.filter.fir.OverlapAdd_dp;
+
+/**
+ * Compares OverlapAdd and OverlapAdd_dp with the direct linear convolution of a stream of blocks.  The block sizes
+ * mostly do not divide the DFT size, so the head of the circular accumulator wraps at a different point on every
+ * block.  A master is checked with two slaves sharing its DFT, each also filtering in place, and with buffers;  the
+ * stream is flushed two blocks beyond its tail, which must come out as zeros.  OverlapAdd_dp is checked with the
+ * smallest DFT that holds the convolution and a larger one, and must reject a smaller one.
+ */
+public class TestOverlapAdd {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		//                  K     B
+		int[][] cases = { {    1,  128 },
+		                  {   29,  100 },
+		                  {   33,   33 },
+		                  {  100,   60 },
+		                  {  257,  256 },
+		                  { 1000,   33 },
+		                  {  500, 1000 } };
+
+		for ( int[] c : cases ) {
+
+			int K  = c[0];
+			int B  = c[1];
+			int nb = 9 + K/B;
+			int T  = nb*B;
+
+			int nflush = ( K - 1 + B - 1 )/B + 2;
+			int L      = T + nflush*B;
+
+			double[] x = Reference.gaussian( R, T );
+			float[]  fx = Reference.toFloat( x );
+
+			double[][] h = new double[3][];
+			double[][] z = new double[3][];
+			for ( int k = 0;  k < 3;  k++ ) {
+				h[k] = Reference.gaussian( R, K );
+				z[k] = new double[ L ];
+				double[] y = Reference.convolve( x, h[k] );
+				System.arraycopy( y, 0, z[k], 0, y.length );
+			}
+
+			String label = "K = " + K + "  B = " + B;
+
+			// a master and two slaves sharing its DFT, the slaves filtering in place
+
+			OverlapAdd   master = new OverlapAdd( Reference.toFloat( h[0] ), B );
+			OverlapAdd[] slave  = { new OverlapAdd( Reference.toFloat( h[1] ), master ),
+			                        new OverlapAdd( Reference.toFloat( h[2] ), master ) };
+
+			float[][] y = new float[3][ L ];
+			System.arraycopy( fx, 0, y[1], 0, T );
+			System.arraycopy( fx, 0, y[2], 0, T );
+
+			for ( int b = 0;  b < nb;  b++ ) {
+				master.filter( fx, b*B, y[0], b*B );
+				for ( int s = 0;  s < 2;  s++ ) slave[s].filter( y[s+1], b*B, y[s+1], b*B );
+			}
+			for ( int f = 0;  f < nflush;  f++ ) {
+				master.flush( y[0], T + f*B );
+				for ( int s = 0;  s < 2;  s++ ) slave[s].flush( y[s+1], T + f*B );
+			}
+
+			Reference.check( "OverlapAdd master             " + label, Reference.error( z[0], Reference.toDouble( y[0] ), L ), 1.0e-5 );
+			Reference.check( "OverlapAdd slave 1, in place  " + label, Reference.error( z[1], Reference.toDouble( y[1] ), L ), 1.0e-5 );
+			Reference.check( "OverlapAdd slave 2, in place  " + label, Reference.error( z[2], Reference.toDouble( y[2] ), L ), 1.0e-5 );
+
+			// direct FloatBuffer in, heap FloatBuffer out
+
+			FloatBuffer in = ByteBuffer.allocateDirect( 4*T ).order( ByteOrder.nativeOrder() ).asFloatBuffer();
+			in.put( fx );
+			in.flip();
+			float[]     yb  = new float[ L ];
+			FloatBuffer out = FloatBuffer.wrap( yb );
+
+			OverlapAdd oa = new OverlapAdd( Reference.toFloat( h[0] ), B );
+			for ( int b = 0;  b < nb;  b++ ) oa.filter( in, out );
+			for ( int f = 0;  f < nflush;  f++ ) oa.flush( out );
+			Reference.check( "OverlapAdd buffers            " + label, Reference.error( z[0], Reference.toDouble( yb ), L ), 1.0e-5 );
+
+			// double precision with the smallest DFT that holds the convolution and with one twice as long, into arrays
+			// and into a direct DoubleBuffer
+
+			int log2N = 32 - Integer.numberOfLeadingZeros( K + B - 2 );
+			for ( int m = log2N;  m <= log2N+1;  m++ ) {
+
+				RDFTdp   fft = new RDFTdp( Math.max( m, 4 ) );
+				double[] X   = new double[ fft.getFFTSize() ];
+
+				OverlapAdd_dp a = new OverlapAdd_dp( h[0], B, fft );
+				OverlapAdd_dp d = new OverlapAdd_dp( h[1], B, fft );
+
+				double[]     dy   = new double[ L ];
+				DoubleBuffer dout = ByteBuffer.allocateDirect( 8*L ).order( ByteOrder.nativeOrder() ).asDoubleBuffer();
+
+				for ( int b = 0;  b < nb;  b++ ) {
+					fft.evaluate( x, b*B, B, X );
+					a.filter( X, dy, b*B );
+					d.filter( X, dout );
+				}
+				for ( int f = 0;  f < nflush;  f++ ) {
+					a.flush( dy, T + f*B );
+					d.flush( dout );
+				}
+				double[] db = new double[ L ];
+				dout.flip();
+				dout.get( db );
+
+				String dlabel = label + "  N = " + fft.getFFTSize();
+				Reference.check( "OverlapAdd_dp                 " + dlabel, Reference.error( z[0], dy, L ), 1.0e-12 );
+				Reference.check( "OverlapAdd_dp buffers         " + dlabel, Reference.error( z[1], db, L ), 1.0e-12 );
+			}
+
+			// a DFT one stage too short for the kernel and block must be rejected
+
+			if ( log2N > 4 ) {
+				boolean rejected = false;
+				try {
+					new OverlapAdd_dp( h[0], B, new RDFTdp( log2N-1 ) );
+				}
+				catch ( IllegalArgumentException e ) {
+					rejected = true;
+				}
+				Reference.check( "OverlapAdd_dp short DFT rejected  " + label, rejected  ?  0.0  :  1.0, 0.0 );
+			}
+		}
+
+		// a slave whose kernel length differs from its master's must be rejected
+
+		boolean rejected = false;
+		try {
+			OverlapAdd master = new OverlapAdd( new float[ 100 ], 28 );
+			new OverlapAdd( new float[ 101 ], master );
+		}
+		catch ( IllegalArgumentException e ) {
+			rejected = true;
+		}
+		Reference.check( "OverlapAdd slave kernel length rejected", rejected  ?  0.0  :  1.0, 0.0 );
+
+		Reference.exit();
+
+	}
+
+}
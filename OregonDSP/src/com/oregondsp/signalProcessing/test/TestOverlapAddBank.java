@@ -0,0 +1,76 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.oregondsp.signalProcessing.filter.fir.OverlapAddBank;
+
+/**
+ * Compares each output stream of OverlapAddBank with the direct linear convolution of the input with its kernel,
+ * including the results returned by flush().  The kernels have different lengths, so most are shorter than the DFT
+ * allows, and the bank is run on one worker thread and on several.
+ */
+public class TestOverlapAddBank {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		int nk = 24;
+		int B  = 300;
+		int nb = 12;
+		int T  = nb*B;
+
+		double[][] h = new double[ nk ][];
+		float[][]  H = new float[ nk ][];
+		int        K = 0;
+		for ( int k = 0;  k < nk;  k++ ) {
+			h[k] = Reference.gaussian( R, k == 0  ?  1  :  1 + R.nextInt( 900 ) );
+			H[k] = Reference.toFloat( h[k] );
+			K    = Math.max( K, h[k].length );
+		}
+
+		double[] x  = Reference.gaussian( R, T );
+		float[]  fx = Reference.toFloat( x );
+
+		int nflush = ( K - 1 + B - 1 )/B;
+
+		for ( int threads : new int[] { 1, 4 } ) {
+
+			ForkJoinPool pool = new ForkJoinPool( threads );
+			OverlapAddBank bank = new OverlapAddBank( H, B, pool );
+
+			float[][] y = new float[ nk ][ T + nflush*B ];
+			for ( int b = 0;  b < nb;  b++ ) bank.filter( fx, b*B, y, b*B );
+			for ( int f = 0;  f < nflush;  f++ ) bank.flush( y, T + f*B );
+
+			double worst = 0.0;
+			for ( int k = 0;  k < nk;  k++ ) {
+				double[] z = Reference.convolve( x, h[k] );
+				worst = Math.max( worst, Reference.error( z, Reference.toDouble( y[k] ), z.length ) );
+			}
+			Reference.check( "OverlapAddBank  " + nk + " kernels  B = " + B + "  threads = " + threads, worst, 1.0e-5 );
+
+			pool.shutdown();
+		}
+
+		Reference.exit();
+
+	}
+
+}
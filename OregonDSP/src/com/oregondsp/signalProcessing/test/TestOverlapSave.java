@@ -0,0 +1,90 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.filter.fir.OverlapSave;
+
+/**
+ * Compares OverlapSave with the direct linear convolution of a stream of blocks, including the results returned by
+ * flush(), for kernels shorter than, equal to and longer than the block.  Master and slave instances are checked,
+ * with float arrays and with direct FloatBuffers.
+ */
+public class TestOverlapSave {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		//            K     B
+		int[][] cases = { {    1,  128 },
+		                  {   33,  100 },
+		                  {  100,   33 },
+		                  {   64,   64 },
+		                  {  129,  128 },
+		                  {  500,   64 },
+		                  { 1000, 1000 } };
+
+		for ( int[] c : cases ) {
+
+			int K  = c[0];
+			int B  = c[1];
+			int nb = 9;
+			int T  = nb*B;
+
+			double[] h = Reference.gaussian( R, K );
+			double[] x = Reference.gaussian( R, T );
+			double[] z = Reference.convolve( x, h );
+
+			int nflush = ( K - 1 + B - 1 )/B;
+			int L      = T + nflush*B;
+
+			float[] fx = Reference.toFloat( x );
+			float[] y  = new float[ L ];
+			float[] yb = new float[ L ];
+
+			OverlapSave master = new OverlapSave( Reference.toFloat( h ), B );
+			OverlapSave slave  = new OverlapSave( Reference.toFloat( h ), master );
+
+			FloatBuffer in = ByteBuffer.allocateDirect( 4*T ).order( ByteOrder.nativeOrder() ).asFloatBuffer();
+			in.put( fx );
+			in.flip();
+			FloatBuffer out = FloatBuffer.wrap( yb );
+
+			for ( int b = 0;  b < nb;  b++ ) {
+				master.filter( fx, b*B, y, b*B );
+				slave.filter( in, out );
+			}
+			for ( int f = 0;  f < nflush;  f++ ) {
+				master.flush( y, T + f*B );
+				slave.flush( out );
+			}
+
+			String label = "K = " + K + "  B = " + B;
+			Reference.check( "OverlapSave master          " + label, Reference.error( z, Reference.toDouble( y ), z.length ), 1.0e-5 );
+			Reference.check( "OverlapSave slave, buffers  " + label, Reference.error( z, Reference.toDouble( yb ), z.length ), 1.0e-5 );
+
+		}
+
+		Reference.exit();
+
+	}
+
+}
@@ -0,0 +1,75 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.filter.fir.PartitionedConvolver;
+
+/**
+ * Compares PartitionedConvolver with the direct linear convolution of a stream of blocks, including the results
+ * returned by flush(), for uniform partitions and for non-uniform partitions that grow to several sizes.  The kernel
+ * lengths include one tap, lengths below the block size and lengths that end inside a partition.
+ */
+public class TestPartitionedConvolver {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		//                    K     B  maxPartitionSize
+		int[][] cases = { {     1,   8,     8 },
+		                  {     7,   8,     8 },
+		                  {   100,  16,    16 },
+		                  {  1000,  32,    32 },
+		                  {  1000,  32,   128 },
+		                  {  3000,  64,  1024 },
+		                  {  5000,  16,  1024 },
+		                  { 20000,  64,  4096 } };
+
+		for ( int[] c : cases ) {
+
+			int K    = c[0];
+			int B    = c[1];
+			int maxP = c[2];
+
+			// enough blocks for the largest partitions to complete several times
+
+			int nb = 8 + ( K + 4*maxP )/B;
+			int T  = nb*B;
+
+			double[] h = Reference.gaussian( R, K );
+			double[] x = Reference.gaussian( R, T );
+			double[] z = Reference.convolve( x, h );
+
+			int nflush = ( K - 1 + B - 1 )/B;
+			float[] y  = new float[ T + nflush*B ];
+
+			PartitionedConvolver pc = new PartitionedConvolver( Reference.toFloat( h ), B, maxP );
+			float[] fx = Reference.toFloat( x );
+			for ( int b = 0;  b < nb;  b++ ) pc.filter( fx, b*B, y, b*B );
+			for ( int f = 0;  f < nflush;  f++ ) pc.flush( y, T + f*B );
+
+			String label = "K = " + K + "  B = " + B + "  max partition = " + maxP + "  partitions = " + pc.getNumberOfPartitions();
+			Reference.check( "PartitionedConvolver  " + label, Reference.error( z, Reference.toDouble( y ), z.length ), 1.0e-5 );
+
+		}
+
+		Reference.exit();
+
+	}
+
+}
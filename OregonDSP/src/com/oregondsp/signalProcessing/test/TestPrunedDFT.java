@@ -0,0 +1,171 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.CDFT;
+import com.oregondsp.signalProcessing.fft.CDFTdp;
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+
+/**
+ * Compares the input-pruned evaluations (a sequence that is zero beyond its first length samples, read from an
+ * offset) and the output-pruned evaluations (a range of bins, wrapping modulo N) of CDFT, CDFTdp, RDFT and RDFTdp
+ * with the direct DFT;  the errors of the bins are relative to the largest bin of the full transform.  The array
+ * elements after the pruned input are set to NaN, so a transform that reads them
+ * fails the check.
+ */
+public class TestPrunedDFT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		int offset = 3;
+
+		for ( int log2N = 4;  log2N <= 10;  log2N++ ) {
+
+			int N = 1 << log2N;
+
+			// input pruning
+
+			for ( int length : new int[] { 1, 2, N/4, N/2 - 1, N/2, N - 1, N } ) {
+
+				if ( length < 1 ) continue;
+
+				double[] xr = Reference.gaussian( R, length );
+				double[] xi = Reference.gaussian( R, length );
+				double[] zr = Arrays.copyOf( xr, N );
+				double[] zi = Arrays.copyOf( xi, N );
+				double[] zero = new double[ N ];
+				double[] Xr = new double[ N ];
+				double[] Xi = new double[ N ];
+				double[] Ur = new double[ N ];
+				double[] Ui = new double[ N ];
+
+				String label = "N = " + N + "  length = " + length;
+
+				// complex
+
+				Reference.dft( zr, zi, Xr, Xi );
+
+				float[] fxr = shifted( Reference.toFloat( xr ), offset );
+				float[] fxi = shifted( Reference.toFloat( xi ), offset );
+				float[] fXr = new float[ N ];
+				float[] fXi = new float[ N ];
+				new CDFT( log2N ).evaluate( fxr, fxi, offset, length, fXr, fXi );
+				Reference.check( "CDFT pruned input      " + label, Reference.error( Xr, Xi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), N ), 1.0e-5 );
+
+				double[] dxr = shifted( xr, offset );
+				double[] dxi = shifted( xi, offset );
+				new CDFTdp( log2N ).evaluate( dxr, dxi, offset, length, Ur, Ui );
+				Reference.check( "CDFTdp pruned input    " + label, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-12 );
+
+				// real
+
+				Reference.dft( zr, zero, Xr, Xi );
+
+				float[] fX = new float[ N ];
+				new RDFT( log2N ).evaluate( fxr, offset, length, fX );
+				Reference.unpack( Reference.toDouble( fX ), Ur, Ui );
+				Reference.check( "RDFT pruned input      " + label, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-5 );
+
+				double[] dX = new double[ N ];
+				new RDFTdp( log2N ).evaluate( dxr, offset, length, dX );
+				Reference.unpack( dX, Ur, Ui );
+				Reference.check( "RDFTdp pruned input    " + label, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-12 );
+
+			}
+
+			// output pruning
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+			double[] zero = new double[ N ];
+			double[] Cr = new double[ N ];
+			double[] Ci = new double[ N ];
+			double[] Rr = new double[ N ];
+			double[] Ri = new double[ N ];
+			Reference.dft( xr, xi, Cr, Ci );
+			Reference.dft( xr, zero, Rr, Ri );
+			double cpeak = Reference.peak( Cr, Ci );
+			double rpeak = Reference.peak( Rr, Ri );
+
+			int[][] bins = { { 0, 1 }, { N/2, 1 }, { N/3, N/4 }, { N-2, 5 }, { 1, N/2 }, { 0, N } };
+
+			for ( int[] b : bins ) {
+
+				int k0    = b[0];
+				int nBins = Math.min( b[1], N );
+
+				double[] Xr = new double[ nBins ];
+				double[] Xi = new double[ nBins ];
+				double[] Yr = new double[ nBins ];
+				double[] Yi = new double[ nBins ];
+				for ( int k = 0;  k < nBins;  k++ ) {
+					Xr[k] = Cr[ (k0+k) % N ];
+					Xi[k] = Ci[ (k0+k) % N ];
+					Yr[k] = Rr[ (k0+k) % N ];
+					Yi[k] = Ri[ (k0+k) % N ];
+				}
+
+				String label = "N = " + N + "  k0 = " + k0 + "  nBins = " + nBins;
+
+				float[] fXr = new float[ nBins ];
+				float[] fXi = new float[ nBins ];
+				new CDFT( log2N ).evaluateBins( Reference.toFloat( xr ), Reference.toFloat( xi ), k0, nBins, fXr, fXi );
+				Reference.check( "CDFT bins      " + label, Reference.error( Xr, Xi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), nBins, cpeak ), 1.0e-5 );
+
+				double[] dXr = new double[ nBins ];
+				double[] dXi = new double[ nBins ];
+				new CDFTdp( log2N ).evaluateBins( xr, xi, k0, nBins, dXr, dXi );
+				Reference.check( "CDFTdp bins    " + label, Reference.error( Xr, Xi, dXr, dXi, nBins, cpeak ), 1.0e-12 );
+
+				new RDFT( log2N ).evaluateBins( Reference.toFloat( xr ), k0, nBins, fXr, fXi );
+				Reference.check( "RDFT bins      " + label, Reference.error( Yr, Yi, Reference.toDouble( fXr ), Reference.toDouble( fXi ), nBins, rpeak ), 1.0e-5 );
+
+				new RDFTdp( log2N ).evaluateBins( xr, k0, nBins, dXr, dXi );
+				Reference.check( "RDFTdp bins    " + label, Reference.error( Yr, Yi, dXr, dXi, nBins, rpeak ), 1.0e-12 );
+
+			}
+
+		}
+
+		Reference.exit();
+
+	}
+
+
+	// Copies x to offset in an array padded with NaN before and after it.
+
+	private static float[] shifted( float[] x, int offset ) {
+		float[] y = new float[ offset + x.length + 8 ];
+		Arrays.fill( y, Float.NaN );
+		System.arraycopy( x, 0, y, offset, x.length );
+		return y;
+	}
+
+
+	private static double[] shifted( double[] x, int offset ) {
+		double[] y = new double[ offset + x.length + 8 ];
+		Arrays.fill( y, Double.NaN );
+		System.arraycopy( x, 0, y, offset, x.length );
+		return y;
+	}
+
+}
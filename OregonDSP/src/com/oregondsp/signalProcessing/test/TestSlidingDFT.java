@@ -0,0 +1,188 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.GoertzelBank;
+import com.oregondsp.signalProcessing.fft.SlidingDFT;
+
+/**
+ * Compares SlidingDFT and GoertzelBank with direct DFT sums over long multichannel streams fed in blocks of uneven
+ * length, interleaved between the channels.  The sliding DFT is checked at checkpoints spread over the stream,
+ * including before the first full window, so that accumulated rounding error would show;  the Goertzel bank is
+ * checked for every completed block at frequencies off the DFT bins.  Errors are relative to sqrt( N ), the rms bin
+ * magnitude of the unit-variance test sequences.
+ */
+public class TestSlidingDFT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		int   nChannels = 3;
+		int   length    = 200000;
+		int[] blocks    = { 1, 7, 100, 1013, 4096 };
+
+		double[][] x = new double[ nChannels ][];
+		for ( int c = 0;  c < nChannels;  c++ ) x[c] = Reference.gaussian( R, length );
+
+		// sliding DFT
+
+		int   N    = 1000;
+		int[] bins = { 0, 1, 60, 120, 499, 500, 999 };
+		int   nb   = bins.length;
+
+		SlidingDFT sdft = new SlidingDFT( N, bins, nChannels );
+
+		int[]     next  = new int[ nChannels ];
+		double    worst = 0.0;
+		float[]   Xr    = new float[ nb ];
+		float[]   Xi    = new float[ nb ];
+		double[]  Ur    = new double[ nb ];
+		double[]  Ui    = new double[ nb ];
+		double[]  Vr    = new double[ nb ];
+		double[]  Vi    = new double[ nb ];
+
+		for ( int step = 0;  !finished( next, length );  step++ ) {
+
+			int c = step % nChannels;
+			if ( next[c] >= length ) continue;
+
+			int n = Math.min( blocks[ step % blocks.length ], length - next[c] );
+			sdft.filter( c, Reference.toFloat( slice( x[c], next[c], n ) ) );
+			next[c] += n;
+
+			sdft.getBins( c, Xr, Xi );
+			window( x[c], next[c], N, bins, Ur, Ui );
+			for ( int b = 0;  b < nb;  b++ ) {
+				Vr[b] = Xr[b];
+				Vi[b] = Xi[b];
+			}
+			worst = Math.max( worst, Reference.error( Ur, Ui, Vr, Vi, nb, Math.sqrt( N ) ) );
+		}
+		Reference.check( "SlidingDFT getBins    N = " + N + "  " + length + " samples x " + nChannels + " channels", worst, 1.0e-5 );
+
+		// bins recorded after every sample of a block
+
+		int      n   = 300;
+		double[] seg = Reference.gaussian( R, n );
+		float[]  Yr  = new float[ n*nb ];
+		float[]  Yi  = new float[ n*nb ];
+		double[] all = new double[ length + n ];
+		System.arraycopy( x[0], 0, all, 0, length );
+		System.arraycopy( seg, 0, all, length, n );
+
+		sdft.filter( 0, Reference.toFloat( seg ), Yr, Yi );
+		worst = 0.0;
+		for ( int i = 0;  i < n;  i++ ) {
+			window( all, length+i+1, N, bins, Ur, Ui );
+			for ( int b = 0;  b < nb;  b++ ) {
+				Vr[b] = Yr[ i*nb + b ];
+				Vi[b] = Yi[ i*nb + b ];
+			}
+			worst = Math.max( worst, Reference.error( Ur, Ui, Vr, Vi, nb, Math.sqrt( N ) ) );
+		}
+		Reference.check( "SlidingDFT per sample N = " + N, worst, 1.0e-5 );
+
+		// Goertzel bank
+
+		double   delta       = 0.001;
+		double[] frequencies = { 0.0, 0.37, 60.0, 61.25, 180.0, 333.3, 499.9 };
+		int      nf          = frequencies.length;
+		int      M           = 2500;
+
+		GoertzelBank bank = new GoertzelBank( frequencies, delta, M, nChannels );
+
+		float[] Zr = new float[ ( 4096/M + 1 )*nf ];
+		float[] Zi = new float[ ( 4096/M + 1 )*nf ];
+
+		int[] done = new int[ nChannels ];
+		next  = new int[ nChannels ];
+		worst = 0.0;
+		int checked = 0;
+
+		for ( int step = 0;  !finished( next, length );  step++ ) {
+
+			int c = step % nChannels;
+			if ( next[c] >= length ) continue;
+
+			int m = Math.min( blocks[ step % blocks.length ], length - next[c] );
+			int completed = bank.filter( c, Reference.toFloat( slice( x[c], next[c], m ) ), Zr, Zi );
+			next[c] += m;
+
+			for ( int j = 0;  j < completed;  j++ ) {
+				int start = ( done[c] + j )*M;
+				for ( int f = 0;  f < nf;  f++ ) {
+					double sr = 0.0;
+					double si = 0.0;
+					for ( int i = 0;  i < M;  i++ ) {
+						double a = -2.0*Math.PI*frequencies[f]*delta*i;
+						sr += x[c][start+i]*Math.cos( a );
+						si += x[c][start+i]*Math.sin( a );
+					}
+					Ur[f] = sr;
+					Ui[f] = si;
+					Vr[f] = Zr[ j*nf + f ];
+					Vi[f] = Zi[ j*nf + f ];
+				}
+				worst = Math.max( worst, Reference.error( Ur, Ui, Vr, Vi, nf, Math.sqrt( M ) ) );
+				checked++;
+			}
+			done[c] += completed;
+		}
+		Reference.check( "GoertzelBank          N = " + M + "  " + checked + " blocks", worst, 1.0e-5 );
+		Reference.check( "GoertzelBank block count", Math.abs( checked - nChannels*( length/M ) ), 0.0 );
+
+		Reference.exit();
+
+	}
+
+
+	private static boolean finished( int[] next, int length ) {
+		for ( int n : next ) {
+			if ( n < length ) return false;
+		}
+		return true;
+	}
+
+
+	private static double[] slice( double[] x, int offset, int n ) {
+		double[] y = new double[ n ];
+		System.arraycopy( x, offset, y, 0, n );
+		return y;
+	}
+
+
+	// Direct DFT at the tracked bins of the window of N samples ending before sample end, zero before the start.
+
+	private static void window( double[] x, int end, int N, int[] bins, double[] Xr, double[] Xi ) {
+		for ( int b = 0;  b < bins.length;  b++ ) {
+			double sr = 0.0;
+			double si = 0.0;
+			for ( int j = 0;  j < N;  j++ ) {
+				int m = end - N + j;
+				if ( m < 0 ) continue;
+				double a = -2.0*Math.PI*( (long) bins[b]*j % N )/N;
+				sr += x[m]*Math.cos( a );
+				si += x[m]*Math.sin( a );
+			}
+			Xr[b] = sr;
+			Xi[b] = si;
+		}
+	}
+
+}
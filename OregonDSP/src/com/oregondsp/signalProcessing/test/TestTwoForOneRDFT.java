@@ -0,0 +1,98 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+
+/**
+ * Compares the two-channel evaluations of RDFT and RDFTdp with the direct DFTs of each channel, and checks that the
+ * two-channel inverse recovers both sequences, also when the transforms overwrite the sequence arrays.
+ */
+public class TestTwoForOneRDFT {
+
+	public static void main( String[] args ) {
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 4;  log2N <= 11;  log2N++ ) {
+
+			int N = 1 << log2N;
+
+			double[] x  = Reference.gaussian( R, N );
+			double[] y  = Reference.gaussian( R, N );
+			double[] Xr = new double[ N ];
+			double[] Xi = new double[ N ];
+			double[] Yr = new double[ N ];
+			double[] Yi = new double[ N ];
+			double[] zero = new double[ N ];
+			Reference.dft( x, zero, Xr, Xi );
+			Reference.dft( y, zero, Yr, Yi );
+
+			double[] Ur = new double[ N ];
+			double[] Ui = new double[ N ];
+
+			// single precision, separate arrays
+
+			float[] fx = Reference.toFloat( x );
+			float[] fy = Reference.toFloat( y );
+			float[] fX = new float[ N ];
+			float[] fY = new float[ N ];
+
+			RDFT rdft = new RDFT( log2N );
+			rdft.evaluate( fx, fy, fX, fY );
+			Reference.unpack( Reference.toDouble( fX ), Ur, Ui );
+			Reference.check( "RDFT x       N = " + N, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-5 );
+			Reference.unpack( Reference.toDouble( fY ), Ur, Ui );
+			Reference.check( "RDFT y       N = " + N, Reference.error( Yr, Yi, Ur, Ui, N ), 1.0e-5 );
+
+			// single precision, in place
+
+			float[] a = Reference.toFloat( x );
+			float[] b = Reference.toFloat( y );
+			rdft.evaluate( a, b, a, b );
+			Reference.unpack( Reference.toDouble( a ), Ur, Ui );
+			Reference.check( "RDFT x in place      N = " + N, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-5 );
+			rdft.evaluateInverse( a, b, a, b );
+			Reference.check( "RDFT inv x in place  N = " + N, Reference.error( x, Reference.toDouble( a ), N ), 1.0e-5 );
+			Reference.check( "RDFT inv y in place  N = " + N, Reference.error( y, Reference.toDouble( b ), N ), 1.0e-5 );
+
+			// double precision
+
+			double[] dX = new double[ N ];
+			double[] dY = new double[ N ];
+			double[] dx = new double[ N ];
+			double[] dy = new double[ N ];
+
+			RDFTdp rdftdp = new RDFTdp( log2N );
+			rdftdp.evaluate( x, y, dX, dY );
+			Reference.unpack( dX, Ur, Ui );
+			Reference.check( "RDFTdp x     N = " + N, Reference.error( Xr, Xi, Ur, Ui, N ), 1.0e-12 );
+			Reference.unpack( dY, Ur, Ui );
+			Reference.check( "RDFTdp y     N = " + N, Reference.error( Yr, Yi, Ur, Ui, N ), 1.0e-12 );
+			rdftdp.evaluateInverse( dX, dY, dx, dy );
+			Reference.check( "RDFTdp inv x N = " + N, Reference.error( x, dx, N ), 1.0e-12 );
+			Reference.check( "RDFTdp inv y N = " + N, Reference.error( y, dy, N ), 1.0e-12 );
+
+		}
+
+		Reference.exit();
+
+	}
+
+}
@@ -0,0 +1,248 @@
+//  This file is part of OregonDSP.
+//
+//    OregonDSP is free software: you can redistribute it and/or modify
+//    it under the terms of the GNU Lesser General Public License as published by
+//    the Free Software Foundation, either version 3 of the License, or
+//    (at your option) any later version.
+//
+//    OregonDSP is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU Lesser General Public License for more details.
+//
+//    You should have received a copy of the GNU Lesser General Public License
+//    along with OregonDSP.  If not, see <http://www.gnu.org/licenses/>.
+
+package com.oregondsp.signalProcessing.test;
+
+import java.util.Random;
+
+import com.oregondsp.signalProcessing.fft.CDFT;
+import com.oregondsp.signalProcessing.fft.CDFTdp;
+import com.oregondsp.signalProcessing.fft.FFTEngine;
+import com.oregondsp.signalProcessing.fft.RDFT;
+import com.oregondsp.signalProcessing.fft.RDFTdp;
+
+/**
+ * Compares the Vector API kernels with scalar evaluations of the same quantities.  Run it with
+ * --add-modules jdk.incubator.vector and src-vector compiled, as the vector profile of the Maven build does;  it fails
+ * if the vectorized kernels were not loaded.  The FLAT engine, whose butterflies are vectorized, is compared with the
+ * scalar RECURSIVE engine for N = 8 to 65536, in both layouts;  the real DFTs, whose first and last butterflies are
+ * vectorized, with the RECURSIVE complex DFT of the same real sequence;  and the products with scalar loops in double
+ * precision, for lengths that leave every possible remainder after the vector loop.
+ */
+public class TestVectorKernels {
+
+	public static void main( String[] args ) {
+
+		Reference.check( "Vector API kernels loaded", FFTEngine.isVectorized()  ?  0.0  :  1.0, 0.0 );
+
+		Random R = new Random( 1 );
+
+		for ( int log2N = 3;  log2N <= 16;  log2N++ ) {
+
+			int    N     = 1 << log2N;
+			String label = "N = " + N;
+
+			double[] xr = Reference.gaussian( R, N );
+			double[] xi = Reference.gaussian( R, N );
+			float[]  fxr = Reference.toFloat( xr );
+			float[]  fxi = Reference.toFloat( xi );
+
+			// scalar RECURSIVE transforms
+
+			CDFT   scalar   = new CDFT( log2N, FFTEngine.RECURSIVE );
+			CDFTdp scalardp = new CDFTdp( log2N, FFTEngine.RECURSIVE );
+
+			float[] Sr = new float[ N ];
+			float[] Si = new float[ N ];
+			scalar.evaluate( fxr, fxi, Sr, Si );
+			double[] Ar = Reference.toDouble( Sr );
+			double[] Ai = Reference.toDouble( Si );
+
+			double[] Dr = new double[ N ];
+			double[] Di = new double[ N ];
+			scalardp.evaluate( xr, xi, Dr, Di );
+
+			// vectorized FLAT transforms, split and interleaved
+
+			CDFT    flat = new CDFT( log2N, FFTEngine.FLAT );
+			float[] Xr   = new float[ N ];
+			float[] Xi   = new float[ N ];
+			flat.evaluate( fxr, fxi, Xr, Xi );
+			Reference.check( "CDFT FLAT                " + label, Reference.error( Ar, Ai, Reference.toDouble( Xr ), Reference.toDouble( Xi ), N ), 1.0e-5 );
+			float[] yr = new float[ N ];
+			float[] yi = new float[ N ];
+			flat.evaluateInverse( Xr, Xi, yr, yi );
+			Reference.check( "CDFT FLAT inverse        " + label, Reference.error( xr, xi, Reference.toDouble( yr ), Reference.toDouble( yi ), N ), 1.0e-5 );
+
+			float[] z = new float[ 2*N ];
+			for ( int k = 0;  k < N;  k++ ) {
+				z[2*k]   = fxr[k];
+				z[2*k+1] = fxi[k];
+			}
+			float[] Z = new float[ 2*N ];
+			flat.evaluateInterleaved( z, Z );
+			double[] Zr = new double[ N ];
+			double[] Zi = new double[ N ];
+			for ( int k = 0;  k < N;  k++ ) {
+				Zr[k] = Z[2*k];
+				Zi[k] = Z[2*k+1];
+			}
+			Reference.check( "CDFT FLAT interleaved    " + label, Reference.error( Ar, Ai, Zr, Zi, N ), 1.0e-5 );
+
+			CDFTdp   flatdp = new CDFTdp( log2N, FFTEngine.FLAT );
+			double[] Er     = new double[ N ];
+			double[] Ei     = new double[ N ];
+			flatdp.evaluate( xr, xi, Er, Ei );
+			Reference.check( "CDFTdp FLAT              " + label, Reference.error( Dr, Di, Er, Ei, N ), 1.0e-12 );
+			double[] wr = new double[ N ];
+			double[] wi = new double[ N ];
+			flatdp.evaluateInverse( Er, Ei, wr, wi );
+			Reference.check( "CDFTdp FLAT inverse      " + label, Reference.error( xr, xi, wr, wi, N ), 1.0e-12 );
+
+			double[] w = new double[ 2*N ];
+			for ( int k = 0;  k < N;  k++ ) {
+				w[2*k]   = xr[k];
+				w[2*k+1] = xi[k];
+			}
+			double[] W = new double[ 2*N ];
+			flatdp.evaluateInterleaved( w, W );
+			double[] Wr = new double[ N ];
+			double[] Wi = new double[ N ];
+			for ( int k = 0;  k < N;  k++ ) {
+				Wr[k] = W[2*k];
+				Wi[k] = W[2*k+1];
+			}
+			Reference.check( "CDFTdp FLAT interleaved  " + label, Reference.error( Dr, Di, Wr, Wi, N ), 1.0e-12 );
+
+			// real DFTs against the scalar complex DFT of the real part, which need N >= 16
+
+			if ( log2N < 4 ) continue;
+
+			float[] zero = new float[ N ];
+			scalar.evaluate( fxr, zero, Sr, Si );
+			double[] zerodp = new double[ N ];
+			scalardp.evaluate( xr, zerodp, Dr, Di );
+
+			RDFT    rdft = new RDFT( log2N );
+			float[] X    = new float[ N ];
+			rdft.evaluate( fxr, X );
+			double[] Pr = new double[ N ];
+			double[] Pi = new double[ N ];
+			Reference.unpack( Reference.toDouble( X ), Pr, Pi );
+			Reference.check( "RDFT                     " + label, Reference.error( Reference.toDouble( Sr ), Reference.toDouble( Si ), Pr, Pi, N ), 1.0e-5 );
+			float[] y = new float[ N ];
+			rdft.evaluateInverse( X, y );
+			Reference.check( "RDFT inverse             " + label, Reference.error( xr, Reference.toDouble( y ), N ), 1.0e-5 );
+
+			RDFTdp   rdftdp = new RDFTdp( log2N );
+			double[] D      = new double[ N ];
+			rdftdp.evaluate( xr, D );
+			Reference.unpack( D, Pr, Pi );
+			Reference.check( "RDFTdp                   " + label, Reference.error( Dr, Di, Pr, Pi, N ), 1.0e-12 );
+			double[] v = new double[ N ];
+			rdftdp.evaluateInverse( D, v );
+			Reference.check( "RDFTdp inverse           " + label, Reference.error( xr, v, N ), 1.0e-12 );
+		}
+
+		// products, for every remainder after the vector loop and a long run
+
+		int[] lengths = new int[ 36 ];
+		for ( int i = 0;  i < 35;  i++ ) lengths[i] = i + 1;
+		lengths[35] = 1027;
+
+		for ( int n : lengths ) {
+			for ( int sign = -1;  sign <= 1;  sign += 2 ) {
+
+				String label = "n = " + n + "  sign = " + sign;
+
+				double[] ar = Reference.gaussian( R, n );
+				double[] ai = Reference.gaussian( R, n );
+				double[] br = Reference.gaussian( R, n );
+				double[] bi = Reference.gaussian( R, n );
+
+				double[] cr = new double[ n ];
+				double[] ci = new double[ n ];
+				for ( int i = 0;  i < n;  i++ ) {
+					cr[i] = ar[i]*br[i] - sign*ai[i]*bi[i];
+					ci[i] = ar[i]*bi[i] + sign*ai[i]*br[i];
+				}
+
+				float[] Yr = Reference.toFloat( br );
+				float[] Yi = Reference.toFloat( bi );
+				CDFT.dftProduct( Reference.toFloat( ar ), Reference.toFloat( ai ), Yr, Yi, sign );
+				Reference.check( "CDFT product             " + label, Reference.error( cr, ci, Reference.toDouble( Yr ), Reference.toDouble( Yi ), n ), 1.0e-5 );
+
+				double[] Vr = br.clone();
+				double[] Vi = bi.clone();
+				CDFTdp.dftProduct( ar, ai, Vr, Vi, sign );
+				Reference.check( "CDFTdp product           " + label, Reference.error( cr, ci, Vr, Vi, n ), 1.0e-12 );
+
+				float[]  fa = new float[ 2*n ];
+				float[]  fb = new float[ 2*n ];
+				double[] da = new double[ 2*n ];
+				double[] db = new double[ 2*n ];
+				for ( int i = 0;  i < n;  i++ ) {
+					da[2*i]   = ar[i];
+					da[2*i+1] = ai[i];
+					db[2*i]   = br[i];
+					db[2*i+1] = bi[i];
+				}
+				for ( int i = 0;  i < 2*n;  i++ ) {
+					fa[i] = (float) da[i];
+					fb[i] = (float) db[i];
+				}
+				CDFT.dftProduct( fa, fb, sign );
+				CDFTdp.dftProduct( da, db, sign );
+				double[] fr = new double[ n ];
+				double[] fi = new double[ n ];
+				double[] dr = new double[ n ];
+				double[] di = new double[ n ];
+				for ( int i = 0;  i < n;  i++ ) {
+					fr[i] = fb[2*i];
+					fi[i] = fb[2*i+1];
+					dr[i] = db[2*i];
+					di[i] = db[2*i+1];
+				}
+				Reference.check( "CDFT interleaved product " + label, Reference.error( cr, ci, fr, fi, n ), 1.0e-5 );
+				Reference.check( "CDFTdp interleaved prod. " + label, Reference.error( cr, ci, dr, di, n ), 1.0e-12 );
+
+				// conjugate symmetric packed transforms of length 2n
+
+				int      m = 2*n;
+				double[] k = Reference.gaussian( R, m );
+				double[] t = Reference.gaussian( R, m );
+				double[] p = packedProduct( k, t, sign );
+
+				float[] ft = Reference.toFloat( t );
+				RDFT.dftProduct( Reference.toFloat( k ), ft, sign );
+				Reference.check( "RDFT product             " + label, Reference.error( p, Reference.toDouble( ft ), m ), 1.0e-5 );
+
+				double[] dt = t.clone();
+				RDFTdp.dftProduct( k, dt, sign );
+				Reference.check( "RDFTdp product           " + label, Reference.error( p, dt, m ), 1.0e-12 );
+			}
+		}
+
+		Reference.exit();
+
+	}
+
+
+	// Scalar product of two transforms in conjugate symmetric packed form.
+
+	private static double[] packedProduct( double[] kernel, double[] transform, int sign ) {
+		int      n = kernel.length;
+		double[] p = new double[ n ];
+		p[0]   = kernel[0]*transform[0];
+		p[n/2] = kernel[n/2]*transform[n/2];
+		for ( int i = 1;  i < n/2;  i++ ) {
+			int im = n - i;
+			p[i]  = kernel[i]*transform[i]  - sign*kernel[im]*transform[im];
+			p[im] = kernel[i]*transform[im] + sign*kernel[im]*transform[i];
+		}
+		return p;
+	}
+
+}